@@ -0,0 +1,113 @@
+package com.rwandaheritage.heritageguard.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Async Configuration
+ * 
+ * Enables @Async and defines dedicated executors for background work so it never
+ * competes with request threads.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Value("${document.extraction.threads:2}")
+    private int extractionThreads;
+
+    @Value("${document.extraction.queue-capacity:1000}")
+    private int extractionQueueCapacity;
+
+    @Value("${email.outbox.threads:2}")
+    private int emailDispatchThreads;
+
+    @Value("${forum.moderation.threads:2}")
+    private int forumModerationThreads;
+
+    /**
+     * Default pool for plain @Async methods (event listeners and similar light work).
+     */
+    @Bean(name = "taskExecutor")
+    public Executor taskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("async-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Low-priority pool for document text extraction and indexing. The changed documents wait
+     * in the indexing backlog, so triggers beyond the queue are discarded like the pools below.
+     */
+    @Bean(name = "documentExtractionExecutor")
+    public Executor documentExtractionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(Math.max(1, extractionThreads));
+        executor.setQueueCapacity(extractionQueueCapacity);
+        executor.setThreadNamePrefix("doc-extract-");
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single low-priority thread for the storage integrity scrubber; a run that is
+     * requested while another is in progress is rejected rather than queued.
+     */
+    @Bean(name = "storageScrubExecutor")
+    public Executor storageScrubExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("storage-scrub-");
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Small pool that drains the email outbox. Surplus dispatch triggers are discarded:
+     * the outbox is the queue, and a running dispatcher keeps going until it is empty.
+     */
+    @Bean(name = "emailDispatchExecutor")
+    public Executor emailDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, emailDispatchThreads));
+        executor.setMaxPoolSize(Math.max(1, emailDispatchThreads));
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("email-dispatch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers for the forum post content scan. Like the email outbox, the pending posts are
+     * the queue, so surplus triggers are discarded.
+     */
+    @Bean(name = "forumModerationExecutor")
+    public Executor forumModerationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, forumModerationThreads));
+        executor.setMaxPoolSize(Math.max(1, forumModerationThreads));
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("forum-moderation-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
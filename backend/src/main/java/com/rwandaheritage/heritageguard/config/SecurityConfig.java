@@ -97,8 +97,8 @@ public class SecurityConfig {
                 // Allow public GET access to media
                 .requestMatchers(HttpMethod.GET, "/api/media", "/api/media/", "/api/media/*").permitAll()
                 // Allow public GET access to forum search (public topics and posts)
-                .requestMatchers(HttpMethod.GET, "/api/forum/topics/search", "/api/forum/topics/search/advanced", "/api/forum/posts/search/advanced").permitAll()
-                .requestMatchers(HttpMethod.GET, "/api/forum/topics", "/api/forum/topics/*", "/api/forum/posts/topic/*").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/forum/search", "/api/forum/topics/search", "/api/forum/topics/search/advanced", "/api/forum/posts/search/advanced").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/forum/topics", "/api/forum/topics/*", "/api/forum/posts/topic/*", "/api/forum/posts/topic/*/threads").permitAll()
                 // Allow public GET access to forum language-specific endpoints
                 .requestMatchers(HttpMethod.GET, "/api/forum/topics/language/*").permitAll()
                 // Allow public GET access to forum translation content (read-only)
@@ -123,6 +123,8 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/education/quizzes/attempt/*", "/api/education/quizzes/attempt/*/results").permitAll()
                 // Allow public GET access to documents (public documents only)
                 .requestMatchers(HttpMethod.GET, "/api/documents/public", "/api/documents/public/*", "/api/documents/types", "/api/documents/languages").permitAll()
+                // Content search filters private documents by role itself
+                .requestMatchers(HttpMethod.GET, "/api/documents/search/content").permitAll()
                 // Allow public GET access to folders (public folders only)
                 .requestMatchers(HttpMethod.GET, "/api/folders/permissions").permitAll()
                 // Allow public GET access to artifacts (public artifacts only)
@@ -156,14 +158,16 @@ public class SecurityConfig {
                 
                 // Allow public GET access to testimonials (approved testimonials only)
                 .requestMatchers(HttpMethod.GET, "/api/testimonials", "/api/testimonials/", "/api/testimonials/*", "/api/testimonials/search", "/api/testimonials/page").permitAll()
-                .requestMatchers(HttpMethod.GET, "/api/testimonials/*/avatar").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/testimonials/*/avatar", "/api/testimonials/*/avatar/signed-url").permitAll()
                 
                 // Allow public access to media download for viewing images
                 .requestMatchers(HttpMethod.GET, "/api/media/download/*").permitAll()
+                // Signed media URLs follow the same visibility rules as media downloads
+                .requestMatchers(HttpMethod.GET, "/api/media/*/signed-url", "/api/media/site/*/signed-urls").permitAll()
                 // Restrict document download to COMMUNITY_MEMBER or higher
                 .requestMatchers(HttpMethod.GET, "/api/documents/download/*").hasAnyRole("SYSTEM_ADMINISTRATOR", "HERITAGE_MANAGER", "CONTENT_MANAGER", "COMMUNITY_MEMBER")
                 // Restrict artifact media download to COMMUNITY_MEMBER or higher
-                .requestMatchers(HttpMethod.GET, "/api/artifacts/*/media/*/download").hasAnyRole("SYSTEM_ADMINISTRATOR", "HERITAGE_MANAGER", "CONTENT_MANAGER", "COMMUNITY_MEMBER")
+                .requestMatchers(HttpMethod.GET, "/api/artifacts/*/media/*/download", "/api/artifacts/*/media/*/signed-url").hasAnyRole("SYSTEM_ADMINISTRATOR", "HERITAGE_MANAGER", "CONTENT_MANAGER", "COMMUNITY_MEMBER")
                 // Restrict authentication and provenance document download to COMMUNITY_MEMBER or higher
                 .requestMatchers(HttpMethod.GET, "/api/artifacts/*/authentications/*/document").hasAnyRole("SYSTEM_ADMINISTRATOR", "HERITAGE_MANAGER", "CONTENT_MANAGER", "COMMUNITY_MEMBER")
                 .requestMatchers(HttpMethod.GET, "/api/artifacts/*/provenance/*/document").hasAnyRole("SYSTEM_ADMINISTRATOR", "HERITAGE_MANAGER", "CONTENT_MANAGER", "COMMUNITY_MEMBER")
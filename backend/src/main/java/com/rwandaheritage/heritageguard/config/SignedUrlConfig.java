@@ -0,0 +1,28 @@
+package com.rwandaheritage.heritageguard.config;
+
+import com.rwandaheritage.heritageguard.security.SignedDownloadFilter;
+import com.rwandaheritage.heritageguard.security.SignedUrlService;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Signed Download Configuration
+ * 
+ * Registers the signed download handler as the very first servlet filter for its path,
+ * ahead of the rate limiter and the Spring Security chain, which it never reaches.
+ */
+@Configuration
+public class SignedUrlConfig {
+
+    @Bean
+    public FilterRegistrationBean<SignedDownloadFilter> signedDownloadFilter(SignedUrlService signedUrlService) {
+        FilterRegistrationBean<SignedDownloadFilter> registration =
+                new FilterRegistrationBean<>(new SignedDownloadFilter(signedUrlService));
+        registration.addUrlPatterns(SignedUrlService.PATH_PREFIX + "*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setName("signedDownloadFilter");
+        return registration;
+    }
+}
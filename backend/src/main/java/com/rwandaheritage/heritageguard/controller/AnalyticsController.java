@@ -6,6 +6,17 @@ import com.rwandaheritage.heritageguard.service.UserService;
 import com.rwandaheritage.heritageguard.service.ArtifactService;
 import com.rwandaheritage.heritageguard.service.UserActivityService;
 import com.rwandaheritage.heritageguard.service.HeritageSiteManagerService;
+import com.rwandaheritage.heritageguard.service.StorageAccountingService;
+import com.rwandaheritage.heritageguard.service.StorageIntegrityService;
+import com.rwandaheritage.heritageguard.service.EmailOutboxDispatcher;
+import com.rwandaheritage.heritageguard.security.PrincipalCache;
+import com.rwandaheritage.heritageguard.security.SiteAssignmentIndex;
+import com.rwandaheritage.heritageguard.security.BoundedPasswordEncoder;
+import com.rwandaheritage.heritageguard.dto.response.PageResponse;
+import com.rwandaheritage.heritageguard.model.FileIntegrityRecord;
+import com.rwandaheritage.heritageguard.model.EmailOutboxMessage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import com.rwandaheritage.heritageguard.dto.response.HeritageSiteManagerResponseDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -50,6 +61,12 @@ public class AnalyticsController {
     private final ArtifactService artifactService;
     private final UserActivityService userActivityService;
     private final HeritageSiteManagerService heritageSiteManagerService;
+    private final StorageAccountingService storageAccountingService;
+    private final StorageIntegrityService storageIntegrityService;
+    private final PrincipalCache principalCache;
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final SiteAssignmentIndex siteAssignmentIndex;
 
     @Autowired
     public AnalyticsController(
@@ -58,13 +75,25 @@ public class AnalyticsController {
             UserService userService,
             ArtifactService artifactService,
             UserActivityService userActivityService,
-            HeritageSiteManagerService heritageSiteManagerService) {
+            HeritageSiteManagerService heritageSiteManagerService,
+            StorageAccountingService storageAccountingService,
+            StorageIntegrityService storageIntegrityService,
+            PrincipalCache principalCache,
+            EmailOutboxDispatcher emailOutboxDispatcher,
+            BoundedPasswordEncoder passwordEncoder,
+            SiteAssignmentIndex siteAssignmentIndex) {
         this.heritageSiteService = heritageSiteService;
         this.documentService = documentService;
         this.userService = userService;
         this.artifactService = artifactService;
         this.userActivityService = userActivityService;
         this.heritageSiteManagerService = heritageSiteManagerService;
+        this.storageAccountingService = storageAccountingService;
+        this.storageIntegrityService = storageIntegrityService;
+        this.principalCache = principalCache;
+        this.emailOutboxDispatcher = emailOutboxDispatcher;
+        this.passwordEncoder = passwordEncoder;
+        this.siteAssignmentIndex = siteAssignmentIndex;
     }
 
     /**
@@ -161,7 +190,7 @@ public class AnalyticsController {
             performance.put("avgResponseTime", calculateAverageResponseTime());
             performance.put("uptime", calculateUptimePercentage());
             performance.put("errorRate", calculateErrorRate());
-            performance.put("storageUsed", 0); // Placeholder - will be implemented in advanced features
+            performance.put("storageUsed", storageAccountingService.getTotalBytes());
             overview.put("performance", performance);
 
             // Trends (last 30 days)
@@ -179,6 +208,165 @@ public class AnalyticsController {
         }
     }
 
+    /**
+     * Get storage usage breakdown
+     * Bytes and file counts per heritage site, uploader and content type, plus configured quotas
+     * 
+     * @return Storage usage breakdown
+     */
+    @GetMapping("/storage")
+    public ResponseEntity<Map<String, Object>> getStorageUsage() {
+        try {
+            return ResponseEntity.ok(storageAccountingService.getUsageBreakdown());
+        } catch (Exception e) {
+            log.error("Error getting storage usage", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to get storage usage");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+
+    /**
+     * Rescan stored files and correct storage counters that drifted from the disk
+     * 
+     * @return Number of corrected counters
+     */
+    @PostMapping("/storage/reconcile")
+    @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR')")
+    public ResponseEntity<Map<String, Object>> reconcileStorageUsage() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("correctedCounters", storageAccountingService.reconcile());
+        response.put("totalBytes", storageAccountingService.getTotalBytes());
+        response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get storage integrity status
+     * Progress of the current or last scrub run and tracked files per status
+     * 
+     * @return Scrub progress and status counts
+     */
+    @GetMapping("/storage/integrity")
+    public ResponseEntity<Map<String, Object>> getStorageIntegrityStatus() {
+        return ResponseEntity.ok(storageIntegrityService.getStatus());
+    }
+
+    /**
+     * List missing, corrupted or orphaned files found by the scrubber
+     * 
+     * @param status Optional status filter (MISSING, CORRUPTED, ORPHANED, OK); all problems by default
+     * @return Page of file integrity records
+     */
+    @GetMapping("/storage/integrity/issues")
+    public ResponseEntity<PageResponse<FileIntegrityRecord>> getStorageIntegrityIssues(
+            @RequestParam(required = false) FileIntegrityRecord.Status status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 200));
+        return ResponseEntity.ok(PageResponse.of(storageIntegrityService.getIssues(status, pageable)));
+    }
+
+    /**
+     * Start a storage integrity scrub in the background
+     * 
+     * @return 202 when started, 409 when a scrub is already running
+     */
+    @PostMapping("/storage/integrity/scrub")
+    @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR')")
+    public ResponseEntity<Map<String, Object>> startStorageIntegrityScrub() {
+        Map<String, Object> response = new HashMap<>();
+        if (storageIntegrityService.isRunning()) {
+            response.put("message", "A storage integrity scrub is already running");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        storageIntegrityService.scrub();
+        response.put("message", "Storage integrity scrub started");
+        response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * Get principal cache statistics
+     * Hit rate of the cache the JWT filter uses instead of a user lookup per request
+     * 
+     * @return Cache size, hits, misses and hit rate
+     */
+    @GetMapping("/security/principal-cache")
+    @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR')")
+    public ResponseEntity<Map<String, Object>> getPrincipalCacheStats() {
+        return ResponseEntity.ok(principalCache.getStats());
+    }
+
+    /**
+     * Get site assignment cache statistics
+     * Hit rate of the per-manager site sets used by site permission checks
+     * 
+     * @return Cache size, hits, misses and hit rate
+     */
+    @GetMapping("/security/site-assignments")
+    @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR')")
+    public ResponseEntity<Map<String, Object>> getSiteAssignmentCacheStats() {
+        return ResponseEntity.ok(siteAssignmentIndex.getStats());
+    }
+
+    /**
+     * Get password hashing pool statistics
+     * Hash time, queue wait and rejections of the dedicated BCrypt pool
+     * 
+     * @return Pool load and timing
+     */
+    @GetMapping("/security/password-hashing")
+    @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR')")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordEncoder.getStats());
+    }
+
+    /**
+     * Get email outbox statistics
+     * Queue depth, oldest unsent message and send latency
+     * 
+     * @return Outbox metrics
+     */
+    @GetMapping("/email/outbox")
+    @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR')")
+    public ResponseEntity<Map<String, Object>> getEmailOutboxStats() {
+        return ResponseEntity.ok(emailOutboxDispatcher.getStats());
+    }
+
+    /**
+     * List emails that ran out of delivery attempts
+     * 
+     * @return Page of dead-lettered messages
+     */
+    @GetMapping("/email/outbox/dead")
+    @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR')")
+    public ResponseEntity<PageResponse<EmailOutboxMessage>> getDeadEmails(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 200));
+        return ResponseEntity.ok(PageResponse.of(emailOutboxDispatcher.getDeadMessages(pageable)));
+    }
+
+    /**
+     * Requeue a dead-lettered email
+     * 
+     * @param id Outbox message ID
+     * @return 404 when no dead message has this ID
+     */
+    @PostMapping("/email/outbox/{id}/retry")
+    @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR')")
+    public ResponseEntity<Map<String, Object>> retryDeadEmail(@PathVariable Long id) {
+        Map<String, Object> response = new HashMap<>();
+        if (!emailOutboxDispatcher.requeue(id)) {
+            response.put("message", "No dead-lettered email with id " + id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        response.put("message", "Email requeued");
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Public test endpoint for debugging
      * This endpoint is accessible without authentication for testing purposes
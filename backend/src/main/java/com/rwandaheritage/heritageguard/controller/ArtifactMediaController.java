@@ -3,7 +3,9 @@ package com.rwandaheritage.heritageguard.controller;
 import com.rwandaheritage.heritageguard.dto.ArtifactMediaDTO;
 import com.rwandaheritage.heritageguard.mapper.ArtifactMediaMapper;
 import com.rwandaheritage.heritageguard.model.ArtifactMedia;
+import com.rwandaheritage.heritageguard.security.SignedUrlService;
 import com.rwandaheritage.heritageguard.service.ArtifactMediaService;
+import com.rwandaheritage.heritageguard.service.ArtifactService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
@@ -15,7 +17,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -23,10 +28,15 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/artifacts/{artifactId}/media")
 public class ArtifactMediaController {
     private final ArtifactMediaService artifactMediaService;
+    private final SignedUrlService signedUrlService;
+    private final ArtifactService artifactService;
 
     @Autowired
-    public ArtifactMediaController(ArtifactMediaService artifactMediaService) {
+    public ArtifactMediaController(ArtifactMediaService artifactMediaService, SignedUrlService signedUrlService,
+                                   ArtifactService artifactService) {
         this.artifactMediaService = artifactMediaService;
+        this.signedUrlService = signedUrlService;
+        this.artifactService = artifactService;
     }
 
     /**
@@ -83,6 +93,30 @@ public class ArtifactMediaController {
                 .body(file);
     }
 
+    /**
+     * Short-lived signed URL for a media file
+     * Access is checked once here; the URL itself is served without authentication
+     */
+    @GetMapping("/{mediaId}/signed-url")
+    public ResponseEntity<Map<String, Object>> getSignedUrl(@PathVariable Long artifactId, @PathVariable Long mediaId) {
+        // The URL is a bearer credential: the caller must be able to view both the artifact and this media of it
+        artifactService.getArtifact(artifactId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Artifact not found"));
+        ArtifactMedia media = artifactMediaService.getMedia(mediaId)
+                .filter(m -> m.getArtifact() != null && artifactId.equals(m.getArtifact().getId()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Media not found"));
+        String fileType = null;
+        try {
+            fileType = Files.probeContentType(Paths.get(media.getFilePath()));
+        } catch (IOException | RuntimeException e) {
+            // Unknown type; served as a download
+        }
+        String fileName = Paths.get(media.getFilePath()).getFileName().toString();
+        String url = signedUrlService.signMedia(SignedUrlService.FileKind.ARTIFACT_MEDIA, media.getFilePath(), fileName, fileType)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Signed download not available for this media"));
+        return ResponseEntity.ok(signedUrlService.toResponse(url));
+    }
+
     /**
      * Delete media
      * Only SYSTEM_ADMINISTRATOR or HERITAGE_MANAGER can delete
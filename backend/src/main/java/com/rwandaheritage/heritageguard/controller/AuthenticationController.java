@@ -8,6 +8,8 @@ import com.rwandaheritage.heritageguard.dto.auth.ForgotPasswordRequest;
 import com.rwandaheritage.heritageguard.dto.auth.ResetPasswordRequest;
 import com.rwandaheritage.heritageguard.service.AuthenticationService;
 import com.rwandaheritage.heritageguard.security.JwtService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,13 +43,15 @@ public class AuthenticationController {
 
     @PostMapping("/login")
     public ResponseEntity<Map<String, Object>> authenticate(
-            @Valid @RequestBody AuthenticationRequest request
+            @Valid @RequestBody AuthenticationRequest request,
+            HttpServletRequest httpRequest
     ) {
         log.info("Received login request for user: {}", request.getUsername());
         Map<String, Object> response = authenticationService.login(
             request.getUsername(), 
             request.getPassword(),
-            request.isRememberMe()
+            request.isRememberMe(),
+            clientIp(httpRequest)
         );
         
         // Debug logging
@@ -128,7 +132,9 @@ public class AuthenticationController {
             }
             
             String token = authHeader.substring(7); // Remove "Bearer "
-            String username = jwtService.extractUsername(token);
+            // Already verified (and cached) by the JWT filter for this request
+            Claims claims = jwtService.verifyToken(token);
+            String username = claims != null ? claims.getSubject() : null;
             
             if (username == null) {
                 log.warn("Could not extract username from token during logout");
@@ -136,7 +142,7 @@ public class AuthenticationController {
                     .body(Map.of("message", "Invalid token"));
             }
             
-            authenticationService.logout(username);
+            authenticationService.logout(username, JwtService.familyOf(claims));
             log.info("User {} logged out successfully", username);
             
             return ResponseEntity.ok()
@@ -216,6 +222,18 @@ public class AuthenticationController {
         }
     }
 
+    // Admin endpoint to revoke every session (refresh and access tokens) of a user
+    @PostMapping("/admin/revoke-sessions/{username}")
+    @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR')")
+    public ResponseEntity<Map<String, Object>> adminRevokeSessions(@PathVariable String username) {
+        log.info("Admin revoking sessions for user: {}", username);
+        int revoked = authenticationService.revokeAllSessions(username);
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Sessions revoked");
+        response.put("revokedSessions", revoked);
+        return ResponseEntity.ok(response);
+    }
+
     // First-time setup endpoint - only works when no admin exists
     @PostMapping("/first-time-setup")
     public ResponseEntity<Map<String, Object>> firstTimeSetup(@Valid @RequestBody RegisterRequest request) {
@@ -275,4 +293,13 @@ public class AuthenticationController {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
             .body(Map.of("error", "No authenticated user found"));
     }
-} 
\ No newline at end of file
+
+    // Same client address the rate limiter uses
+    private static String clientIp(HttpServletRequest request) {
+        String xfHeader = request.getHeader("X-Forwarded-For");
+        if (xfHeader == null) {
+            return request.getRemoteAddr();
+        }
+        return xfHeader.split(",")[0].trim();
+    }
+}
@@ -29,13 +29,15 @@ public class CommunityReportController {
     public ResponseEntity<List<CommunityReportDTO>> getAllReports(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String contentType,
-            @RequestParam(required = false) String reason) {
+            @RequestParam(required = false) String reason,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size) {
         
         log.info("Fetching community reports with filters - status: {}, contentType: {}, reason: {}", 
                 status, contentType, reason);
         
         try {
-            List<CommunityReportDTO> reports = communityReportService.getAllReports(status, contentType, reason);
+            List<CommunityReportDTO> reports = communityReportService.getAllReports(status, contentType, reason, before, size);
             return ResponseEntity.ok(reports);
         } catch (Exception e) {
             log.error("Failed to fetch community reports", e);
@@ -48,11 +50,14 @@ public class CommunityReportController {
      */
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('CONTENT_MANAGER') or hasRole('SYSTEM_ADMINISTRATOR')")
-    public ResponseEntity<List<CommunityReportDTO>> getReportsByStatus(@PathVariable String status) {
+    public ResponseEntity<List<CommunityReportDTO>> getReportsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size) {
         log.info("Fetching community reports by status: {}", status);
         
         try {
-            List<CommunityReportDTO> reports = communityReportService.getAllReports(status, null, null);
+            List<CommunityReportDTO> reports = communityReportService.getAllReports(status, null, null, before, size);
             return ResponseEntity.ok(reports);
         } catch (Exception e) {
             log.error("Failed to fetch reports by status: {}", status, e);
@@ -65,11 +70,14 @@ public class CommunityReportController {
      */
     @GetMapping("/type/{contentType}")
     @PreAuthorize("hasRole('CONTENT_MANAGER') or hasRole('SYSTEM_ADMINISTRATOR')")
-    public ResponseEntity<List<CommunityReportDTO>> getReportsByType(@PathVariable String contentType) {
+    public ResponseEntity<List<CommunityReportDTO>> getReportsByType(
+            @PathVariable String contentType,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size) {
         log.info("Fetching community reports by content type: {}", contentType);
         
         try {
-            List<CommunityReportDTO> reports = communityReportService.getAllReports(null, contentType, null);
+            List<CommunityReportDTO> reports = communityReportService.getAllReports(null, contentType, null, before, size);
             return ResponseEntity.ok(reports);
         } catch (Exception e) {
             log.error("Failed to fetch reports by content type: {}", contentType, e);
@@ -1,11 +1,16 @@
 package com.rwandaheritage.heritageguard.controller;
 
 import com.rwandaheritage.heritageguard.dto.DocumentDTO;
+import com.rwandaheritage.heritageguard.dto.DocumentSearchHitDTO;
 import com.rwandaheritage.heritageguard.dto.DocumentVersionDTO;
+import com.rwandaheritage.heritageguard.dto.response.PageResponse;
 import com.rwandaheritage.heritageguard.mapper.DocumentMapper;
 import com.rwandaheritage.heritageguard.mapper.DocumentVersionMapper;
 import com.rwandaheritage.heritageguard.model.Document;
 import com.rwandaheritage.heritageguard.model.DocumentVersion;
+import com.rwandaheritage.heritageguard.security.SignedUrlService;
+import com.rwandaheritage.heritageguard.service.DocumentBundleService;
+import com.rwandaheritage.heritageguard.service.DocumentIndexingService;
 import com.rwandaheritage.heritageguard.service.DocumentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +20,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.security.access.prepost.PreAuthorize;
 import com.rwandaheritage.heritageguard.repository.FolderRepository;
 import org.springframework.web.server.ResponseStatusException;
@@ -35,6 +41,12 @@ public class DocumentController {
     private DocumentService documentService;
     @Autowired
     private FolderRepository folderRepository;
+    @Autowired
+    private DocumentBundleService documentBundleService;
+    @Autowired
+    private DocumentIndexingService documentIndexingService;
+    @Autowired
+    private SignedUrlService signedUrlService;
 
     @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR') or hasRole('HERITAGE_MANAGER') or hasRole('CONTENT_MANAGER')")
     @PostMapping
@@ -77,6 +89,16 @@ public class DocumentController {
         return ResponseEntity.ok(documents);
     }
 
+    // Stream the latest version of every visible document in a folder subtree as one ZIP archive
+    @GetMapping("/folder/{folderId}/bundle")
+    public ResponseEntity<StreamingResponseBody> downloadFolderBundle(
+            @PathVariable Long folderId,
+            @RequestParam(defaultValue = "0") int fromEntry,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
+        List<DocumentBundleService.BundleEntry> manifest = documentBundleService.buildFolderManifest(folderId);
+        return documentBundleService.bundleResponse(manifest, "folder-" + folderId + "-documents.zip", fromEntry, range);
+    }
+
     // New search and filtering endpoints
     @GetMapping("/search")
     public ResponseEntity<List<DocumentDTO>> searchDocuments(@RequestParam(required = false) String q) {
@@ -86,6 +108,17 @@ public class DocumentController {
         return ResponseEntity.ok(documents);
     }
 
+    // Full-text search over metadata and file content of folder and site documents
+    @GetMapping("/search/content")
+    public ResponseEntity<PageResponse<DocumentSearchHitDTO>> searchDocumentContent(
+            @RequestParam String q,
+            @RequestParam(required = false) String sourceType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.min(Math.max(size, 1), 100);
+        return ResponseEntity.ok(documentIndexingService.search(q, sourceType, Math.max(page, 0), pageSize));
+    }
+
     @GetMapping("/filter")
     public ResponseEntity<List<DocumentDTO>> filterDocuments(
             @RequestParam(required = false) String type,
@@ -292,6 +325,20 @@ public class DocumentController {
         }
     }
 
+    @GetMapping("/{id}/versions/{versionId}/signed-url")
+    public ResponseEntity<Map<String, Object>> getVersionSignedUrl(@PathVariable Long id, @PathVariable Long versionId) {
+        DocumentVersion version = documentService.getVersion(versionId)
+            .filter(v -> v.getDocument().getId().equals(id))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Version not found"));
+        if (!documentService.isAllowedToView(version.getDocument())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You do not have permission to access this document.");
+        }
+        String fileName = version.getFilePath().substring(version.getFilePath().lastIndexOf('/') + 1);
+        String url = signedUrlService.sign(SignedUrlService.FileKind.DOCUMENT, version.getFilePath(), fileName, null, true)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Signed download not available for this version"));
+        return ResponseEntity.ok(signedUrlService.toResponse(url));
+    }
+
     @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR') or hasRole('HERITAGE_MANAGER') or hasRole('CONTENT_MANAGER')")
     @DeleteMapping("/versions/{versionId}")
     public ResponseEntity<Void> deleteVersion(@PathVariable Long versionId) {
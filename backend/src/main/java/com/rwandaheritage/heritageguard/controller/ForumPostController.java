@@ -5,7 +5,9 @@ import com.rwandaheritage.heritageguard.dto.ForumPostUpdateDTO;
 import com.rwandaheritage.heritageguard.dto.ForumSearchRequest;
 import com.rwandaheritage.heritageguard.dto.ForumSearchResponse;
 import com.rwandaheritage.heritageguard.dto.ForumPostVersionDTO;
+import com.rwandaheritage.heritageguard.dto.ForumThreadPageDTO;
 import com.rwandaheritage.heritageguard.service.ForumService;
+import com.rwandaheritage.heritageguard.service.ForumThreadService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/forum/posts")
@@ -26,6 +29,7 @@ import java.util.Map;
 public class ForumPostController {
 
     private final ForumService forumService;
+    private final ForumThreadService forumThreadService;
 
     /**
      * Create a new forum post
@@ -55,6 +59,23 @@ public class ForumPostController {
         return ResponseEntity.ok(posts);
     }
 
+    /**
+     * Get a topic's posts as reply trees, one page of top-level threads at a time (public access)
+     */
+    @GetMapping("/topic/{topicId}/threads")
+    public ResponseEntity<ForumThreadPageDTO> getThreadsByTopic(
+            @PathVariable Long topicId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+        log.debug("Fetching threads for topic: {} after: {}", topicId, after);
+        
+        boolean isAuthenticated = authentication != null && authentication.isAuthenticated()
+                && !"anonymousUser".equals(authentication.getPrincipal());
+        String currentUser = isAuthenticated ? authentication.getName() : null;
+        return ResponseEntity.ok(forumThreadService.getThreads(topicId, after, size, isAuthenticated, currentUser));
+    }
+
     /**
      * Get post by ID (public access)
      */
@@ -228,6 +249,15 @@ public class ForumPostController {
         boolean liked = forumService.isPostLikedByUser(id, authentication.getName());
         return ResponseEntity.ok(liked);
     }
+
+    /**
+     * Which of the given posts the current user liked, e.g. for a whole page of posts
+     */
+    @GetMapping("/likes/me")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Set<Long>> getLikedPostIds(@RequestParam List<Long> ids, Authentication authentication) {
+        return ResponseEntity.ok(forumService.getLikedPostIds(ids, authentication.getName()));
+    }
     
     // ==================== VERSION HISTORY ENDPOINTS ====================
     
@@ -1,9 +1,10 @@
 package com.rwandaheritage.heritageguard.controller;
 
-import com.rwandaheritage.heritageguard.dto.CommunityReportDTO;
+import com.rwandaheritage.heritageguard.dto.CommunityReportPageDTO;
 import com.rwandaheritage.heritageguard.dto.ReportSummaryDTO;
 import com.rwandaheritage.heritageguard.model.CommunityReport;
 import com.rwandaheritage.heritageguard.repository.CommunityReportRepository;
+import com.rwandaheritage.heritageguard.service.CommunityReportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -13,9 +14,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/forum/reports")
@@ -24,40 +25,25 @@ import java.util.stream.Collectors;
 public class ForumReportsController {
 
     private final CommunityReportRepository reportRepository;
+    private final CommunityReportService reportService;
 
     /**
-     * Get all forum reports
+     * Get unresolved forum reports, newest first
+     * Pass nextCursor from the response as "before" for the next page
      * Only moderators and admins can access
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'HERITAGE_MANAGER', 'CONTENT_MANAGER')")
-    public ResponseEntity<List<CommunityReportDTO>> getAllReports() {
+    public ResponseEntity<CommunityReportPageDTO> getAllReports(
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size) {
         try {
-            log.info("Getting all forum reports");
-            List<CommunityReport> reports = reportRepository.findByIsResolvedFalseOrderByReportedAtDesc();
-            
-            // Convert to DTOs (we'll need to implement this mapping)
-            List<CommunityReportDTO> reportDTOs = reports.stream()
-                .map(report -> CommunityReportDTO.builder()
-                    .id(report.getId())
-                    .contentType(report.getContentType().name())
-                    .contentId(report.getContentId())
-                    .reporterId(report.getReporterId())
-                    .reportReason(report.getReportReason().name())
-                    .description(report.getDescription())
-                    .isResolved(report.isResolved())
-                    .resolvedBy(report.getResolvedBy())
-                    .resolutionAction(report.getResolutionAction())
-                    .resolutionNotes(report.getResolutionNotes())
-                    .reportedAt(report.getReportedAt())
-                    .resolvedAt(report.getResolvedAt())
-                    .build())
-                .collect(Collectors.toList());
-            
-            return ResponseEntity.ok(reportDTOs);
+            log.info("Getting unresolved forum reports before {}", before);
+            return ResponseEntity.ok(reportService.getReportPage("unresolved", null, null, before, size));
         } catch (Exception e) {
             log.error("Failed to get forum reports", e);
-            return ResponseEntity.internalServerError().body(List.of());
+            return ResponseEntity.internalServerError()
+                .body(CommunityReportPageDTO.builder().content(List.of()).hasMore(false).build());
         }
     }
 
@@ -122,53 +108,32 @@ public class ForumReportsController {
             log.info("Bulk moderating {} reports by moderator {}", 
                     bulkData.get("reportIds"), authentication.getName());
             
-            @SuppressWarnings("unchecked")
-            List<Long> reportIds = (List<Long>) bulkData.get("reportIds");
+            Object rawIds = bulkData.get("reportIds");
             String action = (String) bulkData.get("action");
             String notes = (String) bulkData.get("notes");
             
-            if (reportIds == null || reportIds.isEmpty()) {
+            if (!(rawIds instanceof List<?> idList) || idList.isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
                     "message", "No report IDs provided"
                 ));
             }
             
-            int processedCount = 0;
-            int successCount = 0;
-            int failureCount = 0;
-            
-            for (Long reportId : reportIds) {
-                try {
-                    processedCount++;
-                    
-                    CommunityReport report = reportRepository.findById(reportId)
-                        .orElseThrow(() -> new RuntimeException("Report not found: " + reportId));
-                    
-                    if (!report.isResolved()) {
-                        report.setResolved(true);
-                        report.setResolvedBy(authentication.getName());
-                        report.setResolutionAction(action);
-                        report.setResolutionNotes(notes);
-                        report.setResolvedAt(java.time.LocalDateTime.now());
-                        
-                        reportRepository.save(report);
-                        successCount++;
-                    }
-                    
-                } catch (Exception e) {
-                    log.error("Failed to process report {}", reportId, e);
-                    failureCount++;
+            // JSON integers arrive as Integer or Long; anything else (strings, decimals, null) is rejected
+            List<Long> reportIds = new ArrayList<>(idList.size());
+            for (Object id : idList) {
+                if (!(id instanceof Integer || id instanceof Long)) {
+                    return ResponseEntity.badRequest().body(Map.of(
+                        "success", false,
+                        "message", "Invalid report ID: " + id
+                    ));
                 }
+                reportIds.add(((Number) id).longValue());
             }
             
-            return ResponseEntity.ok(Map.of(
-                "success", true,
-                "message", "Bulk moderation completed successfully",
-                "processedCount", processedCount,
-                "successCount", successCount,
-                "failureCount", failureCount
-            ));
+            Map<String, Object> result = reportService.resolveReports(reportIds, action, notes, authentication.getName());
+            result.put("message", "Bulk moderation completed successfully");
+            return ResponseEntity.ok(result);
         } catch (Exception e) {
             log.error("Failed to perform bulk moderation", e);
             return ResponseEntity.internalServerError().body(Map.of(
@@ -0,0 +1,55 @@
+package com.rwandaheritage.heritageguard.controller;
+
+import com.rwandaheritage.heritageguard.dto.ForumSearchHitDTO;
+import com.rwandaheritage.heritageguard.dto.ForumSearchRequest;
+import com.rwandaheritage.heritageguard.dto.response.PageResponse;
+import com.rwandaheritage.heritageguard.service.ForumSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/forum/search")
+@RequiredArgsConstructor
+@Slf4j
+public class ForumSearchController {
+
+    private final ForumSearchService forumSearchService;
+
+    /**
+     * Ranked search over topics and posts, including their translations, with highlighted
+     * snippets (public access; topics that are not public need authentication)
+     */
+    @GetMapping
+    public ResponseEntity<PageResponse<ForumSearchHitDTO>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String language,
+            @RequestParam(required = false) Boolean isPublic,
+            @RequestParam(required = false) Boolean isLocked,
+            @RequestParam(required = false) String createdBy,
+            @RequestParam(required = false) Long topicId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        log.debug("Searching forum for: {} (type: {})", q, type);
+
+        ForumSearchRequest request = ForumSearchRequest.builder()
+                .categoryId(categoryId)
+                .language(language)
+                .isPublic(isPublic)
+                .isLocked(isLocked)
+                .createdBy(createdBy)
+                .topicId(topicId)
+                .page(page)
+                .size(size)
+                .build();
+
+        boolean isAuthenticated = authentication != null && authentication.isAuthenticated()
+                && !"anonymousUser".equals(authentication.getPrincipal());
+        return ResponseEntity.ok(forumSearchService.search(q, type, request, isAuthenticated));
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Set;
 import com.rwandaheritage.heritageguard.dto.ForumSearchRequest;
 import com.rwandaheritage.heritageguard.dto.ForumSearchResponse;
 
@@ -254,6 +255,15 @@ public class ForumTopicController {
         return ResponseEntity.ok(liked);
     }
 
+    /**
+     * Which of the given topics the current user liked, e.g. for a whole page of topics
+     */
+    @GetMapping("/likes/me")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Set<Long>> getLikedTopicIds(@RequestParam List<Long> ids, Authentication authentication) {
+        return ResponseEntity.ok(forumService.getLikedTopicIds(ids, authentication.getName()));
+    }
+
     /**
      * Pin/Unpin a topic (moderation feature)
      */
@@ -39,9 +39,11 @@ public class LearningProgressController {
     }
 
     @GetMapping
-    public ResponseEntity<List<LearningProgressDTO>> getAllProgress() {
-        log.debug("Request to get all learning progress");
-        return ResponseEntity.ok(progressService.getAllProgress());
+    public ResponseEntity<List<LearningProgressDTO>> getAllProgress(
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size) {
+        log.debug("Request to get learning progress before {}", before);
+        return ResponseEntity.ok(progressService.getAllProgress(before, size));
     }
 
     @GetMapping("/user/{userId}")
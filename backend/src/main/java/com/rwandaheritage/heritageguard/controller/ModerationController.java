@@ -1,8 +1,12 @@
 package com.rwandaheritage.heritageguard.controller;
 
 import com.rwandaheritage.heritageguard.dto.*;
+import com.rwandaheritage.heritageguard.model.ModerationTerm;
+import com.rwandaheritage.heritageguard.service.ModerationQueueService;
 import com.rwandaheritage.heritageguard.service.ModerationService;
 import com.rwandaheritage.heritageguard.service.ContentFilterService;
+import com.rwandaheritage.heritageguard.service.ForumModerationPipeline;
+import com.rwandaheritage.heritageguard.service.NearDuplicateDetector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -25,6 +29,9 @@ public class ModerationController {
 
     private final ModerationService moderationService;
     private final ContentFilterService contentFilterService;
+    private final ForumModerationPipeline forumModerationPipeline;
+    private final NearDuplicateDetector nearDuplicateDetector;
+    private final ModerationQueueService moderationQueueService;
 
     /**
      * Perform bulk moderation actions
@@ -53,13 +60,15 @@ public class ModerationController {
             @RequestParam(required = false) String contentType,
             @RequestParam(required = false) String actionType,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size) {
         
         log.debug("Fetching moderation history with filters - moderatorId: {}, contentType: {}, actionType: {}", 
                 moderatorId, contentType, actionType);
         
         List<ModerationHistoryDTO> history = moderationService.getModerationHistory(
-                moderatorId, contentType, actionType, startDate, endDate);
+                moderatorId, contentType, null, actionType, null, startDate, endDate, before, size);
         
         return ResponseEntity.ok(history);
     }
@@ -110,7 +119,7 @@ public class ModerationController {
         log.debug("Analyzing content for moderation: {} characters", content.length());
         
         ContentFilterService.ModerationRecommendation recommendation = 
-                moderationService.analyzeContentForModeration(content);
+                moderationService.analyzeContentForModeration(content, request.get("language"));
         
         return ResponseEntity.ok(recommendation);
     }
@@ -130,7 +139,8 @@ public class ModerationController {
         
         log.debug("Performing detailed content analysis: {} characters", content.length());
         
-        ContentFilterService.ContentAnalysisResult analysis = contentFilterService.analyzeContent(content);
+        ContentFilterService.ContentAnalysisResult analysis =
+                contentFilterService.analyzeContent(content, request.get("language"));
         
         return ResponseEntity.ok(analysis);
     }
@@ -142,19 +152,16 @@ public class ModerationController {
     @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'HERITAGE_MANAGER', 'CONTENT_MANAGER')")
     public ResponseEntity<List<ModerationHistoryDTO>> getContentModerationHistory(
             @PathVariable String contentType,
-            @PathVariable Long contentId) {
+            @PathVariable Long contentId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size) {
         
         log.debug("Fetching moderation history for content: {} {}", contentType, contentId);
         
         List<ModerationHistoryDTO> history = moderationService.getModerationHistory(
-                null, contentType, null, null, null);
+                null, contentType, contentId, null, null, null, null, before, size);
         
-        // Filter for specific content ID
-        List<ModerationHistoryDTO> filteredHistory = history.stream()
-                .filter(h -> h.getContentId().equals(contentId))
-                .toList();
-        
-        return ResponseEntity.ok(filteredHistory);
+        return ResponseEntity.ok(history);
     }
 
     /**
@@ -163,20 +170,178 @@ public class ModerationController {
     @GetMapping("/automated")
     @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'HERITAGE_MANAGER', 'CONTENT_MANAGER')")
     public ResponseEntity<List<ModerationHistoryDTO>> getAutomatedActions(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Long before,
             @RequestParam(defaultValue = "20") int size) {
         
-        log.debug("Fetching automated moderation actions - page: {}, size: {}", page, size);
+        log.debug("Fetching automated moderation actions - before: {}, size: {}", before, size);
         
-        // This would need to be implemented in the service with pagination
         List<ModerationHistoryDTO> automatedActions = moderationService.getModerationHistory(
-                null, null, null, null, null);
-        
-        // Filter for automated actions
-        List<ModerationHistoryDTO> filteredActions = automatedActions.stream()
-                .filter(ModerationHistoryDTO::isAutomated)
-                .toList();
+                null, null, null, null, true, null, null, before, size);
         
-        return ResponseEntity.ok(filteredActions);
+        return ResponseEntity.ok(automatedActions);
+    }
+
+    /**
+     * Backlog and throughput of the automatic scan of new forum posts
+     */
+    @GetMapping("/pipeline")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'HERITAGE_MANAGER', 'CONTENT_MANAGER')")
+    public ResponseEntity<Map<String, Object>> getPipelineStats() {
+        return ResponseEntity.ok(forumModerationPipeline.getStats());
+    }
+
+    /**
+     * Hit rate of the content verdict cache
+     */
+    @GetMapping("/verdict-cache")
+    @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR')")
+    public ResponseEntity<Map<String, Object>> getVerdictCacheStats() {
+        return ResponseEntity.ok(contentFilterService.getVerdictCacheStats());
+    }
+
+    /**
+     * Size of the near-duplicate index and lookup latency
+     */
+    @GetMapping("/near-duplicates")
+    @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR')")
+    public ResponseEntity<Map<String, Object>> getNearDuplicateStats() {
+        return ResponseEntity.ok(nearDuplicateDetector.getStats());
+    }
+
+    // === Work queue ===
+
+    /**
+     * Claim the highest priority items; they stay reserved for the caller until the lease runs out
+     */
+    @PostMapping("/queue/claim")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'HERITAGE_MANAGER', 'CONTENT_MANAGER')")
+    public ResponseEntity<List<ModerationQueueItemDTO>> claimQueueItems(
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+        return ResponseEntity.ok(moderationQueueService.claim(authentication.getName(), limit));
+    }
+
+    /**
+     * Items currently claimed by the caller
+     */
+    @GetMapping("/queue/mine")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'HERITAGE_MANAGER', 'CONTENT_MANAGER')")
+    public ResponseEntity<List<ModerationQueueItemDTO>> getClaimedQueueItems(Authentication authentication) {
+        return ResponseEntity.ok(moderationQueueService.getClaimed(authentication.getName()));
+    }
+
+    /**
+     * Extend the lease on a claimed item
+     */
+    @PostMapping("/queue/{id}/renew")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'HERITAGE_MANAGER', 'CONTENT_MANAGER')")
+    public ResponseEntity<ModerationQueueItemDTO> renewQueueItem(@PathVariable Long id, Authentication authentication) {
+        return ResponseEntity.ok(moderationQueueService.renew(id, authentication.getName()));
+    }
+
+    /**
+     * Return a claimed item to the queue without acting on it
+     */
+    @PostMapping("/queue/{id}/release")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'HERITAGE_MANAGER', 'CONTENT_MANAGER')")
+    public ResponseEntity<Void> releaseQueueItem(@PathVariable Long id, Authentication authentication) {
+        moderationQueueService.release(id, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Act on a claimed item and remove it from the queue
+     */
+    @PostMapping("/queue/{id}/complete")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'HERITAGE_MANAGER', 'CONTENT_MANAGER')")
+    public ResponseEntity<Map<String, Object>> completeQueueItem(
+            @PathVariable Long id,
+            @RequestBody Map<String, String> request,
+            Authentication authentication) {
+        return ResponseEntity.ok(moderationQueueService.complete(
+                id, authentication.getName(), request.get("action"), request.get("notes")));
+    }
+
+    /**
+     * Backlog and throughput of the moderation queue
+     */
+    @GetMapping("/queue/stats")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'HERITAGE_MANAGER', 'CONTENT_MANAGER')")
+    public ResponseEntity<Map<String, Object>> getQueueStats() {
+        return ResponseEntity.ok(moderationQueueService.getStats());
+    }
+
+    /**
+     * Queue flagged posts and reported content that is not queued yet
+     */
+    @PostMapping("/queue/rebuild")
+    @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR')")
+    public ResponseEntity<Map<String, Object>> rebuildQueue() {
+        return ResponseEntity.ok(moderationQueueService.rebuild());
+    }
+
+    // === Filter terms ===
+
+    /**
+     * List the filter terms stored in the database (built-in defaults are not included)
+     */
+    @GetMapping("/terms")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'CONTENT_MANAGER')")
+    public ResponseEntity<List<ModerationTerm>> getTerms() {
+        return ResponseEntity.ok(contentFilterService.getTerms());
+    }
+
+    /**
+     * Add a filter term; it applies to new analyses immediately
+     */
+    @PostMapping("/terms")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'CONTENT_MANAGER')")
+    public ResponseEntity<ModerationTerm> addTerm(
+            @RequestBody Map<String, Object> request,
+            Authentication authentication) {
+
+        Object category = request.get("category");
+        Object weight = request.get("weight");
+        ModerationTerm term = contentFilterService.addTerm(
+                (String) request.get("term"),
+                (String) request.get("language"),
+                category != null ? ModerationTerm.Category.valueOf(category.toString().toUpperCase()) : null,
+                weight != null ? Double.valueOf(weight.toString()) : null,
+                authentication.getName());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(term);
+    }
+
+    /**
+     * Enable or disable a filter term
+     */
+    @PatchMapping("/terms/{id}")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'CONTENT_MANAGER')")
+    public ResponseEntity<ModerationTerm> setTermActive(
+            @PathVariable Long id,
+            @RequestBody Map<String, Boolean> request) {
+
+        Boolean active = request.get("active");
+        if (active == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(contentFilterService.setTermActive(id, active));
+    }
+
+    @DeleteMapping("/terms/{id}")
+    @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'CONTENT_MANAGER')")
+    public ResponseEntity<Void> deleteTerm(@PathVariable Long id) {
+        contentFilterService.deleteTerm(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Recompile the filter from the database, e.g. after editing terms directly in SQL
+     */
+    @PostMapping("/terms/reload")
+    @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR')")
+    public ResponseEntity<Map<String, Object>> reloadTerms() {
+        int terms = contentFilterService.reloadTerms();
+        return ResponseEntity.ok(Map.of("terms", terms));
     }
-}
\ No newline at end of file
+}
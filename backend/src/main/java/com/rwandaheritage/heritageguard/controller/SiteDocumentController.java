@@ -2,12 +2,15 @@ package com.rwandaheritage.heritageguard.controller;
 
 import com.rwandaheritage.heritageguard.dto.SiteDocumentDTO;
 import com.rwandaheritage.heritageguard.model.SiteDocument;
+import com.rwandaheritage.heritageguard.service.DocumentBundleService;
 import com.rwandaheritage.heritageguard.service.SiteDocumentService;
 import com.rwandaheritage.heritageguard.mapper.SiteDocumentMapper;
+import com.rwandaheritage.heritageguard.security.SignedUrlService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -17,6 +20,7 @@ import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.springframework.web.server.ResponseStatusException;
@@ -26,10 +30,15 @@ import org.springframework.http.HttpStatus;
 @RequestMapping("/api/site-documents")
 public class SiteDocumentController {
     private final SiteDocumentService siteDocumentService;
+    private final DocumentBundleService documentBundleService;
+    private final SignedUrlService signedUrlService;
 
     @Autowired
-    public SiteDocumentController(SiteDocumentService siteDocumentService) {
+    public SiteDocumentController(SiteDocumentService siteDocumentService, DocumentBundleService documentBundleService,
+                                  SignedUrlService signedUrlService) {
         this.siteDocumentService = siteDocumentService;
+        this.documentBundleService = documentBundleService;
+        this.signedUrlService = signedUrlService;
     }
 
     // Public and authenticated users can view
@@ -99,6 +108,17 @@ public class SiteDocumentController {
                 .body(fileResource);
     }
 
+    // Short-lived signed download URL that skips per-request authentication
+    @GetMapping("/{id}/signed-url")
+    public ResponseEntity<Map<String, Object>> getSignedUrl(@PathVariable Long id) {
+        SiteDocument doc = siteDocumentService.getSiteDocumentById(id)
+                .filter(SiteDocument::isActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Document not found"));
+        String url = signedUrlService.sign(SignedUrlService.FileKind.DOCUMENT, doc.getFilePath(), doc.getFileName(), null, true)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Signed download not available for this document"));
+        return ResponseEntity.ok(signedUrlService.toResponse(url));
+    }
+
     // Only ADMIN, HERITAGE_MANAGER, CONTENT_MANAGER can create
     @PreAuthorize("hasRole('SYSTEM_ADMINISTRATOR') or hasRole('HERITAGE_MANAGER') or hasRole('CONTENT_MANAGER')")
     @PostMapping("")
@@ -148,6 +168,17 @@ public class SiteDocumentController {
         );
     }
 
+    // Stream every document of a site (optionally with its media) as one ZIP archive
+    @GetMapping("/site/{siteId}/bundle")
+    public ResponseEntity<StreamingResponseBody> downloadSiteBundle(
+            @PathVariable Long siteId,
+            @RequestParam(defaultValue = "false") boolean includeMedia,
+            @RequestParam(defaultValue = "0") int fromEntry,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
+        List<DocumentBundleService.BundleEntry> manifest = documentBundleService.buildSiteManifest(siteId, includeMedia);
+        return documentBundleService.bundleResponse(manifest, "site-" + siteId + "-documents.zip", fromEntry, range);
+    }
+
     /**
      * Search documents with optional filters
      * Public endpoint
@@ -6,6 +6,7 @@ import com.rwandaheritage.heritageguard.model.ArtifactMedia;
 import com.rwandaheritage.heritageguard.service.SiteMediaService;
 import com.rwandaheritage.heritageguard.service.ArtifactMediaService;
 import com.rwandaheritage.heritageguard.mapper.SiteMediaMapper;
+import com.rwandaheritage.heritageguard.security.SignedUrlService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -18,7 +19,9 @@ import jakarta.validation.Valid;
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.springframework.web.server.ResponseStatusException;
@@ -29,11 +32,14 @@ import org.springframework.http.HttpStatus;
 public class SiteMediaController {
     private final SiteMediaService siteMediaService;
     private final ArtifactMediaService artifactMediaService;
+    private final SignedUrlService signedUrlService;
 
     @Autowired
-    public SiteMediaController(SiteMediaService siteMediaService, ArtifactMediaService artifactMediaService) {
+    public SiteMediaController(SiteMediaService siteMediaService, ArtifactMediaService artifactMediaService,
+                               SignedUrlService signedUrlService) {
         this.siteMediaService = siteMediaService;
         this.artifactMediaService = artifactMediaService;
+        this.signedUrlService = signedUrlService;
     }
 
     // Public and authenticated users can view
@@ -120,6 +126,31 @@ public class SiteMediaController {
         throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Media not found");
     }
     
+    // Short-lived signed URL that serves the file without further authentication
+    @GetMapping("/{id}/signed-url")
+    public ResponseEntity<Map<String, Object>> getSignedUrl(@PathVariable Long id) {
+        SiteMedia media = siteMediaService.getSiteMediaById(id)
+                .filter(SiteMedia::isActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Media not found"));
+        String url = signedUrlService.signMedia(SignedUrlService.FileKind.MEDIA, media.getFilePath(), media.getFileName(), media.getFileType())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Signed download not available for this media"));
+        return ResponseEntity.ok(signedUrlService.toResponse(url));
+    }
+
+    // Signed URLs for every visible media file of a site, so a gallery needs one authorized call
+    @GetMapping("/site/{siteId}/signed-urls")
+    public ResponseEntity<Map<String, Object>> getSignedUrlsForSite(@PathVariable Long siteId) {
+        Map<Long, String> urls = new LinkedHashMap<>();
+        for (SiteMedia media : siteMediaService.getMediaByHeritageSiteId(siteId)) {
+            signedUrlService.signMedia(SignedUrlService.FileKind.MEDIA, media.getFilePath(), media.getFileName(), media.getFileType())
+                    .ifPresent(url -> urls.put(media.getId(), url));
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("urls", urls);
+        response.put("expiresIn", signedUrlService.getTtlSeconds());
+        return ResponseEntity.ok(response);
+    }
+    
     // Helper method to build media response
     private ResponseEntity<?> buildMediaResponse(String fileName, String fileType, Resource fileResource) {
         String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8);
@@ -1,6 +1,7 @@
 package com.rwandaheritage.heritageguard.controller;
 
 import com.rwandaheritage.heritageguard.dto.TestimonialDTO;
+import com.rwandaheritage.heritageguard.security.SignedUrlService;
 import com.rwandaheritage.heritageguard.service.TestimonialService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -26,6 +27,9 @@ public class TestimonialController {
     
     @Autowired
     private TestimonialService testimonialService;
+
+    @Autowired
+    private SignedUrlService signedUrlService;
     
     /**
      * Get all approved testimonials (public access)
@@ -208,6 +212,22 @@ public class TestimonialController {
         }
     }
     
+    /**
+     * Get a short-lived signed URL for the avatar image (public access)
+     */
+    @GetMapping("/{id}/avatar/signed-url")
+    public ResponseEntity<Map<String, Object>> getAvatarSignedUrl(@PathVariable Long id) {
+        TestimonialDTO testimonial = testimonialService.getTestimonialById(id);
+        if (testimonial.getAvatarFilePath() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String contentType = determineContentType(testimonial.getAvatarFileName());
+        return signedUrlService.sign(SignedUrlService.FileKind.AVATAR, testimonial.getAvatarFilePath(),
+                        testimonial.getAvatarFileName(), contentType, false)
+                .map(url -> ResponseEntity.ok(signedUrlService.toResponse(url)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
     /**
      * Get pending testimonials (admin or content manager)
      */
@@ -66,9 +66,10 @@ public class TranslationMemoryController {
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('SYSTEM_ADMINISTRATOR', 'HERITAGE_MANAGER', 'CONTENT_MANAGER')")
-    public ResponseEntity<List<TranslationMemoryDTO>> getAllTranslationMemory() {
-        log.debug("GET /api/translation-memory - Getting all translation memory entries");
-        List<TranslationMemoryDTO> memoryEntries = translationMemoryService.getAllTranslationMemory();
+    public ResponseEntity<List<TranslationMemoryDTO>> getAllTranslationMemory(@RequestParam(required = false) Long before,
+                                                                              @RequestParam(required = false) Integer size) {
+        log.debug("GET /api/translation-memory - Getting translation memory entries before {}", before);
+        List<TranslationMemoryDTO> memoryEntries = translationMemoryService.getAllTranslationMemory(before, size);
         return ResponseEntity.ok(memoryEntries);
     }
     
@@ -21,7 +21,7 @@ public class BulkModerationRequest {
     private String contentType;
     
     @NotEmpty(message = "Content IDs list cannot be empty")
-    @Size(max = 100, message = "Cannot process more than 100 items at once")
+    @Size(max = 5000, message = "Cannot process more than 5000 items at once")
     private List<Long> contentIds;
     
     @Size(max = 500, message = "Reason cannot exceed 500 characters")
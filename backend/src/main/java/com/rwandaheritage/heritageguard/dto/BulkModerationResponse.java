@@ -20,9 +20,23 @@ public class BulkModerationResponse {
     private int failedActions;
     private List<Long> successfulIds;
     private Map<Long, String> failedIdsWithReasons;
+    private List<ItemOutcome> outcomes;
     private String reason;
     private boolean automated;
     private Double confidenceScore;
     private LocalDateTime completedAt;
     private String moderatorId;
-}
\ No newline at end of file
+
+    /**
+     * Result for one requested id; statuses are only set when it succeeded.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ItemOutcome {
+        private Long contentId;
+        private boolean success;
+        private String previousStatus;
+        private String newStatus;
+        private String error;
+    }
+}
@@ -0,0 +1,18 @@
+package com.rwandaheritage.heritageguard.dto;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * One page of reports, newest first. Pass nextCursor as "before" to get the next page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommunityReportPageDTO {
+    private List<CommunityReportDTO> content;
+    private Long nextCursor;
+    private boolean hasMore;
+}
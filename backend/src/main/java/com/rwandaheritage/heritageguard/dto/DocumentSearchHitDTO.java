@@ -0,0 +1,23 @@
+package com.rwandaheritage.heritageguard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One result of the combined metadata and content document search.
+ * The snippet is HTML-escaped with matched terms wrapped in &lt;mark&gt;.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSearchHitDTO {
+    private String sourceType;
+    private Long sourceId;
+    private String title;
+    private String snippet;
+    private double score;
+    private Boolean isPublic;
+}
@@ -31,6 +31,8 @@ public class ForumPostDTO {
     private boolean isFlagged = false;
     private String flaggedBy;
     private String flagReason;
+    private String moderationStatus;
+    private long likeCount;
     
     // Audit fields
     private String createdBy;
@@ -0,0 +1,28 @@
+package com.rwandaheritage.heritageguard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One result of the ranked forum search. For posts the title is the title of their topic.
+ * The snippet is HTML-escaped with matched terms wrapped in &lt;mark&gt;.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForumSearchHitDTO {
+    private String contentType;
+    private Long id;
+    private Long topicId;
+    private String title;
+    private String snippet;
+    private double score;
+    private String language;
+    private String createdBy;
+    private LocalDateTime createdDate;
+}
@@ -0,0 +1,27 @@
+package com.rwandaheritage.heritageguard.dto;
+
+import lombok.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A forum post with its visible replies, nested.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ForumThreadNodeDTO {
+    private ForumPostDTO post;
+    private long likeCount;
+    
+    // Whether the current user liked the post; false for anonymous readers
+    private boolean likedByMe;
+    
+    // Direct replies
+    private int replyCount;
+    
+    @Builder.Default
+    private List<ForumThreadNodeDTO> replies = new ArrayList<>();
+}
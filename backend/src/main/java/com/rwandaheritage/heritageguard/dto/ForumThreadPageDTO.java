@@ -0,0 +1,19 @@
+package com.rwandaheritage.heritageguard.dto;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * One page of a topic's threads. Pass nextCursor as "after" to get the next page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ForumThreadPageDTO {
+    private Long topicId;
+    private List<ForumThreadNodeDTO> threads;
+    private Long nextCursor;
+    private boolean hasMore;
+}
@@ -33,6 +33,7 @@ public class ForumTopicDTO {
     private boolean isPinned = false;
     @Builder.Default
     private boolean isLocked = false;
+    private long likeCount;
     
     // Audit fields
     private String createdBy;
@@ -0,0 +1,28 @@
+package com.rwandaheritage.heritageguard.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ModerationQueueItemDTO {
+    private Long id;
+    private String contentType;
+    private Long contentId;
+    private int severity;
+    private int reportCount;
+    private String reason;
+    private double score;
+    private String status;
+    private String claimedBy;
+    private LocalDateTime leaseExpiresAt;
+    private LocalDateTime enqueuedAt;
+    
+    // Content details for the moderator
+    private String authorId;
+    private String preview;
+    private String relatedUrl;
+}
@@ -0,0 +1,26 @@
+package com.rwandaheritage.heritageguard.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event fired when a document's file, metadata, visibility or active flag changes,
+ * so derived data (extracted text, search index) can be refreshed
+ */
+@Getter
+public class DocumentContentChangedEvent extends ApplicationEvent {
+
+    public enum SourceType {
+        DOCUMENT,
+        SITE_DOCUMENT
+    }
+
+    private final SourceType sourceType;
+    private final Long sourceId;
+
+    public DocumentContentChangedEvent(Object source, SourceType sourceType, Long sourceId) {
+        super(source);
+        this.sourceType = sourceType;
+        this.sourceId = sourceId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.rwandaheritage.heritageguard.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event fired when a message is added to the email outbox, so the dispatcher can send it
+ * as soon as the enqueuing transaction commits instead of waiting for its next poll.
+ */
+@Getter
+public class EmailQueuedEvent extends ApplicationEvent {
+
+    private final Long messageId;
+
+    public EmailQueuedEvent(Object source, Long messageId) {
+        super(source);
+        this.messageId = messageId;
+    }
+}
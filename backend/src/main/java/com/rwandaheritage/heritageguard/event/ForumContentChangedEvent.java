@@ -0,0 +1,49 @@
+package com.rwandaheritage.heritageguard.event;
+
+import com.rwandaheritage.heritageguard.model.Translation;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Event fired when forum topics or posts are created, edited, moderated or deleted, or their
+ * translations change, so the forum search index can refresh them once the change commits
+ */
+@Getter
+public class ForumContentChangedEvent extends ApplicationEvent {
+
+    public enum ContentType {
+        TOPIC,
+        POST
+    }
+
+    private final ContentType contentType;
+    private final List<Long> contentIds;
+
+    public ForumContentChangedEvent(Object source, ContentType contentType, Collection<Long> contentIds) {
+        super(source);
+        this.contentType = contentType;
+        this.contentIds = List.copyOf(contentIds);
+    }
+
+    public ForumContentChangedEvent(Object source, ContentType contentType, Long contentId) {
+        this(source, contentType, List.of(contentId));
+    }
+
+    /**
+     * Event for the topic or post a translation belongs to; empty for non-forum translations
+     */
+    public static Optional<ForumContentChangedEvent> ofTranslation(Object source, Translation translation) {
+        ContentType type = switch (translation.getContentType()) {
+            case FORUM_TOPIC -> ContentType.TOPIC;
+            case FORUM_POST -> ContentType.POST;
+            default -> null;
+        };
+        return type != null
+                ? Optional.of(new ForumContentChangedEvent(source, type, translation.getContentId()))
+                : Optional.empty();
+    }
+}
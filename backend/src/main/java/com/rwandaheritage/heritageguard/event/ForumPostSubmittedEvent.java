@@ -0,0 +1,19 @@
+package com.rwandaheritage.heritageguard.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event fired when a forum post is stored pending its automatic content scan, so the
+ * moderation pipeline can pick it up as soon as the creating transaction commits.
+ */
+@Getter
+public class ForumPostSubmittedEvent extends ApplicationEvent {
+
+    private final Long postId;
+
+    public ForumPostSubmittedEvent(Object source, Long postId) {
+        super(source);
+        this.postId = postId;
+    }
+}
@@ -1,5 +1,6 @@
 package com.rwandaheritage.heritageguard.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -40,6 +41,7 @@ public class GlobalExceptionHandler {
     private static final String ERROR_CODE_INTERNAL = "SYS_001";
     private static final String ERROR_CODE_FILE_UPLOAD = "FILE_001";
     private static final String ERROR_CODE_DATABASE = "DB_001";
+    private static final String ERROR_CODE_BUSY = "SYS_002";
 
     /**
      * Create a structured error response
@@ -374,6 +376,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.METHOD_NOT_ALLOWED);
     }
 
+    /**
+     * Handle load shedding by saturated resources
+     */
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceBusy(ServiceBusyException ex) {
+        log.warn("Request shed: {}", ex.getMessage());
+        Map<String, Object> body = createErrorResponse(
+            ERROR_CODE_BUSY,
+            "Service Busy",
+            ex.getMessage(),
+            "Please try again in a few seconds",
+            HttpStatus.SERVICE_UNAVAILABLE
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
+
     /**
      * Handle network timeout exceptions
      */
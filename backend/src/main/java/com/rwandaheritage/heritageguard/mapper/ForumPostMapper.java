@@ -21,6 +21,8 @@ public class ForumPostMapper {
                 .isFlagged(entity.getIsFlagged())
                 .flaggedBy(entity.getFlaggedBy())
                 .flagReason(entity.getFlagReason())
+                .moderationStatus(entity.getModerationStatus() != null ? entity.getModerationStatus().name() : null)
+                .likeCount(entity.getLikeCount())
                 .createdBy(entity.getCreatedBy())
                 .createdDate(entity.getCreatedDate())
                 .updatedBy(entity.getUpdatedBy())
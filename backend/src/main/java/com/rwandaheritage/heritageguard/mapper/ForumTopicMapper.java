@@ -21,6 +21,7 @@ public class ForumTopicMapper {
                 .isActive(entity.getIsActive())
                 .isPinned(entity.getIsPinned())
                 .isLocked(entity.getIsLocked())
+                .likeCount(entity.getLikeCount())
                 .createdBy(entity.getCreatedBy())
                 .createdDate(entity.getCreatedDate())
                 .updatedBy(entity.getUpdatedBy())
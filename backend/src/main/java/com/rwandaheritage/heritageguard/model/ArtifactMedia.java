@@ -21,4 +21,6 @@ public class ArtifactMedia {
     private String filePath;
     private Boolean isPublic;
     private String description;
+    private Long fileSize;
+    private String uploaderUsername;
 }
@@ -7,6 +7,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "community_reports", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"reporter_id", "content_type", "content_id"})
+}, indexes = {
+    @Index(name = "idx_community_report_resolved_reason", columnList = "is_resolved, report_reason"),
+    @Index(name = "idx_community_report_content", columnList = "content_type, content_id"),
+    @Index(name = "idx_community_report_reported_at", columnList = "reported_at")
 })
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class CommunityReport {
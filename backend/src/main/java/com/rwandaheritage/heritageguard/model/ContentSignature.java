@@ -0,0 +1,61 @@
+package com.rwandaheritage.heritageguard.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * SimHash of a forum post or topic, used to find near-duplicate content across accounts.
+ * The four 16-bit bands of the hash are stored (and indexed) separately for banded lookup.
+ */
+@Entity
+@Table(name = "content_signatures",
+        uniqueConstraints = @UniqueConstraint(name = "uk_content_signature_content", columnNames = {"content_type", "content_id"}),
+        indexes = {
+                @Index(name = "idx_content_signature_band0", columnList = "band0, created_date"),
+                @Index(name = "idx_content_signature_band1", columnList = "band1, created_date"),
+                @Index(name = "idx_content_signature_band2", columnList = "band2, created_date"),
+                @Index(name = "idx_content_signature_band3", columnList = "band3, created_date")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContentSignature {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "content_type", nullable = false, length = 10)
+    private ContentType contentType;
+
+    @Column(name = "content_id", nullable = false)
+    private Long contentId;
+
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+
+    @Column(name = "simhash", nullable = false)
+    private long simhash;
+
+    @Column(name = "band0", nullable = false)
+    private int band0;
+
+    @Column(name = "band1", nullable = false)
+    private int band1;
+
+    @Column(name = "band2", nullable = false)
+    private int band2;
+
+    @Column(name = "band3", nullable = false)
+    private int band3;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    public enum ContentType {
+        POST, TOPIC
+    }
+}
@@ -0,0 +1,49 @@
+package com.rwandaheritage.heritageguard.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Text extracted from a document's file (latest version for folder documents,
+ * the uploaded file for site documents). Kept so the search index can be rebuilt
+ * on startup without re-parsing every file.
+ */
+@Entity
+@Table(name = "document_texts", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"source_type", "source_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentText {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "source_type", nullable = false, length = 20)
+    private String sourceType;
+
+    @Column(name = "source_id", nullable = false)
+    private Long sourceId;
+
+    // File the text was extracted from; a different path means the text is stale
+    @Column(name = "file_path", length = 1000)
+    private String filePath;
+
+    @Column(name = "content", columnDefinition = "TEXT")
+    private String content;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ExtractionStatus status;
+
+    @Column(name = "extracted_date")
+    private LocalDateTime extractedDate;
+
+    public enum ExtractionStatus {
+        EXTRACTED, UNSUPPORTED, FAILED
+    }
+}
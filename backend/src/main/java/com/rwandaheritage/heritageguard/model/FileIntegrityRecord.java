@@ -0,0 +1,73 @@
+package com.rwandaheritage.heritageguard.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Last known state of one stored file, maintained by the storage integrity scrubber.
+ * The checksum recorded the first time a file is hashed is the reference: uploads are
+ * written once under unique names, so any later mismatch means the content changed on disk.
+ */
+@Entity
+@Table(name = "file_integrity_records", indexes = {
+        @Index(name = "idx_file_integrity_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileIntegrityRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Absolute, normalized path
+    @Column(name = "file_path", nullable = false, unique = true, length = 1000)
+    private String filePath;
+
+    // Owning row; both null for orphaned files
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source_type", length = 30)
+    private SourceType sourceType;
+
+    @Column(name = "source_id")
+    private Long sourceId;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "last_modified")
+    private Long lastModified;
+
+    // SHA-256 (hex) of the content when the file was first verified
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+
+    // SHA-256 (hex) from the most recent verification
+    @Column(name = "last_checksum", length = 64)
+    private String lastChecksum;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "first_seen_date")
+    private LocalDateTime firstSeenDate;
+
+    @Column(name = "last_verified_date")
+    private LocalDateTime lastVerifiedDate;
+
+    // Last scrub run that saw this file or its row; records left behind by a run are stale
+    @Column(name = "last_scanned_date")
+    private LocalDateTime lastScannedDate;
+
+    public enum Status {
+        OK, MISSING, CORRUPTED, ORPHANED
+    }
+
+    public enum SourceType {
+        SITE_MEDIA, SITE_DOCUMENT, DOCUMENT_VERSION, ARTIFACT_MEDIA, PROVENANCE_DOCUMENT, AUTHENTICATION_DOCUMENT
+    }
+}
@@ -7,6 +7,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "forum_likes", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"user_id", "like_type", "target_id"})
+}, indexes = {
+        @Index(name = "idx_forum_like_target", columnList = "like_type, target_id")
 })
 @Getter
 @Setter
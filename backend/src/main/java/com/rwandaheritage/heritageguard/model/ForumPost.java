@@ -5,7 +5,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "forum_posts")
+@Table(name = "forum_posts", indexes = {
+        @Index(name = "idx_forum_post_topic_parent", columnList = "topic_id, parent_post_id, id"),
+        @Index(name = "idx_forum_post_thread_root", columnList = "root_post_id, ancestor_path")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,6 +33,19 @@ public class ForumPost {
     @Column(name = "parent_post_id")
     private Long parentPostId; // null for top-level posts, ID for replies
 
+    // Top-level post of the thread (null for top-level posts, so a new post needs no generated id)
+    @Column(name = "root_post_id")
+    private Long rootPostId;
+
+    // Zero-padded ids of the post's ancestors from the thread root down to its parent, e.g.
+    // "000000000012/000000000040/"; empty for top-level posts. Ordering a thread by
+    // (path, id) lists every post after its parent and siblings oldest first
+    @Column(name = "ancestor_path", columnDefinition = "TEXT")
+    private String ancestorPath;
+
+    @Column(name = "depth")
+    private Integer depth;
+
     @Column(nullable = false)
     @Builder.Default
     private boolean isActive = true;
@@ -45,6 +61,17 @@ public class ForumPost {
     @Column(length = 500)
     private String flagReason;
 
+    // Automatic content scan; null for posts created before scanning was asynchronous
+    @Enumerated(EnumType.STRING)
+    @Column(name = "moderation_status", length = 20)
+    private ModerationStatus moderationStatus;
+
+    // Number of likes, kept up to date by atomic increments and periodically reconciled
+    // against forum_likes; never written by entity saves so concurrent likes are not lost
+    @Column(name = "like_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0")
+    private long likeCount;
+
     // Audit fields
     private String createdBy;
     private LocalDateTime createdDate;
@@ -58,6 +85,42 @@ public class ForumPost {
     public boolean getIsFlagged() { return isFlagged; }
     public void setIsFlagged(boolean isFlagged) { this.isFlagged = isFlagged; }
 
+    /**
+     * Settle a post that is still waiting for the automatic scan, so a decision taken
+     * meanwhile (deletion, manual moderation) is not overwritten when the scan runs.
+     */
+    public void skipPendingScan() {
+        if (moderationStatus == ModerationStatus.PENDING_SCAN) {
+            moderationStatus = ModerationStatus.MANUAL;
+        }
+    }
+
+    /**
+     * Set the thread position of a new post under its parent (null for a top-level post).
+     * Only the parent is needed, so this runs before the insert.
+     */
+    public void placeInThread(ForumPost parent) {
+        if (parent == null) {
+            rootPostId = null;
+            depth = 0;
+            ancestorPath = "";
+        } else {
+            rootPostId = parent.getRootPostId() != null ? parent.getRootPostId() : parent.getId();
+            depth = parent.getDepth() != null ? parent.getDepth() + 1 : 1;
+            ancestorPath = (parent.getAncestorPath() != null ? parent.getAncestorPath() : "") + pathSegment(parent.getId());
+        }
+    }
+
+    public static final int PATH_SEGMENT_LENGTH = 13;
+
+    public static String pathSegment(Long postId) {
+        return String.format("%012d/", postId);
+    }
+
+    public enum ModerationStatus {
+        PENDING_SCAN, CLEAR, FLAGGED, REJECTED, MANUAL
+    }
+
     @PrePersist
     protected void onCreate() {
         createdDate = LocalDateTime.now();
@@ -45,6 +45,12 @@ public class ForumTopic {
     @Builder.Default
     private boolean isLocked = false;
 
+    // Number of likes, kept up to date by atomic increments and periodically reconciled
+    // against forum_likes; never written by entity saves so concurrent likes are not lost
+    @Column(name = "like_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0")
+    private long likeCount;
+
     // Audit fields
     private String createdBy;
     private LocalDateTime createdDate;
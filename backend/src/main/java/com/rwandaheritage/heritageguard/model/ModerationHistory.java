@@ -5,7 +5,11 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "moderation_history")
+@Table(name = "moderation_history", indexes = {
+        @Index(name = "idx_moderation_history_moderator", columnList = "moderator_id, id"),
+        @Index(name = "idx_moderation_history_content", columnList = "content_type, content_id, id"),
+        @Index(name = "idx_moderation_history_created", columnList = "created_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,78 @@
+package com.rwandaheritage.heritageguard.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A topic or post waiting for a moderator. There is at most one item per piece of content;
+ * further reports and flags raise its severity and report count instead of adding items.
+ * The item is removed once a moderator has acted on the content.
+ *
+ * Items are served highest score first, where the score grows with severity, report count
+ * and time spent in the queue. The age term grows at the same rate for every item, so the
+ * order only depends on {@code rankKey} (the score minus that common term), which is stored
+ * and indexed.
+ */
+@Entity
+@Table(name = "moderation_queue",
+        uniqueConstraints = @UniqueConstraint(name = "uk_moderation_queue_content", columnNames = {"content_type", "content_id"}),
+        indexes = {
+                @Index(name = "idx_moderation_queue_status_rank", columnList = "status, rank_key"),
+                @Index(name = "idx_moderation_queue_status_lease", columnList = "status, lease_expires_at")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ModerationQueueItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "content_type", nullable = false, length = 10)
+    private CommunityReport.ContentType contentType;
+
+    @Column(name = "content_id", nullable = false)
+    private Long contentId;
+
+    // Highest severity of the signals received (1 = low, 3 = high)
+    @Column(name = "severity", nullable = false)
+    private int severity;
+
+    @Column(name = "report_count", nullable = false)
+    private int reportCount;
+
+    // Most recent reason the content was queued
+    @Column(name = "reason", length = 500)
+    private String reason;
+
+    @Column(name = "rank_key", nullable = false)
+    private double rankKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    // A CLAIMED item whose lease has passed goes back to the queue
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "claim_count", nullable = false)
+    private int claimCount;
+
+    @Column(name = "enqueued_at", nullable = false)
+    private LocalDateTime enqueuedAt;
+
+    @Column(name = "last_signal_at", nullable = false)
+    private LocalDateTime lastSignalAt;
+
+    public enum Status {
+        QUEUED, CLAIMED
+    }
+}
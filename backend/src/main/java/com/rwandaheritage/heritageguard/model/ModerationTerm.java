@@ -0,0 +1,76 @@
+package com.rwandaheritage.heritageguard.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A word or phrase the automatic content filter looks for. Terms without a language apply
+ * to posts in every language.
+ */
+@Entity
+@Table(name = "moderation_terms", indexes = {
+        @Index(name = "idx_moderation_term_language", columnList = "language")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ModerationTerm {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 200)
+    private String term;
+
+    // "en", "rw", "fr", or null for all languages
+    @Column(length = 5)
+    private String language;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Category category;
+
+    // Confidence deducted per matched term; null uses the category default
+    private Double weight;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean active = true;
+
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    @Column(name = "updated_date", nullable = false)
+    private LocalDateTime updatedDate;
+
+    @PrePersist
+    protected void onCreate() {
+        createdDate = LocalDateTime.now();
+        updatedDate = createdDate;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedDate = LocalDateTime.now();
+    }
+
+    public enum Category {
+        INAPPROPRIATE(0.1), HATE_SPEECH(0.3);
+
+        private final double defaultWeight;
+
+        Category(double defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+
+        public double getDefaultWeight() {
+            return defaultWeight;
+        }
+    }
+}
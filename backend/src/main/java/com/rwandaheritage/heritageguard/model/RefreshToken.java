@@ -0,0 +1,61 @@
+package com.rwandaheritage.heritageguard.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * One issued refresh token. Tokens rotated from the same login share a family; a token
+ * presented a second time means it was copied, and the whole family is revoked.
+ * Only the token id (jti) is stored, never the token itself.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_token_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_token_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_token_revoked", columnList = "revoked_at"),
+        @Index(name = "idx_refresh_token_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_id", nullable = false, unique = true, length = 36)
+    private String tokenId;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "issued_at", nullable = false)
+    private LocalDateTime issuedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Set when the token is exchanged for its successor
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+
+    @Column(name = "replaced_by", length = 36)
+    private String replacedBy;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "revoke_reason", length = 20)
+    private RevokeReason revokeReason;
+
+    public enum RevokeReason {
+        LOGOUT, REUSE_DETECTED, ADMIN
+    }
+}
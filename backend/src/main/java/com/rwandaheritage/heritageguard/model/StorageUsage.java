@@ -0,0 +1,58 @@
+package com.rwandaheritage.heritageguard.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Incrementally maintained storage counter.
+ * One row per (scope, scopeKey): the platform total, a heritage site, an uploader
+ * or a content type. Rows are adjusted in the same transaction as the upload or
+ * delete that changes them and periodically reconciled against the disk.
+ */
+@Entity
+@Table(name = "storage_usage", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"scope", "scope_key"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorageUsage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, length = 20)
+    private Scope scope;
+
+    @Column(name = "scope_key", nullable = false, length = 100)
+    private String scopeKey;
+
+    @Column(name = "bytes_used", nullable = false)
+    @Builder.Default
+    private Long bytesUsed = 0L;
+
+    @Column(name = "file_count", nullable = false)
+    @Builder.Default
+    private Long fileCount = 0L;
+
+    @Column(name = "updated_date")
+    private LocalDateTime updatedDate;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedDate = LocalDateTime.now();
+    }
+
+    public enum Scope {
+        TOTAL, SITE, USER, CONTENT_TYPE
+    }
+
+    public enum ContentType {
+        SITE_MEDIA, SITE_DOCUMENT, DOCUMENT_VERSION, ARTIFACT_MEDIA, TESTIMONIAL_AVATAR
+    }
+}
@@ -84,7 +84,9 @@ public class User implements UserDetails {
     @Column(name = "reset_token_expiry")
     private LocalDateTime resetTokenExpiry;
     
-    // Account lockout
+    // Account lockout window, in minutes
+    public static final int LOCKOUT_MINUTES = 30;
+
     @Column(name = "failed_login_attempts")
     @Builder.Default
     private int failedLoginAttempts = 0;
@@ -196,7 +198,7 @@ public class User implements UserDetails {
     }
     
     public boolean isLockedOut() {
-        return lockoutTime != null && LocalDateTime.now().isBefore(lockoutTime.plusMinutes(30));
+        return lockoutTime != null && LocalDateTime.now().isBefore(lockoutTime.plusMinutes(LOCKOUT_MINUTES));
     }
     
     public String getPreferredLanguage() {
@@ -43,4 +43,8 @@ public interface ArtifactAuthenticationRepository extends JpaRepository<Artifact
     // Find authentications for multiple artifacts
     @Query("SELECT aa FROM ArtifactAuthentication aa WHERE aa.artifact.id IN :artifactIds")
     List<ArtifactAuthentication> findByArtifactIds(@Param("artifactIds") List<Long> artifactIds);
+
+    // (id, filePath, isActive) keyset batches for the storage integrity scrubber
+    @Query("SELECT aa.id, aa.documentFilePath, true FROM ArtifactAuthentication aa WHERE aa.id > :afterId AND aa.documentFilePath IS NOT NULL ORDER BY aa.id")
+    List<Object[]> findFileRefsAfter(@Param("afterId") Long afterId, org.springframework.data.domain.Pageable pageable);
 } 
\ No newline at end of file
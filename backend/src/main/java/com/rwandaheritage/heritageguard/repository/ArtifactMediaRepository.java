@@ -36,4 +36,12 @@ public interface ArtifactMediaRepository extends JpaRepository<ArtifactMedia, Lo
     // Find media by file extension
     @Query("SELECT am FROM ArtifactMedia am WHERE am.filePath LIKE '%.%' AND LOWER(SUBSTRING(am.filePath, LOCATE('.', am.filePath) + 1)) = LOWER(:extension)")
     List<ArtifactMedia> findByFileExtension(@Param("extension") String extension);
+
+    // Storage reconciliation: file path, owning site and uploader of every media row
+    @Query("SELECT am.filePath, s.id, am.uploaderUsername FROM ArtifactMedia am JOIN am.artifact a LEFT JOIN a.heritageSite s")
+    List<Object[]> findStorageRows();
+
+    // (id, filePath, isActive) keyset batches for the storage integrity scrubber
+    @Query("SELECT am.id, am.filePath, true FROM ArtifactMedia am WHERE am.id > :afterId AND am.filePath IS NOT NULL ORDER BY am.id")
+    List<Object[]> findFileRefsAfter(@Param("afterId") Long afterId, org.springframework.data.domain.Pageable pageable);
 } 
@@ -2,11 +2,18 @@ package com.rwandaheritage.heritageguard.repository;
 
 import com.rwandaheritage.heritageguard.model.CommunityReport;
 import com.rwandaheritage.heritageguard.model.CommunityReport.ContentType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +35,22 @@ public interface CommunityReportRepository extends JpaRepository<CommunityReport
     // Find all unresolved reports
     List<CommunityReport> findByIsResolvedFalseOrderByReportedAtDesc();
     
+    // Keyset page, newest first: reports with an id below beforeId matching the optional filters
+    @Query("SELECT cr FROM CommunityReport cr WHERE cr.id < :beforeId " +
+           "AND (:resolved IS NULL OR cr.isResolved = :resolved) " +
+           "AND (:contentType IS NULL OR cr.contentType = :contentType) " +
+           "AND (:reason IS NULL OR cr.reportReason = :reason) " +
+           "ORDER BY cr.id DESC")
+    List<CommunityReport> findPageBefore(@Param("beforeId") Long beforeId,
+                                         @Param("resolved") Boolean resolved,
+                                         @Param("contentType") ContentType contentType,
+                                         @Param("reason") CommunityReport.ReportReason reason,
+                                         Pageable pageable);
+    
+    // Count unresolved reports per reason
+    @Query("SELECT cr.reportReason, COUNT(cr) FROM CommunityReport cr WHERE cr.isResolved = false GROUP BY cr.reportReason")
+    List<Object[]> countUnresolvedByReason();
+    
     // Find reports by reporter
     List<CommunityReport> findByReporterIdOrderByReportedAtDesc(String reporterId);
     
@@ -67,4 +90,27 @@ public interface CommunityReportRepository extends JpaRepository<CommunityReport
     
     // Find all reports by date
     List<CommunityReport> findAllByOrderByReportedAtDesc();
-} 
\ No newline at end of file
+
+    // === Bulk resolution ===
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT cr FROM CommunityReport cr WHERE cr.id IN :ids ORDER BY cr.id")
+    List<CommunityReport> lockAllById(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CommunityReport cr SET cr.isResolved = true, cr.resolvedBy = :moderator, " +
+           "cr.resolutionAction = :action, cr.resolutionNotes = :notes, cr.resolvedAt = :now, cr.updatedDate = :now " +
+           "WHERE cr.id IN :ids AND cr.isResolved = false")
+    int resolveAll(@Param("ids") Collection<Long> ids, @Param("moderator") String moderator,
+                   @Param("action") String action, @Param("notes") String notes, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CommunityReport cr SET cr.isResolved = true, cr.resolvedBy = :moderator, " +
+           "cr.resolutionAction = :action, cr.resolutionNotes = :notes, cr.resolvedAt = :now, cr.updatedDate = :now " +
+           "WHERE cr.contentType = :contentType AND cr.contentId = :contentId AND cr.isResolved = false")
+    int resolveOpenForContent(@Param("contentType") CommunityReport.ContentType contentType, @Param("contentId") Long contentId,
+                              @Param("moderator") String moderator, @Param("action") String action,
+                              @Param("notes") String notes, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,33 @@
+package com.rwandaheritage.heritageguard.repository;
+
+import com.rwandaheritage.heritageguard.model.ContentSignature;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ContentSignatureRepository extends JpaRepository<ContentSignature, Long> {
+
+    Optional<ContentSignature> findByContentTypeAndContentId(ContentSignature.ContentType contentType, Long contentId);
+
+    // Candidates sharing at least one band; each branch is served by its band index
+    @Query("SELECT s FROM ContentSignature s WHERE s.createdDate >= :since AND " +
+           "(s.band0 = :band0 OR s.band1 = :band1 OR s.band2 = :band2 OR s.band3 = :band3)")
+    List<ContentSignature> findBandCandidates(@Param("band0") int band0,
+                                              @Param("band1") int band1,
+                                              @Param("band2") int band2,
+                                              @Param("band3") int band3,
+                                              @Param("since") LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ContentSignature s WHERE s.createdDate < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
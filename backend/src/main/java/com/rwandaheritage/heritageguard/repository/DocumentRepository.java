@@ -13,6 +13,7 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     // Basic folder operations
     List<Document> findByFolderId(Long folderId);
     List<Document> findByFolderIdAndIsActiveTrue(Long folderId);
+    List<Document> findByFolderIdInAndIsActiveTrue(java.util.Collection<Long> folderIds);
     
     // Search by type
     List<Document> findByType(String type);
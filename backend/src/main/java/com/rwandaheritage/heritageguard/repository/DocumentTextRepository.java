@@ -0,0 +1,15 @@
+package com.rwandaheritage.heritageguard.repository;
+
+import com.rwandaheritage.heritageguard.model.DocumentText;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DocumentTextRepository extends JpaRepository<DocumentText, Long> {
+
+    Optional<DocumentText> findBySourceTypeAndSourceId(String sourceType, Long sourceId);
+
+    void deleteBySourceTypeAndSourceId(String sourceType, Long sourceId);
+}
@@ -2,8 +2,23 @@ package com.rwandaheritage.heritageguard.repository;
 
 import com.rwandaheritage.heritageguard.model.DocumentVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
  
 public interface DocumentVersionRepository extends JpaRepository<DocumentVersion, Long> {
     List<DocumentVersion> findByDocumentIdOrderByVersionNumberDesc(Long documentId);
-} 
\ No newline at end of file
+
+    // Active versions of many documents at once, newest first within each document
+    @Query("SELECT v FROM DocumentVersion v WHERE v.document.id IN :documentIds AND v.isActive = true ORDER BY v.document.id, v.versionNumber DESC")
+    List<DocumentVersion> findActiveByDocumentIds(@Param("documentIds") Collection<Long> documentIds);
+
+    // Storage reconciliation: file path, folder site and creator of every active version
+    @Query("SELECT v.filePath, s.id, v.createdBy FROM DocumentVersion v JOIN v.document d LEFT JOIN d.folder f LEFT JOIN f.site s WHERE v.isActive = true")
+    List<Object[]> findActiveStorageRows();
+
+    // (id, filePath, isActive) keyset batches for the storage integrity scrubber
+    @Query("SELECT v.id, v.filePath, v.isActive FROM DocumentVersion v WHERE v.id > :afterId AND v.filePath IS NOT NULL ORDER BY v.id")
+    List<Object[]> findFileRefsAfter(@Param("afterId") Long afterId, org.springframework.data.domain.Pageable pageable);
+} 
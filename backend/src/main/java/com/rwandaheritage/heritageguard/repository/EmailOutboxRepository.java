@@ -0,0 +1,36 @@
+package com.rwandaheritage.heritageguard.repository;
+
+import com.rwandaheritage.heritageguard.model.EmailOutboxMessage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    // Due messages plus abandoned claims; SKIP LOCKED lets several dispatchers claim disjoint batches
+    @Query(value = "SELECT * FROM email_outbox "
+            + "WHERE (status = 'PENDING' AND next_attempt_at <= :now) "
+            + "OR (status = 'SENDING' AND claimed_until < :now) "
+            + "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutboxMessage> lockDueMessages(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    Page<EmailOutboxMessage> findByStatusOrderByCreatedDateDesc(EmailOutboxMessage.Status status, Pageable pageable);
+
+    @Query("SELECT m.status, COUNT(m) FROM EmailOutboxMessage m GROUP BY m.status")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT MIN(m.createdDate) FROM EmailOutboxMessage m WHERE m.status = 'PENDING' OR m.status = 'SENDING'")
+    LocalDateTime findOldestUnsentCreatedDate();
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = 'SENT' AND m.sentDate < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
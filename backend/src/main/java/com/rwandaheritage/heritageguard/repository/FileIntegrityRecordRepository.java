@@ -0,0 +1,34 @@
+package com.rwandaheritage.heritageguard.repository;
+
+import com.rwandaheritage.heritageguard.model.FileIntegrityRecord;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FileIntegrityRecordRepository extends JpaRepository<FileIntegrityRecord, Long> {
+
+    List<FileIntegrityRecord> findByFilePathIn(Collection<String> filePaths);
+
+    Page<FileIntegrityRecord> findByStatusOrderByLastScannedDateDesc(FileIntegrityRecord.Status status, Pageable pageable);
+
+    Page<FileIntegrityRecord> findByStatusNotOrderByLastScannedDateDesc(FileIntegrityRecord.Status status, Pageable pageable);
+
+    @Query("SELECT r.status, COUNT(r) FROM FileIntegrityRecord r GROUP BY r.status")
+    List<Object[]> countByStatus();
+
+    // Files that were neither referenced nor found on disk during the last run
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FileIntegrityRecord r WHERE r.lastScannedDate < :scanStart OR r.lastScannedDate IS NULL")
+    int deleteNotScannedSince(@Param("scanStart") LocalDateTime scanStart);
+}
@@ -3,8 +3,15 @@ package com.rwandaheritage.heritageguard.repository;
 import com.rwandaheritage.heritageguard.model.ForumLike;
 import com.rwandaheritage.heritageguard.model.ForumLike.LikeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +19,31 @@ public interface ForumLikeRepository extends JpaRepository<ForumLike, Long> {
     long countByLikeTypeAndTargetId(LikeType likeType, Long targetId);
     boolean existsByUserIdAndLikeTypeAndTargetId(String userId, LikeType likeType, Long targetId);
     Optional<ForumLike> findByUserIdAndLikeTypeAndTargetId(String userId, LikeType likeType, Long targetId);
+
+    // Returns 1 when the like was added, 0 when the user already liked the target
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO forum_likes (user_id, like_type, target_id, created_date) " +
+            "VALUES (:userId, :likeType, :targetId, :now) " +
+            "ON CONFLICT (user_id, like_type, target_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") String userId,
+                       @Param("likeType") String likeType,
+                       @Param("targetId") Long targetId,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ForumLike l WHERE l.userId = :userId AND l.likeType = :likeType AND l.targetId = :targetId")
+    int deleteLike(@Param("userId") String userId, @Param("likeType") LikeType likeType, @Param("targetId") Long targetId);
+
+    // Which of the given targets the user liked
+    @Query("SELECT l.targetId FROM ForumLike l WHERE l.userId = :userId AND l.likeType = :likeType AND l.targetId IN :targetIds")
+    List<Long> findLikedTargetIds(@Param("userId") String userId,
+                                  @Param("likeType") LikeType likeType,
+                                  @Param("targetIds") Collection<Long> targetIds);
+
+    // Posts of the given threads the user liked
+    @Query("SELECT l.targetId FROM ForumLike l, ForumPost p WHERE l.userId = :userId AND l.likeType = 'POST' " +
+           "AND l.targetId = p.id AND (p.id IN :rootIds OR p.rootPostId IN :rootIds)")
+    List<Long> findLikedPostIdsInThreads(@Param("userId") String userId, @Param("rootIds") Collection<Long> rootIds);
 } 
\ No newline at end of file
@@ -4,10 +4,16 @@ import com.rwandaheritage.heritageguard.model.ForumPost;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -58,6 +64,9 @@ public interface ForumPostRepository extends JpaRepository<ForumPost, Long> {
            "WHERE p.isActive = true GROUP BY p.id")
     List<Object[]> getPostReplyCounts();
     
+    // Keyset batches of all active posts, for rebuilding derived data
+    List<ForumPost> findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+    
     // Find posts by topic and language
     Page<ForumPost> findByTopicIdAndLanguageAndIsActiveTrue(Long topicId, String language, Pageable pageable);
     
@@ -116,4 +125,133 @@ public interface ForumPostRepository extends JpaRepository<ForumPost, Long> {
             @Param("createdBy") String createdBy,
             @Param("parentPostId") Long parentPostId,
             Pageable pageable);
-} 
\ No newline at end of file
+
+    // === Asynchronous moderation ===
+
+    // SKIP LOCKED lets several moderation workers claim disjoint batches
+    @Query(value = "SELECT * FROM forum_posts WHERE moderation_status = 'PENDING_SCAN' " +
+           "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ForumPost> lockPendingScan(@Param("limit") int limit);
+
+    long countByModerationStatus(ForumPost.ModerationStatus moderationStatus);
+
+    @Query("SELECT MIN(p.createdDate) FROM ForumPost p WHERE p.moderationStatus = 'PENDING_SCAN'")
+    LocalDateTime findOldestPendingScanCreatedDate();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumPost p SET p.moderationStatus = 'CLEAR', p.isActive = true, p.updatedDate = :now " +
+           "WHERE p.id IN :ids AND p.moderationStatus = 'PENDING_SCAN'")
+    int markScanClear(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumPost p SET p.moderationStatus = 'FLAGGED', p.isActive = true, p.isFlagged = true, " +
+           "p.flaggedBy = 'SYSTEM', p.flagReason = :reason, p.updatedBy = 'SYSTEM', p.updatedDate = :now " +
+           "WHERE p.id = :id AND p.moderationStatus = 'PENDING_SCAN'")
+    int markScanFlagged(@Param("id") Long id, @Param("reason") String reason, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumPost p SET p.moderationStatus = 'REJECTED', p.isActive = false, " +
+           "p.updatedBy = 'SYSTEM', p.updatedDate = :now " +
+           "WHERE p.id = :id AND p.moderationStatus = 'PENDING_SCAN'")
+    int markScanRejected(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // === Bulk moderation ===
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM ForumPost p WHERE p.id IN :ids ORDER BY p.id")
+    List<ForumPost> lockAllById(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumPost p SET p.isActive = true, p.isFlagged = false, p.updatedBy = :moderator, p.updatedDate = :now " +
+           "WHERE p.id IN :ids")
+    int bulkApprove(@Param("ids") Collection<Long> ids, @Param("moderator") String moderator, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumPost p SET p.isActive = false, p.updatedBy = :moderator, p.updatedDate = :now WHERE p.id IN :ids")
+    int bulkDeactivate(@Param("ids") Collection<Long> ids, @Param("moderator") String moderator, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumPost p SET p.isFlagged = true, p.flaggedBy = :moderator, p.flagReason = :reason, " +
+           "p.updatedBy = :moderator, p.updatedDate = :now WHERE p.id IN :ids")
+    int bulkFlag(@Param("ids") Collection<Long> ids, @Param("moderator") String moderator,
+                 @Param("reason") String reason, @Param("now") LocalDateTime now);
+
+    // Dismissing a flag leaves the post as it is apart from the flag
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumPost p SET p.isFlagged = false, p.updatedBy = :moderator, p.updatedDate = :now " +
+           "WHERE p.id = :id AND p.isFlagged = true")
+    int clearFlag(@Param("id") Long id, @Param("moderator") String moderator, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumPost p SET p.updatedBy = :moderator, p.updatedDate = :now WHERE p.id IN :ids")
+    int bulkTouch(@Param("ids") Collection<Long> ids, @Param("moderator") String moderator, @Param("now") LocalDateTime now);
+
+    // Bulk equivalent of ForumPost.skipPendingScan
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumPost p SET p.moderationStatus = :settled WHERE p.id IN :ids AND p.moderationStatus = :pending")
+    int bulkSkipPendingScan(@Param("ids") Collection<Long> ids,
+                            @Param("pending") ForumPost.ModerationStatus pending,
+                            @Param("settled") ForumPost.ModerationStatus settled);
+
+    // === Threads ===
+
+    // Keyset page of a topic's threads (by root post id, oldest first) that have a visible post;
+    // a thread whose root is hidden or deleted still counts when some of its replies are visible
+    @Query("SELECT COALESCE(p.rootPostId, p.id) FROM ForumPost p WHERE p.topic.id = :topicId " +
+           "AND p.isActive = true AND COALESCE(p.rootPostId, p.id) > :afterId " +
+           "GROUP BY COALESCE(p.rootPostId, p.id) ORDER BY COALESCE(p.rootPostId, p.id)")
+    List<Long> findThreadRootIds(@Param("topicId") Long topicId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Every visible post of the given threads, thread by thread, each listed after its parent
+    @Query("SELECT p FROM ForumPost p WHERE (p.id IN :rootIds OR p.rootPostId IN :rootIds) AND p.isActive = true " +
+           "ORDER BY COALESCE(p.rootPostId, p.id), p.ancestorPath, p.id")
+    List<ForumPost> findThreadsInPathOrder(@Param("rootIds") Collection<Long> rootIds);
+
+    boolean existsByAncestorPathIsNull();
+
+    // Thread position for posts created before threads were stored; parents always have lower ids
+    @Modifying
+    @Transactional
+    @Query(value = "WITH RECURSIVE thread AS (" +
+           "SELECT id, CAST(NULL AS bigint) AS root_id, id AS thread_id, CAST('' AS text) AS path, 0 AS depth " +
+           "FROM forum_posts WHERE parent_post_id IS NULL " +
+           "UNION ALL " +
+           "SELECT p.id, t.thread_id, t.thread_id, t.path || LPAD(CAST(t.id AS text), 12, '0') || '/', t.depth + 1 " +
+           "FROM forum_posts p JOIN thread t ON p.parent_post_id = t.id AND p.id > t.id) " +
+           "UPDATE forum_posts f SET root_post_id = t.root_id, ancestor_path = t.path, depth = t.depth " +
+           "FROM thread t WHERE f.id = t.id AND f.ancestor_path IS NULL", nativeQuery = true)
+    int assignMissingThreadPaths();
+
+    // === Like counters ===
+
+    @Query("SELECT p.likeCount FROM ForumPost p WHERE p.id = :id")
+    Optional<Long> findLikeCountById(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumPost p SET p.likeCount = p.likeCount + 1 WHERE p.id = :id")
+    int incrementLikeCount(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumPost p SET p.likeCount = p.likeCount - 1 WHERE p.id = :id AND p.likeCount > 0")
+    int decrementLikeCount(@Param("id") Long id);
+
+    // Set every counter that differs from the number of rows in forum_likes
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE forum_posts p SET like_count = COALESCE(l.cnt, 0) " +
+           "FROM forum_posts p2 LEFT JOIN (SELECT target_id, COUNT(*) AS cnt FROM forum_likes " +
+           "WHERE like_type = 'POST' GROUP BY target_id) l ON l.target_id = p2.id " +
+           "WHERE p2.id = p.id AND p.like_count <> COALESCE(l.cnt, 0)", nativeQuery = true)
+    int reconcileLikeCounts();
+}
@@ -4,11 +4,18 @@ import com.rwandaheritage.heritageguard.model.ForumTopic;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ForumTopicRepository extends JpaRepository<ForumTopic, Long> {
@@ -111,4 +118,60 @@ public interface ForumTopicRepository extends JpaRepository<ForumTopic, Long> {
     
     // Find public topics by category and language
     List<ForumTopic> findByCategoryIdAndLanguageAndIsPublicTrueAndIsActiveTrue(Long categoryId, String language);
-} 
\ No newline at end of file
+
+    // === Bulk moderation ===
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM ForumTopic t WHERE t.id IN :ids ORDER BY t.id")
+    List<ForumTopic> lockAllById(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumTopic t SET t.isActive = true, t.isPublic = true, t.updatedBy = :moderator, t.updatedDate = :now " +
+           "WHERE t.id IN :ids")
+    int bulkApprove(@Param("ids") Collection<Long> ids, @Param("moderator") String moderator, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumTopic t SET t.isActive = false, t.updatedBy = :moderator, t.updatedDate = :now WHERE t.id IN :ids")
+    int bulkDeactivate(@Param("ids") Collection<Long> ids, @Param("moderator") String moderator, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumTopic t SET t.isLocked = true, t.updatedBy = :moderator, t.updatedDate = :now WHERE t.id IN :ids")
+    int bulkLock(@Param("ids") Collection<Long> ids, @Param("moderator") String moderator, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumTopic t SET t.isPinned = true, t.updatedBy = :moderator, t.updatedDate = :now WHERE t.id IN :ids")
+    int bulkPin(@Param("ids") Collection<Long> ids, @Param("moderator") String moderator, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumTopic t SET t.updatedBy = :moderator, t.updatedDate = :now WHERE t.id IN :ids")
+    int bulkTouch(@Param("ids") Collection<Long> ids, @Param("moderator") String moderator, @Param("now") LocalDateTime now);
+
+    // === Like counters ===
+
+    @Query("SELECT t.likeCount FROM ForumTopic t WHERE t.id = :id")
+    Optional<Long> findLikeCountById(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumTopic t SET t.likeCount = t.likeCount + 1 WHERE t.id = :id")
+    int incrementLikeCount(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ForumTopic t SET t.likeCount = t.likeCount - 1 WHERE t.id = :id AND t.likeCount > 0")
+    int decrementLikeCount(@Param("id") Long id);
+
+    // Set every counter that differs from the number of rows in forum_likes
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE forum_topics t SET like_count = COALESCE(l.cnt, 0) " +
+           "FROM forum_topics t2 LEFT JOIN (SELECT target_id, COUNT(*) AS cnt FROM forum_likes " +
+           "WHERE like_type = 'TOPIC' GROUP BY target_id) l ON l.target_id = t2.id " +
+           "WHERE t2.id = t.id AND t.like_count <> COALESCE(l.cnt, 0)", nativeQuery = true)
+    int reconcileLikeCounts();
+}
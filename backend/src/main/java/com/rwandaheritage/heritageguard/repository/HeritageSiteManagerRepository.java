@@ -56,4 +56,10 @@ public interface HeritageSiteManagerRepository extends JpaRepository<HeritageSit
      * Find all manager assignments by heritage site ID (for cleanup)
      */
     List<HeritageSiteManager> findByHeritageSiteId(Long heritageSiteId);
+
+    /**
+     * Ids of the sites a user actively manages
+     */
+    @Query("SELECT m.heritageSite.id FROM HeritageSiteManager m WHERE m.user.id = :userId AND m.status = 'ACTIVE'")
+    List<Long> findActiveSiteIdsByUserId(@Param("userId") Long userId);
 }
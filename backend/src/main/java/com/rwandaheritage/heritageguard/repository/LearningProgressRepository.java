@@ -1,9 +1,14 @@
 package com.rwandaheritage.heritageguard.repository;
 
 import com.rwandaheritage.heritageguard.model.LearningProgress;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface LearningProgressRepository extends JpaRepository<LearningProgress, Long> {
@@ -13,4 +18,20 @@ public interface LearningProgressRepository extends JpaRepository<LearningProgre
     List<LearningProgress> findByStatus(LearningProgress.ProgressStatus status);
     List<LearningProgress> findTop10ByOrderByLastAccessedDateDesc();
     List<LearningProgress> findByQuizIdNotNullOrderByCompletedDateDesc();
+
+    // Keyset page, newest first
+    List<LearningProgress> findByIdLessThanOrderByIdDesc(Long beforeId, Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM LearningProgress p WHERE p.articleId IS NOT NULL AND p.status = 'COMPLETED'")
+    long countCompletedArticles();
+
+    @Query("SELECT COUNT(p) FROM LearningProgress p WHERE p.quizId IS NOT NULL AND p.status = 'COMPLETED'")
+    long countCompletedQuizzes();
+
+    @Query("SELECT AVG(p.completionPercentage) FROM LearningProgress p WHERE p.quizId IS NOT NULL AND p.completionPercentage IS NOT NULL")
+    Double averageQuizScore();
+
+    // Days with any activity since the given time
+    @Query("SELECT DISTINCT CAST(p.lastAccessedDate AS LocalDate) FROM LearningProgress p WHERE p.lastAccessedDate >= :since")
+    List<LocalDate> findActivityDatesSince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,77 @@
+package com.rwandaheritage.heritageguard.repository;
+
+import com.rwandaheritage.heritageguard.model.ModerationHistory;
+import com.rwandaheritage.heritageguard.model.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch inserts for rows written in bulk by moderation actions.
+ *
+ * Both tables use IDENTITY keys, which make Hibernate insert one row per statement; a JDBC
+ * batch sends them in chunks instead (as multi-row inserts with reWriteBatchedInserts=true).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ModerationBatchInsertRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_HISTORY = "INSERT INTO moderation_history "
+            + "(moderator_id, content_type, content_id, action_type, action_reason, previous_status, new_status, "
+            + "automated, confidence_score, bulk_action_id, affected_count, created_by, created_date, updated_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_NOTIFICATION = "INSERT INTO notifications "
+            + "(user_id, type, content, related_url, is_read, is_active, created_by, created_date, updated_date) "
+            + "VALUES (?, ?, ?, ?, false, true, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertHistory(List<ModerationHistory> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_HISTORY, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.getModeratorId());
+            ps.setString(2, row.getContentType());
+            ps.setLong(3, row.getContentId());
+            ps.setString(4, row.getActionType());
+            ps.setString(5, row.getActionReason());
+            ps.setString(6, row.getPreviousStatus());
+            ps.setString(7, row.getNewStatus());
+            ps.setBoolean(8, row.isAutomated());
+            if (row.getConfidenceScore() != null) {
+                ps.setDouble(9, row.getConfidenceScore());
+            } else {
+                ps.setNull(9, Types.DOUBLE);
+            }
+            ps.setString(10, row.getBulkActionId());
+            if (row.getAffectedCount() != null) {
+                ps.setInt(11, row.getAffectedCount());
+            } else {
+                ps.setNull(11, Types.INTEGER);
+            }
+            ps.setString(12, row.getCreatedBy());
+            ps.setTimestamp(13, now);
+            ps.setTimestamp(14, now);
+        });
+    }
+
+    public void insertNotifications(List<Notification> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, rows, BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.getUserId());
+            ps.setString(2, row.getType());
+            ps.setString(3, row.getContent());
+            ps.setString(4, row.getRelatedUrl());
+            ps.setString(5, row.getCreatedBy());
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+        });
+    }
+}
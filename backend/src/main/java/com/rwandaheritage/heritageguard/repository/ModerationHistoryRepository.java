@@ -39,6 +39,26 @@ public interface ModerationHistoryRepository extends JpaRepository<ModerationHis
                                                        @Param("startDate") LocalDateTime startDate, 
                                                        @Param("endDate") LocalDateTime endDate);
     
+    // Keyset page, newest first: entries with an id below beforeId matching the optional filters
+    @Query("SELECT mh FROM ModerationHistory mh WHERE mh.id < :beforeId " +
+           "AND (:moderatorId IS NULL OR mh.moderatorId = :moderatorId) " +
+           "AND (:contentType IS NULL OR mh.contentType = :contentType) " +
+           "AND (:contentId IS NULL OR mh.contentId = :contentId) " +
+           "AND (:actionType IS NULL OR mh.actionType = :actionType) " +
+           "AND (:automated IS NULL OR mh.automated = :automated) " +
+           "AND (:startDate IS NULL OR mh.createdDate >= :startDate) " +
+           "AND (:endDate IS NULL OR mh.createdDate <= :endDate) " +
+           "ORDER BY mh.id DESC")
+    List<ModerationHistory> findPageBefore(@Param("beforeId") Long beforeId,
+                                           @Param("moderatorId") String moderatorId,
+                                           @Param("contentType") String contentType,
+                                           @Param("contentId") Long contentId,
+                                           @Param("actionType") String actionType,
+                                           @Param("automated") Boolean automated,
+                                           @Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate,
+                                           Pageable pageable);
+    
     // Count moderation actions by type
     @Query("SELECT mh.actionType, COUNT(mh) FROM ModerationHistory mh WHERE mh.createdDate >= :since GROUP BY mh.actionType")
     List<Object[]> countActionsByTypeSince(@Param("since") LocalDateTime since);
@@ -0,0 +1,78 @@
+package com.rwandaheritage.heritageguard.repository;
+
+import com.rwandaheritage.heritageguard.model.CommunityReport;
+import com.rwandaheritage.heritageguard.model.ModerationQueueItem;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ModerationQueueRepository extends JpaRepository<ModerationQueueItem, Long> {
+
+    // Atomic upsert: a new signal for queued content raises its severity and report count and
+    // re-ranks it, keeping its original enqueue time
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO moderation_queue AS q (content_type, content_id, severity, report_count, reason, " +
+            "rank_key, status, claim_count, enqueued_at, last_signal_at) " +
+            "VALUES (:contentType, :contentId, :severity, :reports, :reason, " +
+            ":severity * :severityWeight + :reports * :reportWeight - :ageWeight * :nowHours, 'QUEUED', 0, :now, :now) " +
+            "ON CONFLICT (content_type, content_id) DO UPDATE SET " +
+            "severity = GREATEST(q.severity, EXCLUDED.severity), " +
+            "report_count = q.report_count + EXCLUDED.report_count, " +
+            "reason = COALESCE(EXCLUDED.reason, q.reason), " +
+            "rank_key = GREATEST(q.severity, EXCLUDED.severity) * :severityWeight " +
+            "+ (q.report_count + EXCLUDED.report_count) * :reportWeight " +
+            "- :ageWeight * EXTRACT(EPOCH FROM q.enqueued_at) / 3600.0, " +
+            "last_signal_at = EXCLUDED.last_signal_at", nativeQuery = true)
+    int enqueue(@Param("contentType") String contentType,
+                @Param("contentId") Long contentId,
+                @Param("severity") int severity,
+                @Param("reports") int reports,
+                @Param("reason") String reason,
+                @Param("severityWeight") double severityWeight,
+                @Param("reportWeight") double reportWeight,
+                @Param("ageWeight") double ageWeight,
+                @Param("nowHours") double nowHours,
+                @Param("now") LocalDateTime now);
+
+    // Highest ranked unclaimed items; SKIP LOCKED lets several moderators claim disjoint batches
+    @Query(value = "SELECT * FROM moderation_queue WHERE status = 'QUEUED' " +
+            "ORDER BY rank_key DESC LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ModerationQueueItem> lockNextQueued(@Param("limit") int limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT q FROM ModerationQueueItem q WHERE q.id = :id")
+    Optional<ModerationQueueItem> lockById(@Param("id") Long id);
+
+    List<ModerationQueueItem> findByStatusAndClaimedByOrderByRankKeyDesc(ModerationQueueItem.Status status, String claimedBy);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ModerationQueueItem q SET q.status = 'QUEUED', q.claimedBy = null, q.leaseExpiresAt = null " +
+           "WHERE q.status = 'CLAIMED' AND q.leaseExpiresAt < :now")
+    int releaseExpiredLeases(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ModerationQueueItem q WHERE q.contentType = :contentType AND q.contentId IN :contentIds")
+    int deleteForContent(@Param("contentType") CommunityReport.ContentType contentType,
+                         @Param("contentIds") Collection<Long> contentIds);
+
+    boolean existsByContentTypeAndContentId(CommunityReport.ContentType contentType, Long contentId);
+
+    long countByStatus(ModerationQueueItem.Status status);
+
+    @Query("SELECT MIN(q.enqueuedAt) FROM ModerationQueueItem q WHERE q.status = 'QUEUED'")
+    LocalDateTime findOldestQueuedEnqueuedAt();
+}
@@ -0,0 +1,23 @@
+package com.rwandaheritage.heritageguard.repository;
+
+import com.rwandaheritage.heritageguard.model.ModerationTerm;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ModerationTermRepository extends JpaRepository<ModerationTerm, Long> {
+
+    List<ModerationTerm> findByActiveTrue();
+
+    List<ModerationTerm> findAllByOrderByLanguageAscTermAsc();
+
+    /**
+     * Row count and latest change; differs from the last load whenever a term was added,
+     * edited or deleted.
+     */
+    @Query("SELECT COUNT(t), MAX(t.updatedDate) FROM ModerationTerm t")
+    List<Object[]> findVersion();
+}
@@ -46,4 +46,8 @@ public interface ProvenanceRecordRepository extends JpaRepository<ProvenanceReco
     // Find provenance records by ownership chain
     @Query("SELECT pr FROM ProvenanceRecord pr WHERE pr.previousOwner = :owner OR pr.newOwner = :owner")
     List<ProvenanceRecord> findByOwner(@Param("owner") String owner);
+
+    // (id, filePath, isActive) keyset batches for the storage integrity scrubber
+    @Query("SELECT pr.id, pr.documentFilePath, true FROM ProvenanceRecord pr WHERE pr.id > :afterId AND pr.documentFilePath IS NOT NULL ORDER BY pr.id")
+    List<Object[]> findFileRefsAfter(@Param("afterId") Long afterId, org.springframework.data.domain.Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.rwandaheritage.heritageguard.repository;
+
+import com.rwandaheritage.heritageguard.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenId(String tokenId);
+
+    /**
+     * Claim a token for rotation; only one caller can win, a second presentation updates nothing
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.usedAt = :now, t.replacedBy = :replacedBy " +
+           "WHERE t.id = :id AND t.usedAt IS NULL AND t.revokedAt IS NULL")
+    int markUsed(@Param("id") Long id, @Param("replacedBy") String replacedBy, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now, t.revokeReason = :reason " +
+           "WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("reason") RefreshToken.RevokeReason reason,
+                     @Param("now") LocalDateTime now);
+
+    @Query("SELECT DISTINCT t.familyId FROM RefreshToken t WHERE t.userId = :userId AND t.revokedAt IS NULL")
+    List<String> findActiveFamilyIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Revoked families with their latest revocation time, for rebuilding the revocation list
+     */
+    @Query("SELECT t.familyId, MAX(t.revokedAt) FROM RefreshToken t WHERE t.revokedAt > :since GROUP BY t.familyId")
+    List<Object[]> findFamiliesRevokedSince(@Param("since") LocalDateTime since);
+
+    // Keep revoked rows until no access token of their family can still be valid
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :expiredBefore AND (t.revokedAt IS NULL OR t.revokedAt < :revokedBefore)")
+    int deleteExpired(@Param("expiredBefore") LocalDateTime expiredBefore, @Param("revokedBefore") LocalDateTime revokedBefore);
+}
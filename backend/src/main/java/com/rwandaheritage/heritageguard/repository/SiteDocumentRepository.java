@@ -88,4 +88,12 @@ public interface SiteDocumentRepository extends JpaRepository<SiteDocument, Long
 
     @Query("SELECT new map(sd.id as id, sd.fileName as fileName, sd.uploaderUsername as user, 'viewed' as action, sd.lastViewedAt as timestamp) FROM SiteDocument sd WHERE sd.isActive = true AND sd.lastViewedAt IS NOT NULL ORDER BY sd.lastViewedAt DESC")
     java.util.List<java.util.Map<String, Object>> getRecentActivities(@Param("limit") int limit);
+
+    // Storage reconciliation: file path, site and uploader of every active document row
+    @Query("SELECT sd.filePath, s.id, sd.uploaderUsername FROM SiteDocument sd LEFT JOIN sd.heritageSite s WHERE sd.isActive = true")
+    List<Object[]> findActiveStorageRows();
+
+    // (id, filePath, isActive) keyset batches for the storage integrity scrubber
+    @Query("SELECT sd.id, sd.filePath, sd.isActive FROM SiteDocument sd WHERE sd.id > :afterId AND sd.filePath IS NOT NULL ORDER BY sd.id")
+    List<Object[]> findFileRefsAfter(@Param("afterId") Long afterId, org.springframework.data.domain.Pageable pageable);
 } 
\ No newline at end of file
@@ -30,4 +30,12 @@ public interface SiteMediaRepository extends JpaRepository<SiteMedia, Long> {
     // Find media by file type
     List<SiteMedia> findByFileTypeAndIsActiveTrue(String fileType);
     List<SiteMedia> findByHeritageSiteIdAndFileTypeAndIsActiveTrue(Long heritageSiteId, String fileType);
+
+    // Storage reconciliation: file path, site and uploader of every active media row
+    @Query("SELECT sm.filePath, s.id, sm.uploaderUsername FROM SiteMedia sm LEFT JOIN sm.heritageSite s WHERE sm.isActive = true")
+    List<Object[]> findActiveStorageRows();
+
+    // (id, filePath, isActive) keyset batches for the storage integrity scrubber
+    @Query("SELECT m.id, m.filePath, m.isActive FROM SiteMedia m WHERE m.id > :afterId AND m.filePath IS NOT NULL ORDER BY m.id")
+    List<Object[]> findFileRefsAfter(@Param("afterId") Long afterId, org.springframework.data.domain.Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.rwandaheritage.heritageguard.repository;
+
+import com.rwandaheritage.heritageguard.model.StorageUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StorageUsageRepository extends JpaRepository<StorageUsage, Long> {
+
+    Optional<StorageUsage> findByScopeAndScopeKey(StorageUsage.Scope scope, String scopeKey);
+
+    List<StorageUsage> findByScopeOrderByBytesUsedDesc(StorageUsage.Scope scope);
+
+    // Atomic counter adjustment; creates the row on first use so concurrent uploads never lose an update
+    @Modifying
+    @Query(value = "INSERT INTO storage_usage (scope, scope_key, bytes_used, file_count, updated_date) " +
+            "VALUES (:scope, :scopeKey, :bytes, :files, now()) " +
+            "ON CONFLICT (scope, scope_key) DO UPDATE SET " +
+            "bytes_used = storage_usage.bytes_used + EXCLUDED.bytes_used, " +
+            "file_count = storage_usage.file_count + EXCLUDED.file_count, " +
+            "updated_date = now()", nativeQuery = true)
+    int adjust(@Param("scope") String scope,
+               @Param("scopeKey") String scopeKey,
+               @Param("bytes") long bytes,
+               @Param("files") long files);
+
+    // Blocks counter adjustments (but not reads) until the transaction ends; waits for
+    // uploads that already adjusted a counter to commit first. Hold it briefly: every
+    // upload and removal waits on it
+    @Modifying
+    @Query(value = "LOCK TABLE storage_usage IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForReconcile();
+}
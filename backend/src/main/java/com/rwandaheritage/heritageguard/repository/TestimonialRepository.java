@@ -73,5 +73,9 @@ public interface TestimonialRepository extends JpaRepository<Testimonial, Long>
            "t.isApproved = true AND t.isActive = true " +
            "ORDER BY t.createdDate DESC")
     List<Testimonial> findBySearchTermAndIsApprovedTrueAndIsActiveTrue(@Param("searchTerm") String searchTerm);
+
+    // Storage reconciliation: avatar path and author of every active testimonial with an avatar
+    @Query("SELECT t.avatarFilePath, t.createdBy FROM Testimonial t WHERE t.isActive = true AND t.avatarFilePath IS NOT NULL")
+    List<Object[]> findActiveAvatarStorageRows();
 }
 
@@ -1,6 +1,7 @@
 package com.rwandaheritage.heritageguard.repository;
 
 import com.rwandaheritage.heritageguard.model.TranslationMemory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,6 +16,9 @@ public interface TranslationMemoryRepository extends JpaRepository<TranslationMe
     Optional<TranslationMemory> findBySourceTextAndSourceLanguageAndTargetLanguage(
         String sourceText, String sourceLanguage, String targetLanguage);
     
+    // Keyset page, newest first
+    List<TranslationMemory> findByIdLessThanOrderByIdDesc(Long beforeId, Pageable pageable);
+    
     // Find translation memory by source text (fuzzy search)
     List<TranslationMemory> findBySourceTextContainingIgnoreCase(String sourceText);
     
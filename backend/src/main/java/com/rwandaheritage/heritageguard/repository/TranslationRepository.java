@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +19,10 @@ public interface TranslationRepository extends JpaRepository<Translation, Long>
     // Find all translations for a specific content
     List<Translation> findByContentTypeAndContentId(Translation.ContentType contentType, Long contentId);
     
+    // Find translations of several items of one content type in a given status
+    List<Translation> findByContentTypeAndContentIdInAndStatus(
+        Translation.ContentType contentType, Collection<Long> contentIds, Translation.TranslationStatus status);
+    
     // Find translations by content type and language
     List<Translation> findByContentTypeAndLanguageCode(Translation.ContentType contentType, String languageCode);
     
@@ -3,9 +3,11 @@ package com.rwandaheritage.heritageguard.repository;
 import com.rwandaheritage.heritageguard.model.User;
 import com.rwandaheritage.heritageguard.model.UserStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -258,4 +260,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.role = 'HERITAGE_MANAGER' AND u.userStatus = 'ACTIVE' AND " +
            "u.id NOT IN (SELECT hsm.user.id FROM HeritageSiteManager hsm WHERE hsm.status = 'ACTIVE')")
     List<User> findAvailableHeritageManagers();
-}
\ No newline at end of file
+
+    // ===== Narrow login bookkeeping updates (avoid rewriting the whole user row) =====
+
+    /**
+     * Count a failed login in a single statement, so concurrent failures cannot lose increments
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.failedLoginAttempts = u.failedLoginAttempts + 1 WHERE u.username = :username")
+    int recordFailedLogin(@Param("username") String username);
+
+    /**
+     * Clear failed login attempts; matches (and locks) no row when there is nothing to clear
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.failedLoginAttempts = 0, u.lockoutTime = NULL " +
+           "WHERE u.id = :id AND (u.failedLoginAttempts <> 0 OR u.lockoutTime IS NOT NULL)")
+    int clearFailedLogins(@Param("id") Long id);
+
+    /**
+     * Move last login forward; never backwards when coalesced flushes arrive out of order
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin WHERE u.id = :id AND (u.lastLogin IS NULL OR u.lastLogin < :lastLogin)")
+    int updateLastLogin(@Param("id") Long id, @Param("lastLogin") LocalDateTime lastLogin);
+}
@@ -0,0 +1,113 @@
+package com.rwandaheritage.heritageguard.security;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.rwandaheritage.heritageguard.model.User;
+import org.springframework.security.core.Authentication;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * What the current principal may do: role bits plus the heritage sites it manages.
+ *
+ * Built once per request by {@link AccessContextProvider}; permission checks that used to
+ * stream authorities or query manager assignments for every row read this instead. The
+ * assigned sites are only loaded when a check first needs them.
+ */
+public final class AccessContext {
+
+    private static final AccessContext ANONYMOUS = new AccessContext(null, null, null, EnumSet.noneOf(User.Role.class), Set::of);
+
+    private static final Set<User.Role> MEMBER_ROLES = EnumSet.of(
+            User.Role.SYSTEM_ADMINISTRATOR, User.Role.HERITAGE_MANAGER, User.Role.CONTENT_MANAGER, User.Role.COMMUNITY_MEMBER);
+    private static final Set<User.Role> STAFF_ROLES = EnumSet.of(
+            User.Role.SYSTEM_ADMINISTRATOR, User.Role.HERITAGE_MANAGER, User.Role.CONTENT_MANAGER);
+
+    private final Authentication authentication;
+    private final Long userId;
+    private final String username;
+    private final Set<User.Role> roles;
+    private final Supplier<Set<Long>> assignedSiteIds;
+
+    AccessContext(Authentication authentication, Long userId, String username, Set<User.Role> roles,
+                  Supplier<Set<Long>> assignedSiteIds) {
+        this.authentication = authentication;
+        this.userId = userId;
+        this.username = username;
+        this.roles = roles;
+        this.assignedSiteIds = Suppliers.memoize(assignedSiteIds);
+    }
+
+    public static AccessContext anonymous() {
+        return ANONYMOUS;
+    }
+
+    boolean belongsTo(Authentication candidate) {
+        return authentication == candidate;
+    }
+
+    public boolean isAuthenticated() {
+        return username != null;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public boolean hasRole(User.Role role) {
+        return roles.contains(role);
+    }
+
+    public boolean hasAnyRole(Collection<String> roleNames) {
+        for (User.Role role : roles) {
+            if (roleNames.contains(role.name())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isSystemAdministrator() {
+        return roles.contains(User.Role.SYSTEM_ADMINISTRATOR);
+    }
+
+    public boolean isHeritageManager() {
+        return roles.contains(User.Role.HERITAGE_MANAGER);
+    }
+
+    /**
+     * Administrators, heritage managers and content managers.
+     */
+    public boolean isStaff() {
+        return !Collections.disjoint(roles, STAFF_ROLES);
+    }
+
+    /**
+     * Any signed-in role except guest.
+     */
+    public boolean isMember() {
+        return !Collections.disjoint(roles, MEMBER_ROLES);
+    }
+
+    public Set<Long> getAssignedSiteIds() {
+        return assignedSiteIds.get();
+    }
+
+    public boolean isAssignedToSite(Long siteId) {
+        return siteId != null && isHeritageManager() && getAssignedSiteIds().contains(siteId);
+    }
+
+    /**
+     * Administrators manage every site, heritage managers only the ones assigned to them.
+     */
+    public boolean canManageSite(Long siteId) {
+        return isSystemAdministrator() || isAssignedToSite(siteId);
+    }
+}
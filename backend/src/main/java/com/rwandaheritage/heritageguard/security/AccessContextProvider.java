@@ -0,0 +1,70 @@
+package com.rwandaheritage.heritageguard.security;
+
+import com.rwandaheritage.heritageguard.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Hands out the {@link AccessContext} of the current principal, building it at most once
+ * per request. Outside a request (async work, scheduled jobs) a fresh context is built on
+ * every call.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccessContextProvider {
+
+    public static final String CONTEXT_ATTRIBUTE = AccessContextProvider.class.getName() + ".context";
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final SiteAssignmentIndex siteAssignmentIndex;
+
+    public AccessContext current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken
+                || "anonymousUser".equals(authentication.getPrincipal())) {
+            return AccessContext.anonymous();
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(CONTEXT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof AccessContext cached
+                && cached.belongsTo(authentication)) {
+            return cached;
+        }
+
+        AccessContext context = build(authentication);
+        if (attributes != null) {
+            attributes.setAttribute(CONTEXT_ATTRIBUTE, context, RequestAttributes.SCOPE_REQUEST);
+        }
+        return context;
+    }
+
+    private AccessContext build(Authentication authentication) {
+        Set<User.Role> roles = EnumSet.noneOf(User.Role.class);
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                try {
+                    roles.add(User.Role.valueOf(name.substring(ROLE_PREFIX.length())));
+                } catch (IllegalArgumentException ignored) {
+                    // Not an application role
+                }
+            }
+        }
+        Long userId = authentication.getPrincipal() instanceof User user ? user.getId() : null;
+        boolean managesSites = userId != null && roles.contains(User.Role.HERITAGE_MANAGER);
+        return new AccessContext(authentication, userId, authentication.getName(), roles,
+                managesSites ? () -> siteAssignmentIndex.getAssignedSiteIds(userId) : Set::of);
+    }
+}
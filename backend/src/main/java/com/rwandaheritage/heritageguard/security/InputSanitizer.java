@@ -3,40 +3,44 @@ package com.rwandaheritage.heritageguard.security;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
-import java.util.regex.Pattern;
-
 /**
  * Input Sanitization Utility
- * 
+ *
  * Provides methods to sanitize user inputs and prevent:
  * - SQL Injection
  * - XSS attacks
  * - Path traversal attacks
  * - Command injection
+ *
+ * The rules used to be applied as one regex replaceAll per rule, each producing a new
+ * string. They now run as a chain of stages fed by a single traversal of the input; every
+ * stage removes matches exactly as the regex did (leftmost match, first listed keyword
+ * wins, ASCII case-insensitive, removed text is not re-scanned by the same rule). Input
+ * that no rule touches, by far the common case, is detected in one scan and returned as is.
  */
 @Component
 public class InputSanitizer {
 
-    // Patterns for dangerous content
-    private static final Pattern SQL_INJECTION_PATTERN = Pattern.compile(
-        "(?i)(SELECT|INSERT|UPDATE|DELETE|DROP|CREATE|ALTER|EXEC|UNION|SCRIPT|JAVASCRIPT|ONLOAD|ONERROR|ONCLICK)",
-        Pattern.CASE_INSENSITIVE
-    );
-    
-    private static final Pattern XSS_PATTERN = Pattern.compile(
-        "(?i)(<script|javascript:|vbscript:|onload|onerror|onclick|onmouseover|onfocus|onblur)",
-        Pattern.CASE_INSENSITIVE
-    );
-    
-    private static final Pattern PATH_TRAVERSAL_PATTERN = Pattern.compile(
-        "(\\.\\./|\\.\\\\|\\\\|/|%2e%2e%2f|%2e%2e%5c)",
-        Pattern.CASE_INSENSITIVE
-    );
-    
-    private static final Pattern COMMAND_INJECTION_PATTERN = Pattern.compile(
-        "(?i)(;|&|\\||`|\\$|\\(|\\)|\\{|\\}|\\[|\\]|\\||\\\\|\\/|\\*|\\?|\\^|\\$|\\+|\\-|\\=|\\<|\\>)",
-        Pattern.CASE_INSENSITIVE
-    );
+    // Keyword rules, in the alternation order of the former patterns
+    private static final char[][] SQL_KEYWORDS = keywords(
+        "select", "insert", "update", "delete", "drop", "create", "alter", "exec", "union",
+        "script", "javascript", "onload", "onerror", "onclick");
+
+    private static final char[][] XSS_KEYWORDS = keywords(
+        "<script", "javascript:", "vbscript:", "onload", "onerror", "onclick", "onmouseover", "onfocus", "onblur");
+
+    private static final char[][] PATH_TRAVERSAL_KEYWORDS = keywords(
+        "../", ".\\", "\\", "/", "%2e%2e%2f", "%2e%2e%5c");
+
+    // Characters removed as potential command injection
+    private static final String COMMAND_CHARACTERS = ";&|`$(){}[]\\/*?^+-=<>";
+    private static final boolean[] COMMAND_CHARACTER = new boolean[128];
+
+    static {
+        for (char c : COMMAND_CHARACTERS.toCharArray()) {
+            COMMAND_CHARACTER[c] = true;
+        }
+    }
 
     /**
      * Sanitize text input
@@ -45,18 +49,27 @@ public class InputSanitizer {
         if (!StringUtils.hasText(input)) {
             return input;
         }
-        
-        String sanitized = input.trim();
-        
-        // Remove dangerous patterns
-        sanitized = SQL_INJECTION_PATTERN.matcher(sanitized).replaceAll("");
-        sanitized = XSS_PATTERN.matcher(sanitized).replaceAll("");
-        sanitized = COMMAND_INJECTION_PATTERN.matcher(sanitized).replaceAll("");
-        
-        // HTML encode special characters
-        sanitized = htmlEncode(sanitized);
-        
-        return sanitized;
+
+        int start = trimStart(input);
+        int end = trimEnd(input, start);
+        if (isCleanText(input, start, end)) {
+            return input.substring(start, end);
+        }
+
+        // Remove dangerous patterns, then HTML encode special characters
+        StringBuilder out = new StringBuilder(end - start + 16);
+        CharSink htmlEncoder = c -> {
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#x27;");
+                default -> out.append(c);
+            }
+        };
+        run(input, start, end, new KeywordStripper(SQL_KEYWORDS, new KeywordStripper(XSS_KEYWORDS, commandFilter(htmlEncoder))));
+        return out.toString();
     }
 
     /**
@@ -66,16 +79,17 @@ public class InputSanitizer {
         if (!StringUtils.hasText(input)) {
             return input;
         }
-        
-        String sanitized = input.trim();
-        
-        // Remove path traversal attempts
-        sanitized = PATH_TRAVERSAL_PATTERN.matcher(sanitized).replaceAll("");
-        
-        // Remove dangerous characters
-        sanitized = COMMAND_INJECTION_PATTERN.matcher(sanitized).replaceAll("");
-        
-        return sanitized;
+
+        int start = trimStart(input);
+        int end = trimEnd(input, start);
+        if (isCleanFilePath(input, start, end)) {
+            return input.substring(start, end);
+        }
+
+        // Remove path traversal attempts, then dangerous characters
+        StringBuilder out = new StringBuilder(end - start);
+        run(input, start, end, new KeywordStripper(PATH_TRAVERSAL_KEYWORDS, commandFilter(out::append)));
+        return out.toString();
     }
 
     /**
@@ -85,14 +99,14 @@ public class InputSanitizer {
         if (!StringUtils.hasText(input)) {
             return input;
         }
-        
+
         String sanitized = input.trim().toLowerCase();
-        
+
         // Basic email validation
         if (!isValidEmail(sanitized)) {
             throw new IllegalArgumentException("Invalid email format");
         }
-        
+
         return sanitized;
     }
 
@@ -103,30 +117,22 @@ public class InputSanitizer {
         if (!StringUtils.hasText(input)) {
             return input;
         }
-        
-        String sanitized = input.trim();
-        
-        // Remove dangerous patterns
-        sanitized = SQL_INJECTION_PATTERN.matcher(sanitized).replaceAll("");
-        sanitized = XSS_PATTERN.matcher(sanitized).replaceAll("");
-        sanitized = COMMAND_INJECTION_PATTERN.matcher(sanitized).replaceAll("");
-        
-        // Only allow alphanumeric, underscore, and hyphen
-        sanitized = sanitized.replaceAll("[^a-zA-Z0-9_-]", "");
-        
-        return sanitized;
-    }
 
-    /**
-     * HTML encode special characters
-     */
-    private String htmlEncode(String input) {
-        return input
-            .replace("&", "&amp;")
-            .replace("<", "&lt;")
-            .replace(">", "&gt;")
-            .replace("\"", "&quot;")
-            .replace("'", "&#x27;");
+        int start = trimStart(input);
+        int end = trimEnd(input, start);
+        if (isCleanUsername(input, start, end)) {
+            return input.substring(start, end);
+        }
+
+        // Remove dangerous patterns, then keep only alphanumeric, underscore, and hyphen
+        StringBuilder out = new StringBuilder(end - start);
+        CharSink usernameFilter = c -> {
+            if (isUsernameCharacter(c) || c == '-') {
+                out.append(c);
+            }
+        };
+        run(input, start, end, new KeywordStripper(SQL_KEYWORDS, new KeywordStripper(XSS_KEYWORDS, commandFilter(usernameFilter))));
+        return out.toString();
     }
 
     /**
@@ -144,11 +150,202 @@ public class InputSanitizer {
         if (!StringUtils.hasText(input)) {
             return false;
         }
-        
-        return SQL_INJECTION_PATTERN.matcher(input).find() ||
-               XSS_PATTERN.matcher(input).find() ||
-               PATH_TRAVERSAL_PATTERN.matcher(input).find() ||
-               COMMAND_INJECTION_PATTERN.matcher(input).find();
+
+        for (int i = 0; i < input.length(); i++) {
+            if (isCommandCharacter(input.charAt(i))
+                    || keywordAt(input, i, input.length(), SQL_KEYWORDS) > 0
+                    || keywordAt(input, i, input.length(), XSS_KEYWORDS) > 0
+                    || keywordAt(input, i, input.length(), PATH_TRAVERSAL_KEYWORDS) > 0) {
+                return true;
+            }
+        }
+        return false;
     }
-}
 
+    // Fast paths: true when no rule would change the trimmed input
+
+    private static boolean isCleanText(String input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (isCommandCharacter(c) || c == '"' || c == '\''
+                    || keywordAt(input, i, end, SQL_KEYWORDS) > 0
+                    || keywordAt(input, i, end, XSS_KEYWORDS) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCleanFilePath(String input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (isCommandCharacter(input.charAt(i)) || keywordAt(input, i, end, PATH_TRAVERSAL_KEYWORDS) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCleanUsername(String input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isUsernameCharacter(input.charAt(i))
+                    || keywordAt(input, i, end, SQL_KEYWORDS) > 0
+                    || keywordAt(input, i, end, XSS_KEYWORDS) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same bounds as String.trim()
+    private static int trimStart(String input) {
+        int start = 0;
+        while (start < input.length() && input.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String input, int start) {
+        int end = input.length();
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static void run(String input, int start, int end, CharSink first) {
+        for (int i = start; i < end; i++) {
+            first.accept(input.charAt(i));
+        }
+        first.finish();
+    }
+
+    private static CharSink commandFilter(CharSink next) {
+        return new CharSink() {
+            @Override
+            public void accept(char c) {
+                if (!isCommandCharacter(c)) {
+                    next.accept(c);
+                }
+            }
+
+            @Override
+            public void finish() {
+                next.finish();
+            }
+        };
+    }
+
+    private static boolean isCommandCharacter(char c) {
+        return c < 128 && COMMAND_CHARACTER[c];
+    }
+
+    // Username characters that survive every stage (the hyphen is a command character)
+    private static boolean isUsernameCharacter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    // Regex CASE_INSENSITIVE without UNICODE_CASE folds ASCII letters only
+    private static char toLowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    /**
+     * Length of the first keyword (in list order) found at {@code index}, or 0.
+     */
+    private static int keywordAt(String input, int index, int end, char[][] keywords) {
+        for (char[] keyword : keywords) {
+            if (keyword.length <= end - index) {
+                int j = 0;
+                while (j < keyword.length && toLowerAscii(input.charAt(index + j)) == keyword[j]) {
+                    j++;
+                }
+                if (j == keyword.length) {
+                    return j;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static char[][] keywords(String... words) {
+        char[][] result = new char[words.length][];
+        for (int i = 0; i < words.length; i++) {
+            result[i] = words[i].toCharArray();
+        }
+        return result;
+    }
+
+    /**
+     * One stage of the sanitizing chain.
+     */
+    private interface CharSink {
+        void accept(char c);
+
+        default void finish() {
+        }
+    }
+
+    /**
+     * Streaming equivalent of {@code Pattern.compile("(?i)(k1|k2|...)").matcher(s).replaceAll("")}.
+     * Holds back just enough characters to decide whether a keyword starts at the oldest one.
+     */
+    private static final class KeywordStripper implements CharSink {
+        private final char[][] keywords;
+        private final CharSink next;
+        private final char[] pending;
+        private int size;
+
+        KeywordStripper(char[][] keywords, CharSink next) {
+            int longest = 0;
+            for (char[] keyword : keywords) {
+                longest = Math.max(longest, keyword.length);
+            }
+            this.keywords = keywords;
+            this.next = next;
+            this.pending = new char[longest];
+        }
+
+        @Override
+        public void accept(char c) {
+            pending[size++] = c;
+            if (size == pending.length) {
+                advance();
+            }
+        }
+
+        @Override
+        public void finish() {
+            while (size > 0) {
+                advance();
+            }
+            next.finish();
+        }
+
+        // Decide the oldest pending character: drop a whole keyword or pass the character on
+        private void advance() {
+            int matched = matchLength();
+            if (matched == 0) {
+                next.accept(pending[0]);
+                matched = 1;
+            }
+            System.arraycopy(pending, matched, pending, 0, size - matched);
+            size -= matched;
+        }
+
+        private int matchLength() {
+            for (char[] keyword : keywords) {
+                if (keyword.length <= size) {
+                    int j = 0;
+                    while (j < keyword.length && toLowerAscii(pending[j]) == keyword[j]) {
+                        j++;
+                    }
+                    if (j == keyword.length) {
+                        return j;
+                    }
+                }
+            }
+            return 0;
+        }
+    }
+}
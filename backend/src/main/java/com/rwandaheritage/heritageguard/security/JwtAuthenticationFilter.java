@@ -1,15 +1,16 @@
 package com.rwandaheritage.heritageguard.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,10 +19,12 @@ import java.io.IOException;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
 
     @Override
     protected void doFilterInternal(
@@ -34,27 +37,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             final String jwt;
             final String username;
 
-            // Debug logging
-            System.out.println("JWT Filter: Processing request to " + request.getRequestURI());
-            System.out.println("JWT Filter: Authorization header: " + (authHeader != null ? "present" : "null"));
+            log.debug("JWT Filter: Processing request to {}, Authorization header {}",
+                    request.getRequestURI(), authHeader != null ? "present" : "absent");
 
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
                 // No JWT token - continue to next filter (this is normal for public endpoints)
-                System.out.println("JWT Filter: No JWT token, continuing to next filter");
+                log.debug("JWT Filter: No JWT token, continuing to next filter");
                 filterChain.doFilter(request, response);
                 return;
             }
 
             jwt = authHeader.substring(7);
-            username = jwtService.extractUsername(jwt);
-            System.out.println("JWT Filter: Extracted username: " + username);
+            // Single parse: signature and expiry are verified here, claims reused for the rest of the request
+            Claims claims = jwtService.verifyToken(jwt);
+            // Refresh tokens only work on /refresh-token; revoked sessions lose their access tokens too
+            if (claims == null || JwtService.isRefreshToken(claims) || revocationList.isRevoked(JwtService.familyOf(claims))) {
+                log.debug("JWT Filter: Token is invalid, expired, revoked or a refresh token");
+                filterChain.doFilter(request, response);
+                return;
+            }
+            request.setAttribute(JwtService.CLAIMS_ATTRIBUTE, claims);
+            username = claims.getSubject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                System.out.println("JWT Filter: Loading user details for username: " + username);
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = principalCache.load(username);
                 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    System.out.println("JWT Filter: Token is valid, setting authentication");
+                // Disabled covers suspended, disabled and deleted accounts
+                if (username.equals(userDetails.getUsername()) && userDetails.isEnabled()) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -62,12 +71,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
-                    System.out.println("JWT Filter: Authentication set successfully");
+                    log.debug("JWT Filter: Authentication set");
                 } else {
-                    System.out.println("JWT Filter: Token is invalid");
+                    log.debug("JWT Filter: Token subject is disabled or does not match");
                 }
             } else {
-                System.out.println("JWT Filter: Username is null or authentication already exists");
+                log.debug("JWT Filter: Token has no subject or authentication already exists");
             }
             filterChain.doFilter(request, response);
         } catch (Exception e) {
@@ -75,8 +84,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // This prevents the filter from interfering with public endpoints
             if (request.getHeader("Authorization") != null) {
                 // Only log if there was actually a JWT token
-                System.err.println("JWT Filter Error: " + e.getMessage());
-                e.printStackTrace();
+                log.debug("JWT Filter: Failed to process token: {}", e.getMessage(), e);
             }
             // Continue with the filter chain - let Spring Security handle authorization
             filterChain.doFilter(request, response);
@@ -1,26 +1,45 @@
 package com.rwandaheritage.heritageguard.security;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 @Slf4j
 public class JwtService {
 
+    /** Request attribute holding the verified {@link Claims} of the bearer token. */
+    public static final String CLAIMS_ATTRIBUTE = JwtService.class.getName() + ".claims";
+
+    /** Login session (refresh-token family) a token belongs to; revoking the family revokes the token. */
+    public static final String FAMILY_CLAIM = "fam";
+
+    private static final String TYPE_CLAIM = "typ";
+    private static final String REFRESH_TYPE = "refresh";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
@@ -33,6 +52,71 @@ public class JwtService {
     @Value("${jwt.remember-me-expiration}")
     private long rememberMeExpiration;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    // Upper bound on how long a verified token is trusted without re-checking its signature
+    @Value("${jwt.verified-cache.ttl-seconds:300}")
+    private long verifiedCacheTtlSeconds;
+
+    // Built once; the key and parser are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser parser;
+
+    // SHA-256 of recently verified tokens -> their claims, so repeat requests skip HMAC and JSON parsing
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    private static final class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAtMillis;
+
+        VerifiedToken(Claims claims, long expiresAtMillis) {
+            this.claims = claims;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verifiedTokens = CacheBuilder.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfterWrite(verifiedCacheTtlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Parse and verify a token once: signature and expiry are checked and the claims returned.
+     * Recently verified tokens are answered from a bounded cache until they expire.
+     *
+     * @return the claims, or null when the token is malformed, forged or expired
+     */
+    public Claims verifyToken(String token) {
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        long now = System.currentTimeMillis();
+        if (cached != null) {
+            if (cached.expiresAtMillis > now) {
+                return cached.claims;
+            }
+            verifiedTokens.invalidate(key);
+            return null;
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date expiration = claims.getExpiration();
+            // Tokens without an expiry are accepted by the parser but never cached
+            if (expiration != null) {
+                verifiedTokens.put(key, new VerifiedToken(claims, expiration.getTime()));
+            }
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected token: {}", e.getMessage());
+            return null;
+        }
+    }
+
     public String extractUsername(String token) {
         try {
             String username = extractClaim(token, Claims::getSubject);
@@ -63,8 +147,44 @@ public class JwtService {
         return generateToken(new HashMap<>(), userDetails, expiration);
     }
 
-    public String generateRefreshToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails, refreshExpiration);
+    /**
+     * Access token tied to a login session, so it stops working when the session is revoked.
+     */
+    public String generateToken(UserDetails userDetails, boolean rememberMe, String familyId) {
+        long expiration = rememberMe ? rememberMeExpiration : jwtExpiration;
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(FAMILY_CLAIM, familyId);
+        return generateToken(claims, userDetails, expiration);
+    }
+
+    /**
+     * Refresh token with its own id (jti), registered by RefreshTokenService.
+     */
+    public String generateRefreshToken(UserDetails userDetails, String tokenId, String familyId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(FAMILY_CLAIM, familyId);
+        claims.put(TYPE_CLAIM, REFRESH_TYPE);
+        claims.put(Claims.ID, tokenId);
+        return generateToken(claims, userDetails, refreshExpiration);
+    }
+
+    public long getRefreshExpirationMillis() {
+        return refreshExpiration;
+    }
+
+    /**
+     * Longest lifetime of any access token; a revoked session must stay blocked this long.
+     */
+    public long getMaxAccessTokenLifetimeMillis() {
+        return Math.max(jwtExpiration, rememberMeExpiration);
+    }
+
+    public static boolean isRefreshToken(Claims claims) {
+        return REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class));
+    }
+
+    public static String familyOf(Claims claims) {
+        return claims.get(FAMILY_CLAIM, String.class);
     }
 
     private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
@@ -86,8 +206,9 @@ public class JwtService {
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            boolean isValid = (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+            // Parsing already rejects expired tokens; verifyToken does it once and caches the result
+            final Claims claims = verifyToken(token);
+            boolean isValid = claims != null && userDetails.getUsername().equals(claims.getSubject());
             log.debug("Token validation for user {}: {}", userDetails.getUsername(), isValid);
             return isValid;
         } catch (Exception e) {
@@ -96,28 +217,13 @@ public class JwtService {
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        try {
-            boolean expired = extractExpiration(token).before(new Date());
-            log.debug("Token expiration check: {}", expired);
-            return expired;
-        } catch (Exception e) {
-            log.error("Error checking token expiration: {}", e.getMessage());
-            return true;
-        }
-    }
-
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (Exception e) {
             log.error("Error extracting claims from token: {}", e.getMessage());
             throw e;
@@ -125,12 +231,15 @@ public class JwtService {
     }
 
     private Key getSigningKey() {
+        return signingKey;
+    }
+
+    private static String hash(String token) {
         try {
-            byte[] keyBytes = secretKey.getBytes();
-            return Keys.hmacShaKeyFor(keyBytes);
-        } catch (Exception e) {
-            log.error("Error generating signing key: {}", e.getMessage());
-            throw e;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
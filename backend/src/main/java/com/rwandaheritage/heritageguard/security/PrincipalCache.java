@@ -0,0 +1,133 @@
+package com.rwandaheritage.heritageguard.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.rwandaheritage.heritageguard.event.UserStatusChangedEvent;
+import com.rwandaheritage.heritageguard.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived cache of authenticated principals, keyed by username.
+ *
+ * Saves the user lookup on every authenticated request. Entries expire after a short TTL
+ * as a safety net, but anything that changes what a principal may do (status changes,
+ * unlocks, password resets, profile edits, logout) evicts the user straight away, so the
+ * next request reloads it from the database.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, UserDetails> principals;
+    // User id -> username, so id-based events can find the entry to evict
+    private final Cache<Long, String> usernamesById;
+
+    public PrincipalCache(
+            UserDetailsService userDetailsService,
+            @Value("${security.principal-cache.max-size:5000}") long maxSize,
+            @Value("${security.principal-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.userDetailsService = userDetailsService;
+        this.principals = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        this.usernamesById = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Load a principal, from the cache when possible. Lookup failures (such as an unknown
+     * username) propagate unchanged and are not cached.
+     */
+    public UserDetails load(String username) {
+        try {
+            UserDetails userDetails = principals.get(username, () -> userDetailsService.loadUserByUsername(username));
+            if (userDetails instanceof User user && user.getId() != null) {
+                usernamesById.put(user.getId(), username);
+            }
+            return userDetails;
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to load user " + username, e.getCause());
+        }
+    }
+
+    /**
+     * Evict a user now and again once the surrounding transaction commits, so a request
+     * that reloads the old row before the commit cannot keep it cached.
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        principals.invalidate(username);
+        afterCommit(() -> principals.invalidate(username));
+    }
+
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        String username = usernamesById.getIfPresent(userId);
+        usernamesById.invalidate(userId);
+        evict(username);
+    }
+
+    public void evictAll() {
+        principals.invalidateAll();
+        usernamesById.invalidateAll();
+    }
+
+    // Synchronous on purpose: a suspension must apply from the very next request
+    @EventListener
+    public void onUserStatusChanged(UserStatusChangedEvent event) {
+        log.debug("Evicting cached principal for user {} after status change to {}", event.getUserId(), event.getNewStatus());
+        evict(event.getUserId());
+    }
+
+    /**
+     * Hit/miss counters since startup.
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = principals.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", principals.size());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
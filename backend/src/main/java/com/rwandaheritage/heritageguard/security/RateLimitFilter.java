@@ -1,134 +1,129 @@
 package com.rwandaheritage.heritageguard.security;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    private final Environment environment;
-    
     // Rate limits per endpoint type - MUCH HIGHER for development
     private static final int MAX_LOGIN_REQUESTS_PER_MINUTE = 20; // Increased from 5
     private static final int MAX_REGISTER_REQUESTS_PER_MINUTE = 10; // Increased from 3
     private static final int MAX_API_REQUESTS_PER_MINUTE = 1000; // Increased from 100 (10x)
+    private static final int MAX_USER_API_REQUESTS_PER_MINUTE = 2000; // Authenticated callers, keyed by user
     private static final int MAX_FILE_UPLOAD_REQUESTS_PER_MINUTE = 50; // Increased from 10
-    
+
     // Development mode overrides - Reduced to prevent excessive logging
     private static final int DEV_MAX_API_REQUESTS_PER_MINUTE = 10000; // Increased to 10000 for development
+    private static final int DEV_MAX_USER_API_REQUESTS_PER_MINUTE = 20000;
     private static final int DEV_MAX_LOGIN_REQUESTS_PER_MINUTE = 200;
     private static final int DEV_MAX_REGISTER_REQUESTS_PER_MINUTE = 100;
     private static final int DEV_MAX_FILE_UPLOAD_REQUESTS_PER_MINUTE = 500;
-    
-    private final LoadingCache<String, Integer> loginRequestCounts;
-    private final LoadingCache<String, Integer> registerRequestCounts;
-    private final LoadingCache<String, Integer> apiRequestCounts;
-    private final LoadingCache<String, Integer> fileUploadRequestCounts;
 
-    public RateLimitFilter(Environment environment) {
+    // Back-to-back allowance as a fraction of the per-minute rate, so no 60s window
+    // can see much more than the configured rate (fixed windows allowed twice that)
+    private static final int BURST_DIVISOR = 6;
+
+    // Uploads cost one token plus one per started megabyte of request body
+    private static final long UPLOAD_COST_UNIT_BYTES = 1024 * 1024;
+
+    /**
+     * Endpoint classes with their own buckets.
+     */
+    enum RouteClass {
+        LOGIN("login"),
+        REGISTER("registration"),
+        FILE_UPLOAD("file upload"),
+        API("API");
+
+        private final String description;
+
+        RouteClass(String description) {
+            this.description = description;
+        }
+    }
+
+    private final JwtService jwtService;
+    private final boolean developmentMode;
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter();
+    // Present when rate-limit.shared.enabled=true; limits then hold across all instances
+    private final SharedRateLimiter sharedLimiter;
+
+    private final TokenBucketRateLimiter.Limit loginLimit;
+    private final TokenBucketRateLimiter.Limit registerLimit;
+    private final TokenBucketRateLimiter.Limit fileUploadLimit;
+    private final TokenBucketRateLimiter.Limit apiLimit;
+    private final TokenBucketRateLimiter.Limit userApiLimit;
+
+    public RateLimitFilter(Environment environment, JwtService jwtService, ObjectProvider<SharedRateLimiter> sharedLimiter) {
         super();
-        this.environment = environment;
-        
-        // Check if we're in development mode
-        boolean isDev = isDevelopmentMode();
-        
-        // Use development limits if in dev mode
-        int actualApiLimit = isDev ? DEV_MAX_API_REQUESTS_PER_MINUTE : MAX_API_REQUESTS_PER_MINUTE;
-        int actualLoginLimit = isDev ? DEV_MAX_LOGIN_REQUESTS_PER_MINUTE : MAX_LOGIN_REQUESTS_PER_MINUTE;
-        int actualRegisterLimit = isDev ? DEV_MAX_REGISTER_REQUESTS_PER_MINUTE : MAX_REGISTER_REQUESTS_PER_MINUTE;
-        int actualFileUploadLimit = isDev ? DEV_MAX_FILE_UPLOAD_REQUESTS_PER_MINUTE : MAX_FILE_UPLOAD_REQUESTS_PER_MINUTE;
-        
-        log.info("RateLimitFilter initialized - Environment: {}, API Limit: {} requests/minute", 
-                isDev ? "DEVELOPMENT" : "PRODUCTION", actualApiLimit);
-        
-        // Initialize rate limit caches with proper CacheLoader implementations
-        loginRequestCounts = CacheBuilder.newBuilder()
-                .expireAfterWrite(1, TimeUnit.MINUTES)
-                .build(new CacheLoader<String, Integer>() {
-                    @Override
-                    public Integer load(String key) {
-                        return 0;
-                    }
-                });
-                
-        registerRequestCounts = CacheBuilder.newBuilder()
-                .expireAfterWrite(1, TimeUnit.MINUTES)
-                .build(new CacheLoader<String, Integer>() {
-                    @Override
-                    public Integer load(String key) {
-                        return 0;
-                    }
-                });
-                
-        apiRequestCounts = CacheBuilder.newBuilder()
-                .expireAfterWrite(1, TimeUnit.MINUTES)
-                .build(new CacheLoader<String, Integer>() {
-                    @Override
-                    public Integer load(String key) {
-                        return 0;
-                    }
-                });
-                
-        fileUploadRequestCounts = CacheBuilder.newBuilder()
-                .expireAfterWrite(1, TimeUnit.MINUTES)
-                .build(new CacheLoader<String, Integer>() {
-                    @Override
-                    public Integer load(String key) {
-                        return 0;
-                    }
-                });
+        this.jwtService = jwtService;
+        this.sharedLimiter = sharedLimiter.getIfAvailable();
+        // Evaluated once; the environment does not change after startup
+        this.developmentMode = isDevelopmentMode(environment);
+
+        loginLimit = limit(developmentMode ? DEV_MAX_LOGIN_REQUESTS_PER_MINUTE : MAX_LOGIN_REQUESTS_PER_MINUTE);
+        registerLimit = limit(developmentMode ? DEV_MAX_REGISTER_REQUESTS_PER_MINUTE : MAX_REGISTER_REQUESTS_PER_MINUTE);
+        fileUploadLimit = limit(developmentMode ? DEV_MAX_FILE_UPLOAD_REQUESTS_PER_MINUTE : MAX_FILE_UPLOAD_REQUESTS_PER_MINUTE);
+        apiLimit = limit(developmentMode ? DEV_MAX_API_REQUESTS_PER_MINUTE : MAX_API_REQUESTS_PER_MINUTE);
+        userApiLimit = limit(developmentMode ? DEV_MAX_USER_API_REQUESTS_PER_MINUTE : MAX_USER_API_REQUESTS_PER_MINUTE);
+
+        log.info("RateLimitFilter initialized - Environment: {}, API Limit: {} requests/minute (burst {})",
+                developmentMode ? "DEVELOPMENT" : "PRODUCTION", apiLimit.getPerMinute(), apiLimit.getBurst());
+    }
+
+    private static TokenBucketRateLimiter.Limit limit(int perMinute) {
+        return new TokenBucketRateLimiter.Limit(perMinute, Math.max(3, perMinute / BURST_DIVISOR));
     }
-    
-    private boolean isDevelopmentMode() {
+
+    private static boolean isDevelopmentMode(Environment environment) {
         String[] activeProfiles = environment.getActiveProfiles();
         for (String profile : activeProfiles) {
             if (profile.equalsIgnoreCase("dev") || profile.equalsIgnoreCase("development")) {
                 return true;
             }
         }
-        
+
         // Check for development indicators
         String serverPort = environment.getProperty("server.port");
         if (serverPort != null && serverPort.equals("8080")) {
             return true; // Local development port
         }
-        
+
         String datasourceUrl = environment.getProperty("spring.datasource.url");
         if (datasourceUrl != null && datasourceUrl.contains("localhost")) {
             return true; // Local database
         }
-        
+
         return false;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        
-        String clientIp = getClientIP(request);
+
         String requestUri = request.getRequestURI();
         String method = request.getMethod();
-        
+
         // Skip rate limiting for development tools and health checks
-        if (isDevelopmentMode() && (
-            requestUri.contains("/actuator") || 
-            requestUri.contains("/health") || 
+        if (developmentMode && (
+            requestUri.contains("/actuator") ||
+            requestUri.contains("/health") ||
             requestUri.contains("/info") ||
             requestUri.equals("/") ||
             requestUri.equals("/favicon.ico")
@@ -136,70 +131,135 @@ public class RateLimitFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, response);
             return;
         }
-        
-        // Apply rate limiting based on endpoint type
-        if (requestUri.equals("/api/auth/login") && method.equals("POST")) {
-            if (isRateLimitExceeded(clientIp, loginRequestCounts, 
-                    isDevelopmentMode() ? DEV_MAX_LOGIN_REQUESTS_PER_MINUTE : MAX_LOGIN_REQUESTS_PER_MINUTE)) {
-                handleRateLimitExceeded(response, clientIp, "login");
-                return;
+
+        RouteClass routeClass = classify(requestUri, method);
+        if (routeClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Login and registration are always limited per address; everything else per user when signed in
+        String clientKey = null;
+        TokenBucketRateLimiter.Limit limit;
+        switch (routeClass) {
+            case LOGIN:
+                limit = loginLimit;
+                break;
+            case REGISTER:
+                limit = registerLimit;
+                break;
+            case FILE_UPLOAD:
+                limit = fileUploadLimit;
+                clientKey = authenticatedUserKey(request);
+                break;
+            default:
+                clientKey = authenticatedUserKey(request);
+                limit = clientKey != null ? userApiLimit : apiLimit;
+                break;
+        }
+        if (clientKey == null) {
+            clientKey = "ip:" + getClientIP(request);
+        }
+
+        TokenBucketRateLimiter.Decision decision =
+                acquire(routeClass.name() + '|' + clientKey, limit, cost(routeClass, request));
+        setRateLimitHeaders(response, limit, decision);
+        if (!decision.isAllowed()) {
+            handleRateLimitExceeded(response, clientKey, routeClass, decision);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private TokenBucketRateLimiter.Decision acquire(String key, TokenBucketRateLimiter.Limit limit, int cost) {
+        if (sharedLimiter != null) {
+            try {
+                return sharedLimiter.tryAcquire(key, limit, cost);
+            } catch (DataAccessException e) {
+                // Degrade to per-node limits rather than failing requests
+                log.warn("Shared rate limiter unavailable, using local limits: {}", e.getMessage());
             }
+        }
+        return limiter.tryAcquire(key, limit, cost);
+    }
+
+    private static RouteClass classify(String requestUri, String method) {
+        if (requestUri.equals("/api/auth/login") && method.equals("POST")) {
+            return RouteClass.LOGIN;
         } else if (requestUri.equals("/api/auth/register") && method.equals("POST")) {
-            if (isRateLimitExceeded(clientIp, registerRequestCounts, 
-                    isDevelopmentMode() ? DEV_MAX_REGISTER_REQUESTS_PER_MINUTE : MAX_REGISTER_REQUESTS_PER_MINUTE)) {
-                handleRateLimitExceeded(response, clientIp, "registration");
-                return;
-            }
-        } else if (requestUri.contains("/upload") || requestUri.contains("/media")) {
-            if (isRateLimitExceeded(clientIp, fileUploadRequestCounts, 
-                    isDevelopmentMode() ? DEV_MAX_FILE_UPLOAD_REQUESTS_PER_MINUTE : MAX_FILE_UPLOAD_REQUESTS_PER_MINUTE)) {
-                handleRateLimitExceeded(response, clientIp, "file upload");
-                return;
-            }
+            return RouteClass.REGISTER;
+        } else if ((method.equals("POST") || method.equals("PUT"))
+                && (requestUri.contains("/upload") || requestUri.contains("/media"))) {
+            // Only requests that send files; downloads and listings are ordinary API calls
+            return RouteClass.FILE_UPLOAD;
         } else if (requestUri.startsWith("/api/")) {
-            if (isRateLimitExceeded(clientIp, apiRequestCounts, 
-                    isDevelopmentMode() ? DEV_MAX_API_REQUESTS_PER_MINUTE : MAX_API_REQUESTS_PER_MINUTE)) {
-                handleRateLimitExceeded(response, clientIp, "API");
-                return;
-            }
+            return RouteClass.API;
         }
+        return null;
+    }
 
-        filterChain.doFilter(request, response);
+    private static int cost(RouteClass routeClass, HttpServletRequest request) {
+        if (routeClass != RouteClass.FILE_UPLOAD) {
+            return 1;
+        }
+        long bytes = request.getContentLengthLong();
+        if (bytes <= 0) {
+            return 1;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, 1 + (bytes + UPLOAD_COST_UNIT_BYTES - 1) / UPLOAD_COST_UNIT_BYTES);
     }
 
-    private boolean isRateLimitExceeded(String clientIp, LoadingCache<String, Integer> cache, int maxRequests) {
-        int requests = 0;
-        try {
-            requests = cache.get(clientIp);
-            if (requests >= maxRequests) {
-                return true;
-            }
-            requests++;
-            cache.put(clientIp, requests);
-            return false;
-        } catch (ExecutionException e) {
-            log.error("Error checking rate limit for IP: {}", clientIp, e);
-            return false;
+    // Subject of a valid bearer token; verification results are cached, so the JWT filter does not pay twice
+    private String authenticatedUserKey(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        Claims claims = jwtService.verifyToken(authHeader.substring(7));
+        if (claims == null || claims.getSubject() == null || JwtService.isRefreshToken(claims)) {
+            return null;
         }
+        return "user:" + claims.getSubject();
     }
-    
-    private void handleRateLimitExceeded(HttpServletResponse response, String clientIp, String endpointType) throws IOException {
-        log.warn("Rate limit exceeded for IP: {} on {} (Limit: {} requests/minute)", 
-                clientIp, endpointType, 
-                isDevelopmentMode() ? DEV_MAX_API_REQUESTS_PER_MINUTE : MAX_API_REQUESTS_PER_MINUTE);
+
+    private static void setRateLimitHeaders(HttpServletResponse response, TokenBucketRateLimiter.Limit limit,
+                                            TokenBucketRateLimiter.Decision decision) {
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.getLimit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(decision.getResetSeconds()));
+        response.setHeader("RateLimit-Policy", limit.getBurst() + ";w=" + (60L * limit.getBurst() / limit.getPerMinute()));
+    }
+
+    private void handleRateLimitExceeded(HttpServletResponse response, String clientKey, RouteClass routeClass,
+                                         TokenBucketRateLimiter.Decision decision) throws IOException {
+        long retryAfter = Math.max(1, decision.getRetryAfterSeconds());
+        log.warn("Rate limit exceeded for {} on {} (retry after {}s)", clientKey, routeClass.description, retryAfter);
         response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
         response.setContentType("application/json");
         response.getWriter().write(String.format(
-            "{\"error\": \"Too many requests\", \"message\": \"Rate limit exceeded for %s. Please try again in a minute.\", \"retryAfter\": 60}",
-            endpointType
+            "{\"error\": \"Too many requests\", \"message\": \"Rate limit exceeded for %s. Please try again in %d seconds.\", \"retryAfter\": %d}",
+            routeClass.description, retryAfter, retryAfter
         ));
     }
 
+    /**
+     * Drop idle buckets so memory stays proportional to recently active clients.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void sweepIdleBuckets() {
+        int removed = limiter.sweep();
+        if (removed > 0) {
+            log.debug("Rate limiter sweep removed {} idle buckets, {} remain", removed, limiter.size());
+        }
+    }
+
     private String getClientIP(HttpServletRequest request) {
         String xfHeader = request.getHeader("X-Forwarded-For");
         if (xfHeader == null) {
             return request.getRemoteAddr();
         }
-        return xfHeader.split(",")[0];
+        return xfHeader.split(",")[0].trim();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,229 @@
+package com.rwandaheritage.heritageguard.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cluster-wide rate limiting backed by PostgreSQL, enabled with {@code rate-limit.shared.enabled=true}.
+ *
+ * Buckets live in an unlogged table and use the same GCRA arithmetic as
+ * {@link TokenBucketRateLimiter}, with the database clock as the single time source. A node
+ * never asks the database for one token at a time: it takes a lease of several tokens with
+ * one atomic upsert and serves requests from it locally. Leases expire quickly, and the
+ * tokens they did not use are handed back in one batch by {@link #reconcile()}, so the
+ * table sees roughly one write per lease. Small limits (login, registration) get leases of
+ * a single token and are therefore exact across nodes.
+ *
+ * If the database is unavailable the caller falls back to its per-node limiter.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.shared.enabled", havingValue = "true")
+@Slf4j
+public class SharedRateLimiter {
+
+    private static final String CREATE_TABLE =
+            "CREATE UNLOGGED TABLE IF NOT EXISTS rate_limit_buckets ("
+            + " bucket_key VARCHAR(255) PRIMARY KEY,"
+            + " tat_us BIGINT NOT NULL,"
+            + " updated_at TIMESTAMP NOT NULL DEFAULT now())";
+
+    // Admit `inc` microseconds of work if the bucket can absorb it; no row comes back when it cannot
+    private static final String ACQUIRE =
+            "WITH clock AS (SELECT (EXTRACT(EPOCH FROM clock_timestamp()) * 1000000)::BIGINT AS now_us) "
+            + "INSERT INTO rate_limit_buckets AS b (bucket_key, tat_us, updated_at) "
+            + "SELECT ?, now_us + ?, now() FROM clock "
+            + "ON CONFLICT (bucket_key) DO UPDATE "
+            + "SET tat_us = GREATEST(b.tat_us, (SELECT now_us FROM clock)) + ?, updated_at = now() "
+            + "WHERE GREATEST(b.tat_us, (SELECT now_us FROM clock)) + ? - ? <= (SELECT now_us FROM clock) "
+            + "RETURNING b.tat_us, (SELECT now_us FROM clock) AS now_us";
+
+    private static final String PEEK =
+            "SELECT tat_us, (EXTRACT(EPOCH FROM clock_timestamp()) * 1000000)::BIGINT AS now_us "
+            + "FROM rate_limit_buckets WHERE bucket_key = ?";
+
+    private static final String GIVE_BACK =
+            "UPDATE rate_limit_buckets SET tat_us = tat_us - ?, updated_at = now() WHERE bucket_key = ?";
+
+    private static final String DELETE_IDLE =
+            "DELETE FROM rate_limit_buckets WHERE updated_at < now() - make_interval(secs => ?)";
+
+    /**
+     * Tokens taken from the shared bucket and not yet spent by this node.
+     */
+    private static final class Lease {
+        private final AtomicInteger remaining;
+        private final long expiresAtNanos;
+        private final long emissionIntervalMicros;
+        private final long resetAtNanos;
+
+        Lease(int tokens, long expiresAtNanos, long emissionIntervalMicros, long resetAtNanos) {
+            this.remaining = new AtomicInteger(tokens);
+            this.expiresAtNanos = expiresAtNanos;
+            this.emissionIntervalMicros = emissionIntervalMicros;
+            this.resetAtNanos = resetAtNanos;
+        }
+
+        boolean take(int cost, long now) {
+            if (now - expiresAtNanos >= 0) {
+                return false;
+            }
+            int left = remaining.addAndGet(-cost);
+            if (left >= 0) {
+                return true;
+            }
+            remaining.addAndGet(cost);
+            return false;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int leaseDivisor;
+    private final long leaseTtlNanos;
+    private final long idleSeconds;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    // Expired leases with unspent tokens, waiting to be handed back
+    private final Map<String, Long> pendingReturnsMicros = new ConcurrentHashMap<>();
+
+    public SharedRateLimiter(
+            JdbcTemplate jdbcTemplate,
+            @Value("${rate-limit.shared.lease-divisor:10}") int leaseDivisor,
+            @Value("${rate-limit.shared.lease-ttl-ms:1000}") long leaseTtlMs,
+            @Value("${rate-limit.shared.idle-seconds:600}") long idleSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseDivisor = Math.max(1, leaseDivisor);
+        this.leaseTtlNanos = TimeUnit.MILLISECONDS.toNanos(leaseTtlMs);
+        this.idleSeconds = idleSeconds;
+    }
+
+    @PostConstruct
+    void createTable() {
+        jdbcTemplate.execute(CREATE_TABLE);
+        log.info("Shared rate limiting enabled (lease = burst / {}, lease TTL {} ms)",
+                leaseDivisor, TimeUnit.NANOSECONDS.toMillis(leaseTtlNanos));
+    }
+
+    /**
+     * Same contract as {@link TokenBucketRateLimiter#tryAcquire}, shared across every node.
+     *
+     * @throws DataAccessException when the database cannot be reached
+     */
+    public TokenBucketRateLimiter.Decision tryAcquire(String key, TokenBucketRateLimiter.Limit limit, int cost) {
+        int tokens = Math.max(1, cost);
+        long now = System.nanoTime();
+        Lease lease = leases.get(key);
+        if (lease != null && lease.take(tokens, now)) {
+            return allowed(limit, lease, now);
+        }
+
+        long intervalMicros = TimeUnit.MINUTES.toMicros(1) / limit.getPerMinute();
+        long toleranceMicros = intervalMicros * limit.getBurst();
+        int leaseSize = Math.max(tokens, limit.getBurst() / leaseDivisor);
+
+        Lease fresh = acquireLease(key, leaseSize, tokens, intervalMicros, toleranceMicros, now);
+        if (fresh == null) {
+            long incMicros = tokens * intervalMicros;
+            long retryAfterMicros = retryAfterMicros(key, incMicros, Math.max(toleranceMicros, incMicros));
+            return new TokenBucketRateLimiter.Decision(false, limit.getBurst(), 0,
+                    toSeconds(toleranceMicros), toSeconds(retryAfterMicros));
+        }
+        fresh.remaining.addAndGet(-tokens);
+        Lease previous = leases.put(key, fresh);
+        if (previous != null) {
+            giveBackLater(key, previous);
+        }
+        return allowed(limit, fresh, now);
+    }
+
+    // Try a full lease first, then just what this request needs
+    private Lease acquireLease(String key, int leaseSize, int tokens, long intervalMicros,
+                               long toleranceMicros, long now) {
+        Lease lease = upsert(key, leaseSize, intervalMicros, toleranceMicros, now);
+        if (lease == null && leaseSize > tokens) {
+            lease = upsert(key, tokens, intervalMicros, toleranceMicros, now);
+        }
+        return lease;
+    }
+
+    // A lease larger than the burst is only granted on a full bucket and leaves the excess as debt
+    private Lease upsert(String key, int size, long intervalMicros, long toleranceMicros, long now) {
+        long inc = size * intervalMicros;
+        List<long[]> rows = jdbcTemplate.query(ACQUIRE,
+                (rs, i) -> new long[] { rs.getLong(1), rs.getLong(2) },
+                key, inc, inc, inc, Math.max(toleranceMicros, inc));
+        if (rows.isEmpty()) {
+            return null;
+        }
+        long untilFullMicros = Math.max(0, rows.get(0)[0] - rows.get(0)[1]);
+        return new Lease(size, now + leaseTtlNanos, intervalMicros, now + TimeUnit.MICROSECONDS.toNanos(untilFullMicros));
+    }
+
+    private long retryAfterMicros(String key, long incMicros, long toleranceMicros) {
+        List<long[]> rows = jdbcTemplate.query(PEEK, (rs, i) -> new long[] { rs.getLong(1), rs.getLong(2) }, key);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        return Math.max(0, rows.get(0)[0] + incMicros - toleranceMicros - rows.get(0)[1]);
+    }
+
+    private static TokenBucketRateLimiter.Decision allowed(TokenBucketRateLimiter.Limit limit, Lease lease, long now) {
+        long resetSeconds = Math.max(0, (lease.resetAtNanos - now + 999_999_999L) / 1_000_000_000L);
+        return new TokenBucketRateLimiter.Decision(true, limit.getBurst(), Math.max(0, lease.remaining.get()), resetSeconds, 0);
+    }
+
+    private void giveBackLater(String key, Lease lease) {
+        int unused = lease.remaining.getAndSet(0);
+        if (unused > 0) {
+            pendingReturnsMicros.merge(key, unused * lease.emissionIntervalMicros, Long::sum);
+        }
+    }
+
+    /**
+     * Retire expired leases and hand their unspent tokens back in one batch.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.shared.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, Lease>> it = leases.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Lease> entry = it.next();
+            if (now - entry.getValue().expiresAtNanos >= 0 && leases.remove(entry.getKey(), entry.getValue())) {
+                giveBackLater(entry.getKey(), entry.getValue());
+            }
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        for (String key : new ArrayList<>(pendingReturnsMicros.keySet())) {
+            Long micros = pendingReturnsMicros.remove(key);
+            if (micros != null && micros > 0) {
+                batch.add(new Object[] { micros, key });
+            }
+        }
+        try {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(GIVE_BACK, batch);
+            }
+            jdbcTemplate.update(DELETE_IDLE, idleSeconds);
+        } catch (DataAccessException e) {
+            // Unreturned tokens only make the limit slightly stricter until the buckets refill
+            log.warn("Failed to reconcile shared rate limit leases: {}", e.getMessage());
+        }
+    }
+
+    private static long toSeconds(long micros) {
+        return Math.max(0, (micros + 999_999L) / 1_000_000L);
+    }
+}
@@ -0,0 +1,99 @@
+package com.rwandaheritage.heritageguard.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Serves pre-signed download URLs ({@link SignedUrlService#PATH_PREFIX}).
+ *
+ * Registered ahead of every other filter and never passes the request on, so a signed
+ * download costs one HMAC check and a file copy: no rate limiter, JWT parsing, user
+ * lookup, security chain or dispatcher. Not a component on purpose; see SignedUrlConfig.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SignedDownloadFilter extends OncePerRequestFilter {
+
+    private final SignedUrlService signedUrlService;
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD");
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String rest = path.startsWith(SignedUrlService.PATH_PREFIX) ? path.substring(SignedUrlService.PATH_PREFIX.length()) : "";
+        int slash = rest.indexOf('/');
+        if (slash <= 0 || slash == rest.length() - 1) {
+            writeError(response, HttpServletResponse.SC_NOT_FOUND, "Not Found", "Unknown download link");
+            return;
+        }
+        String kind = rest.substring(0, slash);
+        String storedName = URLDecoder.decode(rest.substring(slash + 1).replace("+", "%2B"), StandardCharsets.UTF_8);
+
+        Optional<SignedUrlService.VerifiedFile> verified = signedUrlService.verify(kind, storedName,
+                request.getParameter("exp"), request.getParameter("name"), request.getParameter("type"),
+                request.getParameter("disp"), request.getParameter("sig"));
+        if (verified.isEmpty()) {
+            writeError(response, HttpServletResponse.SC_FORBIDDEN, "Forbidden", "Download link is invalid or has expired");
+            return;
+        }
+
+        SignedUrlService.VerifiedFile file = verified.get();
+        if (!Files.isRegularFile(file.getPath())) {
+            writeError(response, HttpServletResponse.SC_NOT_FOUND, "Not Found", "File not found");
+            return;
+        }
+
+        long size = Files.size(file.getPath());
+        long maxAge = Math.max(0, file.getExpiresAt() - Instant.now().getEpochSecond());
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(file.getContentType());
+        response.setContentLengthLong(size);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + maxAge);
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                (file.isAttachment() ? ContentDisposition.attachment() : ContentDisposition.inline())
+                        .filename(file.getDownloadName(), StandardCharsets.UTF_8)
+                        .build()
+                        .toString());
+        if ("HEAD".equals(method)) {
+            return;
+        }
+        try {
+            Files.copy(file.getPath(), response.getOutputStream());
+        } catch (IOException e) {
+            // Usually the client went away mid-download
+            log.debug("Signed download of {} aborted: {}", file.getPath(), e.getMessage());
+        }
+    }
+
+    private static void writeError(HttpServletResponse response, int status, String error, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\": \"" + error + "\", \"message\": \"" + message + "\"}");
+    }
+}
@@ -0,0 +1,244 @@
+package com.rwandaheritage.heritageguard.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Issues and verifies short-lived HMAC-signed download URLs.
+ *
+ * A signed URL carries everything needed to serve the file (which upload directory, the
+ * stored file name, the download name and content type) plus an expiry, all covered by the
+ * signature. The download handler can therefore stream the file without a database lookup,
+ * user lookup or JWT parsing; authorization happens once, when the URL is issued.
+ */
+@Service
+@Slf4j
+public class SignedUrlService {
+
+    public static final String PATH_PREFIX = "/api/files/signed/";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    // Where TestimonialService stores avatars
+    private static final String AVATAR_UPLOAD_DIR = "uploads/testimonials/avatars/";
+
+    /**
+     * Upload areas a signed URL may point into, identified by their URL segment.
+     */
+    public enum FileKind {
+        MEDIA("media"),
+        DOCUMENT("document"),
+        ARTIFACT_MEDIA("artifact-media"),
+        AVATAR("avatar");
+
+        private final String segment;
+
+        FileKind(String segment) {
+            this.segment = segment;
+        }
+
+        public String getSegment() {
+            return segment;
+        }
+
+        public static Optional<FileKind> fromSegment(String segment) {
+            for (FileKind kind : values()) {
+                if (kind.segment.equals(segment)) {
+                    return Optional.of(kind);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A verified request: the file to stream and how to present it.
+     */
+    public static class VerifiedFile {
+        private final Path path;
+        private final String downloadName;
+        private final String contentType;
+        private final boolean attachment;
+        private final long expiresAt;
+
+        VerifiedFile(Path path, String downloadName, String contentType, boolean attachment, long expiresAt) {
+            this.path = path;
+            this.downloadName = downloadName;
+            this.contentType = contentType;
+            this.attachment = attachment;
+            this.expiresAt = expiresAt;
+        }
+
+        public Path getPath() { return path; }
+        public String getDownloadName() { return downloadName; }
+        public String getContentType() { return contentType; }
+        public boolean isAttachment() { return attachment; }
+        public long getExpiresAt() { return expiresAt; }
+    }
+
+    private final Map<FileKind, Path> roots = new EnumMap<>(FileKind.class);
+    private final ThreadLocal<Mac> mac;
+    private final long ttlSeconds;
+
+    public SignedUrlService(
+            @Value("${download.signing.secret:}") String signingSecret,
+            @Value("${jwt.secret}") String jwtSecret,
+            @Value("${download.signed-url.ttl-seconds:300}") long ttlSeconds,
+            @Value("${media.upload.dir:uploads/media}") String mediaUploadDir,
+            @Value("${document.upload.dir:uploads/documents}") String documentUploadDir,
+            @Value("${artifact.media.upload.dir:E:/RWANDA_ARTIFACT_MEDIA}") String artifactMediaUploadDir) {
+        this.ttlSeconds = ttlSeconds;
+        roots.put(FileKind.MEDIA, toRoot(mediaUploadDir));
+        roots.put(FileKind.DOCUMENT, toRoot(documentUploadDir));
+        roots.put(FileKind.ARTIFACT_MEDIA, toRoot(artifactMediaUploadDir));
+        roots.put(FileKind.AVATAR, toRoot(AVATAR_UPLOAD_DIR));
+
+        // Without a dedicated secret, derive one from the JWT secret so the two keys never coincide
+        byte[] key = signingSecret != null && !signingSecret.isBlank()
+                ? signingSecret.getBytes(StandardCharsets.UTF_8)
+                : hmac(jwtSecret.getBytes(StandardCharsets.UTF_8), "signed-download-key");
+        SecretKeySpec keySpec = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+                instance.init(keySpec);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise download URL signer", e);
+            }
+        });
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    /**
+     * Sign a media file the way the media download endpoint serves it: images and videos
+     * inline with their own type, anything else as an octet-stream attachment.
+     */
+    public Optional<String> signMedia(FileKind kind, String filePath, String fileName, String fileType) {
+        boolean inline = fileType != null && (fileType.startsWith("image/") || fileType.startsWith("video/"));
+        return sign(kind, filePath, fileName, inline ? fileType : null, !inline);
+    }
+
+    /**
+     * Response body for a single signed URL.
+     */
+    public Map<String, Object> toResponse(String url) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("url", url);
+        response.put("expiresIn", ttlSeconds);
+        return response;
+    }
+
+    /**
+     * Sign a download URL for a stored file. Empty when the file does not live under the
+     * upload directory for its kind, in which case callers fall back to the regular endpoint.
+     *
+     * @param attachment true for Content-Disposition attachment, false to display inline
+     */
+    public Optional<String> sign(FileKind kind, String filePath, String downloadName, String contentType, boolean attachment) {
+        if (filePath == null) {
+            return Optional.empty();
+        }
+        Path root = roots.get(kind);
+        Path file = Paths.get(filePath).toAbsolutePath().normalize();
+        if (!file.startsWith(root) || file.equals(root)) {
+            log.debug("Not signing {} outside upload root {}", file, root);
+            return Optional.empty();
+        }
+        String storedName = root.relativize(file).toString().replace('\\', '/');
+        long expires = Instant.now().getEpochSecond() + ttlSeconds;
+        String name = downloadName != null && !downloadName.isBlank() ? downloadName : file.getFileName().toString();
+        String type = contentType != null && !contentType.isBlank() ? contentType : "application/octet-stream";
+        String disposition = attachment ? "a" : "i";
+        String signature = signature(kind.getSegment(), storedName, expires, name, type, disposition);
+
+        StringBuilder url = new StringBuilder(PATH_PREFIX).append(kind.getSegment());
+        for (String segment : storedName.split("/")) {
+            url.append('/').append(encodePathSegment(segment));
+        }
+        url.append("?exp=").append(expires)
+           .append("&name=").append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+           .append("&type=").append(URLEncoder.encode(type, StandardCharsets.UTF_8))
+           .append("&disp=").append(disposition)
+           .append("&sig=").append(signature);
+        return Optional.of(url.toString());
+    }
+
+    /**
+     * Check a signed request. The signature is compared in constant time before anything
+     * else is trusted; empty when it is invalid, expired or escapes the upload root.
+     */
+    public Optional<VerifiedFile> verify(String kindSegment, String storedName, String exp, String name,
+                                         String type, String disposition, String signature) {
+        if (kindSegment == null || storedName == null || exp == null || name == null
+                || type == null || disposition == null || signature == null) {
+            return Optional.empty();
+        }
+        long expires;
+        try {
+            expires = Long.parseLong(exp);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        String expected = signature(kindSegment, storedName, expires, name, type, disposition);
+        if (!MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII), signature.getBytes(StandardCharsets.US_ASCII))) {
+            return Optional.empty();
+        }
+        if (Instant.now().getEpochSecond() > expires) {
+            return Optional.empty();
+        }
+        Optional<FileKind> kind = FileKind.fromSegment(kindSegment);
+        if (kind.isEmpty()) {
+            return Optional.empty();
+        }
+        Path root = roots.get(kind.get());
+        Path file = root.resolve(storedName).normalize();
+        if (!file.startsWith(root)) {
+            return Optional.empty();
+        }
+        return Optional.of(new VerifiedFile(file, name, type, "a".equals(disposition), expires));
+    }
+
+    private String signature(String kind, String storedName, long expires, String name, String type, String disposition) {
+        String canonical = kind + '\n' + storedName + '\n' + expires + '\n' + name + '\n' + type + '\n' + disposition;
+        byte[] digest = mac.get().doFinal(canonical.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+            instance.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+            return instance.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot derive download signing key", e);
+        }
+    }
+
+    private static Path toRoot(String dir) {
+        return Paths.get(dir).toAbsolutePath().normalize();
+    }
+
+    private static String encodePathSegment(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,104 @@
+package com.rwandaheritage.heritageguard.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.rwandaheritage.heritageguard.repository.HeritageSiteManagerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the heritage sites each manager is actively assigned to, keyed by user id.
+ *
+ * Site permission checks run once per row in list endpoints; this turns each of them into a
+ * set lookup. HeritageSiteManagerService evicts a user whenever their assignments change, and
+ * the TTL bounds staleness for changes made on other instances.
+ */
+@Component
+@Slf4j
+public class SiteAssignmentIndex {
+
+    private final HeritageSiteManagerRepository heritageSiteManagerRepository;
+    private final Cache<Long, Set<Long>> assignments;
+
+    public SiteAssignmentIndex(
+            HeritageSiteManagerRepository heritageSiteManagerRepository,
+            @Value("${security.site-assignments.max-size:5000}") long maxSize,
+            @Value("${security.site-assignments.ttl-seconds:60}") long ttlSeconds) {
+        this.heritageSiteManagerRepository = heritageSiteManagerRepository;
+        this.assignments = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Ids of the sites the user actively manages; empty for anyone who manages none.
+     */
+    public Set<Long> getAssignedSiteIds(Long userId) {
+        if (userId == null) {
+            return Set.of();
+        }
+        try {
+            return assignments.get(userId, () -> Set.copyOf(heritageSiteManagerRepository.findActiveSiteIdsByUserId(userId)));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to load site assignments for user " + userId, e.getCause());
+        }
+    }
+
+    public boolean isAssigned(Long userId, Long siteId) {
+        return siteId != null && getAssignedSiteIds(userId).contains(siteId);
+    }
+
+    /**
+     * Evict a user now and again once the surrounding transaction commits, so a concurrent
+     * read of the old assignments cannot stay cached.
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        assignments.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    assignments.invalidate(userId);
+                }
+            });
+        }
+        log.debug("Evicted cached site assignments for user {}", userId);
+    }
+
+    public void evictAll() {
+        assignments.invalidateAll();
+    }
+
+    /**
+     * Hit/miss counters since startup.
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = assignments.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", assignments.size());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
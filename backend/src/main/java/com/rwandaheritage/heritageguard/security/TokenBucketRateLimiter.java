@@ -0,0 +1,115 @@
+package com.rwandaheritage.heritageguard.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket limiter implemented as GCRA (generic cell rate algorithm).
+ *
+ * Each key holds a single "theoretical arrival time" in an {@link AtomicLong}; a request is
+ * admitted with one compare-and-set, so the hot path takes no locks and concurrent requests
+ * can never over-admit the way a get/increment/put counter can. Keys whose bucket has
+ * refilled completely carry no information and are dropped by {@link #sweep()}.
+ */
+public class TokenBucketRateLimiter {
+
+    /**
+     * Sustained rate plus how many requests may arrive back to back.
+     */
+    public static final class Limit {
+        private final int perMinute;
+        private final int burst;
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+
+        public Limit(int perMinute, int burst) {
+            if (perMinute <= 0 || burst <= 0) {
+                throw new IllegalArgumentException("Rate limits must be positive");
+            }
+            this.perMinute = perMinute;
+            this.burst = burst;
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+            this.burstToleranceNanos = emissionIntervalNanos * burst;
+        }
+
+        public int getPerMinute() { return perMinute; }
+        public int getBurst() { return burst; }
+    }
+
+    /**
+     * Outcome of an acquire attempt, with what the RateLimit-* headers need.
+     */
+    public static final class Decision {
+        private final boolean allowed;
+        private final int limit;
+        private final int remaining;
+        private final long resetSeconds;
+        private final long retryAfterSeconds;
+
+        Decision(boolean allowed, int limit, int remaining, long resetSeconds, long retryAfterSeconds) {
+            this.allowed = allowed;
+            this.limit = limit;
+            this.remaining = remaining;
+            this.resetSeconds = resetSeconds;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public boolean isAllowed() { return allowed; }
+        public int getLimit() { return limit; }
+        public int getRemaining() { return remaining; }
+        /** Seconds until the bucket is full again. */
+        public long getResetSeconds() { return resetSeconds; }
+        /** Seconds until the rejected request would be admitted; 0 when allowed. */
+        public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    }
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Take {@code cost} tokens from the bucket for {@code key}. A cost above the burst size
+     * passes only on a full bucket and leaves the excess as debt, so the bucket stays empty
+     * until the whole cost has been earned back.
+     */
+    public Decision tryAcquire(String key, Limit limit, int cost) {
+        long now = System.nanoTime();
+        long increment = limit.emissionIntervalNanos * Math.max(1, cost);
+        long tolerance = Math.max(limit.burstToleranceNanos, increment);
+        AtomicLong state = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long tat = state.get();
+            long newTat = Math.max(tat, now) + increment;
+            long allowAt = newTat - tolerance;
+            if (now < allowAt) {
+                long fullAt = Math.max(tat, now) - now;
+                return new Decision(false, limit.burst, 0, toSeconds(fullAt), toSeconds(allowAt - now));
+            }
+            if (state.compareAndSet(tat, newTat)) {
+                int remaining = (int) ((limit.burstToleranceNanos - (newTat - now)) / limit.emissionIntervalNanos);
+                return new Decision(true, limit.burst, Math.max(0, remaining), toSeconds(newTat - now), 0);
+            }
+        }
+    }
+
+    /**
+     * Drop buckets that have fully refilled. A request racing with the removal may update a
+     * bucket that is being dropped, which at worst forgives that one request.
+     *
+     * @return number of buckets removed
+     */
+    public int sweep() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(state -> state.get() - now <= 0);
+        return Math.max(0, before - buckets.size());
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(0, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
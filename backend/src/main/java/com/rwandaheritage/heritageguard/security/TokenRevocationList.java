@@ -0,0 +1,132 @@
+package com.rwandaheritage.heritageguard.security;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.rwandaheritage.heritageguard.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory list of revoked login sessions (refresh-token families), consulted by the JWT
+ * filter on every request.
+ *
+ * A Bloom filter answers the common case (session not revoked) without touching the exact
+ * set; only possible hits are confirmed against it. Entries are kept until every access
+ * token of the session has expired, then trimmed; the Bloom filter, which cannot delete, is
+ * rebuilt from the exact set at that point. The list is loaded from the database at startup
+ * and re-synced periodically so revocations made on other instances are picked up.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long retentionMillis;
+    private final int expectedRevocations;
+
+    // Family id -> epoch millis after which no token of the family can still be valid
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter<CharSequence> bloom;
+    private volatile LocalDateTime lastSync;
+
+    public TokenRevocationList(
+            RefreshTokenRepository refreshTokenRepository,
+            JwtService jwtService,
+            @Value("${jwt.revocation.expected-entries:10000}") int expectedRevocations) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.retentionMillis = jwtService.getMaxAccessTokenLifetimeMillis();
+        this.expectedRevocations = Math.max(1000, expectedRevocations);
+        this.bloom = newBloom(0);
+    }
+
+    /**
+     * O(1): false for almost every live session without touching the exact set.
+     */
+    public boolean isRevoked(String familyId) {
+        return familyId != null && bloom.mightContain(familyId) && revoked.containsKey(familyId);
+    }
+
+    public void revoke(String familyId) {
+        revoke(familyId, System.currentTimeMillis());
+    }
+
+    // Synchronized with the filter swap in trim(), so no revocation lands in a discarded filter
+    private synchronized void revoke(String familyId, long revokedAtMillis) {
+        revoked.merge(familyId, revokedAtMillis + retentionMillis, Math::max);
+        bloom.put(familyId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        LocalDateTime since = LocalDateTime.now().minusNanos(retentionMillis * 1_000_000L);
+        int loaded = load(since);
+        log.info("Loaded {} revoked sessions into the token revocation list", loaded);
+    }
+
+    /**
+     * Pick up revocations made by other instances.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:30000}")
+    public void sync() {
+        LocalDateTime from = lastSync;
+        if (from != null) {
+            // Overlap a little so revocations committed around the last sync are not missed
+            load(from.minusSeconds(5));
+        }
+    }
+
+    private int load(LocalDateTime since) {
+        LocalDateTime started = LocalDateTime.now();
+        int count = 0;
+        for (Object[] row : refreshTokenRepository.findFamiliesRevokedSince(since)) {
+            long revokedAt = ((LocalDateTime) row[1]).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            revoke((String) row[0], revokedAt);
+            count++;
+        }
+        lastSync = started;
+        return count;
+    }
+
+    /**
+     * Drop sessions whose tokens have all expired and rebuild the Bloom filter without them.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.trim-interval-ms:600000}")
+    public void trim() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt < now);
+        if (revoked.size() == before) {
+            return;
+        }
+        // Fill the new filter completely before publishing it: isRevoked trusts a negative answer
+        BloomFilter<CharSequence> rebuilt = newBloom(revoked.size());
+        revoked.keySet().forEach(rebuilt::put);
+        synchronized (this) {
+            // Re-put under the lock so sessions revoked while the filter was being filled are kept
+            revoked.keySet().forEach(rebuilt::put);
+            bloom = rebuilt;
+        }
+        log.debug("Trimmed token revocation list from {} to {} sessions", before, revoked.size());
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private BloomFilter<CharSequence> newBloom(int entries) {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+                Math.max(expectedRevocations, entries * 2L), FALSE_POSITIVE_RATE);
+    }
+}
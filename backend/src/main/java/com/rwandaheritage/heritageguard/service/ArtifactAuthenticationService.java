@@ -4,11 +4,11 @@ import com.rwandaheritage.heritageguard.model.Artifact;
 import com.rwandaheritage.heritageguard.model.ArtifactAuthentication;
 import com.rwandaheritage.heritageguard.repository.ArtifactAuthenticationRepository;
 import com.rwandaheritage.heritageguard.repository.ArtifactRepository;
+import com.rwandaheritage.heritageguard.security.AccessContextProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -26,14 +26,17 @@ import java.util.UUID;
 public class ArtifactAuthenticationService {
     private final ArtifactAuthenticationRepository artifactAuthenticationRepository;
     private final ArtifactRepository artifactRepository;
+    private final AccessContextProvider accessContextProvider;
 
     @Value("${authentication.document.upload.dir:E:/RWANDA_AUTH_DOCS}")
     private String authDocumentUploadDir;
 
     @Autowired
-    public ArtifactAuthenticationService(ArtifactAuthenticationRepository artifactAuthenticationRepository, ArtifactRepository artifactRepository) {
+    public ArtifactAuthenticationService(ArtifactAuthenticationRepository artifactAuthenticationRepository, ArtifactRepository artifactRepository,
+                                         AccessContextProvider accessContextProvider) {
         this.artifactAuthenticationRepository = artifactAuthenticationRepository;
         this.artifactRepository = artifactRepository;
+        this.accessContextProvider = accessContextProvider;
     }
 
     // Add authentication record with file upload
@@ -211,17 +214,6 @@ public class ArtifactAuthenticationService {
         if (artifact.getIsPublic() != null && artifact.getIsPublic()) {
             return true;
         }
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated() || auth.getPrincipal().equals("anonymousUser")) {
-            return false;
-        }
-        for (GrantedAuthority authority : auth.getAuthorities()) {
-            String role = authority.getAuthority();
-            if (role.equals("ROLE_SYSTEM_ADMINISTRATOR") || role.equals("ROLE_HERITAGE_MANAGER") ||
-                role.equals("ROLE_CONTENT_MANAGER") || role.equals("ROLE_COMMUNITY_MEMBER")) {
-                return true;
-            }
-        }
-        return false;
+        return accessContextProvider.current().isMember();
     }
 } 
\ No newline at end of file
@@ -3,17 +3,19 @@ package com.rwandaheritage.heritageguard.service;
 import com.rwandaheritage.heritageguard.dto.ArtifactMediaDTO;
 import com.rwandaheritage.heritageguard.model.Artifact;
 import com.rwandaheritage.heritageguard.model.ArtifactMedia;
+import com.rwandaheritage.heritageguard.model.StorageUsage;
 import com.rwandaheritage.heritageguard.repository.ArtifactMediaRepository;
 import com.rwandaheritage.heritageguard.repository.ArtifactRepository;
+import com.rwandaheritage.heritageguard.security.AccessContextProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
@@ -30,21 +32,31 @@ import java.util.UUID;
 public class ArtifactMediaService {
     private final ArtifactMediaRepository artifactMediaRepository;
     private final ArtifactRepository artifactRepository;
+    private final StorageAccountingService storageAccountingService;
+    private final AccessContextProvider accessContextProvider;
 
     @Value("${artifact.media.upload.dir:E:/RWANDA_ARTIFACT_MEDIA}")
     private String mediaUploadDir;
 
     @Autowired
-    public ArtifactMediaService(ArtifactMediaRepository artifactMediaRepository, ArtifactRepository artifactRepository) {
+    public ArtifactMediaService(ArtifactMediaRepository artifactMediaRepository, ArtifactRepository artifactRepository,
+                                StorageAccountingService storageAccountingService,
+                                AccessContextProvider accessContextProvider) {
         this.artifactMediaRepository = artifactMediaRepository;
         this.artifactRepository = artifactRepository;
+        this.storageAccountingService = storageAccountingService;
+        this.accessContextProvider = accessContextProvider;
     }
 
     // Upload media (image/3D model)
+    @Transactional
     public ArtifactMedia uploadMedia(Long artifactId, MultipartFile file, Boolean isPublic, String description) throws IOException {
         Artifact artifact = artifactRepository.findById(artifactId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Artifact not found"));
         validateFile(file);
+        Long siteId = getSiteId(artifact);
+        String uploader = getCurrentUsername();
+        storageAccountingService.checkQuota(siteId, uploader, file.getSize());
         // Ensure upload directory exists
         String uploadDir = mediaUploadDir + "/" + artifactId;
         Path uploadPath = Paths.get(uploadDir);
@@ -67,8 +79,12 @@ public class ArtifactMediaService {
             .filePath(filePath.toString())
             .isPublic(isPublic != null ? isPublic : false)
             .description(description)
+            .fileSize(file.getSize())
+            .uploaderUsername(uploader)
             .build();
-        return artifactMediaRepository.save(media);
+        ArtifactMedia saved = artifactMediaRepository.save(media);
+        storageAccountingService.recordStored(StorageUsage.ContentType.ARTIFACT_MEDIA, siteId, uploader, file.getSize());
+        return saved;
     }
 
     // Get media by ID
@@ -89,6 +105,7 @@ public class ArtifactMediaService {
     }
 
     // Delete media
+    @Transactional
     public void deleteMedia(Long artifactId, Long mediaId) {
         ArtifactMedia media = artifactMediaRepository.findById(mediaId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Media not found"));
@@ -105,6 +122,8 @@ public class ArtifactMediaService {
             // Log and continue
         }
         artifactMediaRepository.deleteById(mediaId);
+        storageAccountingService.recordRemoved(StorageUsage.ContentType.ARTIFACT_MEDIA,
+            getSiteId(media.getArtifact()), media.getUploaderUsername(), media.getFileSize());
     }
 
     // Download media file
@@ -145,6 +164,7 @@ public class ArtifactMediaService {
     /**
      * Replace media file
      */
+    @Transactional
     public ArtifactMedia replaceMediaFile(Long artifactId, Long mediaId, MultipartFile file) throws IOException {
         // Get the media
         ArtifactMedia media = artifactMediaRepository.findById(mediaId)
@@ -171,6 +191,11 @@ public class ArtifactMediaService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid file type. Allowed: images and 3D models");
         }
 
+        Long siteId = getSiteId(media.getArtifact());
+        String uploader = getCurrentUsername();
+        long previousSize = media.getFileSize() != null ? media.getFileSize() : 0L;
+        storageAccountingService.checkQuota(siteId, uploader, Math.max(0L, file.getSize() - previousSize));
+
         // Delete old file
         String oldFilePath = media.getFilePath();
         if (oldFilePath != null) {
@@ -196,9 +221,14 @@ public class ArtifactMediaService {
         file.transferTo(dest);
 
         // Update media record
+        storageAccountingService.recordRemoved(StorageUsage.ContentType.ARTIFACT_MEDIA, siteId, media.getUploaderUsername(), media.getFileSize());
         media.setFilePath(newFilePath);
+        media.setFileSize(file.getSize());
+        media.setUploaderUsername(uploader);
 
-        return artifactMediaRepository.save(media);
+        ArtifactMedia saved = artifactMediaRepository.save(media);
+        storageAccountingService.recordStored(StorageUsage.ContentType.ARTIFACT_MEDIA, siteId, uploader, file.getSize());
+        return saved;
     }
 
     // --- Validation and Access Control ---
@@ -222,18 +252,7 @@ public class ArtifactMediaService {
         if (media.getIsPublic() != null && media.getIsPublic()) {
             return true;
         }
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated() || auth.getPrincipal().equals("anonymousUser")) {
-            return false;
-        }
-        for (GrantedAuthority authority : auth.getAuthorities()) {
-            String role = authority.getAuthority();
-            if (role.equals("ROLE_SYSTEM_ADMINISTRATOR") || role.equals("ROLE_HERITAGE_MANAGER") ||
-                role.equals("ROLE_CONTENT_MANAGER") || role.equals("ROLE_COMMUNITY_MEMBER")) {
-                return true;
-            }
-        }
-        return false;
+        return accessContextProvider.current().isMember();
     }
 
     private void enforceCanDelete(ArtifactMedia media) {
@@ -248,6 +267,18 @@ public class ArtifactMediaService {
         }
     }
 
+    private Long getSiteId(Artifact artifact) {
+        return artifact != null && artifact.getHeritageSite() != null ? artifact.getHeritageSite().getId() : null;
+    }
+
+    private String getCurrentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth.getPrincipal().equals("anonymousUser")) {
+            return null;
+        }
+        return auth.getName();
+    }
+
     /**
      * Get file extension from filename
      */
@@ -4,11 +4,10 @@ import com.rwandaheritage.heritageguard.model.Artifact;
 import com.rwandaheritage.heritageguard.model.HeritageSite;
 import com.rwandaheritage.heritageguard.repository.ArtifactRepository;
 import com.rwandaheritage.heritageguard.repository.HeritageSiteRepository;
+import com.rwandaheritage.heritageguard.security.AccessContext;
+import com.rwandaheritage.heritageguard.security.AccessContextProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
@@ -19,11 +18,14 @@ import java.util.Optional;
 public class ArtifactService {
     private final ArtifactRepository artifactRepository;
     private final HeritageSiteRepository heritageSiteRepository;
+    private final AccessContextProvider accessContextProvider;
 
     @Autowired
-    public ArtifactService(ArtifactRepository artifactRepository, HeritageSiteRepository heritageSiteRepository) {
+    public ArtifactService(ArtifactRepository artifactRepository, HeritageSiteRepository heritageSiteRepository,
+                           AccessContextProvider accessContextProvider) {
         this.artifactRepository = artifactRepository;
         this.heritageSiteRepository = heritageSiteRepository;
+        this.accessContextProvider = accessContextProvider;
     }
 
     // Create a new artifact
@@ -61,14 +63,11 @@ public class ArtifactService {
 
     // List all artifacts with RBAC filtering
     public List<Artifact> listArtifacts() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        AccessContext access = accessContextProvider.current();
         List<Artifact> all = artifactRepository.findAllWithHeritageSite();
         
-        if (auth != null && auth.getAuthorities() != null) {
-            boolean isSystemAdmin = auth.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ROLE_SYSTEM_ADMINISTRATOR"));
-            
-            if (isSystemAdmin) {
+        if (access.isAuthenticated()) {
+            if (access.isSystemAdministrator()) {
                 // System Admin sees all artifacts
                 return all.stream().filter(this::canView).toList();
             } else {
@@ -148,15 +147,9 @@ public class ArtifactService {
 
     // Statistics methods
     public Long getTotalArtifactCount() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth != null && auth.getAuthorities() != null) {
-            boolean isSystemAdmin = auth.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ROLE_SYSTEM_ADMINISTRATOR"));
-            
-            if (isSystemAdmin) {
-                // System Admin sees total count of all artifacts
-                return artifactRepository.countTotalArtifacts();
-            }
+        if (accessContextProvider.current().isSystemAdministrator()) {
+            // System Admin sees total count of all artifacts
+            return artifactRepository.countTotalArtifacts();
         }
         
         // Others see only public artifacts count
@@ -168,15 +161,9 @@ public class ArtifactService {
     }
 
     public Long getPrivateArtifactCount() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth != null && auth.getAuthorities() != null) {
-            boolean isSystemAdmin = auth.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ROLE_SYSTEM_ADMINISTRATOR"));
-            
-            if (isSystemAdmin) {
-                // System Admin sees private artifacts count
-                return artifactRepository.countTotalArtifacts() - artifactRepository.countPublicArtifacts();
-            }
+        if (accessContextProvider.current().isSystemAdministrator()) {
+            // System Admin sees private artifacts count
+            return artifactRepository.countTotalArtifacts() - artifactRepository.countPublicArtifacts();
         }
         
         // Others don't see private artifacts count
@@ -211,20 +198,15 @@ public class ArtifactService {
             return true;
         }
 
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated()) {
-            return false;
-        }
+        AccessContext access = accessContextProvider.current();
 
         // System Administrator can view all artifacts
-        if (auth.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ROLE_SYSTEM_ADMINISTRATOR"))) {
+        if (access.isSystemAdministrator()) {
             return true;
         }
 
         // Heritage Manager can view artifacts from their assigned sites
-        if (auth.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ROLE_HERITAGE_MANAGER"))) {
+        if (access.isHeritageManager()) {
             // TODO: Implement site assignment checking
             // For now, allow Heritage Managers to view all non-public artifacts
             return true;
@@ -235,16 +217,12 @@ public class ArtifactService {
     }
 
     private void enforceCanCreate() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated()) {
+        AccessContext access = accessContextProvider.current();
+        if (!access.isAuthenticated()) {
             throw new AccessDeniedException("Authentication required");
         }
 
-        boolean canCreate = auth.getAuthorities().stream()
-                .anyMatch(authority -> 
-                    authority.getAuthority().equals("ROLE_SYSTEM_ADMINISTRATOR") ||
-                    authority.getAuthority().equals("ROLE_HERITAGE_MANAGER")
-                );
+        boolean canCreate = access.isSystemAdministrator() || access.isHeritageManager();
 
         if (!canCreate) {
             throw new AccessDeniedException("Insufficient permissions to create artifacts");
@@ -252,16 +230,12 @@ public class ArtifactService {
     }
 
     private void enforceCanEdit(Artifact artifact) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated()) {
+        AccessContext access = accessContextProvider.current();
+        if (!access.isAuthenticated()) {
             throw new AccessDeniedException("Authentication required");
         }
 
-        boolean canEdit = auth.getAuthorities().stream()
-                .anyMatch(authority -> 
-                    authority.getAuthority().equals("ROLE_SYSTEM_ADMINISTRATOR") ||
-                    authority.getAuthority().equals("ROLE_HERITAGE_MANAGER")
-                );
+        boolean canEdit = access.isSystemAdministrator() || access.isHeritageManager();
 
         if (!canEdit) {
             throw new AccessDeniedException("Insufficient permissions to edit artifacts");
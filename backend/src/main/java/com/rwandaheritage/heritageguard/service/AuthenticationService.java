@@ -3,9 +3,12 @@ package com.rwandaheritage.heritageguard.service;
 import com.rwandaheritage.heritageguard.dto.auth.AuthenticationRequest;
 import com.rwandaheritage.heritageguard.dto.auth.AuthenticationResponse;
 import com.rwandaheritage.heritageguard.dto.auth.RegisterRequest;
+import com.rwandaheritage.heritageguard.model.RefreshToken;
 import com.rwandaheritage.heritageguard.model.User;
 import com.rwandaheritage.heritageguard.repository.UserRepository;
 import com.rwandaheritage.heritageguard.security.JwtService;
+import com.rwandaheritage.heritageguard.security.PrincipalCache;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -55,6 +58,9 @@ public class AuthenticationService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
+    private final PrincipalCache principalCache;
+    private final LoginBookkeepingService loginBookkeepingService;
+    private final RefreshTokenService refreshTokenService;
 
 
     @Value("${google.client.id}")
@@ -364,7 +370,7 @@ public class AuthenticationService {
         
         // Send verification email
         emailService.sendVerificationEmail(user.getEmail(), verificationToken);
-        log.info("Verification email sent to: {}", user.getEmail());
+        log.info("Verification email queued for: {}", user.getEmail());
 
         // Generate temporary token that will be invalidated after email verification
         var jwtToken = jwtService.generateToken(user, true);
@@ -530,12 +536,16 @@ public class AuthenticationService {
         userRepository.save(user);
 
         emailService.sendVerificationEmail(user.getEmail(), verificationToken);
-        log.info("Verification email resent to: {}", user.getEmail());
+        log.info("Verification email re-queued for: {}", user.getEmail());
     }
 
     @Transactional
-    public Map<String, Object> login(String username, String password, boolean rememberMe) {
+    public Map<String, Object> login(String username, String password, boolean rememberMe, String clientIp) {
         log.info("Received login request for user: {}", username);
+        if (loginBookkeepingService.isLockedOut(username, clientIp)) {
+            log.warn("Login for user {} refused: too many failed attempts from {}", username, clientIp);
+            throw new LockedException("Too many failed login attempts, try again later");
+        }
         try {
             authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(username, password)
@@ -552,28 +562,28 @@ public class AuthenticationService {
                 throw new LockedException("User account is locked");
             }
 
-            // Reset failed login attempts on successful login
-            user.resetFailedLoginAttempts();
-            user.setLastLogin(LocalDateTime.now());
-            userRepository.save(user);
+            // Narrow updates only: the managed user is left untouched so the row is not rewritten
+            LocalDateTime loginTime = LocalDateTime.now();
+            loginBookkeepingService.recordSuccess(user, loginTime, clientIp);
 
-            // Generate access token with remember-me option and refresh token
-            String accessToken = jwtService.generateToken(user, rememberMe);
-            String refreshToken = jwtService.generateRefreshToken(user);
-            
-            // Save refresh token to user
-            user.setRefreshToken(refreshToken, jwtService.getTokenExpiryDate(refreshToken));
-            userRepository.save(user);
+            // Each login starts a new session (refresh-token family) that logout can revoke
+            String familyId = RefreshTokenService.newFamilyId();
+            String accessToken = jwtService.generateToken(user, rememberMe, familyId);
+            String refreshToken = refreshTokenService.issue(user, familyId);
+
+            UserProfileDTO userDto = mapUserToDto(user);
+            userDto.setLastLogin(loginTime);
 
             Map<String, Object> response = new HashMap<>();
             response.put("accessToken", accessToken);
             response.put("refreshToken", refreshToken);
             response.put("tokenType", "Bearer");
-            response.put("user", mapUserToDto(user));
+            response.put("user", userDto);
             
             return response;
         } catch (BadCredentialsException e) {
             log.warn("Authentication failed for user {}: Bad credentials", username);
+            loginBookkeepingService.recordFailure(username, clientIp);
             throw new BadCredentialsException("Invalid username or password");
         }
     }
@@ -588,11 +598,12 @@ public class AuthenticationService {
             }
 
             // Verify the refresh token
-            String username = jwtService.extractUsername(refreshToken);
-            if (username == null) {
-                log.warn("Could not extract username from refresh token");
+            Claims claims = jwtService.verifyToken(refreshToken);
+            if (claims == null || !JwtService.isRefreshToken(claims) || claims.getSubject() == null) {
+                log.warn("Invalid or expired refresh token");
                 throw new AuthenticationException("Invalid refresh token format") {};
             }
+            String username = claims.getSubject();
 
             User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> {
@@ -606,27 +617,15 @@ public class AuthenticationService {
                 throw new AuthenticationException("User account is not active") {};
             }
 
-            // Verify the refresh token matches and is not expired
-            if (!user.getRefreshToken().equals(refreshToken)) {
-                log.warn("Refresh token mismatch for user: {}", username);
+            // Exchange the token for its successor; a replayed token revokes the whole session
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(claims, user);
+            if (rotation.getOutcome() != RefreshTokenService.Outcome.ROTATED) {
+                log.warn("Refresh token rejected for user {}: {}", username, rotation.getOutcome());
                 throw new AuthenticationException("Invalid refresh token") {};
             }
 
-            if (!user.isRefreshTokenValid()) {
-                log.warn("Refresh token expired for user: {}", username);
-                // Clear the expired token
-                user.clearRefreshToken();
-                userRepository.save(user);
-                throw new AuthenticationException("Refresh token expired") {};
-            }
-
-            // Generate new tokens
-            String newAccessToken = jwtService.generateToken(user);
-            String newRefreshToken = jwtService.generateRefreshToken(user);
-
-            // Update refresh token
-            user.setRefreshToken(newRefreshToken, jwtService.getTokenExpiryDate(newRefreshToken));
-            userRepository.save(user);
+            String newAccessToken = jwtService.generateToken(user, false, rotation.getFamilyId());
+            String newRefreshToken = rotation.getRefreshToken();
 
             log.info("Token refresh successful for user: {}", username);
 
@@ -642,13 +641,34 @@ public class AuthenticationService {
         }
     }
 
-    public void logout(String username) {
+    /**
+     * End a session. Revokes the session the access token belongs to, or every session of
+     * the user for tokens issued without one.
+     */
+    public void logout(String username, String familyId) {
         User user = userRepository.findByUsername(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         
-        // Clear refresh token
-        user.clearRefreshToken();
-        userRepository.save(user);
+        if (familyId != null) {
+            refreshTokenService.revokeFamily(familyId, RefreshToken.RevokeReason.LOGOUT);
+        } else {
+            refreshTokenService.revokeAllForUser(user.getId(), RefreshToken.RevokeReason.LOGOUT);
+        }
+        principalCache.evict(username);
+    }
+
+    /**
+     * Revoke every session of a user, e.g. after a token was reported stolen.
+     *
+     * @return number of sessions revoked
+     */
+    public int revokeAllSessions(String username) {
+        User user = userRepository.findByUsername(username)
+            .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        int revoked = refreshTokenService.revokeAllForUser(user.getId(), RefreshToken.RevokeReason.ADMIN);
+        principalCache.evict(username);
+        log.info("Revoked {} sessions for user: {}", revoked, username);
+        return revoked;
     }
 
     public AuthenticationResponse authenticateWithGoogle(String googleToken) {
@@ -746,7 +766,7 @@ public class AuthenticationService {
         // Send email with reset link
         String resetLink = frontendUrl + "/reset-password?token=" + resetToken;
         emailService.sendPasswordResetEmail(user.getEmail(), resetToken);
-        log.info("Password reset email sent to user: {}", user.getUsername());
+        log.info("Password reset email queued for user: {}", user.getUsername());
     }
 
     @Transactional
@@ -774,6 +794,7 @@ public class AuthenticationService {
         user.setResetToken(null);
         user.setResetTokenExpiry(null);
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
         log.info("Password reset successful for user: {}", user.getUsername());
 
         // Include password strength in response
@@ -917,7 +938,7 @@ public class AuthenticationService {
         // Send unlock email
         String unlockLink = frontendUrl + "/unlock-account?token=" + unlockToken;
         emailService.sendUnlockEmail(user.getEmail(), unlockLink);
-        log.info("Unlock instructions sent to: {}", email);
+        log.info("Unlock instructions queued for: {}", email);
     }
 
     @Transactional
@@ -952,6 +973,7 @@ public class AuthenticationService {
         user.setFailedLoginAttempts(0);
         user.setLockoutTime(null);
         userRepository.save(user);
+        principalCache.evict(username);
         log.info("Account unlocked successfully for user: {}", username);
     }
 
@@ -1166,18 +1188,6 @@ public class AuthenticationService {
         return dto;
     }
 
-    private void handleFailedLogin(String username) {
-        User user = userRepository.findByUsername(username)
-            .orElse(null);
-        if (user != null) {
-            user.incrementFailedLoginAttempts();
-            if (user.getFailedLoginAttempts() >= 5) {
-                user.setAccountNonLocked(false);
-            }
-            userRepository.save(user);
-        }
-    }
-    
     /**
      * Validate new user status - only allow ACTIVE and SUSPENDED for new users
      * This follows security best practices by preventing creation of disabled/deleted users
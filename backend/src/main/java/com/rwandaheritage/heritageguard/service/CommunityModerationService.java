@@ -2,6 +2,7 @@ package com.rwandaheritage.heritageguard.service;
 
 import com.rwandaheritage.heritageguard.dto.CommunityReportDTO;
 import com.rwandaheritage.heritageguard.dto.ReportSummaryDTO;
+import com.rwandaheritage.heritageguard.event.ForumContentChangedEvent;
 import com.rwandaheritage.heritageguard.mapper.CommunityReportMapper;
 import com.rwandaheritage.heritageguard.model.CommunityReport;
 import com.rwandaheritage.heritageguard.model.ForumPost;
@@ -11,6 +12,7 @@ import com.rwandaheritage.heritageguard.repository.ForumPostRepository;
 import com.rwandaheritage.heritageguard.repository.ForumTopicRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -30,6 +32,8 @@ public class CommunityModerationService {
     private final ForumPostRepository postRepository;
     private final ForumTopicRepository topicRepository;
     private final NotificationService notificationService;
+    private final ModerationQueueService moderationQueueService;
+    private final ApplicationEventPublisher eventPublisher;
     
     // Thresholds for automated actions
     private static final int REPORT_THRESHOLD_FLAG = 3;
@@ -67,6 +71,7 @@ public class CommunityModerationService {
         
         CommunityReport savedReport = reportRepository.save(report);
         log.info("Created community report with ID: {}", savedReport.getId());
+        moderationQueueService.enqueueReport(savedReport);
         
         // Check if automated action is needed
         processAutomatedActions(reportDTO.getContentType(), reportDTO.getContentId());
@@ -131,8 +136,11 @@ public class CommunityModerationService {
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found"));
             
             post.setIsActive(false);
+            post.skipPendingScan();
             post.setUpdatedBy("SYSTEM");
             postRepository.save(post);
+            moderationQueueService.remove(contentType, contentId);
+            eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.POST, contentId));
             
             // Resolve all reports for this content
             List<CommunityReport> reports = reportRepository.findByContentTypeAndContentIdAndIsResolvedFalse(
@@ -174,6 +182,8 @@ public class CommunityModerationService {
             post.setFlagReason(reason);
             post.setUpdatedBy("SYSTEM");
             postRepository.save(post);
+            moderationQueueService.enqueueFlag(contentType, contentId, ModerationQueueService.SEVERITY_HIGH, reason);
+            eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.POST, contentId));
             
             // Resolve all reports for this content
             List<CommunityReport> reports = reportRepository.findByContentTypeAndContentIdAndIsResolvedFalse(
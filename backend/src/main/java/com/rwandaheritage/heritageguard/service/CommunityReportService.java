@@ -1,20 +1,28 @@
 package com.rwandaheritage.heritageguard.service;
 
 import com.rwandaheritage.heritageguard.dto.CommunityReportDTO;
+import com.rwandaheritage.heritageguard.dto.CommunityReportPageDTO;
 import com.rwandaheritage.heritageguard.dto.ReportSummaryDTO;
 import com.rwandaheritage.heritageguard.model.CommunityReport;
 import com.rwandaheritage.heritageguard.model.CommunityReport.ContentType;
 import com.rwandaheritage.heritageguard.model.CommunityReport.ReportReason;
 import com.rwandaheritage.heritageguard.repository.CommunityReportRepository;
 import com.rwandaheritage.heritageguard.mapper.CommunityReportMapper;
+import com.rwandaheritage.heritageguard.util.PaginationUtil;
+import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,38 +32,63 @@ import java.util.stream.Collectors;
 public class CommunityReportService {
 
     private final CommunityReportRepository reportRepository;
+    private final ModerationQueueService moderationQueueService;
+
+    // Ids per IN list and UPDATE
+    private static final int BULK_CHUNK_SIZE = 1000;
 
     /**
-     * Get all forum reports with pagination and filtering
+     * Get forum reports with keyset pagination and filtering.
+     * Reports come newest first; pass the id of the last report received as beforeId for the next page.
      */
-    public List<CommunityReportDTO> getAllReports(String status, String contentType, String reason) {
+    @Transactional(readOnly = true)
+    public List<CommunityReportDTO> getAllReports(String status, String contentType, String reason,
+                                                  Long beforeId, Integer size) {
+        return getReportPage(status, contentType, reason, beforeId, size).getContent();
+    }
+
+    /**
+     * Same as getAllReports, with the cursor for the next page.
+     * An unknown content type or reason matches no report, so it gives an empty page.
+     */
+    @Transactional(readOnly = true)
+    public CommunityReportPageDTO getReportPage(String status, String contentType, String reason,
+                                                Long beforeId, Integer size) {
+        ContentType type;
+        ReportReason reportReason;
         try {
-            List<CommunityReport> reports;
-            
-            if ("resolved".equals(status)) {
-                reports = reportRepository.findByIsResolvedTrueOrderByResolvedAtDesc();
-            } else if ("unresolved".equals(status)) {
-                reports = reportRepository.findByIsResolvedFalseOrderByReportedAtDesc();
-            } else {
-                reports = reportRepository.findAllByOrderByReportedAtDesc();
-            }
+            type = contentType != null ? ContentType.valueOf(contentType.toUpperCase()) : null;
+            reportReason = reason != null ? ReportReason.valueOf(reason.toUpperCase()) : null;
+        } catch (IllegalArgumentException e) {
+            log.debug("Unknown report filter - contentType: {}, reason: {}", contentType, reason);
+            return CommunityReportPageDTO.builder().content(List.of()).hasMore(false).build();
+        }
+
+        try {
+            Boolean resolved = "resolved".equals(status) ? Boolean.TRUE
+                    : "unresolved".equals(status) ? Boolean.FALSE : null;
+            int pageSize = PaginationUtil.validatePageSize(size);
             
-            // Apply additional filters
-            if (contentType != null) {
-                reports = reports.stream()
-                    .filter(r -> r.getContentType().name().equalsIgnoreCase(contentType))
-                    .collect(Collectors.toList());
-            }
+            // One extra row tells whether another page follows
+            List<CommunityReport> reports = reportRepository.findPageBefore(
+                    beforeId != null ? beforeId : Long.MAX_VALUE,
+                    resolved,
+                    type,
+                    reportReason,
+                    PageRequest.of(0, pageSize + 1));
             
-            if (reason != null) {
-                reports = reports.stream()
-                    .filter(r -> r.getReportReason().name().equalsIgnoreCase(reason))
-                    .collect(Collectors.toList());
+            boolean hasMore = reports.size() > pageSize;
+            if (hasMore) {
+                reports = reports.subList(0, pageSize);
             }
             
-            return reports.stream()
-                .map(CommunityReportMapper::toDTO)
-                .collect(Collectors.toList());
+            return CommunityReportPageDTO.builder()
+                .content(reports.stream()
+                    .map(CommunityReportMapper::toDTO)
+                    .collect(Collectors.toList()))
+                .nextCursor(hasMore ? reports.get(reports.size() - 1).getId() : null)
+                .hasMore(hasMore)
+                .build();
                 
         } catch (Exception e) {
             log.error("Failed to get all reports", e);
@@ -116,45 +149,58 @@ public class CommunityReportService {
      */
     public Map<String, Object> bulkModerateReports(List<Long> reportIds, String action, 
                                                   String notes, String moderatorId) {
-        try {
-            int processedCount = 0;
-            int successCount = 0;
-            int failureCount = 0;
-            
-            for (Long reportId : reportIds) {
-                try {
-                    processedCount++;
-                    
-                    if ("RESOLVE".equals(action)) {
-                        updateReportStatus(reportId, "resolved", "FLAG", notes, moderatorId);
-                        successCount++;
-                    } else if ("IGNORE".equals(action)) {
-                        updateReportStatus(reportId, "resolved", "IGNORE", notes, moderatorId);
-                        successCount++;
-                    } else if ("DELETE".equals(action)) {
-                        // This would trigger content deletion logic
-                        updateReportStatus(reportId, "resolved", "DELETE", notes, moderatorId);
-                        successCount++;
-                    }
-                    
-                } catch (Exception e) {
-                    log.error("Failed to process report {}", reportId, e);
-                    failureCount++;
+        String resolutionAction;
+        if ("RESOLVE".equals(action)) {
+            resolutionAction = "FLAG";
+        } else if ("IGNORE".equals(action)) {
+            resolutionAction = "IGNORE";
+        } else if ("DELETE".equals(action)) {
+            // This would trigger content deletion logic
+            resolutionAction = "DELETE";
+        } else {
+            throw new IllegalArgumentException("Unsupported bulk action: " + action);
+        }
+        return resolveReports(reportIds, resolutionAction, notes, moderatorId);
+    }
+
+    /**
+     * Resolve a set of reports with one locking read and one UPDATE per chunk of ids.
+     * Each id gets an outcome: RESOLVED, ALREADY_RESOLVED or NOT_FOUND.
+     */
+    public Map<String, Object> resolveReports(List<Long> reportIds, String resolutionAction,
+                                              String notes, String moderatorId) {
+        // Sorted so every transaction locks rows in the same order, chunk after chunk
+        List<Long> ids = reportIds.stream().filter(Objects::nonNull).distinct().sorted().collect(Collectors.toList());
+        Map<Long, String> outcomes = new LinkedHashMap<>();
+        ids.forEach(id -> outcomes.put(id, "NOT_FOUND"));
+
+        LocalDateTime now = LocalDateTime.now();
+        int successCount = 0;
+        for (List<Long> chunk : Lists.partition(ids, BULK_CHUNK_SIZE)) {
+            List<Long> toResolve = new ArrayList<>();
+            for (CommunityReport report : reportRepository.lockAllById(chunk)) {
+                if (report.isResolved()) {
+                    outcomes.put(report.getId(), "ALREADY_RESOLVED");
+                } else {
+                    outcomes.put(report.getId(), "RESOLVED");
+                    toResolve.add(report.getId());
                 }
             }
-            
-            return Map.of(
-                "success", true,
-                "message", "Bulk moderation completed",
-                "processedCount", processedCount,
-                "successCount", successCount,
-                "failureCount", failureCount
-            );
-            
-        } catch (Exception e) {
-            log.error("Failed to perform bulk moderation", e);
-            throw new RuntimeException("Failed to perform bulk moderation", e);
+            if (!toResolve.isEmpty()) {
+                reportRepository.resolveAll(toResolve, moderatorId, resolutionAction, notes, now);
+            }
+            successCount += toResolve.size();
         }
+
+        log.info("Resolved {} of {} reports as {} by {}", successCount, ids.size(), resolutionAction, moderatorId);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("success", true);
+        result.put("message", "Bulk moderation completed");
+        result.put("processedCount", ids.size());
+        result.put("successCount", successCount);
+        result.put("failureCount", ids.size() - successCount);
+        result.put("outcomes", outcomes);
+        return result;
     }
 
     /**
@@ -170,13 +216,11 @@ public class CommunityReportService {
             LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
             long recentReports = reportRepository.countByReportedAtAfter(weekAgo);
             
-            // Get reports by reason
-            Map<String, Long> reportsByReason = reportRepository.findAll().stream()
-                .filter(r -> !r.isResolved())
-                .collect(Collectors.groupingBy(
-                    r -> r.getReportReason().name(),
-                    Collectors.counting()
-                ));
+            // Get unresolved reports by reason
+            Map<String, Long> reportsByReason = new HashMap<>();
+            for (Object[] row : reportRepository.countUnresolvedByReason()) {
+                reportsByReason.put(((ReportReason) row[0]).name(), (Long) row[1]);
+            }
             
             return Map.of(
                 "totalReports", totalReports,
@@ -210,6 +254,7 @@ public class CommunityReportService {
             report.setUpdatedBy(reporterId);
             
             CommunityReport savedReport = reportRepository.save(report);
+            moderationQueueService.enqueueReport(savedReport);
             
             log.info("New report created: {} by {} for content {}:{}", 
                     report.getReportReason(), reporterId, report.getContentType(), report.getContentId());
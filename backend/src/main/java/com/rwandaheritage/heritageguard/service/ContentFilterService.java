@@ -1,164 +1,309 @@
 package com.rwandaheritage.heritageguard.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.rwandaheritage.heritageguard.exception.ResourceNotFoundException;
+import com.rwandaheritage.heritageguard.model.ModerationTerm;
+import com.rwandaheritage.heritageguard.repository.ModerationTermRepository;
+import com.rwandaheritage.heritageguard.util.AhoCorasickMatcher;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Automatic content screening for forum posts.
+ *
+ * Terms (words and phrases) come from built-in defaults plus the moderation_terms table, per
+ * language, and are compiled into one Aho-Corasick automaton per language. A post is analyzed
+ * in a single scan: the same pass feeds the automaton, collects capitalization and word
+ * repetition statistics, and spots links, email addresses and phone numbers. Terms match
+ * case-insensitively on whole words, with any run of whitespace matching a single space.
+ *
+ * Term changes made through this service apply immediately; changes made elsewhere (another
+ * instance, direct SQL) are picked up by a periodic check.
+ *
+ * Reposted and re-edited copies of the same text are common, so the result of the scan is
+ * cached by a hash of the case- and whitespace-folded content (per language) until the term
+ * set changes. Submissions are also counted per content hash; content submitted more than
+ * {@code moderation.duplicates.threshold} times is scored as spam.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ContentFilterService {
-    
-    // Inappropriate words/phrases (simplified for demo)
-    private static final Set<String> INAPPROPRIATE_WORDS = new HashSet<>(Arrays.asList(
+
+    private static final List<String> LANGUAGES = List.of("en", "rw", "fr");
+
+    // Built-in terms, applied to posts in every language
+    private static final List<String> DEFAULT_INAPPROPRIATE_TERMS = List.of(
         "spam", "advertisement", "commercial", "buy now", "click here", "free money",
         "lottery", "winner", "urgent", "limited time", "act now", "guaranteed", "suspicious"
-    ));
-    
-    // Hate speech patterns (simplified for demo)
-    private static final List<Pattern> HATE_SPEECH_PATTERNS = Arrays.asList(
-        Pattern.compile("\\b(kill|hate|destroy)\\s+(all|every)\\s+\\w+", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("\\b(racist|sexist|homophobic)\\s+\\w+", Pattern.CASE_INSENSITIVE)
     );
-    
-    // Spam patterns
-    private static final List<Pattern> SPAM_PATTERNS = Arrays.asList(
-        Pattern.compile("\\b(www\\.|http://|https://)\\S+", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("\\b(\\w+@\\w+\\.\\w+)", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("\\b(\\d{3}-\\d{3}-\\d{4}|\\d{10})\\b") // Phone numbers
+
+    private static final List<String> DEFAULT_HATE_SPEECH_TERMS = List.of(
+        "kill all", "kill every", "hate all", "hate every", "destroy all", "destroy every",
+        "racist", "sexist", "homophobic"
     );
-    
+
+    private static final HashFunction CONTENT_HASH = Hashing.murmur3_128();
+
+    private static final int MAX_TERM_LENGTH = 200;
+    private static final int REPETITION_MIN_WORD_LENGTH = 4;
+    private static final int REPETITION_LIMIT = 3;
+    private static final int CAPITALIZATION_MIN_LENGTH = 10;
+
+    private final ModerationTermRepository moderationTermRepository;
+
+    @Value("${moderation.terms.include-defaults:true}")
+    private boolean includeDefaultTerms;
+
+    @Value("${moderation.verdict-cache.max-size:10000}")
+    private long verdictCacheSize;
+
+    @Value("${moderation.verdict-cache.ttl-minutes:1440}")
+    private long verdictCacheTtlMinutes;
+
+    // Submissions of the same content within the window beyond which it is scored as spam
+    @Value("${moderation.duplicates.threshold:3}")
+    private int duplicateThreshold;
+
+    @Value("${moderation.duplicates.window-hours:24}")
+    private long duplicateWindowHours;
+
+    private volatile CompiledTerms compiledTerms;
+    private volatile List<Object> loadedVersion;
+    private long termsVersion;
+
+    // Content-dependent part of the analysis, by language and hash of the case- and whitespace-folded content
+    private Cache<String, CachedAnalysis> verdicts;
+    // Number of submissions per content hash, kept across term reloads
+    private Cache<String, AtomicInteger> sightings;
+
+    @PostConstruct
+    void init() {
+        verdicts = CacheBuilder.newBuilder()
+                .maximumSize(verdictCacheSize)
+                .expireAfterWrite(verdictCacheTtlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        sightings = CacheBuilder.newBuilder()
+                .maximumSize(verdictCacheSize)
+                .expireAfterWrite(duplicateWindowHours, TimeUnit.HOURS)
+                .build();
+        compiledTerms = compile(Collections.emptyList(), termsVersion);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reloadTerms();
+    }
+
     /**
-     * Analyze content for inappropriate content
+     * Analyze content for inappropriate content, using the terms of every language
      */
     public ContentAnalysisResult analyzeContent(String content) {
+        return analyzeContent(content, null);
+    }
+
+    /**
+     * Analyze content for inappropriate content, using the terms of the given language
+     * ("en", "rw" or "fr"; anything else uses every language)
+     */
+    public ContentAnalysisResult analyzeContent(String content, String language) {
+        return analyze(content, language, false);
+    }
+
+    private ContentAnalysisResult analyze(String content, String language, boolean submission) {
         log.debug("Analyzing content: {}", content);
-        
+
         if (content == null || content.trim().isEmpty()) {
             return ContentAnalysisResult.builder()
                     .isAppropriate(true)
                     .confidenceScore(1.0)
                     .build();
         }
-        
-        String lowerContent = content.toLowerCase();
-        List<String> flags = new ArrayList<>();
-        double confidenceScore = 1.0;
-        
-        // Check for inappropriate words
-        for (String word : INAPPROPRIATE_WORDS) {
-            if (lowerContent.contains(word.toLowerCase())) {
-                flags.add("Contains inappropriate word: " + word);
-                confidenceScore -= 0.1;
-                log.debug("Found inappropriate word: {}", word);
-            }
-        }
-        
-        // Check for hate speech patterns
-        for (Pattern pattern : HATE_SPEECH_PATTERNS) {
-            if (pattern.matcher(content).find()) {
-                flags.add("Potential hate speech detected");
-                confidenceScore -= 0.3;
-                log.debug("Found hate speech pattern");
-            }
-        }
-        
-        // Check for spam patterns
-        int spamPatternCount = 0;
-        for (Pattern pattern : SPAM_PATTERNS) {
-            if (pattern.matcher(content).find()) {
-                spamPatternCount++;
-                log.debug("Found spam pattern");
-            }
-        }
-        
-        if (spamPatternCount > 2) {
-            flags.add("Multiple spam indicators detected");
-            confidenceScore -= 0.2;
+
+        CompiledTerms terms = compiledTerms;
+        String contentHash = contentHash(content);
+        String key = terms.languageKey(language) + ':' + contentHash;
+
+        // Copies of already analyzed content only need the case-sensitive capitalization check
+        CachedAnalysis analysis = verdicts.getIfPresent(key);
+        boolean excessiveCapitalization;
+        if (analysis != null && analysis.termsVersion == terms.version) {
+            excessiveCapitalization = isExcessivelyCapitalized(content);
+        } else {
+            ContentScan scan = new ContentScan(terms.forLanguage(language));
+            scan.run(content);
+            analysis = summarize(scan, terms.version);
+            verdicts.put(key, analysis);
+            excessiveCapitalization = content.length() >= CAPITALIZATION_MIN_LENGTH
+                    && isExcessive(scan.upperCaseLetters, scan.letters);
         }
-        
-        // Check for excessive repetition
-        if (hasExcessiveRepetition(content)) {
-            flags.add("Excessive repetition detected");
-            confidenceScore -= 0.15;
-            log.debug("Found excessive repetition");
+
+        int timesSeen;
+        if (submission) {
+            timesSeen = sightings.asMap().computeIfAbsent(contentHash, hash -> new AtomicInteger()).incrementAndGet();
+        } else {
+            AtomicInteger seen = sightings.getIfPresent(contentHash);
+            timesSeen = seen != null ? seen.get() : 0;
         }
-        
-        // Check for excessive capitalization
-        if (hasExcessiveCapitalization(content)) {
+
+        List<String> flags = new ArrayList<>(analysis.flags);
+        double confidenceScore = 1.0 - analysis.penalty;
+
+        if (excessiveCapitalization) {
             flags.add("Excessive capitalization detected");
             confidenceScore -= 0.1;
             log.debug("Found excessive capitalization");
         }
-        
+
+        if (timesSeen > duplicateThreshold) {
+            flags.add("Same content posted " + timesSeen + " times");
+            confidenceScore -= 0.2;
+            log.debug("Content seen {} times", timesSeen);
+        }
+
         // Ensure confidence score is between 0 and 1
         confidenceScore = Math.max(0.0, Math.min(1.0, confidenceScore));
-        
+
         boolean isAppropriate = confidenceScore >= 0.7;
-        
-        log.debug("Content analysis result - confidence: {}, appropriate: {}, flags: {}", 
+
+        log.debug("Content analysis result - confidence: {}, appropriate: {}, flags: {}",
                  confidenceScore, isAppropriate, flags);
-        
+
         return ContentAnalysisResult.builder()
                 .isAppropriate(isAppropriate)
                 .confidenceScore(confidenceScore)
                 .flags(flags)
                 .build();
     }
-    
-    /**
-     * Check for excessive repetition in content
-     */
-    private boolean hasExcessiveRepetition(String content) {
-        String[] words = content.toLowerCase().split("\\s+");
-        Map<String, Integer> wordCount = new HashMap<>();
-        
-        for (String word : words) {
-            if (word.length() > 3) { // Only count words longer than 3 characters
-                wordCount.put(word, wordCount.getOrDefault(word, 0) + 1);
+
+    private static CachedAnalysis summarize(ContentScan scan, long termsVersion) {
+        List<String> flags = new ArrayList<>();
+        double penalty = 0.0;
+
+        // Inappropriate words and hate speech
+        boolean hateSpeech = false;
+        for (FilterTerm term : scan.matchedTerms) {
+            penalty += term.weight;
+            if (term.category == ModerationTerm.Category.HATE_SPEECH) {
+                hateSpeech = true;
+            } else {
+                flags.add("Contains inappropriate word: " + term.text);
+                log.debug("Found inappropriate word: {}", term.text);
             }
         }
-        
-        // Check if any word appears more than 3 times in a short text
-        return wordCount.values().stream().anyMatch(count -> count > 3);
+        if (hateSpeech) {
+            flags.add("Potential hate speech detected");
+            log.debug("Found hate speech pattern");
+        }
+
+        // Links, email addresses and phone numbers all present
+        if (scan.spamIndicatorCount() > 2) {
+            flags.add("Multiple spam indicators detected");
+            penalty += 0.2;
+        }
+
+        if (scan.repetitive) {
+            flags.add("Excessive repetition detected");
+            penalty += 0.15;
+            log.debug("Found excessive repetition");
+        }
+
+        return new CachedAnalysis(penalty, List.copyOf(flags), termsVersion);
     }
-    
-    /**
-     * Check for excessive capitalization
-     */
-    private boolean hasExcessiveCapitalization(String content) {
-        if (content.length() < 10) return false;
-        
-        int upperCaseCount = 0;
-        int totalLetters = 0;
-        
-        for (char c : content.toCharArray()) {
+
+    private static boolean isExcessivelyCapitalized(String content) {
+        if (content.length() < CAPITALIZATION_MIN_LENGTH) {
+            return false;
+        }
+        int letters = 0;
+        int upperCaseLetters = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
             if (Character.isLetter(c)) {
-                totalLetters++;
+                letters++;
                 if (Character.isUpperCase(c)) {
-                    upperCaseCount++;
+                    upperCaseLetters++;
+                }
+            }
+        }
+        return isExcessive(upperCaseLetters, letters);
+    }
+
+    private static boolean isExcessive(int upperCaseLetters, int letters) {
+        return letters > 0 && (double) upperCaseLetters / letters > 0.5;
+    }
+
+    /**
+     * Hash of the content as the filter sees it: ASCII letters lowercased, runs of ASCII
+     * whitespace folded to one space, leading and trailing ones ignored. Every other character
+     * is kept as is, since the scan tells those apart (words and links only break on ASCII
+     * whitespace, spam runs only take ASCII word characters), so equal hashes always scan
+     * alike. Streams the characters, no copy is made.
+     */
+    private static String contentHash(String content) {
+        Hasher hasher = CONTENT_HASH.newHasher();
+        boolean space = true;
+        boolean pendingSpace = false;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (ContentScan.isAsciiWhitespace(c)) {
+                pendingSpace = !space;
+                space = true;
+            } else {
+                if (pendingSpace) {
+                    hasher.putChar(' ');
+                    pendingSpace = false;
                 }
+                hasher.putChar(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+                space = false;
             }
         }
-        
-        if (totalLetters == 0) return false;
-        
-        double upperCaseRatio = (double) upperCaseCount / totalLetters;
-        return upperCaseRatio > 0.5; // More than 50% uppercase
+        return hasher.hash().toString();
     }
-    
+
     /**
      * Get content analysis result with moderation recommendation
      */
     public ModerationRecommendation getModerationRecommendation(String content) {
-        ContentAnalysisResult analysis = analyzeContent(content);
-        
+        return getModerationRecommendation(content, null);
+    }
+
+    /**
+     * Get content analysis result with moderation recommendation for content in a given language
+     */
+    public ModerationRecommendation getModerationRecommendation(String content, String language) {
+        return recommend(analyzeContent(content, language));
+    }
+
+    /**
+     * Recommendation for content submitted for publication. Also counts the submission, so
+     * content posted over and over is scored as spam.
+     */
+    public ModerationRecommendation getSubmissionRecommendation(String content, String language) {
+        return recommend(analyze(content, language, true));
+    }
+
+    private static ModerationRecommendation recommend(ContentAnalysisResult analysis) {
         ModerationAction recommendedAction;
         String reason;
-        
+
         if (analysis.getConfidenceScore() >= 0.9) {
             recommendedAction = ModerationAction.APPROVE;
             reason = "Content appears appropriate";
@@ -169,7 +314,7 @@ public class ContentFilterService {
             recommendedAction = ModerationAction.REJECT;
             reason = "Content likely inappropriate: " + String.join(", ", analysis.getFlags());
         }
-        
+
         return ModerationRecommendation.builder()
                 .action(recommendedAction)
                 .reason(reason)
@@ -177,7 +322,457 @@ public class ContentFilterService {
                 .flags(analysis.getFlags())
                 .build();
     }
-    
+
+    /**
+     * Verdict cache hit/miss counters since startup.
+     */
+    public Map<String, Object> getVerdictCacheStats() {
+        CacheStats stats = verdicts.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", verdicts.size());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("trackedContents", sightings.size());
+        result.put("termsVersion", compiledTerms.version);
+        return result;
+    }
+
+    // === Term management ===
+
+    public List<ModerationTerm> getTerms() {
+        return moderationTermRepository.findAllByOrderByLanguageAscTermAsc();
+    }
+
+    public ModerationTerm addTerm(String term, String language, ModerationTerm.Category category, Double weight, String createdBy) {
+        String normalized = normalize(term);
+        if (normalized.isEmpty() || normalized.length() > MAX_TERM_LENGTH) {
+            throw new IllegalArgumentException("Term must be between 1 and " + MAX_TERM_LENGTH + " characters");
+        }
+        String normalizedLanguage = normalizeLanguage(language);
+        if (normalizedLanguage != null && !LANGUAGES.contains(normalizedLanguage)) {
+            throw new IllegalArgumentException("Language must be 'en', 'rw', 'fr' or empty for all languages");
+        }
+        if (weight != null && (weight < 0.0 || weight > 1.0)) {
+            throw new IllegalArgumentException("Weight must be between 0 and 1");
+        }
+        ModerationTerm saved = moderationTermRepository.save(ModerationTerm.builder()
+                .term(normalized)
+                .language(normalizedLanguage)
+                .category(category != null ? category : ModerationTerm.Category.INAPPROPRIATE)
+                .weight(weight)
+                .createdBy(createdBy)
+                .build());
+        log.info("Moderation term '{}' ({}) added by {}", normalized, normalizedLanguage != null ? normalizedLanguage : "all languages", createdBy);
+        reloadTerms();
+        return saved;
+    }
+
+    public ModerationTerm setTermActive(Long id, boolean active) {
+        ModerationTerm term = moderationTermRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Moderation term not found with id: " + id));
+        term.setActive(active);
+        ModerationTerm saved = moderationTermRepository.save(term);
+        reloadTerms();
+        return saved;
+    }
+
+    public void deleteTerm(Long id) {
+        if (!moderationTermRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Moderation term not found with id: " + id);
+        }
+        moderationTermRepository.deleteById(id);
+        reloadTerms();
+    }
+
+    /**
+     * Recompile the automata from the database.
+     *
+     * @return number of distinct terms now in use
+     */
+    public synchronized int reloadTerms() {
+        try {
+            List<Object> version = currentVersion();
+            compiledTerms = compile(moderationTermRepository.findByActiveTrue(), ++termsVersion);
+            loadedVersion = version;
+            // Entries of the previous version are also ignored on lookup, this just frees them
+            verdicts.invalidateAll();
+            log.info("Content filter loaded {} terms", compiledTerms.all.size());
+        } catch (DataAccessException e) {
+            log.warn("Failed to load moderation terms, keeping the current set: {}", e.getMessage());
+        }
+        return compiledTerms.all.size();
+    }
+
+    /**
+     * Pick up term changes made by other instances.
+     */
+    @Scheduled(fixedDelayString = "${moderation.terms.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        try {
+            if (!currentVersion().equals(loadedVersion)) {
+                reloadTerms();
+            }
+        } catch (DataAccessException e) {
+            log.debug("Could not check moderation terms for changes: {}", e.getMessage());
+        }
+    }
+
+    private List<Object> currentVersion() {
+        List<Object[]> rows = moderationTermRepository.findVersion();
+        return rows.isEmpty() ? Collections.emptyList() : Arrays.asList(rows.get(0));
+    }
+
+    private CompiledTerms compile(List<ModerationTerm> storedTerms, long version) {
+        Map<String, AhoCorasickMatcher.Builder<FilterTerm>> builders = new HashMap<>();
+        for (String language : LANGUAGES) {
+            builders.put(language, AhoCorasickMatcher.builder());
+        }
+        AhoCorasickMatcher.Builder<FilterTerm> all = AhoCorasickMatcher.builder();
+
+        // Stored terms first, so they override a built-in term with the same text
+        for (ModerationTerm stored : storedTerms) {
+            String text = normalize(stored.getTerm());
+            if (text.isEmpty()) {
+                continue;
+            }
+            double weight = stored.getWeight() != null ? stored.getWeight() : stored.getCategory().getDefaultWeight();
+            FilterTerm term = new FilterTerm(text, stored.getCategory(), weight);
+            String language = normalizeLanguage(stored.getLanguage());
+            if (language == null) {
+                builders.values().forEach(builder -> builder.add(text, term));
+            } else if (builders.containsKey(language)) {
+                builders.get(language).add(text, term);
+            } else {
+                log.warn("Ignoring moderation term {} with unknown language {}", stored.getId(), language);
+                continue;
+            }
+            all.add(text, term);
+        }
+        if (includeDefaultTerms) {
+            addDefaults(builders.values(), all, DEFAULT_INAPPROPRIATE_TERMS, ModerationTerm.Category.INAPPROPRIATE);
+            addDefaults(builders.values(), all, DEFAULT_HATE_SPEECH_TERMS, ModerationTerm.Category.HATE_SPEECH);
+        }
+
+        Map<String, AhoCorasickMatcher<FilterTerm>> byLanguage = new HashMap<>();
+        builders.forEach((language, builder) -> byLanguage.put(language, builder.build()));
+        return new CompiledTerms(byLanguage, all.build(), version);
+    }
+
+    private static void addDefaults(Collection<AhoCorasickMatcher.Builder<FilterTerm>> builders,
+                                    AhoCorasickMatcher.Builder<FilterTerm> all,
+                                    List<String> texts, ModerationTerm.Category category) {
+        for (String text : texts) {
+            FilterTerm term = new FilterTerm(text, category, category.getDefaultWeight());
+            builders.forEach(builder -> builder.add(text, term));
+            all.add(text, term);
+        }
+    }
+
+    /**
+     * Lowercase, collapse whitespace runs to one space and trim; the scan applies the same
+     * rules to the content.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (!space) {
+                    out.append(' ');
+                    space = true;
+                }
+            } else {
+                out.append(Character.toLowerCase(c));
+                space = false;
+            }
+        }
+        int length = out.length();
+        if (length > 0 && out.charAt(length - 1) == ' ') {
+            out.setLength(length - 1);
+        }
+        return out.toString();
+    }
+
+    private static String normalizeLanguage(String language) {
+        if (language == null || language.isBlank()) {
+            return null;
+        }
+        return language.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class CompiledTerms {
+        private final Map<String, AhoCorasickMatcher<FilterTerm>> byLanguage;
+        private final AhoCorasickMatcher<FilterTerm> all;
+        private final long version;
+
+        CompiledTerms(Map<String, AhoCorasickMatcher<FilterTerm>> byLanguage, AhoCorasickMatcher<FilterTerm> all, long version) {
+            this.byLanguage = byLanguage;
+            this.all = all;
+            this.version = version;
+        }
+
+        AhoCorasickMatcher<FilterTerm> forLanguage(String language) {
+            AhoCorasickMatcher<FilterTerm> matcher = language != null ? byLanguage.get(normalizeLanguage(language)) : null;
+            return matcher != null ? matcher : all;
+        }
+
+        // Language whose terms forLanguage applies, "*" for every language
+        String languageKey(String language) {
+            String normalized = normalizeLanguage(language);
+            return normalized != null && byLanguage.containsKey(normalized) ? normalized : "*";
+        }
+    }
+
+    private static final class CachedAnalysis {
+        private final double penalty;
+        private final List<String> flags;
+        private final long termsVersion;
+
+        CachedAnalysis(double penalty, List<String> flags, long termsVersion) {
+            this.penalty = penalty;
+            this.flags = flags;
+            this.termsVersion = termsVersion;
+        }
+    }
+
+    private static final class FilterTerm {
+        private final String text;
+        private final ModerationTerm.Category category;
+        private final double weight;
+        // Whole-word matching only applies at ends that are letters or digits
+        private final boolean wordStart;
+        private final boolean wordEnd;
+
+        FilterTerm(String text, ModerationTerm.Category category, double weight) {
+            this.text = text;
+            this.category = category;
+            this.weight = weight;
+            this.wordStart = Character.isLetterOrDigit(text.charAt(0));
+            this.wordEnd = Character.isLetterOrDigit(text.charAt(text.length() - 1));
+        }
+    }
+
+    /**
+     * Everything the analysis needs, collected in one pass over the content.
+     */
+    private static final class ContentScan {
+        private final AhoCorasickMatcher<FilterTerm> matcher;
+        private final Set<FilterTerm> matchedTerms = new LinkedHashSet<>();
+
+        // Term matching over the normalized text
+        private int state = AhoCorasickMatcher.ROOT;
+        private int position = -1;
+        private boolean lastWasSpace = true;
+        private final boolean[] recentWordChars;
+        private final List<FilterTerm> awaitingWordEnd = new ArrayList<>(2);
+
+        // Capitalization
+        private int letters;
+        private int upperCaseLetters;
+
+        // Repetition of whitespace-separated words
+        private final WordCounter wordCounter = new WordCounter();
+        private long wordHash = WordCounter.EMPTY_HASH;
+        private int wordLength;
+        private boolean repetitive;
+
+        // Spam indicators, from runs of ASCII word characters ([A-Za-z0-9_])
+        private int runStart = -1;
+        private boolean runDigits;
+        private int previousStart = -1, previousEnd = -1, previousDigits = -1;
+        private int olderStart = -1, olderEnd = -1, olderDigits = -1;
+        private boolean link;
+        private boolean email;
+        private boolean phone;
+
+        ContentScan(AhoCorasickMatcher<FilterTerm> matcher) {
+            this.matcher = matcher;
+            this.recentWordChars = new boolean[matcher.maxTermLength() + 1];
+        }
+
+        void run(String content) {
+            int length = content.length();
+            for (int i = 0; i < length; i++) {
+                char c = content.charAt(i);
+
+                if (Character.isLetter(c)) {
+                    letters++;
+                    if (Character.isUpperCase(c)) {
+                        upperCaseLetters++;
+                    }
+                }
+
+                if (isAsciiWordChar(c)) {
+                    if (runStart < 0) {
+                        runStart = i;
+                        runDigits = true;
+                    }
+                    runDigits &= c >= '0' && c <= '9';
+                } else if (runStart >= 0) {
+                    endRun(content, i);
+                }
+
+                if (isAsciiWhitespace(c)) {
+                    endWord();
+                } else {
+                    wordHash = WordCounter.hash(wordHash, Character.toLowerCase(c));
+                    wordLength++;
+                }
+
+                if (Character.isWhitespace(c)) {
+                    if (!lastWasSpace) {
+                        feed(' ');
+                        lastWasSpace = true;
+                    }
+                } else {
+                    feed(Character.toLowerCase(c));
+                    lastWasSpace = false;
+                }
+            }
+            if (runStart >= 0) {
+                endRun(content, length);
+            }
+            endWord();
+            matchedTerms.addAll(awaitingWordEnd);
+        }
+
+        private void feed(char c) {
+            position++;
+            boolean wordChar = Character.isLetterOrDigit(c);
+            if (!awaitingWordEnd.isEmpty()) {
+                if (!wordChar) {
+                    matchedTerms.addAll(awaitingWordEnd);
+                }
+                awaitingWordEnd.clear();
+            }
+            recentWordChars[position % recentWordChars.length] = wordChar;
+
+            state = matcher.next(state, c);
+            for (int match = matcher.firstMatch(state); match >= 0; match = matcher.nextMatch(match)) {
+                int term = matcher.termOf(match);
+                FilterTerm filterTerm = matcher.payload(term);
+                int start = position - matcher.termLength(term) + 1;
+                if (filterTerm.wordStart && start > 0 && recentWordChars[(start - 1) % recentWordChars.length]) {
+                    continue;
+                }
+                if (filterTerm.wordEnd) {
+                    awaitingWordEnd.add(filterTerm);
+                } else {
+                    matchedTerms.add(filterTerm);
+                }
+            }
+        }
+
+        private void endWord() {
+            if (wordLength >= REPETITION_MIN_WORD_LENGTH && !repetitive) {
+                repetitive = wordCounter.increment(wordHash) > REPETITION_LIMIT;
+            }
+            wordHash = WordCounter.EMPTY_HASH;
+            wordLength = 0;
+        }
+
+        // Links (www./http://), user@host.tld and 10-digit or ddd-ddd-dddd phone numbers
+        private void endRun(String content, int end) {
+            int start = runStart;
+            int length = end - start;
+            int digits = runDigits ? length : -1;
+            runStart = -1;
+
+            if (!link && end + 1 < content.length()) {
+                if (length == 3 && content.regionMatches(true, start, "www", 0, 3)) {
+                    link = content.charAt(end) == '.' && !isAsciiWhitespace(content.charAt(end + 1));
+                } else if ((length == 4 && content.regionMatches(true, start, "http", 0, 4))
+                        || (length == 5 && content.regionMatches(true, start, "https", 0, 5))) {
+                    link = end + 3 < content.length() && content.startsWith("://", end)
+                            && !isAsciiWhitespace(content.charAt(end + 3));
+                }
+            }
+            boolean chained = olderStart >= 0 && previousEnd + 1 == start && olderEnd + 1 == previousStart;
+            if (chained && content.charAt(olderEnd) == '@' && content.charAt(previousEnd) == '.') {
+                email = true;
+            }
+            if (digits == 10 || (digits == 4 && chained && previousDigits == 3 && olderDigits == 3
+                    && content.charAt(olderEnd) == '-' && content.charAt(previousEnd) == '-')) {
+                phone = true;
+            }
+
+            olderStart = previousStart;
+            olderEnd = previousEnd;
+            olderDigits = previousDigits;
+            previousStart = start;
+            previousEnd = end;
+            previousDigits = digits;
+        }
+
+        int spamIndicatorCount() {
+            return (link ? 1 : 0) + (email ? 1 : 0) + (phone ? 1 : 0);
+        }
+
+        private static boolean isAsciiWordChar(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+        }
+
+        private static boolean isAsciiWhitespace(char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+        }
+    }
+
+    /**
+     * Counts words by a 64-bit hash of their lowercased characters, without building strings.
+     */
+    private static final class WordCounter {
+        static final long EMPTY_HASH = 0xcbf29ce484222325L;
+        private static final long PRIME = 0x100000001b3L;
+
+        private long[] keys = new long[16];
+        private int[] counts = new int[16];
+        private int size;
+
+        static long hash(long hash, char c) {
+            return (hash ^ c) * PRIME;
+        }
+
+        int increment(long key) {
+            if (size * 2 >= keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+            while (counts[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (counts[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            return ++counts[slot];
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new int[oldCounts.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldCounts[i] != 0) {
+                    int slot = Long.hashCode(oldKeys[i] * 0x9E3779B97F4A7C15L) & mask;
+                    while (counts[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+    }
+
     // Inner classes for results
     @lombok.Data
     @lombok.Builder
@@ -186,7 +781,7 @@ public class ContentFilterService {
         private double confidenceScore;
         private List<String> flags;
     }
-    
+
     @lombok.Data
     @lombok.Builder
     public static class ModerationRecommendation {
@@ -195,8 +790,8 @@ public class ContentFilterService {
         private double confidenceScore;
         private List<String> flags;
     }
-    
+
     public enum ModerationAction {
         APPROVE, FLAG, REJECT
     }
-}
\ No newline at end of file
+}
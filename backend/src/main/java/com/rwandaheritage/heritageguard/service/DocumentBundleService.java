@@ -0,0 +1,309 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.rwandaheritage.heritageguard.model.Document;
+import com.rwandaheritage.heritageguard.model.DocumentVersion;
+import com.rwandaheritage.heritageguard.model.Folder;
+import com.rwandaheritage.heritageguard.model.SiteDocument;
+import com.rwandaheritage.heritageguard.model.SiteMedia;
+import com.rwandaheritage.heritageguard.repository.DocumentRepository;
+import com.rwandaheritage.heritageguard.repository.DocumentVersionRepository;
+import com.rwandaheritage.heritageguard.repository.FolderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams ZIP bundles of a heritage site's or folder subtree's documents.
+ *
+ * The manifest (which files go in, under which names) is resolved up front on the request
+ * thread so every visibility check runs with the caller's security context. The archive is
+ * then written entry by entry straight to the response, one small buffer at a time, so it is
+ * never materialized in memory or on disk. Entries are ordered deterministically, which lets
+ * an interrupted download resume from a given entry index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentBundleService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Custom range unit: {@code Range: entries=N-} resumes a bundle at entry N. */
+    public static final String RANGE_UNIT = "entries";
+
+    // Formats that are already compressed; deflating them again costs CPU for no gain
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "jpg", "jpeg", "png", "gif", "webp", "mp4", "mov", "avi", "mp3", "m4a", "ogg",
+            "zip", "gz", "7z", "rar", "docx", "xlsx", "pptx", "glb", "pdf");
+
+    private final DocumentService documentService;
+    private final FolderService folderService;
+    private final SiteDocumentService siteDocumentService;
+    private final SiteMediaService siteMediaService;
+    private final DocumentRepository documentRepository;
+    private final DocumentVersionRepository documentVersionRepository;
+    private final FolderRepository folderRepository;
+
+    /**
+     * One file in a bundle: its name inside the archive and its location on disk.
+     */
+    public static class BundleEntry {
+        private final String name;
+        private final String filePath;
+
+        public BundleEntry(String name, String filePath) {
+            this.name = name;
+            this.filePath = filePath;
+        }
+
+        public String getName() { return name; }
+        public String getFilePath() { return filePath; }
+    }
+
+    /**
+     * Site documents, the documents of every visible folder belonging to the site and,
+     * optionally, the site's media files.
+     */
+    @Transactional(readOnly = true)
+    public List<BundleEntry> buildSiteManifest(Long siteId, boolean includeMedia) {
+        Map<String, String> files = new HashMap<>();
+
+        for (SiteDocument doc : siteDocumentService.getDownloadableDocumentsBySite(siteId)) {
+            putUnique(files, "documents/" + sanitize(doc.getFileName(), "document-" + doc.getId()), doc.getFilePath());
+        }
+
+        List<Folder> siteFolders = folderRepository.findBySiteIdAndIsActiveTrueOrderByName(siteId);
+        Set<Long> siteFolderIds = new HashSet<>();
+        siteFolders.forEach(f -> siteFolderIds.add(f.getId()));
+        for (Folder folder : siteFolders) {
+            boolean isRoot = folder.getParent() == null || !siteFolderIds.contains(folder.getParent().getId());
+            if (isRoot && folderService.isAllowedToView(folder)) {
+                collectFolder(folder, "folders/" + sanitize(folder.getName(), "folder-" + folder.getId()) + "/", files);
+            }
+        }
+
+        if (includeMedia) {
+            for (SiteMedia media : siteMediaService.getMediaByHeritageSiteId(siteId)) {
+                putUnique(files, "media/" + sanitize(media.getFileName(), "media-" + media.getId()), media.getFilePath());
+            }
+        }
+        return toManifest(files);
+    }
+
+    /**
+     * Latest version of every visible document in a folder and its visible descendants.
+     */
+    @Transactional(readOnly = true)
+    public List<BundleEntry> buildFolderManifest(Long folderId) {
+        Folder folder = folderRepository.findById(folderId)
+                .filter(Folder::isActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Folder not found"));
+        if (!folderService.isAllowedToView(folder)) {
+            throw new AccessDeniedException("You do not have permission to view this folder.");
+        }
+        Map<String, String> files = new HashMap<>();
+        collectFolder(folder, sanitize(folder.getName(), "folder-" + folder.getId()) + "/", files);
+        return toManifest(files);
+    }
+
+    /**
+     * Entry index to start from. An {@code entries=N-} Range header wins over the
+     * {@code fromEntry} parameter; byte ranges cannot be honoured for a streamed archive
+     * and are ignored, which per RFC 9110 means the full bundle is sent.
+     */
+    public int resolveStartEntry(String rangeHeader, int fromEntry) {
+        if (rangeHeader != null && rangeHeader.startsWith(RANGE_UNIT + "=")) {
+            String spec = rangeHeader.substring(RANGE_UNIT.length() + 1).trim();
+            int dash = spec.indexOf('-');
+            try {
+                return Integer.parseInt(dash >= 0 ? spec.substring(0, dash).trim() : spec);
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid entries range: " + rangeHeader);
+            }
+        }
+        return Math.max(0, fromEntry);
+    }
+
+    /**
+     * Streaming download of a bundle, resumed at the entry given by the Range header or
+     * {@code fromEntry}. A resumed download answers 206 with an {@code entries} Content-Range;
+     * a start past the last entry answers 416.
+     */
+    public ResponseEntity<StreamingResponseBody> bundleResponse(List<BundleEntry> manifest, String fileName,
+                                                                int fromEntry, String range) {
+        int start = resolveStartEntry(range, fromEntry);
+        if (start > 0 && start >= manifest.size()) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, RANGE_UNIT + " */" + manifest.size())
+                    .build();
+        }
+
+        StreamingResponseBody body = out -> writeZip(manifest, start, out);
+        ResponseEntity.BodyBuilder builder = start > 0
+                ? ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                        .header(HttpHeaders.CONTENT_RANGE, RANGE_UNIT + " " + start + "-" + (manifest.size() - 1) + "/" + manifest.size())
+                : ResponseEntity.ok();
+        return builder
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .header(HttpHeaders.ACCEPT_RANGES, RANGE_UNIT)
+                .header("X-Bundle-Entries", String.valueOf(manifest.size()))
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
+    /**
+     * Write the bundle to the given stream, starting at entry {@code fromEntry}.
+     * A file that vanished from disk since the manifest was built is replaced by a short
+     * {@code <name>.missing.txt} note, so every entry keeps its index and resumes stay aligned.
+     */
+    public void writeZip(List<BundleEntry> manifest, int fromEntry, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (int i = Math.max(0, fromEntry); i < manifest.size(); i++) {
+            BundleEntry entry = manifest.get(i);
+            Path path = Paths.get(entry.getFilePath());
+            if (!Files.isReadable(path)) {
+                log.warn("Bundle entry {} is missing on disk ({}), writing a placeholder", entry.getName(), entry.getFilePath());
+                zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+                zip.putNextEntry(new ZipEntry(entry.getName() + ".missing.txt"));
+                zip.write(("This file could not be found on the server: " + entry.getName() + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+                continue;
+            }
+            zip.setLevel(isCompressed(entry.getName()) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+            ZipEntry zipEntry = new ZipEntry(entry.getName());
+            zipEntry.setTime(Files.getLastModifiedTime(path).toMillis());
+            zip.putNextEntry(zipEntry);
+            try (InputStream in = Files.newInputStream(path)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    zip.write(buffer, 0, read);
+                }
+            }
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    private void collectFolder(Folder root, String rootPrefix, Map<String, String> files) {
+        // Breadth-first walk of the visible subtree, remembering each folder's archive prefix
+        Map<Long, String> prefixes = new LinkedHashMap<>();
+        List<Folder> level = List.of(root);
+        prefixes.put(root.getId(), rootPrefix);
+        while (!level.isEmpty()) {
+            List<Folder> next = new ArrayList<>();
+            for (Folder folder : level) {
+                for (Folder child : folderRepository.findByParentIdAndIsActiveTrueOrderByName(folder.getId())) {
+                    if (!prefixes.containsKey(child.getId()) && folderService.isAllowedToView(child)) {
+                        prefixes.put(child.getId(),
+                                prefixes.get(folder.getId()) + sanitize(child.getName(), "folder-" + child.getId()) + "/");
+                        next.add(child);
+                    }
+                }
+            }
+            level = next;
+        }
+
+        List<Document> documents = documentRepository.findByFolderIdInAndIsActiveTrue(prefixes.keySet()).stream()
+                .filter(documentService::isAllowedToView)
+                .toList();
+        if (documents.isEmpty()) {
+            return;
+        }
+
+        Map<Long, DocumentVersion> latest = new HashMap<>();
+        for (DocumentVersion version : documentVersionRepository.findActiveByDocumentIds(
+                documents.stream().map(Document::getId).toList())) {
+            latest.putIfAbsent(version.getDocument().getId(), version);
+        }
+
+        for (Document doc : documents) {
+            DocumentVersion version = latest.get(doc.getId());
+            if (version == null) {
+                continue;
+            }
+            String baseName = sanitize(documentTitle(doc), "document-" + doc.getId());
+            putUnique(files, prefixes.get(doc.getFolder().getId()) + baseName + extensionOf(version.getFilePath()),
+                    version.getFilePath());
+        }
+    }
+
+    // Two files with the same display name get "name (2).ext", "name (3).ext", ...
+    private static void putUnique(Map<String, String> files, String name, String filePath) {
+        String candidate = name;
+        String ext = extensionOf(name);
+        String stem = name.substring(0, name.length() - ext.length());
+        for (int n = 2; files.containsKey(candidate); n++) {
+            candidate = stem + " (" + n + ")" + ext;
+        }
+        files.put(candidate, filePath);
+    }
+
+    private List<BundleEntry> toManifest(Map<String, String> files) {
+        List<BundleEntry> manifest = new ArrayList<>();
+        files.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+                .forEach(e -> manifest.add(new BundleEntry(e.getKey(), e.getValue())));
+        return manifest;
+    }
+
+    private static String documentTitle(Document doc) {
+        Map<String, String> title = doc.getTitle();
+        if (title == null || title.isEmpty()) {
+            return null;
+        }
+        return title.getOrDefault("en", title.values().iterator().next());
+    }
+
+    private static String extensionOf(String filePath) {
+        int dot = filePath != null ? filePath.lastIndexOf('.') : -1;
+        int slash = filePath != null ? Math.max(filePath.lastIndexOf('/'), filePath.lastIndexOf('\\')) : -1;
+        return dot > slash ? filePath.substring(dot) : "";
+    }
+
+    private static boolean isCompressed(String name) {
+        String ext = extensionOf(name);
+        return !ext.isEmpty() && COMPRESSED_EXTENSIONS.contains(ext.substring(1).toLowerCase());
+    }
+
+    // Keep archive names flat and safe: no path separators, no traversal, never blank
+    private static String sanitize(String name, String fallback) {
+        if (name == null || name.isBlank()) {
+            return fallback;
+        }
+        String cleaned = name.replaceAll("[\\\\/:*?\"<>|\\x00-\\x1F]", "_").trim();
+        if (cleaned.isEmpty() || cleaned.equals(".") || cleaned.equals("..")) {
+            return fallback;
+        }
+        return cleaned;
+    }
+}
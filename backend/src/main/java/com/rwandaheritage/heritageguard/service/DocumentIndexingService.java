@@ -0,0 +1,363 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import com.rwandaheritage.heritageguard.dto.DocumentSearchHitDTO;
+import com.rwandaheritage.heritageguard.dto.response.PageResponse;
+import com.rwandaheritage.heritageguard.event.DocumentContentChangedEvent;
+import com.rwandaheritage.heritageguard.model.Document;
+import com.rwandaheritage.heritageguard.model.DocumentText;
+import com.rwandaheritage.heritageguard.model.DocumentVersion;
+import com.rwandaheritage.heritageguard.model.SiteDocument;
+import com.rwandaheritage.heritageguard.repository.DocumentRepository;
+import com.rwandaheritage.heritageguard.repository.DocumentTextRepository;
+import com.rwandaheritage.heritageguard.repository.DocumentVersionRepository;
+import com.rwandaheritage.heritageguard.repository.SiteDocumentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Document text extraction and content search.
+ *
+ * Whenever a document's file, metadata or visibility changes, the text of its current file
+ * is extracted in the background (after the change commits, on a low-priority pool) and the
+ * search index entry is refreshed. Extracted text is persisted so a restart only re-reads
+ * the database, and files whose text is already known are never parsed again.
+ *
+ * Changed documents wait in an in-memory backlog that the pool drains; the pool itself only
+ * carries drain triggers, so a trigger dropped by a full pool never loses a change. A restart
+ * loses the backlog, but the startup rebuild re-reads every document anyway.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentIndexingService {
+
+    private static final Set<String> PLAIN_TEXT_EXTENSIONS = Set.of("txt", "csv", "md");
+    private static final Set<String> PRIVATE_VIEWER_ROLES = Set.of(
+            "ROLE_COMMUNITY_MEMBER", "ROLE_SYSTEM_ADMINISTRATOR", "ROLE_HERITAGE_MANAGER", "ROLE_CONTENT_MANAGER");
+
+    private final DocumentRepository documentRepository;
+    private final DocumentVersionRepository documentVersionRepository;
+    private final SiteDocumentRepository siteDocumentRepository;
+    private final DocumentTextRepository documentTextRepository;
+    private final DocumentSearchIndex searchIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    // Backlog of ids waiting to be reindexed, per source type
+    private final Set<Long> pendingDocuments = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingSiteDocuments = ConcurrentHashMap.newKeySet();
+
+    // Upper bound on characters kept per document; the tail of very long files is not indexed
+    @Value("${document.extraction.max-chars:200000}")
+    private int maxChars;
+
+    /**
+     * Add the changed document to the backlog, on the committing thread so it is never lost.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(0)
+    public void onDocumentContentChanged(DocumentContentChangedEvent event) {
+        pendingFor(event.getSourceType()).add(event.getSourceId());
+    }
+
+    /**
+     * Drain the backlog in the background. Triggers beyond the pool's queue are dropped;
+     * the running workers or the next poll pick the document up.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(1)
+    @Async("documentExtractionExecutor")
+    public void drainAfterChange(DocumentContentChangedEvent event) {
+        drain();
+    }
+
+    /**
+     * Safety net for dropped triggers.
+     */
+    @Scheduled(fixedDelayString = "${document.extraction.poll-interval-ms:30000}")
+    @Async("documentExtractionExecutor")
+    public void poll() {
+        drain();
+    }
+
+    /**
+     * Rebuild the in-memory index once the application is up, extracting text for any
+     * document that has none yet (e.g. uploaded before extraction existed).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Async("documentExtractionExecutor")
+    @Transactional
+    public void rebuildIndex() {
+        long start = System.currentTimeMillis();
+        Map<String, DocumentText> texts = documentTextRepository.findAll().stream()
+                .collect(Collectors.toMap(t -> DocumentSearchIndex.keyOf(t.getSourceType(), t.getSourceId()),
+                        Function.identity(), (a, b) -> a));
+
+        List<Document> documents = documentRepository.findByIsActiveTrue();
+        Map<Long, DocumentVersion> latest = new HashMap<>();
+        if (!documents.isEmpty()) {
+            for (DocumentVersion version : documentVersionRepository.findActiveByDocumentIds(
+                    documents.stream().map(Document::getId).toList())) {
+                latest.putIfAbsent(version.getDocument().getId(), version);
+            }
+        }
+        for (Document doc : documents) {
+            String type = DocumentContentChangedEvent.SourceType.DOCUMENT.name();
+            DocumentVersion version = latest.get(doc.getId());
+            String content = currentText(type, doc.getId(), version != null ? version.getFilePath() : null,
+                    version != null ? version.getFileType() : null, texts.get(DocumentSearchIndex.keyOf(type, doc.getId())));
+            searchIndex.put(toIndexed(doc, content));
+        }
+
+        for (SiteDocument doc : siteDocumentRepository.findAll()) {
+            if (!doc.isActive()) {
+                continue;
+            }
+            String type = DocumentContentChangedEvent.SourceType.SITE_DOCUMENT.name();
+            String content = currentText(type, doc.getId(), doc.getFilePath(), doc.getFileType(),
+                    texts.get(DocumentSearchIndex.keyOf(type, doc.getId())));
+            searchIndex.put(toIndexed(doc, content));
+        }
+        log.info("Document search index rebuilt in {}ms: {} documents", System.currentTimeMillis() - start, searchIndex.size());
+    }
+
+    /**
+     * Search document metadata and content. Private documents are only considered for
+     * callers whose role may view them.
+     *
+     * @param sourceType optional {@code DOCUMENT} or {@code SITE_DOCUMENT} filter
+     */
+    public PageResponse<DocumentSearchHitDTO> search(String query, String sourceType, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query is required");
+        }
+        String type = null;
+        if (sourceType != null && !sourceType.isBlank()) {
+            try {
+                type = DocumentContentChangedEvent.SourceType.valueOf(sourceType.toUpperCase(Locale.ROOT)).name();
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid source type: " + sourceType);
+            }
+        }
+        DocumentSearchIndex.SearchResult result = searchIndex.search(query, canViewPrivate(), type, page, size);
+        return PageResponse.of(result.getHits(), page, size, result.getTotal());
+    }
+
+    private void drain() {
+        for (DocumentContentChangedEvent.SourceType type : DocumentContentChangedEvent.SourceType.values()) {
+            Long id;
+            while ((id = takePending(pendingFor(type))) != null) {
+                Long sourceId = id;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        if (type == DocumentContentChangedEvent.SourceType.DOCUMENT) {
+                            reindexDocument(sourceId);
+                        } else {
+                            reindexSiteDocument(sourceId);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    log.error("Failed to index {} {}: {}", type, sourceId, e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private Set<Long> pendingFor(DocumentContentChangedEvent.SourceType type) {
+        return type == DocumentContentChangedEvent.SourceType.DOCUMENT ? pendingDocuments : pendingSiteDocuments;
+    }
+
+    // Remove and return any id from the backlog; several workers may drain it at once
+    private static Long takePending(Set<Long> pending) {
+        Iterator<Long> it = pending.iterator();
+        while (it.hasNext()) {
+            Long id = it.next();
+            if (pending.remove(id)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    private void reindexDocument(Long documentId) {
+        String type = DocumentContentChangedEvent.SourceType.DOCUMENT.name();
+        Document doc = documentRepository.findById(documentId).orElse(null);
+        if (doc == null || !doc.isActive()) {
+            forget(type, documentId);
+            return;
+        }
+        List<DocumentVersion> versions = documentVersionRepository.findByDocumentIdOrderByVersionNumberDesc(documentId)
+                .stream().filter(DocumentVersion::isActive).toList();
+        DocumentVersion version = versions.isEmpty() ? null : versions.get(0);
+        String content = currentText(type, documentId, version != null ? version.getFilePath() : null,
+                version != null ? version.getFileType() : null,
+                documentTextRepository.findBySourceTypeAndSourceId(type, documentId).orElse(null));
+        searchIndex.put(toIndexed(doc, content));
+    }
+
+    private void reindexSiteDocument(Long siteDocumentId) {
+        String type = DocumentContentChangedEvent.SourceType.SITE_DOCUMENT.name();
+        SiteDocument doc = siteDocumentRepository.findById(siteDocumentId).orElse(null);
+        if (doc == null || !doc.isActive()) {
+            forget(type, siteDocumentId);
+            return;
+        }
+        String content = currentText(type, siteDocumentId, doc.getFilePath(), doc.getFileType(),
+                documentTextRepository.findBySourceTypeAndSourceId(type, siteDocumentId).orElse(null));
+        searchIndex.put(toIndexed(doc, content));
+    }
+
+    private void forget(String type, Long id) {
+        searchIndex.remove(type, id);
+        documentTextRepository.deleteBySourceTypeAndSourceId(type, id);
+    }
+
+    // Stored text when it belongs to the current file, otherwise extract and persist it
+    private String currentText(String type, Long id, String filePath, String fileType, DocumentText stored) {
+        if (filePath == null) {
+            if (stored != null) {
+                documentTextRepository.delete(stored);
+            }
+            return "";
+        }
+        if (stored != null && filePath.equals(stored.getFilePath())) {
+            return stored.getContent() != null ? stored.getContent() : "";
+        }
+
+        DocumentText text = stored != null ? stored : DocumentText.builder().sourceType(type).sourceId(id).build();
+        text.setFilePath(filePath);
+        text.setExtractedDate(LocalDateTime.now());
+        try {
+            String extracted = extract(Paths.get(filePath), fileType);
+            text.setContent(extracted);
+            text.setStatus(extracted != null ? DocumentText.ExtractionStatus.EXTRACTED : DocumentText.ExtractionStatus.UNSUPPORTED);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Text extraction failed for {} {} ({}): {}", type, id, filePath, e.getMessage());
+            text.setContent(null);
+            text.setStatus(DocumentText.ExtractionStatus.FAILED);
+        }
+        documentTextRepository.save(text);
+        return text.getContent() != null ? text.getContent() : "";
+    }
+
+    /**
+     * Extract plain text from a PDF or text file; null for formats without an extractor.
+     */
+    private String extract(Path path, String fileType) throws IOException {
+        String contentType = fileType != null ? fileType.toLowerCase(Locale.ROOT) : "";
+        String extension = extensionOf(path.getFileName().toString());
+        if (!Files.isReadable(path)) {
+            throw new IOException("File not readable");
+        }
+
+        if (contentType.equals("application/pdf") || extension.equals("pdf")) {
+            StringBuilder text = new StringBuilder();
+            PdfReader reader = new PdfReader(path.toString());
+            try {
+                for (int page = 1; page <= reader.getNumberOfPages() && text.length() < maxChars; page++) {
+                    text.append(PdfTextExtractor.getTextFromPage(reader, page)).append('\n');
+                }
+            } finally {
+                reader.close();
+            }
+            return truncate(text.toString());
+        }
+
+        if (contentType.startsWith("text/") || PLAIN_TEXT_EXTENSIONS.contains(extension)) {
+            // Read at most maxChars worth of bytes (UTF-8 is at most 4 bytes per char)
+            byte[] bytes;
+            try (var in = Files.newInputStream(path)) {
+                bytes = in.readNBytes(maxChars * 4);
+            }
+            return truncate(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return null;
+    }
+
+    private String truncate(String text) {
+        String cleaned = text.replace('\u0000', ' ');
+        return cleaned.length() > maxChars ? cleaned.substring(0, maxChars) : cleaned;
+    }
+
+    private static DocumentSearchIndex.IndexedDocument toIndexed(Document doc, String content) {
+        String title = localized(doc.getTitle());
+        StringBuilder metadata = new StringBuilder();
+        if (doc.getTitle() != null) {
+            doc.getTitle().values().forEach(v -> metadata.append(v).append(' '));
+        }
+        if (doc.getDescription() != null) {
+            doc.getDescription().values().forEach(v -> metadata.append(v).append(' '));
+        }
+        if (doc.getTags() != null) {
+            doc.getTags().forEach(t -> metadata.append(t).append(' '));
+        }
+        if (doc.getAuthor() != null) {
+            metadata.append(doc.getAuthor());
+        }
+        return new DocumentSearchIndex.IndexedDocument(DocumentContentChangedEvent.SourceType.DOCUMENT.name(),
+                doc.getId(), title, metadata.toString(), content, Boolean.TRUE.equals(doc.getIsPublic()));
+    }
+
+    private static DocumentSearchIndex.IndexedDocument toIndexed(SiteDocument doc, String content) {
+        String metadata = String.join(" ",
+                nullToEmpty(doc.getFileName()), nullToEmpty(doc.getDescription()), nullToEmpty(doc.getCategory()));
+        return new DocumentSearchIndex.IndexedDocument(DocumentContentChangedEvent.SourceType.SITE_DOCUMENT.name(),
+                doc.getId(), doc.getFileName(), metadata, content, doc.isPublic());
+    }
+
+    private static String localized(Map<String, String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.getOrDefault("en", values.values().iterator().next());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 ? fileName.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static boolean canViewPrivate() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getPrincipal())) {
+            return false;
+        }
+        return auth.getAuthorities().stream().anyMatch(a -> PRIVATE_VIEWER_ROLES.contains(a.getAuthority()));
+    }
+}
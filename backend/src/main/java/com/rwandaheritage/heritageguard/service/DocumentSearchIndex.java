@@ -0,0 +1,217 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.rwandaheritage.heritageguard.dto.DocumentSearchHitDTO;
+import com.rwandaheritage.heritageguard.util.SearchHighlighter;
+import com.rwandaheritage.heritageguard.util.TextTokenizer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over document metadata and extracted file text.
+ *
+ * Each indexed document carries its visibility, and queries skip documents the caller
+ * may not see while walking the postings, so permission filtering happens before scoring
+ * and pagination rather than on a page of already-ranked results.
+ */
+@Component
+public class DocumentSearchIndex {
+
+    // Metadata (title, description, file name) matches count more than body text
+    private static final int METADATA_WEIGHT = 3;
+    private static final int SNIPPET_RADIUS = 90;
+    private static final int MAX_QUERY_TERMS = 10;
+
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+    private final Map<String, IndexedDocument> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * A document as stored in the index.
+     */
+    public static class IndexedDocument {
+        private final String sourceType;
+        private final Long sourceId;
+        private final String title;
+        private final String content;
+        private final boolean isPublic;
+        private final Map<String, Integer> termFrequencies;
+
+        public IndexedDocument(String sourceType, Long sourceId, String title, String metadata,
+                               String content, boolean isPublic) {
+            this.sourceType = sourceType;
+            this.sourceId = sourceId;
+            this.title = title;
+            this.content = content != null ? content : "";
+            this.isPublic = isPublic;
+            this.termFrequencies = new HashMap<>();
+            for (String token : TextTokenizer.tokenize(metadata)) {
+                termFrequencies.merge(token, METADATA_WEIGHT, Integer::sum);
+            }
+            for (String token : TextTokenizer.tokenize(this.content)) {
+                termFrequencies.merge(token, 1, Integer::sum);
+            }
+        }
+
+        String key() {
+            return keyOf(sourceType, sourceId);
+        }
+    }
+
+    public static String keyOf(String sourceType, Long sourceId) {
+        return sourceType + ":" + sourceId;
+    }
+
+    /**
+     * Add or replace a document.
+     */
+    public void put(IndexedDocument doc) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(doc.key());
+            documents.put(doc.key(), doc);
+            for (Map.Entry<String, Integer> term : doc.termFrequencies.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), t -> new HashMap<>()).put(doc.key(), term.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String sourceType, Long sourceId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(keyOf(sourceType, sourceId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * All query terms must match (in metadata or content). Results are ranked by tf-idf.
+     *
+     * @param includePrivate whether the caller may see non-public documents
+     * @param sourceType     optional filter on the source type
+     * @return the requested page of hits plus the total hit count
+     */
+    public SearchResult search(String query, boolean includePrivate, String sourceType, int page, int size) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextTokenizer.tokenize(query)));
+        if (terms.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        List<ScoredKey> scored = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<Map<String, Integer>> termPostings = new ArrayList<>();
+            for (String term : terms) {
+                Map<String, Integer> list = postings.get(term);
+                if (list == null) {
+                    return new SearchResult(List.of(), 0);
+                }
+                termPostings.add(list);
+            }
+            // Drive the intersection from the rarest term
+            termPostings.sort(Comparator.comparingInt(Map::size));
+            int totalDocs = Math.max(1, documents.size());
+
+            for (String key : termPostings.get(0).keySet()) {
+                IndexedDocument doc = documents.get(key);
+                if (doc == null || (!doc.isPublic && !includePrivate)
+                        || (sourceType != null && !sourceType.equals(doc.sourceType))) {
+                    continue;
+                }
+                double score = 0;
+                boolean matchesAll = true;
+                for (Map<String, Integer> list : termPostings) {
+                    Integer tf = list.get(key);
+                    if (tf == null) {
+                        matchesAll = false;
+                        break;
+                    }
+                    score += (1 + Math.log(tf)) * Math.log(1 + (double) totalDocs / list.size());
+                }
+                if (matchesAll) {
+                    scored.add(new ScoredKey(doc, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        scored.sort(Comparator.comparingDouble((ScoredKey s) -> s.score).reversed());
+        int from = Math.min(scored.size(), Math.max(0, page) * size);
+        int to = Math.min(scored.size(), from + size);
+        Pattern highlight = SearchHighlighter.highlightPattern(terms);
+        List<DocumentSearchHitDTO> hits = scored.subList(from, to).stream()
+                .map(s -> DocumentSearchHitDTO.builder()
+                        .sourceType(s.doc.sourceType)
+                        .sourceId(s.doc.sourceId)
+                        .title(s.doc.title)
+                        .snippet(SearchHighlighter.snippet(s.doc.content, highlight, SNIPPET_RADIUS))
+                        .score(s.score)
+                        .isPublic(s.doc.isPublic)
+                        .build())
+                .collect(Collectors.toList());
+        return new SearchResult(hits, scored.size());
+    }
+
+    public static class SearchResult {
+        private final List<DocumentSearchHitDTO> hits;
+        private final long total;
+
+        public SearchResult(List<DocumentSearchHitDTO> hits, long total) {
+            this.hits = hits;
+            this.total = total;
+        }
+
+        public List<DocumentSearchHitDTO> getHits() { return hits; }
+        public long getTotal() { return total; }
+    }
+
+    private static class ScoredKey {
+        private final IndexedDocument doc;
+        private final double score;
+
+        ScoredKey(IndexedDocument doc, double score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+
+    private void removeInternal(String key) {
+        IndexedDocument previous = documents.remove(key);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.termFrequencies.keySet()) {
+            Map<String, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(key);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.rwandaheritage.heritageguard.service;
 
+import com.rwandaheritage.heritageguard.event.DocumentContentChangedEvent;
 import com.rwandaheritage.heritageguard.model.Document;
 import com.rwandaheritage.heritageguard.model.DocumentVersion;
 import com.rwandaheritage.heritageguard.model.Folder;
+import com.rwandaheritage.heritageguard.model.StorageUsage;
 import com.rwandaheritage.heritageguard.repository.DocumentRepository;
 import com.rwandaheritage.heritageguard.repository.DocumentVersionRepository;
 import com.rwandaheritage.heritageguard.repository.FolderRepository;
+import com.rwandaheritage.heritageguard.security.AccessContextProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.http.HttpStatus;
@@ -24,7 +28,6 @@ import java.io.IOException;
 import java.util.UUID;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.beans.factory.annotation.Value;
 import java.io.File;
@@ -37,6 +40,12 @@ public class DocumentService {
     private DocumentVersionRepository documentVersionRepository;
     @Autowired
     private FolderRepository folderRepository;
+    @Autowired
+    private StorageAccountingService storageAccountingService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private AccessContextProvider accessContextProvider;
 
     @Value("${document.upload.dir:uploads/documents}")
     private String documentUploadDir;
@@ -62,21 +71,11 @@ public class DocumentService {
         return documentRepository.save(document);
     }
 
-    private boolean isAllowedToView(Document doc) {
+    public boolean isAllowedToView(Document doc) {
         if (doc.getIsPublic() != null && doc.getIsPublic()) {
             return true;
         }
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated() || auth.getPrincipal().equals("anonymousUser")) {
-            return false;
-        }
-        for (GrantedAuthority authority : auth.getAuthorities()) {
-            String role = authority.getAuthority();
-            if (role.equals("ROLE_COMMUNITY_MEMBER") || role.equals("ROLE_SYSTEM_ADMINISTRATOR") || role.equals("ROLE_HERITAGE_MANAGER") || role.equals("ROLE_CONTENT_MANAGER")) {
-                return true;
-            }
-        }
-        return false;
+        return accessContextProvider.current().isMember();
     }
 
     public Optional<Document> getDocument(Long id) {
@@ -199,7 +198,9 @@ public class DocumentService {
             doc.setFolder(folder);
         }
         
-        return documentRepository.save(doc);
+        Document saved = documentRepository.save(doc);
+        publishContentChanged(saved.getId());
+        return saved;
     }
 
     public void deleteDocument(Long id) {
@@ -221,6 +222,7 @@ public class DocumentService {
         doc.setUpdatedDate(LocalDateTime.now());
         
         documentRepository.save(doc);
+        publishContentChanged(doc.getId());
     }
 
     public DocumentVersion addVersion(Long documentId, DocumentVersion version) {
@@ -257,6 +259,7 @@ public class DocumentService {
         return versionOpt;
     }
 
+    @Transactional
     public DocumentVersion storeVersionFile(Long documentId, MultipartFile file, String createdBy) throws IOException {
         // Validate file
         if (file.isEmpty()) {
@@ -277,6 +280,10 @@ public class DocumentService {
         Document doc = documentRepository.findById(documentId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Document not found"));
         
+        String uploader = createdBy != null ? createdBy : getCurrentUsername();
+        Long siteId = getSiteId(doc);
+        storageAccountingService.checkQuota(siteId, uploader, file.getSize());
+        
         // Ensure upload directory exists
         Path uploadPath = Paths.get(documentUploadDir);
         if (!Files.exists(uploadPath)) {
@@ -313,7 +320,10 @@ public class DocumentService {
             .updatedDate(LocalDateTime.now())
             .build();
         
-        return documentVersionRepository.save(version);
+        DocumentVersion saved = documentVersionRepository.save(version);
+        storageAccountingService.recordStored(StorageUsage.ContentType.DOCUMENT_VERSION, siteId, uploader, file.getSize());
+        publishContentChanged(documentId);
+        return saved;
     }
 
     public Resource loadVersionFile(Long versionId) {
@@ -337,6 +347,7 @@ public class DocumentService {
         return new FileSystemResource(file);
     }
 
+    @Transactional
     public void deleteVersion(Long versionId) {
         DocumentVersion version = documentVersionRepository.findById(versionId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Version not found"));
@@ -350,15 +361,32 @@ public class DocumentService {
             throw new AccessDeniedException("You can only delete your own versions.");
         }
         
+        if (!version.isActive()) {
+            return;
+        }
+        
         // Soft delete
         version.setIsActive(false);
         version.setUpdatedBy(getCurrentUsername());
         version.setUpdatedDate(LocalDateTime.now());
         
         documentVersionRepository.save(version);
+        storageAccountingService.recordRemoved(StorageUsage.ContentType.DOCUMENT_VERSION,
+            getSiteId(version.getDocument()), version.getCreatedBy(), version.getFileSize());
+        publishContentChanged(version.getDocument().getId());
     }
 
     // Helper methods
+    private void publishContentChanged(Long documentId) {
+        eventPublisher.publishEvent(new DocumentContentChangedEvent(
+            this, DocumentContentChangedEvent.SourceType.DOCUMENT, documentId));
+    }
+
+    private Long getSiteId(Document doc) {
+        Folder folder = doc != null ? doc.getFolder() : null;
+        return folder != null && folder.getSite() != null ? folder.getSite().getId() : null;
+    }
+
     private String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.isAuthenticated() && !authentication.getPrincipal().equals("anonymousUser")) {
@@ -0,0 +1,278 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.rwandaheritage.heritageguard.event.EmailQueuedEvent;
+import com.rwandaheritage.heritageguard.model.EmailOutboxMessage;
+import com.rwandaheritage.heritageguard.repository.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers queued emails from the outbox.
+ *
+ * Batches are claimed with FOR UPDATE SKIP LOCKED, so several dispatcher threads (or
+ * instances) never send the same message twice, and each batch goes out over a single SMTP
+ * connection. Failed messages are retried with exponential backoff and marked DEAD after
+ * {@code email.outbox.max-attempts}; an administrator can requeue them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${email.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${email.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    // How long a claimed batch may take before another dispatcher may pick it up again
+    @Value("${email.outbox.claim-timeout-seconds:300}")
+    private long claimTimeoutSeconds;
+
+    @Value("${email.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong sendNanos = new AtomicLong();
+    private final AtomicLong sendBatches = new AtomicLong();
+
+    /**
+     * Send right after the enqueuing transaction commits. Triggers that find the pool busy
+     * are dropped; the running dispatchers or the next poll pick the message up.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Async("emailDispatchExecutor")
+    public void onEmailQueued(EmailQueuedEvent event) {
+        dispatchDue();
+    }
+
+    /**
+     * Safety net for retries, dropped triggers and messages left behind by a restart.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:15000}")
+    @Async("emailDispatchExecutor")
+    public void poll() {
+        dispatchDue();
+    }
+
+    @Scheduled(cron = "${email.outbox.cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void deleteOldSentMessages() {
+        int deleted = emailOutboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Removed {} sent messages from the email outbox", deleted);
+        }
+    }
+
+    private void dispatchDue() {
+        try {
+            List<EmailOutboxMessage> batch;
+            while (!(batch = claimBatch()).isEmpty()) {
+                deliver(batch);
+            }
+        } catch (Exception e) {
+            log.error("Email outbox dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // A claim that expired means the dispatcher holding it died mid-send, which counts as an attempt;
+    // messages that run out of attempts this way are dead-lettered instead of being sent again
+    private List<EmailOutboxMessage> claimBatch() {
+        List<EmailOutboxMessage> batch = transactionTemplate.execute(status -> {
+            List<EmailOutboxMessage> claimed;
+            do {
+                LocalDateTime now = LocalDateTime.now();
+                List<EmailOutboxMessage> due = emailOutboxRepository.lockDueMessages(now, batchSize);
+                if (due.isEmpty()) {
+                    return due;
+                }
+                claimed = new ArrayList<>(due.size());
+                for (EmailOutboxMessage message : due) {
+                    if (message.getStatus() == EmailOutboxMessage.Status.SENDING) {
+                        message.setAttempts(message.getAttempts() + 1);
+                        if (message.getAttempts() >= maxAttempts) {
+                            deadLetter(message, message.getAttempts(), "Delivery claim expired");
+                            continue;
+                        }
+                    }
+                    message.setStatus(EmailOutboxMessage.Status.SENDING);
+                    message.setClaimedUntil(now.plusSeconds(claimTimeoutSeconds));
+                    claimed.add(message);
+                }
+                emailOutboxRepository.saveAll(due);
+            } while (claimed.isEmpty());
+            return claimed;
+        });
+        return batch != null ? batch : Collections.emptyList();
+    }
+
+    private void deliver(List<EmailOutboxMessage> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutboxMessage outbox = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(fromEmail);
+            message.setTo(outbox.getRecipient());
+            message.setSubject(outbox.getSubject());
+            message.setText(outbox.getBody());
+            messages[i] = message;
+        }
+
+        // One connection for the whole batch; per-message failures come back in the exception
+        Map<Object, Exception> failures = Collections.emptyMap();
+        String batchError = null;
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                batchError = e.getMessage();
+            }
+        } catch (MailException e) {
+            batchError = e.getMessage();
+        }
+        sendNanos.addAndGet(System.nanoTime() - start);
+        sendBatches.incrementAndGet();
+
+        Map<Object, Exception> failed = failures;
+        String error = batchError;
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < batch.size(); i++) {
+                EmailOutboxMessage outbox = batch.get(i);
+                Exception failure = failed.get(messages[i]);
+                if (error == null && failure == null) {
+                    markSent(outbox, now);
+                } else {
+                    markFailed(outbox, now, error != null ? error : failure.getMessage());
+                }
+            }
+            emailOutboxRepository.saveAll(batch);
+        });
+    }
+
+    private void markSent(EmailOutboxMessage outbox, LocalDateTime now) {
+        outbox.setStatus(EmailOutboxMessage.Status.SENT);
+        outbox.setAttempts(outbox.getAttempts() + 1);
+        outbox.setSentDate(now);
+        outbox.setClaimedUntil(null);
+        outbox.setLastError(null);
+        sentCount.incrementAndGet();
+        log.info("Sent email {} to: {}", outbox.getId(), outbox.getRecipient());
+    }
+
+    private void markFailed(EmailOutboxMessage outbox, LocalDateTime now, String error) {
+        int attempts = outbox.getAttempts() + 1;
+        outbox.setAttempts(attempts);
+        outbox.setClaimedUntil(null);
+        outbox.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        failedAttempts.incrementAndGet();
+        if (attempts >= maxAttempts) {
+            deadLetter(outbox, attempts, error);
+        } else {
+            long backoff = Math.min(maxBackoffSeconds, initialBackoffSeconds << Math.min(attempts - 1, 20));
+            outbox.setStatus(EmailOutboxMessage.Status.PENDING);
+            outbox.setNextAttemptAt(now.plusSeconds(backoff));
+            log.warn("Failed to send email {} to: {} (attempt {}), retrying in {}s. Error: {}",
+                    outbox.getId(), outbox.getRecipient(), attempts, backoff, error);
+        }
+    }
+
+    private void deadLetter(EmailOutboxMessage outbox, int attempts, String error) {
+        outbox.setStatus(EmailOutboxMessage.Status.DEAD);
+        outbox.setClaimedUntil(null);
+        outbox.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        deadLettered.incrementAndGet();
+        log.error("Giving up on email {} to: {} after {} attempts. Error: {}", outbox.getId(), outbox.getRecipient(), attempts, error);
+    }
+
+    /**
+     * Put a dead message back in the queue with a fresh set of attempts.
+     *
+     * @return false when no dead message has this id
+     */
+    @Transactional
+    public boolean requeue(Long id) {
+        return emailOutboxRepository.findById(id)
+                .filter(message -> message.getStatus() == EmailOutboxMessage.Status.DEAD)
+                .map(message -> {
+                    message.setStatus(EmailOutboxMessage.Status.PENDING);
+                    message.setAttempts(0);
+                    message.setNextAttemptAt(LocalDateTime.now());
+                    emailOutboxRepository.save(message);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<EmailOutboxMessage> getDeadMessages(Pageable pageable) {
+        return emailOutboxRepository.findByStatusOrderByCreatedDateDesc(EmailOutboxMessage.Status.DEAD, pageable);
+    }
+
+    /**
+     * Queue depth per status, age of the oldest unsent message and send latency since startup.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStats() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (EmailOutboxMessage.Status status : EmailOutboxMessage.Status.values()) {
+            byStatus.put(status.name(), 0L);
+        }
+        for (Object[] row : emailOutboxRepository.countByStatus()) {
+            byStatus.put(((EmailOutboxMessage.Status) row[0]).name(), (Long) row[1]);
+        }
+        LocalDateTime oldestUnsent = emailOutboxRepository.findOldestUnsentCreatedDate();
+        long batches = sendBatches.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", byStatus.get("PENDING") + byStatus.get("SENDING"));
+        stats.put("byStatus", byStatus);
+        stats.put("oldestUnsentAgeSeconds", oldestUnsent != null
+                ? Math.max(0, Duration.between(oldestUnsent, LocalDateTime.now()).getSeconds()) : 0);
+        stats.put("sentSinceStartup", sentCount.get());
+        stats.put("failedAttemptsSinceStartup", failedAttempts.get());
+        stats.put("deadLetteredSinceStartup", deadLettered.get());
+        stats.put("averageBatchSendMillis", batches > 0 ? sendNanos.get() / batches / 1_000_000.0 : 0.0);
+        return stats;
+    }
+}
@@ -1,40 +1,47 @@
 package com.rwandaheritage.heritageguard.service;
 
+import com.rwandaheritage.heritageguard.event.EmailQueuedEvent;
+import com.rwandaheritage.heritageguard.model.EmailOutboxMessage;
+import com.rwandaheritage.heritageguard.repository.EmailOutboxRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 
+import java.time.LocalDateTime;
+
+/**
+ * Composes account emails and queues them in the email outbox. Nothing here talks to SMTP:
+ * messages are stored in the caller's transaction and sent by {@link EmailOutboxDispatcher}
+ * after it commits, so a slow or unavailable mail server never delays or fails a request.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${frontend.url}")
     private String frontendUrl;
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
-
+    @Transactional
     public void sendEmail(String to, String subject, String text) {
-        try {
-            log.info("Attempting to send email to: {}", to);
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-            mailSender.send(message);
-            log.info("Successfully sent email to: {}", to);
-        } catch (MailException e) {
-            log.error("Failed to send email to: {}. Error: {}", to, e.getMessage());
-            throw new RuntimeException("Failed to send email: " + e.getMessage());
-        }
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutboxMessage message = emailOutboxRepository.save(EmailOutboxMessage.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(text)
+                .status(EmailOutboxMessage.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdDate(now)
+                .build());
+        eventPublisher.publishEvent(new EmailQueuedEvent(this, message.getId()));
+        log.info("Queued email {} to: {}", message.getId(), to);
     }
 
     public void sendVerificationEmail(String to, String token) {
@@ -88,6 +95,5 @@ public class EmailService {
             """, unlockLink, unlockLink);
 
         sendEmail(to, subject, content);
-        log.info("Unlock email sent to: {}", to);
     }
 } 
\ No newline at end of file
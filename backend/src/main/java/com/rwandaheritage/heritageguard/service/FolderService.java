@@ -2,6 +2,7 @@ package com.rwandaheritage.heritageguard.service;
 
 import com.rwandaheritage.heritageguard.model.Folder;
 import com.rwandaheritage.heritageguard.repository.FolderRepository;
+import com.rwandaheritage.heritageguard.security.AccessContextProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,13 +16,14 @@ import java.util.ArrayList;
 import java.time.LocalDateTime;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.access.AccessDeniedException;
 
 @Service
 public class FolderService {
     @Autowired
     private FolderRepository folderRepository;
+    @Autowired
+    private AccessContextProvider accessContextProvider;
 
     public Folder createFolder(Folder folder) {
         // Set audit fields
@@ -73,7 +75,7 @@ public class FolderService {
         return folderRepository.save(folder);
     }
 
-    private boolean isAllowedToView(Folder folder) {
+    public boolean isAllowedToView(Folder folder) {
         if (folder.getAllowedRoles() == null || folder.getAllowedRoles().isEmpty()) {
             // Default: staff only
             return isStaff();
@@ -81,31 +83,11 @@ public class FolderService {
         if (folder.getAllowedRoles().contains("PUBLIC")) {
             return true;
         }
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated() || auth.getPrincipal().equals("anonymousUser")) {
-            return false;
-        }
-        for (GrantedAuthority authority : auth.getAuthorities()) {
-            String role = authority.getAuthority().replace("ROLE_", "");
-            if (folder.getAllowedRoles().contains(role)) {
-                return true;
-            }
-        }
-        return false;
+        return accessContextProvider.current().hasAnyRole(folder.getAllowedRoles());
     }
 
     private boolean isStaff() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated() || auth.getPrincipal().equals("anonymousUser")) {
-            return false;
-        }
-        for (GrantedAuthority authority : auth.getAuthorities()) {
-            String role = authority.getAuthority();
-            if (role.equals("ROLE_SYSTEM_ADMINISTRATOR") || role.equals("ROLE_HERITAGE_MANAGER") || role.equals("ROLE_CONTENT_MANAGER")) {
-                return true;
-            }
-        }
-        return false;
+        return accessContextProvider.current().isStaff();
     }
 
     public Optional<Folder> getFolder(Long id) {
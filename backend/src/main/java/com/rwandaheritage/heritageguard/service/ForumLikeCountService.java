@@ -0,0 +1,51 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.rwandaheritage.heritageguard.repository.ForumPostRepository;
+import com.rwandaheritage.heritageguard.repository.ForumTopicRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the like counters stored on topics and posts in line with forum_likes.
+ *
+ * Likes and unlikes move the counters atomically as they happen; this job recounts them
+ * at startup (filling counters for likes made before they existed) and periodically,
+ * correcting any drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ForumLikeCountService {
+
+    private final ForumTopicRepository topicRepository;
+    private final ForumPostRepository postRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Recount likes and correct the counters that drifted.
+     *
+     * @return number of topics and posts whose counter was corrected
+     */
+    @Scheduled(cron = "${forum.likes.reconcile-cron:0 0 4 * * *}")
+    @Transactional
+    public int reconcile() {
+        long start = System.currentTimeMillis();
+        int topics = topicRepository.reconcileLikeCounts();
+        int posts = postRepository.reconcileLikeCounts();
+
+        if (topics > 0 || posts > 0) {
+            log.warn("Corrected like counters of {} topics and {} posts", topics, posts);
+        }
+        log.info("Forum like reconciliation finished in {}ms", System.currentTimeMillis() - start);
+        return topics + posts;
+    }
+}
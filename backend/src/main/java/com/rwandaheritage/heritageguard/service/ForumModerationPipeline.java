@@ -0,0 +1,214 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.rwandaheritage.heritageguard.event.ForumContentChangedEvent;
+import com.rwandaheritage.heritageguard.event.ForumPostSubmittedEvent;
+import com.rwandaheritage.heritageguard.model.CommunityReport;
+import com.rwandaheritage.heritageguard.model.ContentSignature;
+import com.rwandaheritage.heritageguard.model.ForumPost;
+import com.rwandaheritage.heritageguard.model.ForumTopic;
+import com.rwandaheritage.heritageguard.model.Notification;
+import com.rwandaheritage.heritageguard.repository.ForumPostRepository;
+import com.rwandaheritage.heritageguard.repository.ForumTopicRepository;
+import com.rwandaheritage.heritageguard.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the automatic content scan for new forum posts outside the request.
+ *
+ * A post is stored as PENDING_SCAN; the stored post is the work item. Workers claim batches
+ * with FOR UPDATE SKIP LOCKED, run the content filter and, in the same transaction, record
+ * the verdict (one update for all clear posts, one per flagged or rejected post) together
+ * with the notifications it causes, so each notification is written exactly once and only
+ * for a verdict that was committed. Posts that are near-duplicates of recent content by
+ * several other accounts ({@link NearDuplicateDetector}) are flagged even when the content
+ * filter finds nothing. Flagged posts go to the {@link ModerationQueueService}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ForumModerationPipeline {
+
+    private static final String SYSTEM = "SYSTEM";
+    private static final int MAX_FLAG_REASON_LENGTH = 500;
+
+    private final ForumPostRepository postRepository;
+    private final ForumTopicRepository topicRepository;
+    private final NotificationRepository notificationRepository;
+    private final ContentFilterService contentFilterService;
+    private final NearDuplicateDetector nearDuplicateDetector;
+    private final ModerationQueueService moderationQueueService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${forum.moderation.batch-size:50}")
+    private int batchSize;
+
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong flagged = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batchNanos = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    /**
+     * Scan right after the post is committed. Triggers that find the pool busy are dropped;
+     * the running workers or the next poll pick the post up.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Async("forumModerationExecutor")
+    public void onPostSubmitted(ForumPostSubmittedEvent event) {
+        drain();
+    }
+
+    /**
+     * Safety net for dropped triggers and posts left behind by a restart.
+     */
+    @Scheduled(fixedDelayString = "${forum.moderation.poll-interval-ms:10000}")
+    @Async("forumModerationExecutor")
+    public void poll() {
+        drain();
+    }
+
+    private void drain() {
+        try {
+            Integer processed;
+            while ((processed = transactionTemplate.execute(status -> processBatch())) != null && processed > 0) {
+                log.debug("Scanned {} forum posts", processed);
+            }
+        } catch (Exception e) {
+            log.error("Forum moderation batch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private int processBatch() {
+        List<ForumPost> batch = postRepository.lockPendingScan(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+
+        Set<Long> topicIds = batch.stream().map(post -> post.getTopic().getId()).collect(Collectors.toSet());
+        Map<Long, ForumTopic> topics = topicRepository.findAllById(topicIds).stream()
+                .collect(Collectors.toMap(ForumTopic::getId, Function.identity()));
+
+        List<Long> clear = new ArrayList<>();
+        List<Notification> notifications = new ArrayList<>();
+        for (ForumPost post : batch) {
+            ForumTopic topic = topics.get(post.getTopic().getId());
+            String topicUrl = "/forums/topics/" + post.getTopic().getId();
+            ContentFilterService.ModerationRecommendation recommendation =
+                    contentFilterService.getSubmissionRecommendation(post.getContent(), post.getLanguage());
+            NearDuplicateDetector.Result duplicates = nearDuplicateDetector.checkAndRecord(
+                    ContentSignature.ContentType.POST, post.getId(), post.getCreatedBy(), post.getContent());
+            ContentFilterService.ModerationAction action = recommendation.getAction();
+            String reason = recommendation.getReason();
+            if (duplicates.isSuspicious() && action != ContentFilterService.ModerationAction.REJECT) {
+                String duplicateReason = "Near-duplicate of content posted by " + duplicates.getOtherAccounts() + " other accounts";
+                reason = action == ContentFilterService.ModerationAction.FLAG ? reason + ", " + duplicateReason
+                        : "Content may need review: " + duplicateReason;
+                action = ContentFilterService.ModerationAction.FLAG;
+            }
+
+            if (action == ContentFilterService.ModerationAction.REJECT) {
+                if (postRepository.markScanRejected(post.getId(), now) > 0) {
+                    rejected.incrementAndGet();
+                    log.info("[AUTO-MODERATION] Auto-deleted inappropriate post: {} (reason: {})", post.getId(), reason);
+                    notifications.add(notification(post.getCreatedBy(), "content_deleted",
+                            "Your post was automatically removed: " + reason, topicUrl, SYSTEM));
+                }
+                continue;
+            }
+
+            if (action == ContentFilterService.ModerationAction.FLAG) {
+                if (postRepository.markScanFlagged(post.getId(), truncate(reason), now) == 0) {
+                    continue;
+                }
+                flagged.incrementAndGet();
+                moderationQueueService.enqueueFlag(CommunityReport.ContentType.POST, post.getId(),
+                        ModerationQueueService.SEVERITY_MEDIUM, reason);
+                log.info("[AUTO-MODERATION] Auto-flagged suspicious post: {} (reason: {})", post.getId(), reason);
+                notifications.add(notification(post.getCreatedBy(), "content_flagged",
+                        "Your post was automatically flagged for review: " + reason, topicUrl, SYSTEM));
+            } else {
+                clear.add(post.getId());
+            }
+
+            // Published (clear or flagged): tell the topic creator about the reply
+            if (topic != null && topic.getCreatedBy() != null && !topic.getCreatedBy().equals(post.getCreatedBy())) {
+                notifications.add(notification(topic.getCreatedBy(), "reply",
+                        "Someone replied to your topic: " + topic.getTitle(), topicUrl, post.getCreatedBy()));
+            }
+        }
+
+        if (!clear.isEmpty()) {
+            postRepository.markScanClear(clear, now);
+        }
+        if (!notifications.isEmpty()) {
+            notificationRepository.saveAll(notifications);
+        }
+        // Verdicts change visibility and flags; the search index refreshes once they commit
+        eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.POST,
+                batch.stream().map(ForumPost::getId).toList()));
+
+        scanned.addAndGet(batch.size());
+        batches.incrementAndGet();
+        batchNanos.addAndGet(System.nanoTime() - start);
+        return batch.size();
+    }
+
+    private static Notification notification(String userId, String type, String content, String relatedUrl, String createdBy) {
+        return Notification.builder()
+                .userId(userId)
+                .type(type)
+                .content(content)
+                .relatedUrl(relatedUrl)
+                .isRead(false)
+                .isActive(true)
+                .createdBy(createdBy)
+                .build();
+    }
+
+    private static String truncate(String reason) {
+        return reason != null && reason.length() > MAX_FLAG_REASON_LENGTH ? reason.substring(0, MAX_FLAG_REASON_LENGTH) : reason;
+    }
+
+    /**
+     * Backlog of posts waiting to be scanned and scan throughput since startup.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStats() {
+        LocalDateTime oldestPending = postRepository.findOldestPendingScanCreatedDate();
+        long batchCount = batches.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", postRepository.countByModerationStatus(ForumPost.ModerationStatus.PENDING_SCAN));
+        stats.put("oldestPendingAgeSeconds", oldestPending != null
+                ? Math.max(0, Duration.between(oldestPending, LocalDateTime.now()).getSeconds()) : 0);
+        stats.put("scannedSinceStartup", scanned.get());
+        stats.put("flaggedSinceStartup", flagged.get());
+        stats.put("rejectedSinceStartup", rejected.get());
+        stats.put("averageBatchMillis", batchCount > 0 ? batchNanos.get() / batchCount / 1_000_000.0 : 0.0);
+        return stats;
+    }
+}
@@ -0,0 +1,384 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.rwandaheritage.heritageguard.dto.ForumSearchHitDTO;
+import com.rwandaheritage.heritageguard.event.ForumContentChangedEvent.ContentType;
+import com.rwandaheritage.heritageguard.util.SearchHighlighter;
+import com.rwandaheritage.heritageguard.util.TextTokenizer;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over forum topics and posts, including their translations.
+ *
+ * Topics and posts are kept in separate shards so each has its own document frequencies and
+ * average length for BM25. Posts do not copy their topic's category and visibility; those
+ * are read from the topic's entry while filtering, so a topic change never touches its
+ * posts, and posts of a topic that is not indexed (deleted) are never returned. Filters are
+ * applied while walking the postings, before scoring and pagination.
+ */
+@Component
+public class ForumSearchIndex {
+
+    // Title matches count more than body text
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SNIPPET_RADIUS = 90;
+    private static final int MAX_QUERY_TERMS = 10;
+    // BM25 term frequency saturation and length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Newer content gets up to (1 + boost) times its text score; the bonus halves every half-life
+    @Value("${forum.search.recency-half-life-days:30}")
+    private double recencyHalfLifeDays;
+
+    @Value("${forum.search.recency-boost:0.5}")
+    private double recencyBoost;
+
+    private final Map<ContentType, Shard> shards = new EnumMap<>(ContentType.class);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ForumSearchIndex() {
+        for (ContentType type : ContentType.values()) {
+            shards.put(type, new Shard());
+        }
+    }
+
+    /**
+     * A topic or post as stored in the index. Text is added with {@link #addTitle} and
+     * {@link #addContent} before the entry is put; it is not changed afterwards.
+     */
+    public static class IndexedEntry {
+        private final ContentType contentType;
+        private final Long id;
+        private final Long topicId;
+        private final Long parentPostId;
+        private final Long categoryId;
+        private final boolean isPublic;
+        private final boolean isLocked;
+        private final boolean isPinned;
+        private final boolean isFlagged;
+        private final String title;
+        private final String language;
+        private final String createdBy;
+        private final LocalDateTime createdDate;
+        // Snippet sources, original content first
+        private final List<String> texts = new ArrayList<>();
+        private final Set<String> languages = new HashSet<>();
+        private final Map<String, Integer> termFrequencies = new HashMap<>();
+        private int length;
+
+        private IndexedEntry(ContentType contentType, Long id, Long topicId, Long parentPostId, Long categoryId,
+                             boolean isPublic, boolean isLocked, boolean isPinned, boolean isFlagged,
+                             String title, String language, String createdBy, LocalDateTime createdDate) {
+            this.contentType = contentType;
+            this.id = id;
+            this.topicId = topicId;
+            this.parentPostId = parentPostId;
+            this.categoryId = categoryId;
+            this.isPublic = isPublic;
+            this.isLocked = isLocked;
+            this.isPinned = isPinned;
+            this.isFlagged = isFlagged;
+            this.title = title;
+            this.language = language;
+            this.createdBy = createdBy;
+            this.createdDate = createdDate;
+            if (language != null) {
+                languages.add(language);
+            }
+        }
+
+        public static IndexedEntry topic(Long id, Long categoryId, String title, String language, boolean isPublic,
+                                         boolean isLocked, boolean isPinned, String createdBy, LocalDateTime createdDate) {
+            return new IndexedEntry(ContentType.TOPIC, id, id, null, categoryId, isPublic, isLocked, isPinned, false,
+                    title, language, createdBy, createdDate);
+        }
+
+        public static IndexedEntry post(Long id, Long topicId, Long parentPostId, String language, boolean isFlagged,
+                                        String createdBy, LocalDateTime createdDate) {
+            return new IndexedEntry(ContentType.POST, id, topicId, parentPostId, null, false, false, false, isFlagged,
+                    null, language, createdBy, createdDate);
+        }
+
+        /**
+         * Title text, original or translated; {@code language} is null for the original.
+         */
+        public IndexedEntry addTitle(String text, String language) {
+            add(text, language, TITLE_WEIGHT);
+            return this;
+        }
+
+        /**
+         * Body text, original or translated; {@code language} is null for the original.
+         */
+        public IndexedEntry addContent(String text, String language) {
+            if (add(text, language, 1)) {
+                texts.add(text);
+            }
+            return this;
+        }
+
+        private boolean add(String text, String language, int weight) {
+            List<String> tokens = TextTokenizer.tokenize(text);
+            if (tokens.isEmpty()) {
+                return false;
+            }
+            for (String token : tokens) {
+                termFrequencies.merge(token, weight, Integer::sum);
+            }
+            length += tokens.size() * weight;
+            if (language != null) {
+                languages.add(language);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Optional restrictions on the results; null fields do not filter. Category, visibility,
+     * lock and pin state are those of the topic (the post's topic for posts).
+     */
+    @Getter
+    @Builder
+    public static class Filter {
+        // Whether the caller may see topics that are not public
+        private final boolean includePrivate;
+        private final Long categoryId;
+        // Original language or language of a translation
+        private final String language;
+        private final Boolean isPublic;
+        private final Boolean isLocked;
+        private final Boolean isPinned;
+        private final String createdBy;
+        private final Long topicId;
+        private final Boolean isFlagged;
+        private final Long parentPostId;
+    }
+
+    private static class Shard {
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        private final Map<Long, IndexedEntry> entries = new HashMap<>();
+        private long totalLength;
+    }
+
+    /**
+     * Add or replace an entry.
+     */
+    public void put(IndexedEntry entry) {
+        lock.writeLock().lock();
+        try {
+            Shard shard = shards.get(entry.contentType);
+            removeInternal(shard, entry.id);
+            shard.entries.put(entry.id, entry);
+            shard.totalLength += entry.length;
+            for (Map.Entry<String, Integer> term : entry.termFrequencies.entrySet()) {
+                shard.postings.computeIfAbsent(term.getKey(), t -> new HashMap<>()).put(entry.id, term.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(ContentType contentType, Long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(shards.get(contentType), id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size(ContentType contentType) {
+        lock.readLock().lock();
+        try {
+            return shards.get(contentType).entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * All query terms must match (in the title, content or a translation). Results are ranked
+     * by BM25 with a bonus for recent content.
+     *
+     * @param contentType optional restriction to topics or posts; both are searched when null
+     * @return the requested page of hits plus the total hit count
+     */
+    public SearchResult search(String query, ContentType contentType, Filter filter, int page, int size) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextTokenizer.tokenize(query)));
+        if (terms.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Scored> scored = new ArrayList<>();
+        Map<Long, String> topicTitles = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            Shard topics = shards.get(ContentType.TOPIC);
+            for (ContentType type : ContentType.values()) {
+                if (contentType == null || contentType == type) {
+                    searchShard(shards.get(type), topics, terms, filter, now, scored);
+                }
+            }
+            for (Scored s : scored) {
+                IndexedEntry topic = topics.entries.get(s.entry.topicId);
+                topicTitles.put(s.entry.topicId, topic != null ? topic.title : null);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        scored.sort(Comparator.comparingDouble((Scored s) -> s.score).reversed()
+                .thenComparing(s -> s.entry.id, Comparator.reverseOrder()));
+        int from = Math.min(scored.size(), Math.max(0, page) * size);
+        int to = Math.min(scored.size(), from + size);
+        Pattern highlight = SearchHighlighter.highlightPattern(terms);
+        List<ForumSearchHitDTO> hits = scored.subList(from, to).stream()
+                .map(s -> ForumSearchHitDTO.builder()
+                        .contentType(s.entry.contentType.name())
+                        .id(s.entry.id)
+                        .topicId(s.entry.topicId)
+                        .title(topicTitles.get(s.entry.topicId))
+                        .snippet(SearchHighlighter.snippet(snippetSource(s.entry, highlight), highlight, SNIPPET_RADIUS))
+                        .score(s.score)
+                        .language(s.entry.language)
+                        .createdBy(s.entry.createdBy)
+                        .createdDate(s.entry.createdDate)
+                        .build())
+                .collect(Collectors.toList());
+        return new SearchResult(hits, scored.size());
+    }
+
+    public static class SearchResult {
+        private final List<ForumSearchHitDTO> hits;
+        private final long total;
+
+        public SearchResult(List<ForumSearchHitDTO> hits, long total) {
+            this.hits = hits;
+            this.total = total;
+        }
+
+        public List<ForumSearchHitDTO> getHits() { return hits; }
+        public long getTotal() { return total; }
+    }
+
+    private static class Scored {
+        private final IndexedEntry entry;
+        private final double score;
+
+        Scored(IndexedEntry entry, double score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+
+    private void searchShard(Shard shard, Shard topics, List<String> terms, Filter filter,
+                             LocalDateTime now, List<Scored> out) {
+        List<Map<Long, Integer>> termPostings = new ArrayList<>();
+        for (String term : terms) {
+            Map<Long, Integer> list = shard.postings.get(term);
+            if (list == null) {
+                return;
+            }
+            termPostings.add(list);
+        }
+        // Drive the intersection from the rarest term
+        termPostings.sort(Comparator.comparingInt(Map::size));
+        int totalDocs = Math.max(1, shard.entries.size());
+        double averageLength = Math.max(1.0, (double) shard.totalLength / totalDocs);
+
+        for (Long id : termPostings.get(0).keySet()) {
+            IndexedEntry entry = shard.entries.get(id);
+            if (entry == null || !matches(entry, topics.entries.get(entry.topicId), filter)) {
+                continue;
+            }
+            double lengthNorm = K1 * (1 - B + B * entry.length / averageLength);
+            double score = 0;
+            boolean matchesAll = true;
+            for (Map<Long, Integer> list : termPostings) {
+                Integer tf = list.get(id);
+                if (tf == null) {
+                    matchesAll = false;
+                    break;
+                }
+                double idf = Math.log(1 + (totalDocs - list.size() + 0.5) / (list.size() + 0.5));
+                score += idf * tf * (K1 + 1) / (tf + lengthNorm);
+            }
+            if (matchesAll) {
+                out.add(new Scored(entry, score * recencyFactor(entry.createdDate, now)));
+            }
+        }
+    }
+
+    private static boolean matches(IndexedEntry entry, IndexedEntry topic, Filter filter) {
+        if (topic == null || (!topic.isPublic && !filter.includePrivate)) {
+            return false;
+        }
+        return (filter.categoryId == null || filter.categoryId.equals(topic.categoryId))
+                && (filter.isPublic == null || filter.isPublic == topic.isPublic)
+                && (filter.isLocked == null || filter.isLocked == topic.isLocked)
+                && (filter.isPinned == null || filter.isPinned == topic.isPinned)
+                && (filter.language == null || entry.languages.contains(filter.language))
+                && (filter.createdBy == null || filter.createdBy.equals(entry.createdBy))
+                && (filter.topicId == null || filter.topicId.equals(entry.topicId))
+                && (filter.isFlagged == null || filter.isFlagged == entry.isFlagged)
+                && (filter.parentPostId == null || filter.parentPostId.equals(entry.parentPostId));
+    }
+
+    private double recencyFactor(LocalDateTime createdDate, LocalDateTime now) {
+        if (recencyBoost <= 0 || recencyHalfLifeDays <= 0 || createdDate == null) {
+            return 1.0;
+        }
+        double ageDays = Math.max(0, Duration.between(createdDate, now).toMinutes()) / (24.0 * 60);
+        return 1 + recencyBoost * Math.pow(0.5, ageDays / recencyHalfLifeDays);
+    }
+
+    // First text containing a match (original content before translations); the title when only it matched
+    private static String snippetSource(IndexedEntry entry, Pattern highlight) {
+        for (String text : entry.texts) {
+            if (SearchHighlighter.matches(text, highlight)) {
+                return text;
+            }
+        }
+        return entry.texts.isEmpty() ? Objects.toString(entry.title, "") : entry.texts.get(0);
+    }
+
+    private static void removeInternal(Shard shard, Long id) {
+        IndexedEntry previous = shard.entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        shard.totalLength -= previous.length;
+        for (String term : previous.termFrequencies.keySet()) {
+            Map<Long, Integer> list = shard.postings.get(term);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    shard.postings.remove(term);
+                }
+            }
+        }
+    }
+}
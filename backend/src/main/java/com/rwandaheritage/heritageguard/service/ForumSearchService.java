@@ -0,0 +1,267 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.google.common.collect.Lists;
+import com.rwandaheritage.heritageguard.dto.ForumPostDTO;
+import com.rwandaheritage.heritageguard.dto.ForumSearchHitDTO;
+import com.rwandaheritage.heritageguard.dto.ForumSearchRequest;
+import com.rwandaheritage.heritageguard.dto.ForumSearchResponse;
+import com.rwandaheritage.heritageguard.dto.ForumTopicDTO;
+import com.rwandaheritage.heritageguard.dto.response.PageResponse;
+import com.rwandaheritage.heritageguard.event.ForumContentChangedEvent;
+import com.rwandaheritage.heritageguard.event.ForumContentChangedEvent.ContentType;
+import com.rwandaheritage.heritageguard.mapper.ForumPostMapper;
+import com.rwandaheritage.heritageguard.mapper.ForumTopicMapper;
+import com.rwandaheritage.heritageguard.model.ForumPost;
+import com.rwandaheritage.heritageguard.model.ForumTopic;
+import com.rwandaheritage.heritageguard.model.Translation;
+import com.rwandaheritage.heritageguard.repository.ForumPostRepository;
+import com.rwandaheritage.heritageguard.repository.ForumTopicRepository;
+import com.rwandaheritage.heritageguard.repository.TranslationRepository;
+import com.rwandaheritage.heritageguard.util.PaginationUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked full-text search over forum topics and posts, including their published translations.
+ *
+ * The {@link ForumSearchIndex} is rebuilt from the database at startup and kept current by
+ * {@link ForumContentChangedEvent}s: after a change commits, the affected topics or posts
+ * are re-read and replaced in (or removed from) the index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ForumSearchService {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String TITLE_FIELD = "title";
+
+    private final ForumTopicRepository topicRepository;
+    private final ForumPostRepository postRepository;
+    private final TranslationRepository translationRepository;
+    private final ForumSearchIndex searchIndex;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onForumContentChanged(ForumContentChangedEvent event) {
+        try {
+            for (List<Long> chunk : Lists.partition(event.getContentIds(), BATCH_SIZE)) {
+                if (event.getContentType() == ContentType.TOPIC) {
+                    reindexTopics(chunk);
+                } else {
+                    reindexPosts(chunk);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to index forum {} {}: {}", event.getContentType(), event.getContentIds(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Build the index from all active topics and posts once the application is up.
+     * Posts are read in id order, one batch per query.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        long start = System.currentTimeMillis();
+        for (List<ForumTopic> chunk : Lists.partition(topicRepository.findByIsActiveTrue(), BATCH_SIZE)) {
+            indexTopics(chunk);
+        }
+
+        List<ForumPost> batch;
+        long afterId = 0L;
+        while (!(batch = postRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(afterId,
+                PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            indexPosts(batch);
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        log.info("Forum search index rebuilt in {}ms: {} topics, {} posts", System.currentTimeMillis() - start,
+                searchIndex.size(ContentType.TOPIC), searchIndex.size(ContentType.POST));
+    }
+
+    /**
+     * Ranked search with highlighted snippets. Topics that are not public are only considered
+     * for authenticated callers.
+     *
+     * @param contentType optional {@code TOPIC} or {@code POST} filter
+     */
+    public PageResponse<ForumSearchHitDTO> search(String query, String contentType, ForumSearchRequest request,
+                                                  boolean isAuthenticated) {
+        requireQuery(query);
+        ContentType type = null;
+        if (contentType != null && !contentType.isBlank()) {
+            try {
+                type = ContentType.valueOf(contentType.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid content type: " + contentType);
+            }
+        }
+        int page = Math.max(request.getPage(), 0);
+        int size = PaginationUtil.validatePageSize(request.getSize());
+        ForumSearchIndex.SearchResult result = searchIndex.search(query, type, toFilter(request, isAuthenticated), page, size);
+        return PageResponse.of(result.getHits(), page, size, result.getTotal());
+    }
+
+    /**
+     * Topics matching {@code request.searchTerm}, most relevant first
+     */
+    @Transactional(readOnly = true)
+    public ForumSearchResponse<ForumTopicDTO> searchTopics(ForumSearchRequest request, boolean isAuthenticated) {
+        requireQuery(request.getSearchTerm());
+        int page = Math.max(request.getPage(), 0);
+        int size = PaginationUtil.validatePageSize(request.getSize());
+        ForumSearchIndex.SearchResult result = searchIndex.search(request.getSearchTerm(), ContentType.TOPIC,
+                toFilter(request, isAuthenticated), page, size);
+
+        Map<Long, ForumTopic> topics = topicRepository.findAllById(hitIds(result)).stream()
+                .collect(Collectors.toMap(ForumTopic::getId, Function.identity()));
+        // Keep the ranking; skip anything deleted since it was indexed
+        List<ForumTopicDTO> content = result.getHits().stream()
+                .map(hit -> topics.get(hit.getId()))
+                .filter(topic -> topic != null && topic.getIsActive())
+                .map(ForumTopicMapper::toDTO)
+                .collect(Collectors.toList());
+        return ForumSearchResponse.fromPage(new PageImpl<>(content, PageRequest.of(page, size), result.getTotal()));
+    }
+
+    /**
+     * Posts matching {@code request.searchTerm}, most relevant first
+     */
+    @Transactional(readOnly = true)
+    public ForumSearchResponse<ForumPostDTO> searchPosts(ForumSearchRequest request, boolean isAuthenticated) {
+        requireQuery(request.getSearchTerm());
+        int page = Math.max(request.getPage(), 0);
+        int size = PaginationUtil.validatePageSize(request.getSize());
+        ForumSearchIndex.SearchResult result = searchIndex.search(request.getSearchTerm(), ContentType.POST,
+                toFilter(request, isAuthenticated), page, size);
+
+        Map<Long, ForumPost> posts = postRepository.findAllById(hitIds(result)).stream()
+                .collect(Collectors.toMap(ForumPost::getId, Function.identity()));
+        List<ForumPostDTO> content = result.getHits().stream()
+                .map(hit -> posts.get(hit.getId()))
+                .filter(post -> post != null && post.getIsActive())
+                .map(ForumPostMapper::toDTO)
+                .collect(Collectors.toList());
+        return ForumSearchResponse.fromPage(new PageImpl<>(content, PageRequest.of(page, size), result.getTotal()));
+    }
+
+    private void reindexTopics(List<Long> topicIds) {
+        Map<Long, ForumTopic> topics = topicRepository.findAllById(topicIds).stream()
+                .filter(ForumTopic::getIsActive)
+                .collect(Collectors.toMap(ForumTopic::getId, Function.identity()));
+        for (Long id : topicIds) {
+            if (!topics.containsKey(id)) {
+                searchIndex.remove(ContentType.TOPIC, id);
+            }
+        }
+        indexTopics(topics.values());
+    }
+
+    private void reindexPosts(List<Long> postIds) {
+        Map<Long, ForumPost> posts = postRepository.findAllById(postIds).stream()
+                .filter(ForumPost::getIsActive)
+                .collect(Collectors.toMap(ForumPost::getId, Function.identity()));
+        for (Long id : postIds) {
+            if (!posts.containsKey(id)) {
+                searchIndex.remove(ContentType.POST, id);
+            }
+        }
+        indexPosts(posts.values());
+    }
+
+    private void indexTopics(Collection<ForumTopic> topics) {
+        if (topics.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Translation>> translations = publishedTranslations(Translation.ContentType.FORUM_TOPIC,
+                topics.stream().map(ForumTopic::getId).toList());
+        for (ForumTopic topic : topics) {
+            ForumSearchIndex.IndexedEntry entry = ForumSearchIndex.IndexedEntry.topic(topic.getId(),
+                    topic.getCategory() != null ? topic.getCategory().getId() : null, topic.getTitle(),
+                    topic.getLanguage(), topic.getIsPublic(), topic.getIsLocked(), topic.getIsPinned(),
+                    topic.getCreatedBy(), topic.getCreatedDate());
+            entry.addTitle(topic.getTitle(), null).addContent(topic.getContent(), null);
+            addTranslations(entry, translations.getOrDefault(topic.getId(), List.of()));
+            searchIndex.put(entry);
+        }
+    }
+
+    private void indexPosts(Collection<ForumPost> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Translation>> translations = publishedTranslations(Translation.ContentType.FORUM_POST,
+                posts.stream().map(ForumPost::getId).toList());
+        for (ForumPost post : posts) {
+            ForumSearchIndex.IndexedEntry entry = ForumSearchIndex.IndexedEntry.post(post.getId(),
+                    post.getTopic().getId(), post.getParentPostId(), post.getLanguage(), post.getIsFlagged(),
+                    post.getCreatedBy(), post.getCreatedDate());
+            entry.addContent(post.getContent(), null);
+            addTranslations(entry, translations.getOrDefault(post.getId(), List.of()));
+            searchIndex.put(entry);
+        }
+    }
+
+    private Map<Long, List<Translation>> publishedTranslations(Translation.ContentType contentType, List<Long> contentIds) {
+        return translationRepository.findByContentTypeAndContentIdInAndStatus(contentType, contentIds,
+                        Translation.TranslationStatus.PUBLISHED).stream()
+                .collect(Collectors.groupingBy(Translation::getContentId));
+    }
+
+    private static void addTranslations(ForumSearchIndex.IndexedEntry entry, List<Translation> translations) {
+        for (Translation translation : translations) {
+            if (TITLE_FIELD.equalsIgnoreCase(translation.getFieldName())) {
+                entry.addTitle(translation.getTranslatedText(), translation.getLanguageCode());
+            } else {
+                entry.addContent(translation.getTranslatedText(), translation.getLanguageCode());
+            }
+        }
+    }
+
+    private static List<Long> hitIds(ForumSearchIndex.SearchResult result) {
+        return result.getHits().stream().map(ForumSearchHitDTO::getId).toList();
+    }
+
+    private static ForumSearchIndex.Filter toFilter(ForumSearchRequest request, boolean isAuthenticated) {
+        return ForumSearchIndex.Filter.builder()
+                .includePrivate(isAuthenticated)
+                .categoryId(request.getCategoryId())
+                .language(blankToNull(request.getLanguage()))
+                .isPublic(request.getIsPublic())
+                .isLocked(request.getIsLocked())
+                .isPinned(request.getIsPinned())
+                .createdBy(blankToNull(request.getCreatedBy()))
+                .topicId(request.getTopicId())
+                .isFlagged(request.getIsFlagged())
+                .parentPostId(request.getParentPostId())
+                .build();
+    }
+
+    private static void requireQuery(String query) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query is required");
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value != null && !value.isBlank() ? value : null;
+    }
+}
@@ -6,14 +6,17 @@ import com.rwandaheritage.heritageguard.dto.ForumPostUpdateDTO;
 import com.rwandaheritage.heritageguard.dto.ForumSearchRequest;
 import com.rwandaheritage.heritageguard.dto.ForumSearchResponse;
 import com.rwandaheritage.heritageguard.dto.ForumPostVersionDTO;
+import com.rwandaheritage.heritageguard.event.ForumContentChangedEvent;
+import com.rwandaheritage.heritageguard.event.ForumPostSubmittedEvent;
 import com.rwandaheritage.heritageguard.mapper.ForumTopicMapper;
 import com.rwandaheritage.heritageguard.mapper.ForumPostMapper;
 import com.rwandaheritage.heritageguard.mapper.ForumPostVersionMapper;
+import com.rwandaheritage.heritageguard.model.CommunityReport;
+import com.rwandaheritage.heritageguard.model.ContentSignature;
 import com.rwandaheritage.heritageguard.model.ForumTopic;
 import com.rwandaheritage.heritageguard.model.ForumPost;
 import com.rwandaheritage.heritageguard.model.ForumPostVersion;
 import com.rwandaheritage.heritageguard.model.ForumCategory;
-import com.rwandaheritage.heritageguard.model.ForumLike;
 import com.rwandaheritage.heritageguard.model.ForumLike.LikeType;
 import com.rwandaheritage.heritageguard.repository.ForumTopicRepository;
 import com.rwandaheritage.heritageguard.repository.ForumPostRepository;
@@ -21,16 +24,23 @@ import com.rwandaheritage.heritageguard.repository.ForumCategoryRepository;
 import com.rwandaheritage.heritageguard.repository.ForumLikeRepository;
 import com.rwandaheritage.heritageguard.repository.ForumPostVersionRepository;
 import com.rwandaheritage.heritageguard.service.MultilingualIntegrationService;
+import com.rwandaheritage.heritageguard.util.PaginationUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 import org.springframework.data.domain.Page;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.HashMap;
@@ -42,16 +52,26 @@ import java.util.Objects;
 @Transactional
 public class ForumService {
     
+    // Most ids accepted by one liked-by-me lookup
+    private static final int MAX_LIKE_LOOKUP_IDS = 500;
+    
     private final ForumTopicRepository topicRepository;
     private final ForumPostRepository postRepository;
     private final ForumCategoryRepository categoryRepository;
     private final NotificationService notificationService;
     private final ForumLikeRepository forumLikeRepository;
     private final ForumPostVersionRepository versionRepository;
-    private final ContentFilterService contentFilterService;
     private final MultilingualIntegrationService multilingualService;
     private final ForumTranslationService forumTranslationService;
     private final UserLanguagePreferenceService userLanguagePreferenceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NearDuplicateDetector nearDuplicateDetector;
+    private final ModerationQueueService moderationQueueService;
+    private final ForumSearchService forumSearchService;
+    
+    // Show new posts before their automatic scan has run; when false they stay hidden until it clears them
+    @Value("${forum.moderation.visible-while-pending:true}")
+    private boolean visibleWhilePendingScan;
     
     // ==================== TOPIC OPERATIONS ====================
     
@@ -72,6 +92,8 @@ public class ForumService {
         
         ForumTopic savedTopic = topicRepository.save(topic);
         log.info("Created forum topic with ID: {}", savedTopic.getId());
+        eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.TOPIC, savedTopic.getId()));
+        nearDuplicateDetector.record(ContentSignature.ContentType.TOPIC, savedTopic.getId(), currentUser, signatureText(savedTopic));
         
         return ForumTopicMapper.toDTO(savedTopic);
     }
@@ -190,25 +212,17 @@ public class ForumService {
     }
     
     /**
-     * Search topics
+     * Search topics (the most relevant ones, from the search index)
      */
     @Transactional(readOnly = true)
     public List<ForumTopicDTO> searchTopics(String searchTerm, boolean isAuthenticated) {
         log.debug("Searching topics with term: {}", searchTerm);
         
-        List<ForumTopic> topics = topicRepository.searchByTitleOrContentContainingIgnoreCase(searchTerm);
-        
-        // Apply access control
-        if (!isAuthenticated) {
-            List<ForumTopic> publicTopics = topics.stream()
-                    .filter(topic -> topic.getIsPublic())
-                    .collect(Collectors.toList());
-            topics = publicTopics;
-        }
-        
-        return topics.stream()
-                .map(ForumTopicMapper::toDTO)
-                .collect(Collectors.toList());
+        ForumSearchRequest request = ForumSearchRequest.builder()
+                .searchTerm(searchTerm)
+                .size(PaginationUtil.MAX_PAGE_SIZE)
+                .build();
+        return forumSearchService.searchTopics(request, isAuthenticated).getContent();
     }
     
     /**
@@ -237,6 +251,8 @@ public class ForumService {
         
         ForumTopic updatedTopic = topicRepository.save(existingTopic);
         log.info("Updated topic with ID: {} by user: {}", updatedTopic.getId(), currentUser);
+        eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.TOPIC, updatedTopic.getId()));
+        nearDuplicateDetector.record(ContentSignature.ContentType.TOPIC, updatedTopic.getId(), updatedTopic.getCreatedBy(), signatureText(updatedTopic));
         
         return ForumTopicMapper.toDTO(updatedTopic);
     }
@@ -261,10 +277,16 @@ public class ForumService {
         topic.setIsActive(false);
         topic.setUpdatedBy(currentUser);
         topicRepository.save(topic);
+        moderationQueueService.remove(CommunityReport.ContentType.TOPIC, id);
+        eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.TOPIC, id));
         
         log.info("Deleted topic with ID: {} by user: {}", id, currentUser);
     }
     
+    private static String signatureText(ForumTopic topic) {
+        return topic.getContent() != null ? topic.getTitle() + "\n" + topic.getContent() : topic.getTitle();
+    }
+    
     // ==================== POST OPERATIONS ====================
     
     /**
@@ -286,10 +308,13 @@ public class ForumService {
         }
         
         // Validate parent post if it's a reply
+        ForumPost parentPost = null;
         if (postDTO.getParentPostId() != null) {
-            Optional<ForumPost> parentPost = postRepository.findById(postDTO.getParentPostId());
-            if (parentPost.isEmpty() || !parentPost.get().getIsActive()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Parent post not found");
+            parentPost = postRepository.findById(postDTO.getParentPostId())
+                .filter(ForumPost::getIsActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Parent post not found"));
+            if (!parentPost.getTopic().getId().equals(topic.getId())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parent post belongs to another topic");
             }
         }
         
@@ -298,57 +323,16 @@ public class ForumService {
         post.setCreatedBy(currentUser);
         post.setUpdatedBy(currentUser);
         
-        ForumPost savedPost = postRepository.save(post);
-        log.info("Created forum post with ID: {}", savedPost.getId());
+        // Content scan and notifications run in the moderation pipeline once this commits
+        post.setModerationStatus(ForumPost.ModerationStatus.PENDING_SCAN);
+        post.setIsActive(visibleWhilePendingScan);
         
-        // === AUTOMATED MODERATION LOGIC ===
-        ContentFilterService.ModerationRecommendation recommendation =
-            contentFilterService.getModerationRecommendation(postDTO.getContent());
-        if (recommendation.getAction() == ContentFilterService.ModerationAction.REJECT) {
-            // Auto-delete inappropriate content
-            savedPost.setIsActive(false);
-            savedPost.setUpdatedBy("SYSTEM");
-            postRepository.save(savedPost);
-            log.info("[AUTO-MODERATION] Auto-deleted inappropriate post: {} (reason: {})", savedPost.getId(), recommendation.getReason());
-            
-            // Notify user about auto-deletion
-            notificationService.createNotification(
-                currentUser,
-                "content_deleted",
-                "Your post was automatically removed: " + recommendation.getReason(),
-                "/forums/topics/" + topic.getId(),
-                "SYSTEM"
-            );
-        } else if (recommendation.getAction() == ContentFilterService.ModerationAction.FLAG) {
-            // Auto-flag suspicious content
-            savedPost.setIsFlagged(true);
-            savedPost.setFlaggedBy("SYSTEM");
-            savedPost.setFlagReason(recommendation.getReason());
-            savedPost.setUpdatedBy("SYSTEM");
-            postRepository.save(savedPost);
-            log.info("[AUTO-MODERATION] Auto-flagged suspicious post: {} (reason: {})", savedPost.getId(), recommendation.getReason());
-            
-            // Notify user about auto-flagging
-            notificationService.createNotification(
-                currentUser,
-                "content_flagged",
-                "Your post was automatically flagged for review: " + recommendation.getReason(),
-                "/forums/topics/" + topic.getId(),
-                "SYSTEM"
-            );
-        }
-        // === END AUTOMATED MODERATION LOGIC ===
+        post.placeInThread(parentPost);
         
-        // Create notification for topic creator if it's not their own post
-        if (!topic.getCreatedBy().equals(currentUser)) {
-            notificationService.createNotification(
-                topic.getCreatedBy(),
-                "reply",
-                "Someone replied to your topic: " + topic.getTitle(),
-                "/forums/topics/" + topic.getId(),
-                currentUser
-            );
-        }
+        ForumPost savedPost = postRepository.save(post);
+        log.info("Created forum post with ID: {}", savedPost.getId());
+        eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.POST, savedPost.getId()));
+        eventPublisher.publishEvent(new ForumPostSubmittedEvent(this, savedPost.getId()));
         
         return ForumPostMapper.toDTO(savedPost);
     }
@@ -433,6 +417,8 @@ public class ForumService {
         
         ForumPost updatedPost = postRepository.save(existingPost);
         log.info("Updated post with ID: {} by user: {}", updatedPost.getId(), currentUser);
+        eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.POST, updatedPost.getId()));
+        nearDuplicateDetector.record(ContentSignature.ContentType.POST, updatedPost.getId(), updatedPost.getCreatedBy(), updatedPost.getContent());
         
         // Send notification to original creator if modified by someone else
         if (!existingPost.getCreatedBy().equals(currentUser)) {
@@ -470,8 +456,11 @@ public class ForumService {
         }
         
         post.setIsActive(false);
+        post.skipPendingScan();
         post.setUpdatedBy(currentUser);
         postRepository.save(post);
+        moderationQueueService.remove(CommunityReport.ContentType.POST, id);
+        eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.POST, id));
         
         log.info("Deleted post with ID: {} by user: {}", id, currentUser);
     }
@@ -495,7 +484,9 @@ public class ForumService {
         post.setUpdatedBy(currentUser);
         
         ForumPost updatedPost = postRepository.save(post);
+        moderationQueueService.enqueueFlag(CommunityReport.ContentType.POST, id, ModerationQueueService.SEVERITY_MEDIUM, reason);
         log.info("Flagged post with ID: {}", updatedPost.getId());
+        eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.POST, id));
         
         // Create notification for post creator
         notificationService.createNotification(
@@ -593,28 +584,25 @@ public class ForumService {
 
     // ==================== LIKES ====================
 
-    /** Like a topic */
+    /** Like a topic; the counter only moves when the like is new */
     public void likeTopic(Long topicId, String userId) {
-        if (!forumLikeRepository.existsByUserIdAndLikeTypeAndTargetId(userId, LikeType.TOPIC, topicId)) {
-            ForumLike like = ForumLike.builder()
-                    .userId(userId)
-                    .likeType(LikeType.TOPIC)
-                    .targetId(topicId)
-                    .build();
-            forumLikeRepository.save(like);
+        if (forumLikeRepository.insertIfAbsent(userId, LikeType.TOPIC.name(), topicId, LocalDateTime.now()) > 0
+                && topicRepository.incrementLikeCount(topicId) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Topic not found");
         }
     }
 
     /** Unlike a topic */
     public void unlikeTopic(Long topicId, String userId) {
-        forumLikeRepository.findByUserIdAndLikeTypeAndTargetId(userId, LikeType.TOPIC, topicId)
-                .ifPresent(forumLikeRepository::delete);
+        if (forumLikeRepository.deleteLike(userId, LikeType.TOPIC, topicId) > 0) {
+            topicRepository.decrementLikeCount(topicId);
+        }
     }
 
     /** Get topic like count */
     @Transactional(readOnly = true)
     public long getTopicLikeCount(Long topicId) {
-        return forumLikeRepository.countByLikeTypeAndTargetId(LikeType.TOPIC, topicId);
+        return topicRepository.findLikeCountById(topicId).orElse(0L);
     }
 
     /** Check if user liked topic */
@@ -623,6 +611,12 @@ public class ForumService {
         return forumLikeRepository.existsByUserIdAndLikeTypeAndTargetId(userId, LikeType.TOPIC, topicId);
     }
 
+    /** Ids among the given topics that the user liked, in one query */
+    @Transactional(readOnly = true)
+    public Set<Long> getLikedTopicIds(Collection<Long> topicIds, String userId) {
+        return findLikedIds(LikeType.TOPIC, topicIds, userId);
+    }
+
     /**
      * Pin/Unpin a topic (moderation feature)
      */
@@ -641,6 +635,7 @@ public class ForumService {
         
         ForumTopic updatedTopic = topicRepository.save(topic);
         log.info("{} topic with ID: {} by user: {}", pinned ? "Pinned" : "Unpinned", updatedTopic.getId(), currentUser);
+        eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.TOPIC, id));
         
         return ForumTopicMapper.toDTO(updatedTopic);
     }
@@ -663,32 +658,30 @@ public class ForumService {
         
         ForumTopic updatedTopic = topicRepository.save(topic);
         log.info("{} topic with ID: {} by user: {}", locked ? "Locked" : "Unlocked", updatedTopic.getId(), currentUser);
+        eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.TOPIC, id));
         
         return ForumTopicMapper.toDTO(updatedTopic);
     }
 
-    /** Like a post */
+    /** Like a post; the counter only moves when the like is new */
     public void likePost(Long postId, String userId) {
-        if (!forumLikeRepository.existsByUserIdAndLikeTypeAndTargetId(userId, LikeType.POST, postId)) {
-            ForumLike like = ForumLike.builder()
-                    .userId(userId)
-                    .likeType(LikeType.POST)
-                    .targetId(postId)
-                    .build();
-            forumLikeRepository.save(like);
+        if (forumLikeRepository.insertIfAbsent(userId, LikeType.POST.name(), postId, LocalDateTime.now()) > 0
+                && postRepository.incrementLikeCount(postId) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found");
         }
     }
 
     /** Unlike a post */
     public void unlikePost(Long postId, String userId) {
-        forumLikeRepository.findByUserIdAndLikeTypeAndTargetId(userId, LikeType.POST, postId)
-                .ifPresent(forumLikeRepository::delete);
+        if (forumLikeRepository.deleteLike(userId, LikeType.POST, postId) > 0) {
+            postRepository.decrementLikeCount(postId);
+        }
     }
 
     /** Get post like count */
     @Transactional(readOnly = true)
     public long getPostLikeCount(Long postId) {
-        return forumLikeRepository.countByLikeTypeAndTargetId(LikeType.POST, postId);
+        return postRepository.findLikeCountById(postId).orElse(0L);
     }
 
     /** Check if user liked post */
@@ -697,6 +690,23 @@ public class ForumService {
         return forumLikeRepository.existsByUserIdAndLikeTypeAndTargetId(userId, LikeType.POST, postId);
     }
 
+    /** Ids among the given posts that the user liked, in one query */
+    @Transactional(readOnly = true)
+    public Set<Long> getLikedPostIds(Collection<Long> postIds, String userId) {
+        return findLikedIds(LikeType.POST, postIds, userId);
+    }
+
+    private Set<Long> findLikedIds(LikeType likeType, Collection<Long> targetIds, String userId) {
+        if (targetIds == null || targetIds.isEmpty()) {
+            return Set.of();
+        }
+        if (targetIds.size() > MAX_LIKE_LOOKUP_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_LIKE_LOOKUP_IDS + " ids can be checked at once");
+        }
+        return new HashSet<>(forumLikeRepository.findLikedTargetIds(userId, likeType, new HashSet<>(targetIds)));
+    }
+
     // ==================== ADVANCED SEARCH ====================
 
     /**
@@ -706,11 +716,16 @@ public class ForumService {
     public ForumSearchResponse<ForumTopicDTO> advancedSearchTopics(ForumSearchRequest request, boolean isAuthenticated) {
         log.debug("Advanced search for topics with filters: {}", request);
         
+        // Text queries are answered by the search index, ranked by relevance
+        if (request.getSearchTerm() != null && !request.getSearchTerm().isBlank()) {
+            return forumSearchService.searchTopics(request, isAuthenticated);
+        }
+        
         Page<ForumTopic> topicsPage;
         
         if (isAuthenticated) {
             topicsPage = topicRepository.advancedSearch(
-                request.getSearchTerm(),
+                null, // search term: text queries go through the search index
                 request.getCategoryId(),
                 request.getLanguage(),
                 request.getIsPublic(),
@@ -721,7 +736,7 @@ public class ForumService {
             );
         } else {
             topicsPage = topicRepository.advancedSearchPublic(
-                request.getSearchTerm(),
+                null, // search term: text queries go through the search index
                 request.getCategoryId(),
                 request.getLanguage(),
                 request.getIsPinned(),
@@ -820,11 +835,16 @@ public class ForumService {
     public ForumSearchResponse<ForumPostDTO> advancedSearchPosts(ForumSearchRequest request, boolean isAuthenticated) {
         log.debug("Advanced search for posts with filters: {}", request);
         
+        // Text queries are answered by the search index, ranked by relevance
+        if (request.getSearchTerm() != null && !request.getSearchTerm().isBlank()) {
+            return forumSearchService.searchPosts(request, isAuthenticated);
+        }
+        
         Page<ForumPost> postsPage;
         
         if (isAuthenticated) {
             postsPage = postRepository.advancedSearch(
-                request.getSearchTerm(),
+                null, // search term: text queries go through the search index
                 request.getTopicId(),
                 request.getLanguage(),
                 request.getIsFlagged(),
@@ -834,7 +854,7 @@ public class ForumService {
             );
         } else {
             postsPage = postRepository.advancedSearchPublic(
-                request.getSearchTerm(),
+                null, // search term: text queries go through the search index
                 request.getTopicId(),
                 request.getLanguage(),
                 request.getIsFlagged(),
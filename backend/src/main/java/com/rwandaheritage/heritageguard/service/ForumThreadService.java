@@ -0,0 +1,143 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.rwandaheritage.heritageguard.dto.ForumThreadNodeDTO;
+import com.rwandaheritage.heritageguard.dto.ForumThreadPageDTO;
+import com.rwandaheritage.heritageguard.mapper.ForumPostMapper;
+import com.rwandaheritage.heritageguard.model.ForumPost;
+import com.rwandaheritage.heritageguard.model.ForumTopic;
+import com.rwandaheritage.heritageguard.repository.ForumLikeRepository;
+import com.rwandaheritage.heritageguard.repository.ForumPostRepository;
+import com.rwandaheritage.heritageguard.repository.ForumTopicRepository;
+import com.rwandaheritage.heritageguard.util.PaginationUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads a topic's posts as reply trees, one page of top-level threads at a time.
+ *
+ * Each post stores its thread root and a materialized path, so all posts of a page of
+ * threads come from one query already in tree order and the tree is built in a single pass.
+ * Like counts are stored on the posts; the posts the reader liked come from one more query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ForumThreadService {
+
+    private final ForumPostRepository postRepository;
+    private final ForumTopicRepository topicRepository;
+    private final ForumLikeRepository likeRepository;
+
+    /**
+     * Give posts created before threads were stored their thread position
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void assignMissingThreadPaths() {
+        if (postRepository.existsByAncestorPathIsNull()) {
+            int updated = postRepository.assignMissingThreadPaths();
+            log.info("Assigned thread paths to {} forum posts", updated);
+        }
+    }
+
+    /**
+     * Threads of a topic, oldest first, starting after the thread whose root post is {@code afterId}.
+     * {@code currentUser} is null for anonymous readers.
+     */
+    @Transactional(readOnly = true)
+    public ForumThreadPageDTO getThreads(Long topicId, Long afterId, Integer size, boolean isAuthenticated,
+                                         String currentUser) {
+        log.debug("Fetching threads for topic: {} after: {}", topicId, afterId);
+
+        ForumTopic topic = topicRepository.findById(topicId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Topic not found"));
+
+        if (!topic.getIsActive()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Topic not found");
+        }
+
+        if (!topic.getIsPublic() && !isAuthenticated) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied");
+        }
+
+        int pageSize = PaginationUtil.validatePageSize(size);
+        // One extra root tells whether another page follows
+        List<Long> rootIds = postRepository.findThreadRootIds(topicId, afterId != null ? afterId : 0L,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rootIds.size() > pageSize;
+        if (hasMore) {
+            rootIds = rootIds.subList(0, pageSize);
+        }
+
+        List<ForumThreadNodeDTO> threads = List.of();
+        if (!rootIds.isEmpty()) {
+            Set<Long> likedPostIds = currentUser != null
+                    ? new HashSet<>(likeRepository.findLikedPostIdsInThreads(currentUser, rootIds))
+                    : Set.of();
+            threads = assemble(postRepository.findThreadsInPathOrder(rootIds), likedPostIds);
+        }
+
+        return ForumThreadPageDTO.builder()
+                .topicId(topicId)
+                .threads(threads)
+                .nextCursor(hasMore ? rootIds.get(rootIds.size() - 1) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Build the reply trees from posts in path order. A reply whose parent is hidden is shown
+     * under its nearest visible ancestor; one with no visible ancestor at all (its thread's
+     * root was hidden or deleted) heads a thread of its own, in its original thread's place.
+     */
+    private List<ForumThreadNodeDTO> assemble(List<ForumPost> posts, Set<Long> likedPostIds) {
+        List<ForumThreadNodeDTO> threads = new ArrayList<>();
+        Map<Long, ForumThreadNodeDTO> nodes = new HashMap<>(posts.size() * 2);
+        for (ForumPost post : posts) {
+            ForumThreadNodeDTO node = ForumThreadNodeDTO.builder()
+                    .post(ForumPostMapper.toDTO(post))
+                    .likeCount(post.getLikeCount())
+                    .likedByMe(likedPostIds.contains(post.getId()))
+                    .build();
+            nodes.put(post.getId(), node);
+
+            ForumThreadNodeDTO parent = post.getParentPostId() != null ? findParent(post, nodes) : null;
+            if (parent != null) {
+                parent.getReplies().add(node);
+                parent.setReplyCount(parent.getReplyCount() + 1);
+            } else {
+                threads.add(node);
+            }
+        }
+        return threads;
+    }
+
+    private static ForumThreadNodeDTO findParent(ForumPost post, Map<Long, ForumThreadNodeDTO> nodes) {
+        ForumThreadNodeDTO parent = nodes.get(post.getParentPostId());
+        if (parent != null) {
+            return parent;
+        }
+        // Walk up the path of ancestors, nearest last
+        String path = post.getAncestorPath();
+        int end = path.length() - ForumPost.PATH_SEGMENT_LENGTH;
+        while (parent == null && end >= ForumPost.PATH_SEGMENT_LENGTH) {
+            long ancestorId = Long.parseLong(path.substring(end - ForumPost.PATH_SEGMENT_LENGTH, end - 1));
+            parent = nodes.get(ancestorId);
+            end -= ForumPost.PATH_SEGMENT_LENGTH;
+        }
+        return parent;
+    }
+}
@@ -1,11 +1,13 @@
 package com.rwandaheritage.heritageguard.service;
 
+import com.rwandaheritage.heritageguard.event.ForumContentChangedEvent;
 import com.rwandaheritage.heritageguard.model.Translation;
 import com.rwandaheritage.heritageguard.model.User;
 import com.rwandaheritage.heritageguard.repository.TranslationRepository;
 import com.rwandaheritage.heritageguard.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -27,6 +29,7 @@ public class ForumTranslationService {
     private final TranslationRepository translationRepository;
     private final UserRepository userRepository;
     private final MultilingualIntegrationService multilingualService;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Create translation for forum content
@@ -62,6 +65,7 @@ public class ForumTranslationService {
         
         Translation savedTranslation = translationRepository.save(translation);
         log.info("Created translation with ID: {}", savedTranslation.getId());
+        publishForumContentChanged(savedTranslation);
         
         return savedTranslation;
     }
@@ -85,6 +89,7 @@ public class ForumTranslationService {
         
         Translation updatedTranslation = translationRepository.save(translation);
         log.info("Updated translation with ID: {}", updatedTranslation.getId());
+        publishForumContentChanged(updatedTranslation);
         
         return updatedTranslation;
     }
@@ -100,6 +105,7 @@ public class ForumTranslationService {
         
         translationRepository.delete(translation);
         log.info("Deleted translation with ID: {}", translationId);
+        publishForumContentChanged(translation);
     }
     
     /**
@@ -218,6 +224,13 @@ public class ForumTranslationService {
             Translation.ContentType.FORUM_CATEGORY, categoryId);
     }
     
+    /**
+     * Translations of topics and posts are searchable; refresh the translated item in the search index
+     */
+    private void publishForumContentChanged(Translation translation) {
+        ForumContentChangedEvent.ofTranslation(this, translation).ifPresent(eventPublisher::publishEvent);
+    }
+    
     /**
      * Validate translation input parameters
      */
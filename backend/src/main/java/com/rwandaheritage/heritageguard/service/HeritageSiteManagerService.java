@@ -11,6 +11,7 @@ import com.rwandaheritage.heritageguard.model.UserStatus;
 import com.rwandaheritage.heritageguard.repository.HeritageSiteManagerRepository;
 import com.rwandaheritage.heritageguard.repository.HeritageSiteRepository;
 import com.rwandaheritage.heritageguard.repository.UserRepository;
+import com.rwandaheritage.heritageguard.security.SiteAssignmentIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
@@ -34,6 +35,7 @@ public class HeritageSiteManagerService {
     private final HeritageSiteManagerRepository heritageSiteManagerRepository;
     private final HeritageSiteRepository heritageSiteRepository;
     private final UserRepository userRepository;
+    private final SiteAssignmentIndex siteAssignmentIndex;
     
     /**
      * Assign a manager to a heritage site (System Admin only)
@@ -85,6 +87,7 @@ public class HeritageSiteManagerService {
         assignment.setNotes(dto.getNotes());
         
         HeritageSiteManager savedAssignment = heritageSiteManagerRepository.save(assignment);
+        siteAssignmentIndex.evict(manager.getId());
         
         // The assignedManagerId will be automatically synchronized via JPA lifecycle events
         // No need to manually set it here - the @PostPersist/@PostUpdate will handle it
@@ -108,6 +111,7 @@ public class HeritageSiteManagerService {
         
         // Physically delete the assignment to avoid unique constraint issues
         heritageSiteManagerRepository.delete(assignment);
+        siteAssignmentIndex.evict(assignment.getUser().getId());
         
         // The assignedManagerId will be automatically synchronized via JPA lifecycle events
         // No need to manually clear it here - the @PostUpdate will handle it
@@ -378,6 +382,7 @@ public class HeritageSiteManagerService {
         
         // Physically delete all assignments to avoid unique constraint issues
         heritageSiteManagerRepository.deleteAll(assignments);
+        siteAssignmentIndex.evict(userId);
         log.info("Successfully deleted {} manager assignments for user {}", assignments.size(), userId);
     }
 
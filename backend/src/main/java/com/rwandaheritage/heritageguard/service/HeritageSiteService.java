@@ -6,7 +6,6 @@ import com.rwandaheritage.heritageguard.repository.HeritageSiteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.http.HttpStatus;
@@ -16,6 +15,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.HashMap;
@@ -37,6 +37,9 @@ import com.rwandaheritage.heritageguard.repository.ArtifactRepository;
 
 
 import com.rwandaheritage.heritageguard.repository.ArtifactMediaRepository;
+import com.rwandaheritage.heritageguard.security.AccessContext;
+import com.rwandaheritage.heritageguard.security.AccessContextProvider;
+import com.rwandaheritage.heritageguard.security.SiteAssignmentIndex;
 import java.util.stream.Collectors;
 
 @Service
@@ -51,6 +54,8 @@ public class HeritageSiteService {
     private final ArtifactRepository artifactRepository;
 
     private final ArtifactMediaRepository artifactMediaRepository;
+    private final AccessContextProvider accessContextProvider;
+    private final SiteAssignmentIndex siteAssignmentIndex;
 
     @Autowired
     public HeritageSiteService(HeritageSiteRepository heritageSiteRepository,
@@ -60,7 +65,9 @@ public class HeritageSiteService {
                                HeritageSiteManagerRepository heritageSiteManagerRepository,
                                UserService userService,
                                ArtifactRepository artifactRepository,
-                               ArtifactMediaRepository artifactMediaRepository) {
+                               ArtifactMediaRepository artifactMediaRepository,
+                               AccessContextProvider accessContextProvider,
+                               SiteAssignmentIndex siteAssignmentIndex) {
         this.heritageSiteRepository = heritageSiteRepository;
         this.siteStatusHistoryRepository = siteStatusHistoryRepository;
         this.heritageSiteManagerService = heritageSiteManagerService;
@@ -69,6 +76,8 @@ public class HeritageSiteService {
         this.userService = userService;
         this.artifactRepository = artifactRepository;
         this.artifactMediaRepository = artifactMediaRepository;
+        this.accessContextProvider = accessContextProvider;
+        this.siteAssignmentIndex = siteAssignmentIndex;
     }
 
     @Transactional
@@ -742,14 +751,12 @@ public class HeritageSiteService {
             } else if (user.getRole() == Role.HERITAGE_MANAGER) {
                 log.info("User {} is heritage manager, checking assigned sites", username);
                 // Heritage manager sees only assigned sites
-                List<HeritageSiteManager> assignments = heritageSiteManagerRepository
-                    .findByUserIdAndStatus(user.getId(), HeritageSiteManager.ManagerStatus.ACTIVE);
+                Set<Long> assignedSiteIds = siteAssignmentIndex.getAssignedSiteIds(user.getId());
                 
-                log.info("Found {} manager assignments for user {}", assignments.size(), username);
+                log.info("Found {} manager assignments for user {}", assignedSiteIds.size(), username);
                 
-                List<HeritageSite> assignedSites = assignments.stream()
-                    .map(HeritageSiteManager::getHeritageSite)
-                    .filter(site -> site != null && site.isActive())
+                List<HeritageSite> assignedSites = heritageSiteRepository.findAllById(assignedSiteIds).stream()
+                    .filter(HeritageSite::isActive)
                     .collect(Collectors.toList());
                 
                 log.info("Returning {} active assigned sites for heritage manager {}", assignedSites.size(), username);
@@ -811,17 +818,7 @@ public class HeritageSiteService {
     }
 
     private boolean isPublicUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated() || authentication.getPrincipal().equals("anonymousUser")) {
-            return true;
-        }
-        for (GrantedAuthority authority : authentication.getAuthorities()) {
-            String role = authority.getAuthority();
-            if (role.equals("ROLE_COMMUNITY_MEMBER") || role.equals("ROLE_SYSTEM_ADMINISTRATOR") || role.equals("ROLE_HERITAGE_MANAGER") || role.equals("ROLE_CONTENT_MANAGER")) {
-                return false;
-            }
-        }
-        return true;
+        return !accessContextProvider.current().isMember();
     }
 
 
@@ -1036,14 +1033,17 @@ public class HeritageSiteService {
      * @return true if user has permission, false otherwise
      */
     public boolean hasPermissionToManageSite(Long siteId, Long userId) {
+        AccessContext access = accessContextProvider.current();
         // System administrators have access to all sites
-        if (isSystemAdministrator()) {
+        if (access.isSystemAdministrator()) {
             return true;
         }
         
         // Heritage managers can only access their assigned sites
-        if (isHeritageManager()) {
-            return heritageSiteManagerService.isAssignedManager(userId, siteId);
+        if (access.isHeritageManager()) {
+            return userId != null && userId.equals(access.getUserId())
+                    ? access.isAssignedToSite(siteId)
+                    : siteAssignmentIndex.isAssigned(userId, siteId);
         }
         
         // Other roles cannot manage sites
@@ -1057,33 +1057,7 @@ public class HeritageSiteService {
      * @return true if user is assigned to the site, false otherwise
      */
     public boolean isUserAssignedToSite(Long siteId, Long userId) {
-        return heritageSiteManagerService.isAssignedManager(userId, siteId);
-    }
-    
-    /**
-     * Check if current user is a system administrator
-     */
-    private boolean isSystemAdministrator() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return false;
-        }
-        
-        return authentication.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ROLE_SYSTEM_ADMINISTRATOR"));
-    }
-    
-    /**
-     * Check if current user is a heritage manager
-     */
-    private boolean isHeritageManager() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return false;
-        }
-        
-        return authentication.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ROLE_HERITAGE_MANAGER"));
+        return siteAssignmentIndex.isAssigned(userId, siteId);
     }
 
         /**
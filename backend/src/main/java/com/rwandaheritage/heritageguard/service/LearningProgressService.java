@@ -6,8 +6,10 @@ import com.rwandaheritage.heritageguard.model.LearningProgress;
 import com.rwandaheritage.heritageguard.repository.EducationalArticleRepository;
 import com.rwandaheritage.heritageguard.repository.LearningProgressRepository;
 import com.rwandaheritage.heritageguard.repository.QuizRepository;
+import com.rwandaheritage.heritageguard.util.PaginationUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -23,6 +25,8 @@ public class LearningProgressService {
     private final EducationalArticleRepository articleRepository;
     private final QuizRepository quizRepository;
 
+    private static final int STREAK_WINDOW_DAYS = 32;
+
     /**
      * Create or update learning progress
      */
@@ -39,9 +43,13 @@ public class LearningProgressService {
         progressRepository.deleteById(id);
     }
 
-    public List<LearningProgressDTO> getAllProgress() {
-        log.debug("Fetching all learning progress");
-        return progressRepository.findAll().stream()
+    /**
+     * Learning progress entries, newest first; pass the id of the last entry received as beforeId for the next page
+     */
+    public List<LearningProgressDTO> getAllProgress(Long beforeId, Integer size) {
+        log.debug("Fetching learning progress before {}", beforeId);
+        return progressRepository.findByIdLessThanOrderByIdDesc(beforeId != null ? beforeId : Long.MAX_VALUE,
+                        PageRequest.of(0, PaginationUtil.validatePageSize(size))).stream()
                 .map(LearningProgressMapper::toDTO)
                 .collect(Collectors.toList());
     }
@@ -69,21 +77,11 @@ public class LearningProgressService {
 
     public Map<String, Object> getProgressStatistics() {
         log.debug("Fetching learning progress statistics");
-        List<LearningProgress> all = progressRepository.findAll();
 
-        long articlesRead = all.stream()
-                .filter(p -> p.getArticleId() != null && p.getStatus() == LearningProgress.ProgressStatus.COMPLETED)
-                .count();
-
-        long quizzesCompleted = all.stream()
-                .filter(p -> p.getQuizId() != null && p.getStatus() == LearningProgress.ProgressStatus.COMPLETED)
-                .count();
-
-        double averageScore = all.stream()
-                .filter(p -> p.getQuizId() != null && p.getCompletionPercentage() != null)
-                .mapToDouble(LearningProgress::getCompletionPercentage)
-                .average()
-                .orElse(0);
+        long articlesRead = progressRepository.countCompletedArticles();
+        long quizzesCompleted = progressRepository.countCompletedQuizzes();
+        Double averageQuizScore = progressRepository.averageQuizScore();
+        double averageScore = averageQuizScore != null ? averageQuizScore : 0;
 
         long totalArticles = articleRepository.count();
         long totalQuizzes = quizRepository.count();
@@ -91,16 +89,7 @@ public class LearningProgressService {
         double articlesProgress = totalArticles == 0 ? 0 : (double) articlesRead * 100 / totalArticles;
         double quizzesProgress = totalQuizzes == 0 ? 0 : (double) quizzesCompleted * 100 / totalQuizzes;
 
-        Set<LocalDate> activityDates = all.stream()
-                .filter(p -> p.getLastAccessedDate() != null)
-                .map(p -> p.getLastAccessedDate().toLocalDate())
-                .collect(Collectors.toSet());
-
-        long streak = 0;
-        LocalDate today = LocalDate.now();
-        while (activityDates.contains(today.minusDays(streak))) {
-            streak++;
-        }
+        long streak = learningStreak(LocalDate.now());
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("articlesRead", articlesRead);
@@ -114,6 +103,26 @@ public class LearningProgressService {
         return stats;
     }
 
+    /**
+     * Consecutive days up to today with activity. Only the days in a window are loaded; the
+     * window doubles while the streak fills it.
+     */
+    private long learningStreak(LocalDate today) {
+        int window = STREAK_WINDOW_DAYS;
+        while (true) {
+            Set<LocalDate> activityDates = new HashSet<>(
+                    progressRepository.findActivityDatesSince(today.minusDays(window - 1).atStartOfDay()));
+            long streak = 0;
+            while (activityDates.contains(today.minusDays(streak))) {
+                streak++;
+            }
+            if (streak < window) {
+                return streak;
+            }
+            window *= 2;
+        }
+    }
+
     public List<Map<String, Object>> getRecentActivity() {
         log.debug("Fetching recent learning activity");
         return progressRepository.findTop10ByOrderByLastAccessedDateDesc().stream()
@@ -0,0 +1,117 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.rwandaheritage.heritageguard.model.User;
+import com.rwandaheritage.heritageguard.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login bookkeeping through narrow UPDATE statements instead of saving the whole user row.
+ *
+ * Failed attempts are counted per user straight in the database as one atomic update, for
+ * reporting only. Throttling is keyed on username plus client IP, so failures from one
+ * client block only that client: after security.login.max-failed-attempts failures it may
+ * not log in to the account for {@link User#LOCKOUT_MINUTES} minutes after the last one,
+ * and nobody can lock another user out of their account. The counts are per node, like the
+ * per-node rate limiter. Last-login timestamps are only informational, so they
+ * are coalesced in memory (latest value per user) and flushed periodically.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoginBookkeepingService {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${security.login.max-failed-attempts:5}")
+    private int maxFailedAttempts;
+
+    private final Map<Long, LocalDateTime> pendingLastLogins = new ConcurrentHashMap<>();
+
+    // "username|ip" -> failed logins; every failure restarts the lockout window
+    private final Cache<String, Integer> failuresByClient = CacheBuilder.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(User.LOCKOUT_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Whether this client made too many failed attempts on the account recently.
+     */
+    public boolean isLockedOut(String username, String clientIp) {
+        Integer failures = failuresByClient.getIfPresent(clientKey(username, clientIp));
+        return failures != null && failures >= maxFailedAttempts;
+    }
+
+    /**
+     * Count a failed login. Runs in its own transaction because the login transaction
+     * rolls back when authentication fails.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordFailure(String username, String clientIp) {
+        failuresByClient.asMap().merge(clientKey(username, clientIp), 1, Integer::sum);
+        int updated = userRepository.recordFailedLogin(username);
+        if (updated > 0) {
+            log.debug("Recorded failed login for user: {}", username);
+        }
+    }
+
+    /**
+     * Clear failed attempts (only when there are any) and schedule the last-login update.
+     */
+    public void recordSuccess(User user, LocalDateTime loginTime, String clientIp) {
+        failuresByClient.invalidate(clientKey(user.getUsername(), clientIp));
+        if (user.getFailedLoginAttempts() != 0 || user.getLockoutTime() != null) {
+            userRepository.clearFailedLogins(user.getId());
+        }
+        pendingLastLogins.merge(user.getId(), loginTime, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    @Scheduled(fixedDelayString = "${security.login.last-login-flush-ms:30000}")
+    public void flushLastLogins() {
+        if (pendingLastLogins.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, LocalDateTime>> batch = new ArrayList<>();
+        for (Long userId : new ArrayList<>(pendingLastLogins.keySet())) {
+            LocalDateTime loginTime = pendingLastLogins.remove(userId);
+            if (loginTime != null) {
+                batch.add(Map.entry(userId, loginTime));
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    batch.forEach(entry -> userRepository.updateLastLogin(entry.getKey(), entry.getValue())));
+            log.debug("Flushed last login time for {} users", batch.size());
+        } catch (RuntimeException e) {
+            // Put them back for the next flush unless a newer login arrived meanwhile
+            batch.forEach(entry -> pendingLastLogins.merge(entry.getKey(), entry.getValue(), (a, b) -> a.isAfter(b) ? a : b));
+            log.warn("Failed to flush last login times: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLastLogins();
+    }
+
+    private static String clientKey(String username, String clientIp) {
+        return username + '|' + clientIp;
+    }
+}
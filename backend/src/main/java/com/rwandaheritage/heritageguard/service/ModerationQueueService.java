@@ -0,0 +1,376 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.rwandaheritage.heritageguard.dto.BulkModerationRequest;
+import com.rwandaheritage.heritageguard.dto.ModerationQueueItemDTO;
+import com.rwandaheritage.heritageguard.event.ForumContentChangedEvent;
+import com.rwandaheritage.heritageguard.model.CommunityReport;
+import com.rwandaheritage.heritageguard.model.ForumPost;
+import com.rwandaheritage.heritageguard.model.ForumTopic;
+import com.rwandaheritage.heritageguard.model.ModerationQueueItem;
+import com.rwandaheritage.heritageguard.repository.CommunityReportRepository;
+import com.rwandaheritage.heritageguard.repository.ForumPostRepository;
+import com.rwandaheritage.heritageguard.repository.ForumTopicRepository;
+import com.rwandaheritage.heritageguard.repository.ModerationQueueRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Work queue for moderators.
+ *
+ * Reports and flags put their content in the queue (one item per topic or post). Moderators
+ * claim the highest scored items with FOR UPDATE SKIP LOCKED, so two moderators never get
+ * the same item, and hold them under a lease. Completing an item applies the moderation
+ * action, resolves the open reports on the content and removes the item. Items whose lease
+ * runs out go back to the queue.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ModerationQueueService {
+
+    public static final int SEVERITY_LOW = 1;
+    public static final int SEVERITY_MEDIUM = 2;
+    public static final int SEVERITY_HIGH = 3;
+
+    private static final Set<String> ACTIONS = Set.of("APPROVE", "REJECT", "DELETE", "LOCK", "PIN", "FLAG", "DISMISS");
+    private static final int MAX_REASON_LENGTH = 500;
+    private static final int PREVIEW_LENGTH = 200;
+
+    private final ModerationQueueRepository queueRepository;
+    private final CommunityReportRepository reportRepository;
+    private final ForumPostRepository postRepository;
+    private final ForumTopicRepository topicRepository;
+    private final ModerationService moderationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Score = severity * severity-weight + reports * report-weight + hours queued * age-weight
+    @Value("${moderation.queue.severity-weight:10}")
+    private double severityWeight;
+
+    @Value("${moderation.queue.report-weight:2}")
+    private double reportWeight;
+
+    @Value("${moderation.queue.age-weight-per-hour:1}")
+    private double ageWeight;
+
+    @Value("${moderation.queue.lease-minutes:10}")
+    private long leaseMinutes;
+
+    @Value("${moderation.queue.max-claim:25}")
+    private int maxClaim;
+
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong queuedMillis = new AtomicLong();
+
+    // === Enqueueing ===
+
+    /**
+     * Queue the reported content, or count one more report on it
+     */
+    public void enqueueReport(CommunityReport report) {
+        enqueue(report.getContentType(), report.getContentId(), severityOf(report.getReportReason()), 1,
+                "Reported: " + report.getReportReason());
+    }
+
+    /**
+     * Queue flagged content, or raise its severity if it is already queued
+     */
+    public void enqueueFlag(CommunityReport.ContentType contentType, Long contentId, int severity, String reason) {
+        enqueue(contentType, contentId, severity, 0, reason);
+    }
+
+    /**
+     * Drop the item for content that no longer needs review (e.g. deleted)
+     */
+    public void remove(CommunityReport.ContentType contentType, Long contentId) {
+        queueRepository.deleteForContent(contentType, List.of(contentId));
+    }
+
+    private void enqueue(CommunityReport.ContentType contentType, Long contentId, int severity, int reports, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        queueRepository.enqueue(contentType.name(), contentId, severity, reports, truncate(reason, MAX_REASON_LENGTH),
+                severityWeight, reportWeight, ageWeight, hours(now), now);
+    }
+
+    private static int severityOf(CommunityReport.ReportReason reason) {
+        if (reason == null) {
+            return SEVERITY_LOW;
+        }
+        switch (reason) {
+            case HARASSMENT:
+            case INAPPROPRIATE:
+                return SEVERITY_HIGH;
+            case SPAM:
+            case MISLEADING:
+                return SEVERITY_MEDIUM;
+            default:
+                return SEVERITY_LOW;
+        }
+    }
+
+    /**
+     * Queue flagged posts and content with unresolved reports that is not in the queue yet
+     * (e.g. items that predate the queue).
+     */
+    public Map<String, Object> rebuild() {
+        int added = 0;
+        for (ForumPost post : postRepository.findByIsFlaggedTrueAndIsActiveTrueOrderByCreatedDateDesc()) {
+            if (!queueRepository.existsByContentTypeAndContentId(CommunityReport.ContentType.POST, post.getId())) {
+                enqueueFlag(CommunityReport.ContentType.POST, post.getId(), SEVERITY_MEDIUM, post.getFlagReason());
+                added++;
+            }
+        }
+        // One item per reported content, counting all of its open reports
+        Map<CommunityReport.ContentType, Map<Long, List<CommunityReport>>> reports =
+                reportRepository.findByIsResolvedFalseOrderByReportedAtDesc().stream()
+                        .collect(Collectors.groupingBy(CommunityReport::getContentType,
+                                Collectors.groupingBy(CommunityReport::getContentId)));
+        for (Map.Entry<CommunityReport.ContentType, Map<Long, List<CommunityReport>>> byType : reports.entrySet()) {
+            for (Map.Entry<Long, List<CommunityReport>> content : byType.getValue().entrySet()) {
+                if (queueRepository.existsByContentTypeAndContentId(byType.getKey(), content.getKey())) {
+                    continue;
+                }
+                List<CommunityReport> contentReports = content.getValue();
+                int severity = contentReports.stream().mapToInt(r -> severityOf(r.getReportReason())).max().orElse(SEVERITY_LOW);
+                enqueue(byType.getKey(), content.getKey(), severity, contentReports.size(),
+                        "Reported: " + contentReports.get(0).getReportReason());
+                added++;
+            }
+        }
+        log.info("Moderation queue rebuild added {} items", added);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("added", added);
+        result.put("queued", queueRepository.countByStatus(ModerationQueueItem.Status.QUEUED));
+        return result;
+    }
+
+    // === Claims ===
+
+    /**
+     * Claim up to {@code limit} of the highest scored unclaimed items
+     */
+    public List<ModerationQueueItemDTO> claim(String moderatorId, int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be at least 1");
+        }
+        LocalDateTime leaseUntil = LocalDateTime.now().plusMinutes(leaseMinutes);
+        List<ModerationQueueItem> items = queueRepository.lockNextQueued(Math.min(limit, maxClaim));
+        for (ModerationQueueItem item : items) {
+            item.setStatus(ModerationQueueItem.Status.CLAIMED);
+            item.setClaimedBy(moderatorId);
+            item.setLeaseExpiresAt(leaseUntil);
+            item.setClaimCount(item.getClaimCount() + 1);
+        }
+        claimed.addAndGet(items.size());
+        log.debug("Moderator {} claimed {} queue items", moderatorId, items.size());
+        return toDTOs(items);
+    }
+
+    /**
+     * Items the moderator currently holds
+     */
+    @Transactional(readOnly = true)
+    public List<ModerationQueueItemDTO> getClaimed(String moderatorId) {
+        return toDTOs(queueRepository.findByStatusAndClaimedByOrderByRankKeyDesc(
+                ModerationQueueItem.Status.CLAIMED, moderatorId));
+    }
+
+    /**
+     * Extend the lease on a held item
+     */
+    public ModerationQueueItemDTO renew(Long itemId, String moderatorId) {
+        ModerationQueueItem item = lockHeldItem(itemId, moderatorId);
+        item.setLeaseExpiresAt(LocalDateTime.now().plusMinutes(leaseMinutes));
+        return toDTOs(List.of(item)).get(0);
+    }
+
+    /**
+     * Give a held item back to the queue
+     */
+    public void release(Long itemId, String moderatorId) {
+        ModerationQueueItem item = lockHeldItem(itemId, moderatorId);
+        item.setStatus(ModerationQueueItem.Status.QUEUED);
+        item.setClaimedBy(null);
+        item.setLeaseExpiresAt(null);
+        released.incrementAndGet();
+    }
+
+    /**
+     * Act on a held item: apply the action to the content (DISMISS only clears a post's flag),
+     * resolve its open reports and remove it from the queue.
+     */
+    public Map<String, Object> complete(Long itemId, String moderatorId, String action, String notes) {
+        if (action == null || !ACTIONS.contains(action)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Action must be APPROVE, REJECT, DELETE, LOCK, PIN, FLAG or DISMISS");
+        }
+        ModerationQueueItem item = lockHeldItem(itemId, moderatorId);
+        if (item.getContentType() == CommunityReport.ContentType.POST && ("LOCK".equals(action) || "PIN".equals(action))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, action + " only applies to topics");
+        }
+
+        if (!"DISMISS".equals(action)) {
+            moderationService.performBulkModeration(BulkModerationRequest.builder()
+                    .actionType(action)
+                    .contentType(item.getContentType().name())
+                    .contentIds(List.of(item.getContentId()))
+                    .reason(truncate(notes, MAX_REASON_LENGTH))
+                    .build(), moderatorId);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if ("DISMISS".equals(action) && item.getContentType() == CommunityReport.ContentType.POST
+                && postRepository.clearFlag(item.getContentId(), moderatorId, now) > 0) {
+            eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.POST,
+                    item.getContentId()));
+        }
+        int resolvedReports = reportRepository.resolveOpenForContent(item.getContentType(), item.getContentId(),
+                moderatorId, action, truncate(notes, MAX_REASON_LENGTH), now);
+        queueRepository.deleteForContent(item.getContentType(), List.of(item.getContentId()));
+
+        completed.incrementAndGet();
+        queuedMillis.addAndGet(Duration.between(item.getEnqueuedAt(), now).toMillis());
+        log.info("Moderator {} completed queue item {} ({} {}) with {}", moderatorId, itemId,
+                item.getContentType(), item.getContentId(), action);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("success", true);
+        result.put("contentType", item.getContentType().name());
+        result.put("contentId", item.getContentId());
+        result.put("action", action);
+        result.put("resolvedReports", resolvedReports);
+        return result;
+    }
+
+    private ModerationQueueItem lockHeldItem(Long itemId, String moderatorId) {
+        ModerationQueueItem item = queueRepository.lockById(itemId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Queue item not found"));
+        // A lapsed lease still counts until the sweep returns the item: nobody else can hold it before then
+        if (item.getStatus() != ModerationQueueItem.Status.CLAIMED || !moderatorId.equals(item.getClaimedBy())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Queue item is not claimed by you");
+        }
+        return item;
+    }
+
+    /**
+     * Return items whose lease has run out to the queue
+     */
+    @Scheduled(fixedDelayString = "${moderation.queue.sweep-interval-ms:30000}")
+    public void releaseExpiredLeases() {
+        int count = queueRepository.releaseExpiredLeases(LocalDateTime.now());
+        if (count > 0) {
+            expired.addAndGet(count);
+            log.info("Returned {} moderation queue items with expired leases", count);
+        }
+    }
+
+    // === Views ===
+
+    private List<ModerationQueueItemDTO> toDTOs(List<ModerationQueueItem> items) {
+        Set<Long> postIds = items.stream()
+                .filter(item -> item.getContentType() == CommunityReport.ContentType.POST)
+                .map(ModerationQueueItem::getContentId)
+                .collect(Collectors.toSet());
+        Set<Long> topicIds = items.stream()
+                .filter(item -> item.getContentType() == CommunityReport.ContentType.TOPIC)
+                .map(ModerationQueueItem::getContentId)
+                .collect(Collectors.toSet());
+        Map<Long, ForumPost> posts = postIds.isEmpty() ? Map.of() : postRepository.findAllById(postIds).stream()
+                .collect(Collectors.toMap(ForumPost::getId, Function.identity()));
+        Map<Long, ForumTopic> topics = topicIds.isEmpty() ? Map.of() : topicRepository.findAllById(topicIds).stream()
+                .collect(Collectors.toMap(ForumTopic::getId, Function.identity()));
+
+        double nowHours = hours(LocalDateTime.now());
+        return items.stream().map(item -> {
+            ModerationQueueItemDTO.ModerationQueueItemDTOBuilder dto = ModerationQueueItemDTO.builder()
+                    .id(item.getId())
+                    .contentType(item.getContentType().name())
+                    .contentId(item.getContentId())
+                    .severity(item.getSeverity())
+                    .reportCount(item.getReportCount())
+                    .reason(item.getReason())
+                    .score(item.getRankKey() + ageWeight * nowHours)
+                    .status(item.getStatus().name())
+                    .claimedBy(item.getClaimedBy())
+                    .leaseExpiresAt(item.getLeaseExpiresAt())
+                    .enqueuedAt(item.getEnqueuedAt());
+            if (item.getContentType() == CommunityReport.ContentType.POST) {
+                ForumPost post = posts.get(item.getContentId());
+                if (post != null) {
+                    dto.authorId(post.getCreatedBy())
+                            .preview(truncate(post.getContent(), PREVIEW_LENGTH))
+                            .relatedUrl("/forums/topics/" + post.getTopic().getId());
+                }
+            } else {
+                ForumTopic topic = topics.get(item.getContentId());
+                if (topic != null) {
+                    dto.authorId(topic.getCreatedBy())
+                            .preview(truncate(topic.getTitle(), PREVIEW_LENGTH))
+                            .relatedUrl("/forums/topics/" + topic.getId());
+                }
+            }
+            return dto.build();
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * Backlog size and age across the cluster, and moderator throughput handled by this
+     * instance since it started (under "thisInstance"; other instances keep their own counts)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStats() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldestQueued = queueRepository.findOldestQueuedEnqueuedAt();
+        long completedCount = completed.get();
+        double hoursUp = Math.max(Duration.between(startedAt, now).toMillis() / 3_600_000.0, 1.0 / 60);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queueRepository.countByStatus(ModerationQueueItem.Status.QUEUED));
+        stats.put("claimed", queueRepository.countByStatus(ModerationQueueItem.Status.CLAIMED));
+        stats.put("oldestQueuedAgeSeconds", oldestQueued != null
+                ? Math.max(0, Duration.between(oldestQueued, now).getSeconds()) : 0);
+
+        Map<String, Object> instance = new LinkedHashMap<>();
+        instance.put("startedAt", startedAt);
+        instance.put("claimedSinceStartup", claimed.get());
+        instance.put("completedSinceStartup", completedCount);
+        instance.put("releasedSinceStartup", released.get());
+        instance.put("expiredLeasesSinceStartup", expired.get());
+        instance.put("completedPerHour", completedCount / hoursUp);
+        instance.put("averageTimeInQueueSeconds", completedCount > 0 ? queuedMillis.get() / completedCount / 1000.0 : 0.0);
+        stats.put("thisInstance", instance);
+        return stats;
+    }
+
+    // Same scale as EXTRACT(EPOCH FROM timestamp) / 3600 in the enqueue query
+    private static double hours(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 3600.0;
+    }
+
+    private static String truncate(String text, int length) {
+        return text != null && text.length() > length ? text.substring(0, length) : text;
+    }
+}
@@ -1,15 +1,18 @@
 package com.rwandaheritage.heritageguard.service;
 
 import com.rwandaheritage.heritageguard.dto.*;
+import com.rwandaheritage.heritageguard.event.ForumContentChangedEvent;
 import com.rwandaheritage.heritageguard.mapper.ModerationHistoryMapper;
 import com.rwandaheritage.heritageguard.model.*;
 import com.rwandaheritage.heritageguard.repository.*;
+import com.rwandaheritage.heritageguard.util.PaginationUtil;
+import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
-import org.springframework.http.HttpStatus;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -25,52 +28,76 @@ public class ModerationService {
     private final ForumTopicRepository topicRepository;
     private final ForumPostRepository postRepository;
     private final ContentFilterService contentFilterService;
-    private final NotificationService notificationService;
+    private final ModerationBatchInsertRepository batchInsertRepository;
+    private final ModerationQueueRepository moderationQueueRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Ids per IN list and UPDATE
+    private static final int BULK_CHUNK_SIZE = 1000;
     
     /**
-     * Perform bulk moderation actions
+     * Perform bulk moderation actions.
+     *
+     * Set-based: the targets are locked with one IN query, each chunk of ids is changed with a
+     * single UPDATE, and the history rows and notifications are written as JDBC batches, all in
+     * this transaction. Ids that do not exist are reported as failed; the rest succeed together.
      */
     public BulkModerationResponse performBulkModeration(BulkModerationRequest request, String moderatorId) {
         log.info("Performing bulk moderation: {} on {} items of type {}", 
                 request.getActionType(), request.getContentIds().size(), request.getContentType());
         
         String bulkActionId = generateBulkActionId();
+        // Sorted so every transaction locks rows in the same order, chunk after chunk
+        List<Long> requestedIds = request.getContentIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        
+        Map<Long, BulkTarget> targets = new LinkedHashMap<>();
+        String newStatus;
+        if ("TOPIC".equals(request.getContentType())) {
+            newStatus = moderateTopics(requestedIds, request.getActionType(), moderatorId, targets);
+        } else {
+            newStatus = moderatePosts(requestedIds, request.getActionType(), request.getReason(), moderatorId, targets);
+        }
+        
         List<Long> successfulIds = new ArrayList<>();
-        Map<Long, String> failedIdsWithReasons = new HashMap<>();
+        Map<Long, String> failedIdsWithReasons = new LinkedHashMap<>();
+        List<BulkModerationResponse.ItemOutcome> outcomes = new ArrayList<>(requestedIds.size());
+        List<ModerationHistory> history = new ArrayList<>(targets.size() + 1);
+        List<Notification> notifications = new ArrayList<>(targets.size());
+        String contentLabel = request.getContentType().toLowerCase();
         
-        for (Long contentId : request.getContentIds()) {
-            try {
-                performSingleModerationAction(
-                    request.getContentType(),
-                    contentId,
-                    request.getActionType(),
-                    request.getReason(),
-                    moderatorId,
-                    request.isAutomated(),
-                    request.getConfidenceScore(),
-                    bulkActionId
-                );
-                successfulIds.add(contentId);
-            } catch (Exception e) {
-                log.warn("Failed to moderate content {}: {}", contentId, e.getMessage());
-                failedIdsWithReasons.put(contentId, e.getMessage());
+        for (Long contentId : requestedIds) {
+            BulkTarget target = targets.get(contentId);
+            if (target == null) {
+                String error = "TOPIC".equals(request.getContentType()) ? "Topic not found" : "Post not found";
+                failedIdsWithReasons.put(contentId, error);
+                outcomes.add(new BulkModerationResponse.ItemOutcome(contentId, false, null, null, error));
+                continue;
+            }
+            successfulIds.add(contentId);
+            outcomes.add(new BulkModerationResponse.ItemOutcome(contentId, true, target.previousStatus, newStatus, null));
+            history.add(historyRecord(moderatorId, request.getContentType(), contentId, request.getActionType(),
+                    request.getReason(), target.previousStatus, newStatus, request.isAutomated(),
+                    request.getConfidenceScore(), bulkActionId, null));
+            if (target.createdBy != null) {
+                notifications.add(Notification.builder()
+                        .userId(target.createdBy)
+                        .type("moderation")
+                        .content(String.format("Your %s has been %s: %s", contentLabel, request.getActionType().toLowerCase(), request.getReason()))
+                        .relatedUrl("/forums/" + contentLabel + "s/" + contentId)
+                        .createdBy("system")
+                        .build());
             }
         }
         
-        // Create bulk action history record
-        createModerationHistoryRecord(
-            moderatorId,
-            request.getContentType(),
-            null, // No specific content ID for bulk action
-            "BULK_ACTION",
-            request.getReason(),
-            null,
-            null,
-            request.isAutomated(),
-            request.getConfidenceScore(),
-            bulkActionId,
-            successfulIds.size()
-        );
+        // Bulk action history record
+        history.add(historyRecord(moderatorId, request.getContentType(), null, "BULK_ACTION", request.getReason(),
+                null, null, request.isAutomated(), request.getConfidenceScore(), bulkActionId, successfulIds.size()));
+        batchInsertRepository.insertHistory(history);
+        batchInsertRepository.insertNotifications(notifications);
         
         BulkModerationResponse response = BulkModerationResponse.builder()
                 .bulkActionId(bulkActionId)
@@ -81,6 +108,7 @@ public class ModerationService {
                 .failedActions(failedIdsWithReasons.size())
                 .successfulIds(successfulIds)
                 .failedIdsWithReasons(failedIdsWithReasons)
+                .outcomes(outcomes)
                 .reason(request.getReason())
                 .automated(request.isAutomated())
                 .confidenceScore(request.getConfidenceScore())
@@ -95,98 +123,100 @@ public class ModerationService {
     }
     
     /**
-     * Perform single moderation action
+     * Lock the topics, record their current status and apply the action to all of them.
+     *
+     * @return status after the action, null for actions that do not change topics
      */
-    private void performSingleModerationAction(String contentType, Long contentId, String actionType, 
-                                             String reason, String moderatorId, boolean automated, 
-                                             Double confidenceScore, String bulkActionId) {
-        
-        String previousStatus = null;
+    private String moderateTopics(List<Long> ids, String actionType, String moderatorId, Map<Long, BulkTarget> targets) {
+        LocalDateTime now = LocalDateTime.now();
         String newStatus = null;
-        
-        switch (contentType) {
-            case "TOPIC":
-                ForumTopic topic = topicRepository.findById(contentId)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Topic not found"));
-                
-                previousStatus = getTopicStatus(topic);
-                
-                switch (actionType) {
-                    case "APPROVE":
-                        topic.setIsActive(true);
-                        topic.setIsPublic(true);
-                        newStatus = "ACTIVE";
-                        break;
-                    case "REJECT":
-                    case "DELETE":
-                        topic.setIsActive(false);
-                        newStatus = "DELETED";
-                        break;
-                    case "LOCK":
-                        topic.setIsLocked(true);
-                        newStatus = "LOCKED";
-                        break;
-                    case "PIN":
-                        topic.setIsPinned(true);
-                        newStatus = "PINNED";
-                        break;
-                    case "FLAG":
-                        // Topics don't have a flag field, so we'll just log it
-                        newStatus = "FLAGGED";
-                        break;
+        for (List<Long> chunk : Lists.partition(ids, BULK_CHUNK_SIZE)) {
+            List<Long> found = new ArrayList<>(chunk.size());
+            for (ForumTopic topic : topicRepository.lockAllById(chunk)) {
+                targets.put(topic.getId(), new BulkTarget(getTopicStatus(topic), topic.getCreatedBy()));
+                found.add(topic.getId());
+            }
+            if (found.isEmpty()) {
+                continue;
+            }
+            switch (actionType) {
+                case "APPROVE" -> {
+                    topicRepository.bulkApprove(found, moderatorId, now);
+                    newStatus = "ACTIVE";
+                }
+                case "REJECT", "DELETE" -> {
+                    topicRepository.bulkDeactivate(found, moderatorId, now);
+                    newStatus = "DELETED";
                 }
-                
-                topic.setUpdatedBy(moderatorId);
-                topicRepository.save(topic);
-                break;
-                
-            case "POST":
-                ForumPost post = postRepository.findById(contentId)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found"));
-                
-                previousStatus = getPostStatus(post);
-                
-                switch (actionType) {
-                    case "APPROVE":
-                        post.setIsActive(true);
-                        post.setIsFlagged(false);
-                        newStatus = "ACTIVE";
-                        break;
-                    case "REJECT":
-                    case "DELETE":
-                        post.setIsActive(false);
-                        newStatus = "DELETED";
-                        break;
-                    case "FLAG":
-                        post.setIsFlagged(true);
-                        post.setFlaggedBy(moderatorId);
-                        post.setFlagReason(reason);
-                        newStatus = "FLAGGED";
-                        break;
+                case "LOCK" -> {
+                    topicRepository.bulkLock(found, moderatorId, now);
+                    newStatus = "LOCKED";
                 }
-                
-                post.setUpdatedBy(moderatorId);
-                postRepository.save(post);
-                break;
+                case "PIN" -> {
+                    topicRepository.bulkPin(found, moderatorId, now);
+                    newStatus = "PINNED";
+                }
+                case "FLAG" -> {
+                    // Topics don't have a flag field, so we'll just log it
+                    topicRepository.bulkTouch(found, moderatorId, now);
+                    newStatus = "FLAGGED";
+                }
+                default -> topicRepository.bulkTouch(found, moderatorId, now);
+            }
+            // The content has been handled; it no longer waits in the moderation queue
+            moderationQueueRepository.deleteForContent(CommunityReport.ContentType.TOPIC, found);
+            eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.TOPIC, found));
         }
+        return newStatus;
+    }
+    
+    /**
+     * Lock the posts, record their current status and apply the action to all of them.
+     *
+     * @return status after the action, null for actions that do not change posts
+     */
+    private String moderatePosts(List<Long> ids, String actionType, String reason, String moderatorId, Map<Long, BulkTarget> targets) {
+        LocalDateTime now = LocalDateTime.now();
+        String newStatus = null;
+        for (List<Long> chunk : Lists.partition(ids, BULK_CHUNK_SIZE)) {
+            List<Long> found = new ArrayList<>(chunk.size());
+            for (ForumPost post : postRepository.lockAllById(chunk)) {
+                targets.put(post.getId(), new BulkTarget(getPostStatus(post), post.getCreatedBy()));
+                found.add(post.getId());
+            }
+            if (found.isEmpty()) {
+                continue;
+            }
+            switch (actionType) {
+                case "APPROVE" -> {
+                    postRepository.bulkApprove(found, moderatorId, now);
+                    newStatus = "ACTIVE";
+                }
+                case "REJECT", "DELETE" -> {
+                    postRepository.bulkDeactivate(found, moderatorId, now);
+                    newStatus = "DELETED";
+                }
+                case "FLAG" -> {
+                    postRepository.bulkFlag(found, moderatorId, reason, now);
+                    newStatus = "FLAGGED";
+                }
+                default -> postRepository.bulkTouch(found, moderatorId, now);
+            }
+            postRepository.bulkSkipPendingScan(found, ForumPost.ModerationStatus.PENDING_SCAN, ForumPost.ModerationStatus.MANUAL);
+            moderationQueueRepository.deleteForContent(CommunityReport.ContentType.POST, found);
+            eventPublisher.publishEvent(new ForumContentChangedEvent(this, ForumContentChangedEvent.ContentType.POST, found));
+        }
+        return newStatus;
+    }
+    
+    private static final class BulkTarget {
+        private final String previousStatus;
+        private final String createdBy;
         
-        // Create moderation history record
-        createModerationHistoryRecord(
-            moderatorId,
-            contentType,
-            contentId,
-            actionType,
-            reason,
-            previousStatus,
-            newStatus,
-            automated,
-            confidenceScore,
-            bulkActionId,
-            null
-        );
-        
-        // Send notification to content creator
-        sendModerationNotification(contentType, contentId, actionType, reason);
+        BulkTarget(String previousStatus, String createdBy) {
+            this.previousStatus = previousStatus;
+            this.createdBy = createdBy;
+        }
     }
     
     /**
@@ -209,14 +239,14 @@ public class ModerationService {
     }
     
     /**
-     * Create moderation history record
+     * Build a moderation history record
      */
-    private void createModerationHistoryRecord(String moderatorId, String contentType, Long contentId,
-                                             String actionType, String reason, String previousStatus,
-                                             String newStatus, boolean automated, Double confidenceScore,
-                                             String bulkActionId, Integer affectedCount) {
+    private ModerationHistory historyRecord(String moderatorId, String contentType, Long contentId,
+                                            String actionType, String reason, String previousStatus,
+                                            String newStatus, boolean automated, Double confidenceScore,
+                                            String bulkActionId, Integer affectedCount) {
         
-        ModerationHistory history = ModerationHistory.builder()
+        return ModerationHistory.builder()
                 .moderatorId(moderatorId)
                 .contentType(contentType)
                 .contentId(contentId != null ? contentId : 0L)
@@ -230,68 +260,23 @@ public class ModerationService {
                 .affectedCount(affectedCount)
                 .createdBy(moderatorId)
                 .build();
-        
-        moderationHistoryRepository.save(history);
     }
     
     /**
-     * Send moderation notification
-     */
-    private void sendModerationNotification(String contentType, Long contentId, String actionType, String reason) {
-        try {
-            String contentCreator = null;
-            String contentTitle = null;
-            
-            if ("TOPIC".equals(contentType)) {
-                ForumTopic topic = topicRepository.findById(contentId).orElse(null);
-                if (topic != null) {
-                    contentCreator = topic.getCreatedBy();
-                    contentTitle = topic.getTitle();
-                }
-            } else if ("POST".equals(contentType)) {
-                ForumPost post = postRepository.findById(contentId).orElse(null);
-                if (post != null) {
-                    contentCreator = post.getCreatedBy();
-                    contentTitle = post.getContent().substring(0, Math.min(50, post.getContent().length())) + "...";
-                }
-            }
-            
-            if (contentCreator != null) {
-                notificationService.createNotification(
-                    contentCreator,
-                    "moderation",
-                    String.format("Your %s has been %s: %s", contentType.toLowerCase(), actionType.toLowerCase(), reason),
-                    "/forums/" + contentType.toLowerCase() + "s/" + contentId,
-                    "system"
-                );
-            }
-        } catch (Exception e) {
-            log.warn("Failed to send moderation notification: {}", e.getMessage());
-        }
-    }
-    
-    /**
-     * Get moderation history
+     * Get moderation history, newest first, one keyset page at a time.
+     * All filters are optional; pass the id of the last entry received as beforeId for the next page.
      */
     @Transactional(readOnly = true)
-    public List<ModerationHistoryDTO> getModerationHistory(String moderatorId, String contentType, 
-                                                          String actionType, LocalDateTime startDate, 
-                                                          LocalDateTime endDate) {
+    public List<ModerationHistoryDTO> getModerationHistory(String moderatorId, String contentType, Long contentId,
+                                                          String actionType, Boolean automated,
+                                                          LocalDateTime startDate, LocalDateTime endDate,
+                                                          Long beforeId, Integer size) {
         log.debug("Fetching moderation history for moderator: {}", moderatorId);
         
-        List<ModerationHistory> history;
-        
-        if (moderatorId != null && startDate != null && endDate != null) {
-            history = moderationHistoryRepository.findByModeratorAndDateRange(moderatorId, startDate, endDate);
-        } else if (moderatorId != null) {
-            history = moderationHistoryRepository.findByModeratorIdOrderByCreatedDateDesc(moderatorId, null).getContent();
-        } else if (contentType != null) {
-            history = moderationHistoryRepository.findByContentTypeAndContentIdOrderByCreatedDateDesc(contentType, 0L);
-        } else if (actionType != null) {
-            history = moderationHistoryRepository.findByActionTypeOrderByCreatedDateDesc(actionType, null).getContent();
-        } else {
-            history = moderationHistoryRepository.findAll();
-        }
+        List<ModerationHistory> history = moderationHistoryRepository.findPageBefore(
+                beforeId != null ? beforeId : Long.MAX_VALUE,
+                moderatorId, contentType, contentId, actionType, automated, startDate, endDate,
+                PageRequest.of(0, PaginationUtil.validatePageSize(size)));
         
         return history.stream()
                 .map(ModerationHistoryMapper::toDTO)
@@ -344,7 +329,11 @@ public class ModerationService {
      * Analyze content and get moderation recommendation
      */
     public ContentFilterService.ModerationRecommendation analyzeContentForModeration(String content) {
-        return contentFilterService.getModerationRecommendation(content);
+        return analyzeContentForModeration(content, null);
+    }
+
+    public ContentFilterService.ModerationRecommendation analyzeContentForModeration(String content, String language) {
+        return contentFilterService.getModerationRecommendation(content, language);
     }
     
     /**
@@ -0,0 +1,164 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.rwandaheritage.heritageguard.model.ContentSignature;
+import com.rwandaheritage.heritageguard.repository.ContentSignatureRepository;
+import com.rwandaheritage.heritageguard.util.SimHash;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds lightly varied copies of forum content posted from several accounts.
+ *
+ * Every post and topic gets a persisted SimHash signature when it is written. A new post is
+ * checked by looking up signatures that share one of the four hash bands (indexed, so the
+ * lookup stays fast however many signatures are stored) within the time window and keeping
+ * those within {@code moderation.near-duplicates.max-distance} bits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NearDuplicateDetector {
+
+    // Single words: on post-length texts longer shingles turn a one-word edit into a dozen changed bits
+    private static final int SHINGLE_SIZE = 1;
+
+    private final ContentSignatureRepository signatureRepository;
+
+    // Banded lookup finds every match up to SimHash.BANDS - 1 bits apart
+    @Value("${moderation.near-duplicates.max-distance:3}")
+    private int maxDistance;
+
+    @Value("${moderation.near-duplicates.window-hours:72}")
+    private long windowHours;
+
+    // Other accounts with near-duplicates in the window before content counts as coordinated
+    @Value("${moderation.near-duplicates.min-accounts:2}")
+    private int minAccounts;
+
+    // Shorter texts ("thanks!", "great post") are too alike to compare and are not stored
+    @Value("${moderation.near-duplicates.min-words:8}")
+    private int minWords;
+
+    @Value("${moderation.near-duplicates.retention-days:90}")
+    private int retentionDays;
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong suspicious = new AtomicLong();
+    private final AtomicLong checkNanos = new AtomicLong();
+
+    public static final class Result {
+        private static final Result NONE = new Result(0, 0, false);
+
+        private final int matches;
+        private final int otherAccounts;
+        private final boolean suspicious;
+
+        Result(int matches, int otherAccounts, boolean suspicious) {
+            this.matches = matches;
+            this.otherAccounts = otherAccounts;
+            this.suspicious = suspicious;
+        }
+
+        public int getMatches() { return matches; }
+        public int getOtherAccounts() { return otherAccounts; }
+        public boolean isSuspicious() { return suspicious; }
+    }
+
+    /**
+     * Store the signature of newly written content and report its near-duplicates by other
+     * accounts within the window.
+     */
+    @Transactional
+    public Result checkAndRecord(ContentSignature.ContentType contentType, Long contentId, String createdBy, String content) {
+        SimHash.Signature signature = SimHash.of(content != null ? content : "", SHINGLE_SIZE);
+        if (signature.getWords() < minWords) {
+            return Result.NONE;
+        }
+        save(contentType, contentId, createdBy, signature.getHash());
+
+        long start = System.nanoTime();
+        long hash = signature.getHash();
+        int matches = 0;
+        Set<String> accounts = new HashSet<>();
+        for (ContentSignature candidate : signatureRepository.findBandCandidates(
+                SimHash.band(hash, 0), SimHash.band(hash, 1), SimHash.band(hash, 2), SimHash.band(hash, 3),
+                LocalDateTime.now().minusHours(windowHours))) {
+            boolean self = candidate.getContentType() == contentType && candidate.getContentId().equals(contentId);
+            if (!self && SimHash.distance(hash, candidate.getSimhash()) <= maxDistance) {
+                matches++;
+                if (candidate.getCreatedBy() != null && !candidate.getCreatedBy().equals(createdBy)) {
+                    accounts.add(candidate.getCreatedBy());
+                }
+            }
+        }
+        checkNanos.addAndGet(System.nanoTime() - start);
+        checks.incrementAndGet();
+
+        boolean coordinated = accounts.size() >= minAccounts;
+        if (coordinated) {
+            suspicious.incrementAndGet();
+            log.info("{} {} by {} has {} near-duplicates from {} other accounts",
+                    contentType, contentId, createdBy, matches, accounts.size());
+        }
+        return new Result(matches, accounts.size(), coordinated);
+    }
+
+    /**
+     * Store (or replace, after an edit) the signature of some content.
+     */
+    @Transactional
+    public void record(ContentSignature.ContentType contentType, Long contentId, String createdBy, String content) {
+        SimHash.Signature signature = SimHash.of(content != null ? content : "", SHINGLE_SIZE);
+        if (signature.getWords() >= minWords) {
+            save(contentType, contentId, createdBy, signature.getHash());
+        }
+    }
+
+    private void save(ContentSignature.ContentType contentType, Long contentId, String createdBy, long hash) {
+        ContentSignature signature = signatureRepository.findByContentTypeAndContentId(contentType, contentId)
+                .orElseGet(() -> ContentSignature.builder()
+                        .contentType(contentType)
+                        .contentId(contentId)
+                        .build());
+        signature.setCreatedBy(createdBy);
+        signature.setSimhash(hash);
+        signature.setBand0(SimHash.band(hash, 0));
+        signature.setBand1(SimHash.band(hash, 1));
+        signature.setBand2(SimHash.band(hash, 2));
+        signature.setBand3(SimHash.band(hash, 3));
+        signature.setCreatedDate(LocalDateTime.now());
+        signatureRepository.save(signature);
+    }
+
+    @Scheduled(cron = "${moderation.near-duplicates.cleanup-cron:0 45 3 * * *}")
+    public void deleteOldSignatures() {
+        int deleted = signatureRepository.deleteCreatedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Removed {} content signatures older than {} days", deleted, retentionDays);
+        }
+    }
+
+    /**
+     * Check count, hit count and lookup latency since startup.
+     */
+    public Map<String, Object> getStats() {
+        long checkCount = checks.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("signatures", signatureRepository.count());
+        stats.put("checksSinceStartup", checkCount);
+        stats.put("suspiciousSinceStartup", suspicious.get());
+        stats.put("averageCheckMillis", checkCount > 0 ? checkNanos.get() / checkCount / 1_000_000.0 : 0.0);
+        return stats;
+    }
+}
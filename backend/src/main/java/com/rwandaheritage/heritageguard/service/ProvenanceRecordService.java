@@ -4,11 +4,11 @@ import com.rwandaheritage.heritageguard.model.Artifact;
 import com.rwandaheritage.heritageguard.model.ProvenanceRecord;
 import com.rwandaheritage.heritageguard.repository.ProvenanceRecordRepository;
 import com.rwandaheritage.heritageguard.repository.ArtifactRepository;
+import com.rwandaheritage.heritageguard.security.AccessContextProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -27,14 +27,17 @@ import java.util.UUID;
 public class ProvenanceRecordService {
     private final ProvenanceRecordRepository provenanceRecordRepository;
     private final ArtifactRepository artifactRepository;
+    private final AccessContextProvider accessContextProvider;
 
     @Value("${provenance.document.upload.dir:E:/RWANDA_PROVENANCE_DOCS}")
     private String provenanceDocumentUploadDir;
 
     @Autowired
-    public ProvenanceRecordService(ProvenanceRecordRepository provenanceRecordRepository, ArtifactRepository artifactRepository) {
+    public ProvenanceRecordService(ProvenanceRecordRepository provenanceRecordRepository, ArtifactRepository artifactRepository,
+                                   AccessContextProvider accessContextProvider) {
         this.provenanceRecordRepository = provenanceRecordRepository;
         this.artifactRepository = artifactRepository;
+        this.accessContextProvider = accessContextProvider;
     }
 
     // Add provenance record with file upload
@@ -216,17 +219,6 @@ public class ProvenanceRecordService {
         if (artifact.getIsPublic() != null && artifact.getIsPublic()) {
             return true;
         }
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated() || auth.getPrincipal().equals("anonymousUser")) {
-            return false;
-        }
-        for (GrantedAuthority authority : auth.getAuthorities()) {
-            String role = authority.getAuthority();
-            if (role.equals("ROLE_SYSTEM_ADMINISTRATOR") || role.equals("ROLE_HERITAGE_MANAGER") ||
-                role.equals("ROLE_CONTENT_MANAGER") || role.equals("ROLE_COMMUNITY_MEMBER")) {
-                return true;
-            }
-        }
-        return false;
+        return accessContextProvider.current().isMember();
     }
 }
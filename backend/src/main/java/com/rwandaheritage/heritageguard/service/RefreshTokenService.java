@@ -0,0 +1,165 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.rwandaheritage.heritageguard.model.RefreshToken;
+import com.rwandaheritage.heritageguard.model.User;
+import com.rwandaheritage.heritageguard.repository.RefreshTokenRepository;
+import com.rwandaheritage.heritageguard.security.JwtService;
+import com.rwandaheritage.heritageguard.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Registry of issued refresh tokens.
+ *
+ * Each login starts a token family. Refreshing exchanges the presented token for a new one
+ * in the same family (rotation); presenting an already exchanged token again means it was
+ * copied, so the whole family is revoked. Revoked families are added to the
+ * {@link TokenRevocationList}, which also cuts off the family's access tokens.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtService jwtService;
+    private final TokenRevocationList revocationList;
+
+    public enum Outcome {
+        ROTATED, INVALID, REVOKED, REUSED
+    }
+
+    /**
+     * Result of a rotation; token and family are only set when {@link Outcome#ROTATED}.
+     */
+    public static final class Rotation {
+        private final Outcome outcome;
+        private final String refreshToken;
+        private final String familyId;
+
+        Rotation(Outcome outcome, String refreshToken, String familyId) {
+            this.outcome = outcome;
+            this.refreshToken = refreshToken;
+            this.familyId = familyId;
+        }
+
+        public Outcome getOutcome() { return outcome; }
+        public String getRefreshToken() { return refreshToken; }
+        public String getFamilyId() { return familyId; }
+    }
+
+    public static String newFamilyId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Issue and register a refresh token in the given family.
+     */
+    @Transactional
+    public String issue(User user, String familyId) {
+        String tokenId = UUID.randomUUID().toString();
+        String token = jwtService.generateRefreshToken(user, tokenId, familyId);
+        refreshTokenRepository.save(newRow(user, tokenId, familyId));
+        return token;
+    }
+
+    /**
+     * Exchange a verified refresh token for its successor. Never throws for a bad token, so
+     * a reuse-triggered revocation commits; the caller turns the outcome into an error.
+     */
+    @Transactional
+    public Rotation rotate(Claims claims, User user) {
+        String tokenId = claims.getId();
+        if (tokenId == null || !JwtService.isRefreshToken(claims)) {
+            return new Rotation(Outcome.INVALID, null, null);
+        }
+        RefreshToken current = refreshTokenRepository.findByTokenId(tokenId).orElse(null);
+        if (current == null || !current.getUserId().equals(user.getId())) {
+            return new Rotation(Outcome.INVALID, null, null);
+        }
+        if (current.getRevokedAt() != null) {
+            return new Rotation(Outcome.REVOKED, null, null);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        String nextTokenId = UUID.randomUUID().toString();
+        if (refreshTokenRepository.markUsed(current.getId(), nextTokenId, now) == 0) {
+            // Already exchanged (or revoked concurrently): someone else holds a copy of this token
+            log.warn("Refresh token reuse detected for user {}; revoking session {}", user.getUsername(), current.getFamilyId());
+            revokeFamily(current.getFamilyId(), RefreshToken.RevokeReason.REUSE_DETECTED);
+            return new Rotation(Outcome.REUSED, null, null);
+        }
+
+        String token = jwtService.generateRefreshToken(user, nextTokenId, current.getFamilyId());
+        refreshTokenRepository.save(newRow(user, nextTokenId, current.getFamilyId()));
+        return new Rotation(Outcome.ROTATED, token, current.getFamilyId());
+    }
+
+    @Transactional
+    public void revokeFamily(String familyId, RefreshToken.RevokeReason reason) {
+        refreshTokenRepository.revokeFamily(familyId, reason, LocalDateTime.now());
+        revokeAfterCommit(List.of(familyId));
+    }
+
+    /**
+     * Revoke every active session of a user.
+     *
+     * @return number of sessions revoked
+     */
+    @Transactional
+    public int revokeAllForUser(Long userId, RefreshToken.RevokeReason reason) {
+        List<String> families = refreshTokenRepository.findActiveFamilyIdsByUserId(userId);
+        LocalDateTime now = LocalDateTime.now();
+        for (String familyId : families) {
+            refreshTokenRepository.revokeFamily(familyId, reason, now);
+        }
+        revokeAfterCommit(families);
+        return families.size();
+    }
+
+    @Scheduled(cron = "${jwt.refresh-tokens.cleanup-cron:0 15 3 * * *}")
+    @Transactional
+    public void deleteExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime revokedBefore = now.minusNanos(jwtService.getMaxAccessTokenLifetimeMillis() * 1_000_000L);
+        int deleted = refreshTokenRepository.deleteExpired(now, revokedBefore);
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private RefreshToken newRow(User user, String tokenId, String familyId) {
+        LocalDateTime now = LocalDateTime.now();
+        return RefreshToken.builder()
+                .tokenId(tokenId)
+                .familyId(familyId)
+                .userId(user.getId())
+                .issuedAt(now)
+                .expiresAt(now.plusNanos(jwtService.getRefreshExpirationMillis() * 1_000_000L))
+                .build();
+    }
+
+    // In memory only once the database agrees, so a rolled-back revocation is not enforced here
+    private void revokeAfterCommit(List<String> familyIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    familyIds.forEach(revocationList::revoke);
+                }
+            });
+        } else {
+            familyIds.forEach(revocationList::revoke);
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package com.rwandaheritage.heritageguard.service;
 
+import com.rwandaheritage.heritageguard.event.DocumentContentChangedEvent;
 import com.rwandaheritage.heritageguard.model.HeritageSite;
 import com.rwandaheritage.heritageguard.model.SiteDocument;
+import com.rwandaheritage.heritageguard.model.StorageUsage;
 import com.rwandaheritage.heritageguard.repository.HeritageSiteRepository;
 import com.rwandaheritage.heritageguard.repository.SiteDocumentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
@@ -27,13 +31,19 @@ import java.util.stream.Collectors;
 public class SiteDocumentService {
     private final SiteDocumentRepository siteDocumentRepository;
     private final HeritageSiteRepository heritageSiteRepository;
+    private final StorageAccountingService storageAccountingService;
+    private final ApplicationEventPublisher eventPublisher;
     private final String documentUploadDir;
 
     @Autowired
     public SiteDocumentService(SiteDocumentRepository siteDocumentRepository, HeritageSiteRepository heritageSiteRepository,
+                               StorageAccountingService storageAccountingService,
+                               ApplicationEventPublisher eventPublisher,
                                @Value("${document.upload.dir:uploads/documents}") String documentUploadDir) {
         this.siteDocumentRepository = siteDocumentRepository;
         this.heritageSiteRepository = heritageSiteRepository;
+        this.storageAccountingService = storageAccountingService;
+        this.eventPublisher = eventPublisher;
         this.documentUploadDir = documentUploadDir;
     }
 
@@ -94,13 +104,16 @@ public class SiteDocumentService {
         if (isAdmin || isHeritageManager || isUploader) {
             // Only allow update if permitted
             document.setUploaderUsername(existing.getUploaderUsername()); // Don't allow changing uploader
-            return siteDocumentRepository.save(document);
+            SiteDocument saved = siteDocumentRepository.save(document);
+            publishContentChanged(saved.getId());
+            return saved;
         } else {
             throw new org.springframework.web.server.ResponseStatusException(
                 org.springframework.http.HttpStatus.FORBIDDEN, "You do not have permission to update this document file.");
         }
     }
 
+    @Transactional
     public void deleteSiteDocument(Long id) {
         SiteDocument doc = siteDocumentRepository.findById(id).orElse(null);
         if (doc == null) throw new org.springframework.web.server.ResponseStatusException(
@@ -115,6 +128,12 @@ public class SiteDocumentService {
         }
         if (isAdmin || isHeritageManager || isUploader) {
             siteDocumentRepository.deleteById(id);
+            if (doc.isActive()) {
+                storageAccountingService.recordRemoved(StorageUsage.ContentType.SITE_DOCUMENT,
+                    doc.getHeritageSite() != null ? doc.getHeritageSite().getId() : null,
+                    doc.getUploaderUsername(), doc.getFileSize());
+            }
+            publishContentChanged(id);
         } else {
             throw new org.springframework.web.server.ResponseStatusException(
                 org.springframework.http.HttpStatus.FORBIDDEN, "You do not have permission to delete this document file.");
@@ -122,7 +141,12 @@ public class SiteDocumentService {
     }
 
     // --- File upload logic ---
+    @Transactional
     public SiteDocument storeDocumentFile(Long siteId, MultipartFile file, String description, String category, String uploadDate, boolean isPublic, String language) throws IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String uploader = (auth != null && auth.isAuthenticated() && !auth.getPrincipal().equals("anonymousUser")) ? auth.getName() : null;
+        // Enforce quotas before anything touches the disk
+        storageAccountingService.checkQuota(siteId, uploader, file.getSize());
         // Ensure upload directory exists
         Path uploadPath = Paths.get(documentUploadDir);
         if (!Files.exists(uploadPath)) {
@@ -144,6 +168,7 @@ public class SiteDocumentService {
         doc.setFileName(originalFilename);
         doc.setFileType(file.getContentType());
         doc.setFilePath(filePath.toString());
+        doc.setFileSize(file.getSize());
         doc.setDescription(description);
         doc.setCategory(category);
         // Validate language
@@ -155,12 +180,27 @@ public class SiteDocumentService {
         doc.setUploadDate(uploadDate);
         doc.setIsPublic(isPublic);
         doc.setHeritageSite(site);
-        // Set uploader
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth != null && auth.isAuthenticated() && !auth.getPrincipal().equals("anonymousUser")) {
-            doc.setUploaderUsername(auth.getName());
+        doc.setUploaderUsername(uploader);
+        SiteDocument saved = siteDocumentRepository.save(doc);
+        storageAccountingService.recordStored(StorageUsage.ContentType.SITE_DOCUMENT, siteId, uploader, file.getSize());
+        publishContentChanged(saved.getId());
+        return saved;
+    }
+
+    private void publishContentChanged(Long documentId) {
+        eventPublisher.publishEvent(new DocumentContentChangedEvent(
+            this, DocumentContentChangedEvent.SourceType.SITE_DOCUMENT, documentId));
+    }
+
+    /**
+     * Active documents of a site that the current user is allowed to download.
+     */
+    public List<SiteDocument> getDownloadableDocumentsBySite(Long siteId) {
+        List<SiteDocument> docs = siteDocumentRepository.findByHeritageSiteIdAndIsActiveTrue(siteId);
+        if (isPublicUser()) {
+            return docs.stream().filter(SiteDocument::isPublic).collect(Collectors.toList());
         }
-        return siteDocumentRepository.save(doc);
+        return docs;
     }
 
     // --- File download logic ---
@@ -2,6 +2,7 @@ package com.rwandaheritage.heritageguard.service;
 
 import com.rwandaheritage.heritageguard.model.HeritageSite;
 import com.rwandaheritage.heritageguard.model.SiteMedia;
+import com.rwandaheritage.heritageguard.model.StorageUsage;
 import com.rwandaheritage.heritageguard.repository.HeritageSiteRepository;
 import com.rwandaheritage.heritageguard.repository.SiteMediaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,7 @@ import org.springframework.core.io.Resource;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
@@ -27,14 +29,17 @@ import java.util.stream.Collectors;
 public class SiteMediaService {
     private final SiteMediaRepository siteMediaRepository;
     private final HeritageSiteRepository heritageSiteRepository;
+    private final StorageAccountingService storageAccountingService;
 
     private final String mediaUploadDir;
 
     @Autowired
     public SiteMediaService(SiteMediaRepository siteMediaRepository, HeritageSiteRepository heritageSiteRepository,
+                           StorageAccountingService storageAccountingService,
                            @Value("${media.upload.dir:uploads/media}") String mediaUploadDir) {
         this.siteMediaRepository = siteMediaRepository;
         this.heritageSiteRepository = heritageSiteRepository;
+        this.storageAccountingService = storageAccountingService;
         this.mediaUploadDir = mediaUploadDir;
     }
 
@@ -105,6 +110,7 @@ public class SiteMediaService {
         }
     }
 
+    @Transactional
     public void deleteSiteMedia(Long id) {
         SiteMedia media = siteMediaRepository.findById(id).orElse(null);
         if (media == null) throw new org.springframework.web.server.ResponseStatusException(
@@ -119,6 +125,11 @@ public class SiteMediaService {
         }
         if (isAdmin || isHeritageManager || isUploader) {
             siteMediaRepository.deleteById(id);
+            if (media.isActive()) {
+                storageAccountingService.recordRemoved(StorageUsage.ContentType.SITE_MEDIA,
+                    media.getHeritageSite() != null ? media.getHeritageSite().getId() : null,
+                    media.getUploaderUsername(), media.getFileSize());
+            }
         } else {
             throw new org.springframework.web.server.ResponseStatusException(
                 org.springframework.http.HttpStatus.FORBIDDEN, "You do not have permission to delete this media file.");
@@ -126,7 +137,12 @@ public class SiteMediaService {
     }
 
     // --- File upload logic ---
+    @Transactional
     public SiteMedia storeMediaFile(Long siteId, MultipartFile file, String description, String category, String dateTaken, String photographer, boolean isPublic) throws IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String uploader = (auth != null && auth.isAuthenticated() && !auth.getPrincipal().equals("anonymousUser")) ? auth.getName() : null;
+        // Enforce quotas before anything touches the disk
+        storageAccountingService.checkQuota(siteId, uploader, file.getSize());
         // Ensure upload directory exists
         Path uploadPath = Paths.get(mediaUploadDir);
         if (!Files.exists(uploadPath)) {
@@ -155,12 +171,10 @@ public class SiteMediaService {
         media.setPhotographer(photographer);
         media.setIsPublic(isPublic);
         media.setHeritageSite(site);
-        // Set uploader
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth != null && auth.isAuthenticated() && !auth.getPrincipal().equals("anonymousUser")) {
-            media.setUploaderUsername(auth.getName());
-        }
-        return siteMediaRepository.save(media);
+        media.setUploaderUsername(uploader);
+        SiteMedia saved = siteMediaRepository.save(media);
+        storageAccountingService.recordStored(StorageUsage.ContentType.SITE_MEDIA, siteId, uploader, file.getSize());
+        return saved;
     }
 
     // --- File download logic ---
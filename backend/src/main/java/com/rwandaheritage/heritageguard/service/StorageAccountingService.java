@@ -0,0 +1,274 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.rwandaheritage.heritageguard.model.StorageUsage;
+import com.rwandaheritage.heritageguard.repository.ArtifactMediaRepository;
+import com.rwandaheritage.heritageguard.repository.DocumentVersionRepository;
+import com.rwandaheritage.heritageguard.repository.SiteDocumentRepository;
+import com.rwandaheritage.heritageguard.repository.SiteMediaRepository;
+import com.rwandaheritage.heritageguard.repository.StorageUsageRepository;
+import com.rwandaheritage.heritageguard.repository.TestimonialRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Storage usage accounting.
+ *
+ * Keeps per-site, per-uploader and per-content-type byte counters up to date as files are
+ * stored or removed, enforces the configured quotas at upload time and periodically rescans
+ * the disk to correct any drift between the counters and the files actually present.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageAccountingService {
+
+    static final String TOTAL_KEY = "all";
+
+    private final StorageUsageRepository storageUsageRepository;
+    private final SiteMediaRepository siteMediaRepository;
+    private final SiteDocumentRepository siteDocumentRepository;
+    private final DocumentVersionRepository documentVersionRepository;
+    private final ArtifactMediaRepository artifactMediaRepository;
+    private final TestimonialRepository testimonialRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Quotas in bytes; 0 disables the corresponding limit
+    @Value("${storage.quota.total-bytes:0}")
+    private long totalQuotaBytes;
+
+    @Value("${storage.quota.site-bytes:0}")
+    private long siteQuotaBytes;
+
+    @Value("${storage.quota.user-bytes:0}")
+    private long userQuotaBytes;
+
+    /**
+     * Reject an upload that would push the platform, the site or the uploader over quota.
+     */
+    @Transactional(readOnly = true)
+    public void checkQuota(Long siteId, String uploader, long incomingBytes) {
+        checkScope(StorageUsage.Scope.TOTAL, TOTAL_KEY, totalQuotaBytes, incomingBytes, "Platform");
+        if (siteId != null) {
+            checkScope(StorageUsage.Scope.SITE, siteId.toString(), siteQuotaBytes, incomingBytes, "Heritage site");
+        }
+        if (uploader != null) {
+            checkScope(StorageUsage.Scope.USER, uploader, userQuotaBytes, incomingBytes, "User");
+        }
+    }
+
+    /**
+     * Count a newly stored file. Joins the caller's transaction so the counters
+     * commit or roll back together with the row that references the file.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStored(StorageUsage.ContentType contentType, Long siteId, String uploader, Long bytes) {
+        adjust(contentType, siteId, uploader, bytes != null ? bytes : 0L, 1L);
+    }
+
+    /**
+     * Discount a file whose row was deleted or soft-deleted.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemoved(StorageUsage.ContentType contentType, Long siteId, String uploader, Long bytes) {
+        adjust(contentType, siteId, uploader, -(bytes != null ? bytes : 0L), -1L);
+    }
+
+    @Transactional(readOnly = true)
+    public long getTotalBytes() {
+        return storageUsageRepository.findByScopeAndScopeKey(StorageUsage.Scope.TOTAL, TOTAL_KEY)
+                .map(StorageUsage::getBytesUsed)
+                .orElse(0L);
+    }
+
+    /**
+     * Storage breakdown by site, uploader and content type, largest first.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getUsageBreakdown() {
+        Map<String, Object> breakdown = new LinkedHashMap<>();
+        breakdown.put("totalBytes", getTotalBytes());
+        breakdown.put("bySite", toUsageMap(StorageUsage.Scope.SITE));
+        breakdown.put("byUser", toUsageMap(StorageUsage.Scope.USER));
+        breakdown.put("byContentType", toUsageMap(StorageUsage.Scope.CONTENT_TYPE));
+
+        Map<String, Long> quotas = new LinkedHashMap<>();
+        quotas.put("totalBytes", totalQuotaBytes);
+        quotas.put("siteBytes", siteQuotaBytes);
+        quotas.put("userBytes", userQuotaBytes);
+        breakdown.put("quotas", quotas);
+        return breakdown;
+    }
+
+    /**
+     * Rescan every stored file and correct counters that drifted from what is on disk.
+     *
+     * The disk is scanned first, without holding anything. Counter adjustments are then
+     * held off only while the stored rows are re-read and compared with the counters: files
+     * the scan already sized are not stat'ed again, so the lock covers a few queries and the
+     * files added in between. Files missing from disk count neither bytes nor files.
+     *
+     * @return number of counters that were corrected
+     */
+    @Scheduled(cron = "${storage.reconcile.cron:0 30 3 * * *}")
+    public int reconcile() {
+        long start = System.currentTimeMillis();
+        Map<String, Long> sizes = new HashMap<>();
+        forEachStoredFile((contentType, filePath, siteId, uploader) ->
+                sizes.put(filePath, sizeOnDisk(filePath)));
+        long scanned = System.currentTimeMillis();
+
+        int[] result = transactionTemplate.execute(status -> correctCounters(sizes));
+        log.info("Storage reconciliation finished: disk scan {}ms, locked {}ms, {} counters checked, {} corrected",
+                scanned - start, System.currentTimeMillis() - scanned, result[0], result[1]);
+        return result[1];
+    }
+
+    // Runs with counter adjustments locked out: { counters checked, counters corrected }
+    private int[] correctCounters(Map<String, Long> sizes) {
+        storageUsageRepository.lockForReconcile();
+        Map<String, long[]> actual = new HashMap<>();
+        forEachStoredFile((contentType, filePath, siteId, uploader) -> {
+            long bytes = filePath != null ? sizes.computeIfAbsent(filePath, StorageAccountingService::sizeOnDisk) : -1L;
+            if (bytes >= 0) {
+                accumulate(actual, contentType, bytes, siteId, uploader);
+            }
+        });
+
+        Map<String, StorageUsage> recorded = storageUsageRepository.findAll().stream()
+                .collect(Collectors.toMap(u -> counterKey(u.getScope(), u.getScopeKey()), u -> u));
+
+        Set<String> keys = new HashSet<>(actual.keySet());
+        keys.addAll(recorded.keySet());
+
+        int corrected = 0;
+        for (String key : keys) {
+            long[] real = actual.getOrDefault(key, new long[2]);
+            StorageUsage current = recorded.get(key);
+            long byteDrift = real[0] - (current != null ? current.getBytesUsed() : 0L);
+            long fileDrift = real[1] - (current != null ? current.getFileCount() : 0L);
+            if (byteDrift != 0 || fileDrift != 0) {
+                int sep = key.indexOf(':');
+                storageUsageRepository.adjust(key.substring(0, sep), key.substring(sep + 1), byteDrift, fileDrift);
+                log.warn("Storage counter {} drifted by {} bytes / {} files; corrected", key, byteDrift, fileDrift);
+                corrected++;
+            }
+        }
+        return new int[] { keys.size(), corrected };
+    }
+
+    private void forEachStoredFile(StoredFileVisitor visitor) {
+        for (Object[] row : siteMediaRepository.findActiveStorageRows()) {
+            visitor.visit(StorageUsage.ContentType.SITE_MEDIA, (String) row[0], (Long) row[1], (String) row[2]);
+        }
+        for (Object[] row : siteDocumentRepository.findActiveStorageRows()) {
+            visitor.visit(StorageUsage.ContentType.SITE_DOCUMENT, (String) row[0], (Long) row[1], (String) row[2]);
+        }
+        for (Object[] row : documentVersionRepository.findActiveStorageRows()) {
+            visitor.visit(StorageUsage.ContentType.DOCUMENT_VERSION, (String) row[0], (Long) row[1], (String) row[2]);
+        }
+        for (Object[] row : artifactMediaRepository.findStorageRows()) {
+            visitor.visit(StorageUsage.ContentType.ARTIFACT_MEDIA, (String) row[0], (Long) row[1], (String) row[2]);
+        }
+        for (Object[] row : testimonialRepository.findActiveAvatarStorageRows()) {
+            visitor.visit(StorageUsage.ContentType.TESTIMONIAL_AVATAR, (String) row[0], null, (String) row[1]);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StoredFileVisitor {
+        void visit(StorageUsage.ContentType contentType, String filePath, Long siteId, String uploader);
+    }
+
+    private void adjust(StorageUsage.ContentType contentType, Long siteId, String uploader, long bytes, long files) {
+        storageUsageRepository.adjust(StorageUsage.Scope.TOTAL.name(), TOTAL_KEY, bytes, files);
+        storageUsageRepository.adjust(StorageUsage.Scope.CONTENT_TYPE.name(), contentType.name(), bytes, files);
+        if (siteId != null) {
+            storageUsageRepository.adjust(StorageUsage.Scope.SITE.name(), siteId.toString(), bytes, files);
+        }
+        if (uploader != null) {
+            storageUsageRepository.adjust(StorageUsage.Scope.USER.name(), uploader, bytes, files);
+        }
+    }
+
+    private void checkScope(StorageUsage.Scope scope, String key, long quota, long incomingBytes, String label) {
+        if (quota <= 0) {
+            return;
+        }
+        long used = storageUsageRepository.findByScopeAndScopeKey(scope, key)
+                .map(StorageUsage::getBytesUsed)
+                .orElse(0L);
+        if (used + incomingBytes > quota) {
+            log.warn("Storage quota exceeded for {} {}: used={} incoming={} quota={}", scope, key, used, incomingBytes, quota);
+            throw new ResponseStatusException(HttpStatus.INSUFFICIENT_STORAGE,
+                    label + " storage quota exceeded (" + used + " of " + quota + " bytes used)");
+        }
+    }
+
+    private void accumulate(Map<String, long[]> totals, StorageUsage.ContentType contentType,
+                            long bytes, Long siteId, String uploader) {
+        add(totals, counterKey(StorageUsage.Scope.TOTAL, TOTAL_KEY), bytes);
+        add(totals, counterKey(StorageUsage.Scope.CONTENT_TYPE, contentType.name()), bytes);
+        if (siteId != null) {
+            add(totals, counterKey(StorageUsage.Scope.SITE, siteId.toString()), bytes);
+        }
+        if (uploader != null) {
+            add(totals, counterKey(StorageUsage.Scope.USER, uploader), bytes);
+        }
+    }
+
+    private static void add(Map<String, long[]> totals, String key, long bytes) {
+        long[] counter = totals.computeIfAbsent(key, k -> new long[2]);
+        counter[0] += bytes;
+        counter[1]++;
+    }
+
+    // Size of the file, or -1 when it is missing or unreadable
+    private static long sizeOnDisk(String filePath) {
+        if (filePath == null) {
+            return -1L;
+        }
+        try {
+            Path path = Paths.get(filePath);
+            return Files.exists(path) ? Files.size(path) : -1L;
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not stat {}: {}", filePath, e.getMessage());
+            return -1L;
+        }
+    }
+
+    private static String counterKey(StorageUsage.Scope scope, String key) {
+        return scope.name() + ":" + key;
+    }
+
+    private List<Map<String, Object>> toUsageMap(StorageUsage.Scope scope) {
+        return storageUsageRepository.findByScopeOrderByBytesUsedDesc(scope).stream()
+                .map(u -> {
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put("key", u.getScopeKey());
+                    entry.put("bytes", u.getBytesUsed());
+                    entry.put("files", u.getFileCount());
+                    return entry;
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,444 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.rwandaheritage.heritageguard.model.FileIntegrityRecord;
+import com.rwandaheritage.heritageguard.repository.ArtifactAuthenticationRepository;
+import com.rwandaheritage.heritageguard.repository.ArtifactMediaRepository;
+import com.rwandaheritage.heritageguard.repository.DocumentVersionRepository;
+import com.rwandaheritage.heritageguard.repository.FileIntegrityRecordRepository;
+import com.rwandaheritage.heritageguard.repository.ProvenanceRecordRepository;
+import com.rwandaheritage.heritageguard.repository.SiteDocumentRepository;
+import com.rwandaheritage.heritageguard.repository.SiteMediaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Storage integrity scrubber.
+ *
+ * Walks every row that references a stored file in keyset batches, checks the file is still
+ * on disk and verifies its SHA-256 against the checksum recorded the first time it was seen.
+ * It then walks the upload directories to find files no row references. Hashing is throttled
+ * to a configurable I/O budget and runs on a single low-priority thread, and files verified
+ * recently with unchanged size and modification time are not re-read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageIntegrityService {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final FileIntegrityRecordRepository recordRepository;
+    private final SiteMediaRepository siteMediaRepository;
+    private final SiteDocumentRepository siteDocumentRepository;
+    private final DocumentVersionRepository documentVersionRepository;
+    private final ArtifactMediaRepository artifactMediaRepository;
+    private final ProvenanceRecordRepository provenanceRecordRepository;
+    private final ArtifactAuthenticationRepository artifactAuthenticationRepository;
+
+    @Value("${media.upload.dir:uploads/media}")
+    private String mediaUploadDir;
+
+    @Value("${document.upload.dir:uploads/documents}")
+    private String documentUploadDir;
+
+    @Value("${artifact.media.upload.dir:E:/RWANDA_ARTIFACT_MEDIA}")
+    private String artifactMediaUploadDir;
+
+    @Value("${provenance.document.upload.dir:E:/RWANDA_PROVENANCE_DOCS}")
+    private String provenanceUploadDir;
+
+    @Value("${authentication.document.upload.dir:E:/RWANDA_AUTH_DOCS}")
+    private String authenticationUploadDir;
+
+    @Value("${storage.scrub.batch-size:200}")
+    private int batchSize;
+
+    // Hashing read budget; 0 disables throttling
+    @Value("${storage.scrub.io-bytes-per-second:10485760}")
+    private long ioBytesPerSecond;
+
+    // Unchanged files are re-hashed at most this often
+    @Value("${storage.scrub.reverify-days:30}")
+    private int reverifyDays;
+
+    // Newer unreferenced files may belong to an upload whose row is not committed yet
+    @Value("${storage.scrub.orphan-grace-minutes:60}")
+    private int orphanGraceMinutes;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile ScrubRun lastRun;
+
+    /**
+     * Progress counters of a scrub run, updated as it goes.
+     */
+    private static class ScrubRun {
+        private final LocalDateTime startedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        private volatile String phase = "STARTING";
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+        private volatile long rowsTotal;
+        private final AtomicLong rowsChecked = new AtomicLong();
+        private final AtomicLong filesHashed = new AtomicLong();
+        private final AtomicLong bytesHashed = new AtomicLong();
+        private final AtomicLong filesWalked = new AtomicLong();
+        private final AtomicLong missing = new AtomicLong();
+        private final AtomicLong corrupted = new AtomicLong();
+        private final AtomicLong orphaned = new AtomicLong();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Run a full scrub in the background. Returns immediately if a run is already in progress.
+     */
+    @Scheduled(cron = "${storage.scrub.cron:0 0 4 * * SUN}")
+    @Async("storageScrubExecutor")
+    public void scrub() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Storage integrity scrub already running; skipping");
+            return;
+        }
+        ScrubRun run = new ScrubRun();
+        lastRun = run;
+        try {
+            run.rowsTotal = siteMediaRepository.count() + siteDocumentRepository.count()
+                    + documentVersionRepository.count() + artifactMediaRepository.count()
+                    + provenanceRecordRepository.count() + artifactAuthenticationRepository.count();
+            IoThrottle throttle = new IoThrottle(ioBytesPerSecond);
+            Set<String> referenced = new HashSet<>();
+
+            run.phase = "VERIFYING_FILES";
+            scanRows(run, throttle, referenced, FileIntegrityRecord.SourceType.SITE_MEDIA, siteMediaRepository::findFileRefsAfter);
+            scanRows(run, throttle, referenced, FileIntegrityRecord.SourceType.SITE_DOCUMENT, siteDocumentRepository::findFileRefsAfter);
+            scanRows(run, throttle, referenced, FileIntegrityRecord.SourceType.DOCUMENT_VERSION, documentVersionRepository::findFileRefsAfter);
+            scanRows(run, throttle, referenced, FileIntegrityRecord.SourceType.ARTIFACT_MEDIA, artifactMediaRepository::findFileRefsAfter);
+            scanRows(run, throttle, referenced, FileIntegrityRecord.SourceType.PROVENANCE_DOCUMENT, provenanceRecordRepository::findFileRefsAfter);
+            scanRows(run, throttle, referenced, FileIntegrityRecord.SourceType.AUTHENTICATION_DOCUMENT, artifactAuthenticationRepository::findFileRefsAfter);
+
+            run.phase = "FINDING_ORPHANS";
+            findOrphans(run, referenced);
+
+            run.phase = "CLEANUP";
+            int stale = recordRepository.deleteNotScannedSince(run.startedAt);
+
+            run.phase = "COMPLETED";
+            log.info("Storage integrity scrub finished: {} rows, {} files hashed ({} bytes), {} missing, {} corrupted, {} orphaned, {} stale records removed",
+                    run.rowsChecked.get(), run.filesHashed.get(), run.bytesHashed.get(),
+                    run.missing.get(), run.corrupted.get(), run.orphaned.get(), stale);
+        } catch (RuntimeException e) {
+            run.phase = "FAILED";
+            run.error = e.getMessage();
+            log.error("Storage integrity scrub failed", e);
+        } finally {
+            run.finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Progress of the current or last run plus the number of tracked files per status.
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        ScrubRun run = lastRun;
+        if (run != null) {
+            Map<String, Object> progress = new LinkedHashMap<>();
+            progress.put("phase", run.phase);
+            progress.put("startedAt", run.startedAt);
+            progress.put("finishedAt", run.finishedAt);
+            progress.put("rowsChecked", run.rowsChecked.get());
+            progress.put("rowsTotal", run.rowsTotal);
+            progress.put("percentRowsChecked", run.rowsTotal > 0
+                    ? Math.min(100, Math.round(run.rowsChecked.get() * 100.0 / run.rowsTotal)) : 100);
+            progress.put("filesHashed", run.filesHashed.get());
+            progress.put("bytesHashed", run.bytesHashed.get());
+            progress.put("filesWalked", run.filesWalked.get());
+            progress.put("missing", run.missing.get());
+            progress.put("corrupted", run.corrupted.get());
+            progress.put("orphaned", run.orphaned.get());
+            progress.put("error", run.error);
+            status.put("lastRun", progress);
+        }
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (Object[] row : recordRepository.countByStatus()) {
+            byStatus.put(String.valueOf(row[0]), (Long) row[1]);
+        }
+        status.put("filesByStatus", byStatus);
+        status.put("ioBytesPerSecond", ioBytesPerSecond);
+        return status;
+    }
+
+    /**
+     * Files with problems, optionally restricted to one status.
+     */
+    public Page<FileIntegrityRecord> getIssues(FileIntegrityRecord.Status status, Pageable pageable) {
+        if (status != null) {
+            return recordRepository.findByStatusOrderByLastScannedDateDesc(status, pageable);
+        }
+        return recordRepository.findByStatusNotOrderByLastScannedDateDesc(FileIntegrityRecord.Status.OK, pageable);
+    }
+
+    private void scanRows(ScrubRun run, IoThrottle throttle, Set<String> referenced,
+                          FileIntegrityRecord.SourceType sourceType,
+                          BiFunction<Long, Pageable, List<Object[]>> fetch) {
+        long afterId = 0L;
+        while (true) {
+            List<Object[]> rows = fetch.apply(afterId, PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) {
+                return;
+            }
+            Map<String, Object[]> byPath = new LinkedHashMap<>();
+            for (Object[] row : rows) {
+                String path = normalize((String) row[1]);
+                if (path != null) {
+                    referenced.add(path);
+                    // An active reference wins over an inactive one to the same file
+                    byPath.merge(path, row, (a, b) -> Boolean.TRUE.equals(a[2]) ? a : b);
+                }
+            }
+            Map<String, FileIntegrityRecord> existing = recordRepository.findByFilePathIn(byPath.keySet()).stream()
+                    .collect(Collectors.toMap(FileIntegrityRecord::getFilePath, r -> r));
+
+            List<FileIntegrityRecord> toSave = new ArrayList<>();
+            for (Map.Entry<String, Object[]> entry : byPath.entrySet()) {
+                Object[] row = entry.getValue();
+                FileIntegrityRecord record = verify(run, throttle, entry.getKey(), existing.get(entry.getKey()),
+                        sourceType, (Long) row[0], Boolean.TRUE.equals(row[2]));
+                if (record != null) {
+                    toSave.add(record);
+                }
+            }
+            recordRepository.saveAll(toSave);
+
+            run.rowsChecked.addAndGet(rows.size());
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+            if (rows.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private FileIntegrityRecord verify(ScrubRun run, IoThrottle throttle, String filePath, FileIntegrityRecord record,
+                                       FileIntegrityRecord.SourceType sourceType, Long sourceId, boolean active) {
+        Path path = Paths.get(filePath);
+        if (!Files.isRegularFile(path)) {
+            // Soft-deleted rows may legitimately point at removed files
+            if (!active) {
+                return null;
+            }
+            record = record != null ? record : newRecord(filePath, run);
+            record.setSourceType(sourceType);
+            record.setSourceId(sourceId);
+            record.setStatus(FileIntegrityRecord.Status.MISSING);
+            record.setLastScannedDate(run.startedAt);
+            run.missing.incrementAndGet();
+            log.warn("Storage integrity: {} {} references missing file {}", sourceType, sourceId, filePath);
+            return record;
+        }
+
+        record = record != null ? record : newRecord(filePath, run);
+        record.setSourceType(sourceType);
+        record.setSourceId(sourceId);
+        record.setLastScannedDate(run.startedAt);
+        try {
+            long size = Files.size(path);
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            boolean recentlyVerified = record.getStatus() == FileIntegrityRecord.Status.OK
+                    && record.getChecksum() != null
+                    && Long.valueOf(size).equals(record.getSizeBytes())
+                    && Long.valueOf(modified).equals(record.getLastModified())
+                    && record.getLastVerifiedDate() != null
+                    && record.getLastVerifiedDate().isAfter(run.startedAt.minusDays(reverifyDays));
+            if (!recentlyVerified) {
+                String checksum = sha256(path, throttle);
+                run.filesHashed.incrementAndGet();
+                run.bytesHashed.addAndGet(size);
+                if (record.getChecksum() == null) {
+                    record.setChecksum(checksum);
+                }
+                record.setLastChecksum(checksum);
+                record.setLastVerifiedDate(LocalDateTime.now());
+                record.setStatus(checksum.equals(record.getChecksum())
+                        ? FileIntegrityRecord.Status.OK : FileIntegrityRecord.Status.CORRUPTED);
+            }
+            record.setSizeBytes(size);
+            record.setLastModified(modified);
+        } catch (IOException e) {
+            log.warn("Storage integrity: could not read {}: {}", filePath, e.getMessage());
+            record.setStatus(FileIntegrityRecord.Status.CORRUPTED);
+        }
+        if (record.getStatus() == FileIntegrityRecord.Status.CORRUPTED) {
+            run.corrupted.incrementAndGet();
+            log.warn("Storage integrity: content of {} {} ({}) no longer matches its checksum", sourceType, sourceId, filePath);
+        }
+        return record;
+    }
+
+    private void findOrphans(ScrubRun run, Set<String> referenced) {
+        Set<Path> roots = new LinkedHashSet<>();
+        for (String dir : List.of(mediaUploadDir, documentUploadDir, artifactMediaUploadDir,
+                provenanceUploadDir, authenticationUploadDir)) {
+            String normalized = normalize(dir);
+            if (normalized != null && Files.isDirectory(Paths.get(normalized))) {
+                roots.add(Paths.get(normalized));
+            }
+        }
+        long graceCutoff = System.currentTimeMillis() - orphanGraceMinutes * 60_000L;
+        Set<String> walked = new HashSet<>();
+
+        for (Path root : roots) {
+            List<String> batch = new ArrayList<>();
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    String path = file.toAbsolutePath().normalize().toString();
+                    // Upload directories may be nested in one another
+                    if (!walked.add(path)) {
+                        continue;
+                    }
+                    run.filesWalked.incrementAndGet();
+                    if (!referenced.contains(path)) {
+                        batch.add(path);
+                        if (batch.size() >= batchSize) {
+                            recordOrphans(run, batch, graceCutoff);
+                            batch.clear();
+                        }
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Storage integrity: could not walk {}: {}", root, e.getMessage());
+            }
+            recordOrphans(run, batch, graceCutoff);
+        }
+    }
+
+    private void recordOrphans(ScrubRun run, List<String> paths, long graceCutoff) {
+        if (paths.isEmpty()) {
+            return;
+        }
+        Map<String, FileIntegrityRecord> existing = new HashMap<>();
+        recordRepository.findByFilePathIn(paths).forEach(r -> existing.put(r.getFilePath(), r));
+
+        List<FileIntegrityRecord> toSave = new ArrayList<>();
+        for (String filePath : paths) {
+            try {
+                Path path = Paths.get(filePath);
+                long modified = Files.getLastModifiedTime(path).toMillis();
+                if (modified > graceCutoff) {
+                    continue;
+                }
+                FileIntegrityRecord record = existing.getOrDefault(filePath, newRecord(filePath, run));
+                record.setSourceType(null);
+                record.setSourceId(null);
+                record.setSizeBytes(Files.size(path));
+                record.setLastModified(modified);
+                record.setStatus(FileIntegrityRecord.Status.ORPHANED);
+                record.setLastScannedDate(run.startedAt);
+                toSave.add(record);
+                run.orphaned.incrementAndGet();
+            } catch (IOException e) {
+                log.debug("Storage integrity: orphan {} vanished during scan: {}", filePath, e.getMessage());
+            }
+        }
+        recordRepository.saveAll(toSave);
+    }
+
+    private static FileIntegrityRecord newRecord(String filePath, ScrubRun run) {
+        return FileIntegrityRecord.builder()
+                .filePath(filePath)
+                .firstSeenDate(run.startedAt)
+                .build();
+    }
+
+    private static String sha256(Path path, IoThrottle throttle) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                throttle.consumed(read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String normalize(String filePath) {
+        if (filePath == null || filePath.isBlank()) {
+            return null;
+        }
+        try {
+            return Paths.get(filePath).toAbsolutePath().normalize().toString();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Sleeps just enough to keep the average read rate of a run under the budget.
+     */
+    private static final class IoThrottle {
+        private final long bytesPerSecond;
+        private final long startNanos = System.nanoTime();
+        private long bytes;
+
+        IoThrottle(long bytesPerSecond) {
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        void consumed(long count) {
+            if (bytesPerSecond <= 0) {
+                return;
+            }
+            bytes += count;
+            long dueNanos = (long) (bytes * 1_000_000_000d / bytesPerSecond);
+            long aheadMillis = (dueNanos - (System.nanoTime() - startNanos)) / 1_000_000L;
+            if (aheadMillis > 0) {
+                try {
+                    Thread.sleep(aheadMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Storage integrity scrub interrupted", e);
+                }
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.rwandaheritage.heritageguard.service;
 
 import com.rwandaheritage.heritageguard.dto.TestimonialDTO;
 import com.rwandaheritage.heritageguard.mapper.TestimonialMapper;
+import com.rwandaheritage.heritageguard.model.StorageUsage;
 import com.rwandaheritage.heritageguard.model.Testimonial;
 import com.rwandaheritage.heritageguard.model.User;
 import com.rwandaheritage.heritageguard.repository.TestimonialRepository;
@@ -13,6 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -35,6 +37,9 @@ public class TestimonialService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private StorageAccountingService storageAccountingService;
+    
     private static final String AVATAR_UPLOAD_DIR = "uploads/testimonials/avatars/";
     
     /**
@@ -165,6 +170,7 @@ public class TestimonialService {
     /**
      * Reject testimonial
      */
+    @Transactional
     public void rejectTestimonial(Long id) {
         Optional<Testimonial> testimonial = testimonialRepository.findById(id);
         if (testimonial.isEmpty() || !testimonial.get().isActive()) {
@@ -176,6 +182,10 @@ public class TestimonialService {
         existingTestimonial.setUpdatedBy(SecurityContextHolder.getContext().getAuthentication().getName());
         
         testimonialRepository.save(existingTestimonial);
+        if (existingTestimonial.getAvatarFilePath() != null) {
+            storageAccountingService.recordRemoved(StorageUsage.ContentType.TESTIMONIAL_AVATAR, null,
+                existingTestimonial.getCreatedBy(), sizeOf(existingTestimonial.getAvatarFilePath()));
+        }
     }
     
     /**
@@ -240,6 +250,7 @@ public class TestimonialService {
     /**
      * Delete testimonial
      */
+    @Transactional
     public void deleteTestimonial(Long id) {
         Optional<Testimonial> testimonial = testimonialRepository.findById(id);
         if (testimonial.isEmpty() || !testimonial.get().isActive()) {
@@ -251,11 +262,16 @@ public class TestimonialService {
         existingTestimonial.setUpdatedBy(SecurityContextHolder.getContext().getAuthentication().getName());
         
         testimonialRepository.save(existingTestimonial);
+        if (existingTestimonial.getAvatarFilePath() != null) {
+            storageAccountingService.recordRemoved(StorageUsage.ContentType.TESTIMONIAL_AVATAR, null,
+                existingTestimonial.getCreatedBy(), sizeOf(existingTestimonial.getAvatarFilePath()));
+        }
     }
     
     /**
      * Upload avatar for testimonial
      */
+    @Transactional
     public TestimonialDTO uploadAvatar(Long id, MultipartFile file) {
         Optional<Testimonial> testimonial = testimonialRepository.findById(id);
         if (testimonial.isEmpty() || !testimonial.get().isActive()) {
@@ -263,6 +279,10 @@ public class TestimonialService {
         }
         
         Testimonial existingTestimonial = testimonial.get();
+        String previousAvatarPath = existingTestimonial.getAvatarFilePath();
+        long previousAvatarSize = sizeOf(previousAvatarPath);
+        storageAccountingService.checkQuota(null, existingTestimonial.getCreatedBy(),
+            Math.max(0L, file.getSize() - previousAvatarSize));
         
         try {
             // Create upload directory if it doesn't exist
@@ -287,6 +307,12 @@ public class TestimonialService {
             existingTestimonial.setUpdatedBy(SecurityContextHolder.getContext().getAuthentication().getName());
             
             Testimonial savedTestimonial = testimonialRepository.save(existingTestimonial);
+            if (previousAvatarPath != null) {
+                storageAccountingService.recordRemoved(StorageUsage.ContentType.TESTIMONIAL_AVATAR, null,
+                    existingTestimonial.getCreatedBy(), previousAvatarSize);
+            }
+            storageAccountingService.recordStored(StorageUsage.ContentType.TESTIMONIAL_AVATAR, null,
+                existingTestimonial.getCreatedBy(), Files.size(filePath));
             return TestimonialMapper.toDTO(savedTestimonial);
             
         } catch (IOException e) {
@@ -294,6 +320,18 @@ public class TestimonialService {
         }
     }
     
+    private long sizeOf(String filePath) {
+        if (filePath == null) {
+            return 0L;
+        }
+        try {
+            Path path = Paths.get(filePath);
+            return Files.exists(path) ? Files.size(path) : 0L;
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+    
     /**
      * Get pending testimonials (for admin review)
      */
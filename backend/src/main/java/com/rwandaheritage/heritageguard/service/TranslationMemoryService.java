@@ -4,8 +4,10 @@ import com.rwandaheritage.heritageguard.dto.TranslationMemoryDTO;
 import com.rwandaheritage.heritageguard.mapper.TranslationMemoryMapper;
 import com.rwandaheritage.heritageguard.model.TranslationMemory;
 import com.rwandaheritage.heritageguard.repository.TranslationMemoryRepository;
+import com.rwandaheritage.heritageguard.util.PaginationUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -91,13 +93,14 @@ public class TranslationMemoryService {
     }
     
     /**
-     * Get all translation memory entries
+     * Get translation memory entries, newest first, one keyset page at a time
      */
     @Transactional(readOnly = true)
-    public List<TranslationMemoryDTO> getAllTranslationMemory() {
-        log.debug("Fetching all translation memory entries");
+    public List<TranslationMemoryDTO> getAllTranslationMemory(Long beforeId, Integer size) {
+        log.debug("Fetching translation memory entries before {}", beforeId);
         
-        List<TranslationMemory> memoryEntries = translationMemoryRepository.findAll();
+        List<TranslationMemory> memoryEntries = translationMemoryRepository.findByIdLessThanOrderByIdDesc(
+                beforeId != null ? beforeId : Long.MAX_VALUE, PageRequest.of(0, PaginationUtil.validatePageSize(size)));
         return memoryEntries.stream()
                 .map(TranslationMemoryMapper::toDTO)
                 .collect(Collectors.toList());
@@ -1,6 +1,7 @@
 package com.rwandaheritage.heritageguard.service;
 
 import com.rwandaheritage.heritageguard.dto.TranslationDTO;
+import com.rwandaheritage.heritageguard.event.ForumContentChangedEvent;
 import com.rwandaheritage.heritageguard.mapper.TranslationMapper;
 import com.rwandaheritage.heritageguard.model.Translation;
 import com.rwandaheritage.heritageguard.repository.TranslationRepository;
@@ -8,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,7 @@ import java.util.stream.Collectors;
 public class TranslationService {
     
     private final TranslationRepository translationRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Get translated text for any content
@@ -86,6 +89,7 @@ public class TranslationService {
             log.info("Saved translation for content: {}:{}, field: {}, language: {} by user: {}", 
                     savedTranslation.getContentType(), savedTranslation.getContentId(),
                     savedTranslation.getFieldName(), savedTranslation.getLanguageCode(), currentUser);
+            publishForumContentChanged(savedTranslation);
             
             return TranslationMapper.toDTO(savedTranslation);
             
@@ -183,6 +187,7 @@ public class TranslationService {
         
         translationRepository.delete(translation);
         log.info("Deleted translation: {} by user: {}", id, currentUser);
+        publishForumContentChanged(translation);
     }
     
     /**
@@ -234,6 +239,7 @@ public class TranslationService {
             
             Translation savedTranslation = translationRepository.save(translation);
             log.info("Updated translation status: {} to: {} by user: {}", id, status, currentUser);
+            publishForumContentChanged(savedTranslation);
             
             return TranslationMapper.toDTO(savedTranslation);
         } catch (IllegalArgumentException e) {
@@ -260,6 +266,9 @@ public class TranslationService {
             return List.of();
         }
     }
-}
-
 
+    // Forum translations are part of the forum search index, which refreshes the topic or post after commit
+    private void publishForumContentChanged(Translation translation) {
+        ForumContentChangedEvent.ofTranslation(this, translation).ifPresent(eventPublisher::publishEvent);
+    }
+}
@@ -4,6 +4,7 @@ import com.rwandaheritage.heritageguard.dto.user.UserProfileDTO;
 import com.rwandaheritage.heritageguard.dto.user.UserProfileUpdateRequest;
 import com.rwandaheritage.heritageguard.model.User;
 import com.rwandaheritage.heritageguard.repository.UserRepository;
+import com.rwandaheritage.heritageguard.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
@@ -20,6 +21,7 @@ import java.util.Optional;
 public class UserProfileService {
     
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
     
     @Transactional(readOnly = true)
     public UserProfileDTO getProfile(String username, User requestingUser) {
@@ -53,6 +55,8 @@ public class UserProfileService {
         user.updateLastActivity();
         
         User updatedUser = userRepository.save(user);
+        // The username may have changed, so drop the entry under the old name
+        principalCache.evict(username);
         log.info("Profile updated successfully for user: {}", username);
         
         return mapToProfileDTO(updatedUser);
@@ -4,6 +4,7 @@ import com.rwandaheritage.heritageguard.model.User;
 import com.rwandaheritage.heritageguard.model.UserStatus;
 import com.rwandaheritage.heritageguard.repository.UserRepository;
 import com.rwandaheritage.heritageguard.event.UserStatusChangedEvent;
+import com.rwandaheritage.heritageguard.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,6 +21,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final PrincipalCache principalCache;
 
     @Transactional(readOnly = true)
     public User getUserByUsername(String username) {
@@ -234,6 +236,7 @@ public class UserService {
         }
         
         User updatedUser = userRepository.save(user);
+        principalCache.evict(updatedUser.getUsername());
         
         log.info("User status updated with automatic locking - ID: {}, Username: {}, Enabled: {}, AccountLocked: {}", 
                 id, updatedUser.getUsername(), updatedUser.isEnabled(), !updatedUser.isAccountNonLocked());
@@ -261,6 +264,7 @@ public class UserService {
         user.setLockoutTime(null);
         
         User updatedUser = userRepository.save(user);
+        principalCache.evict(updatedUser.getUsername());
         
         log.info("User unlocked - ID: {}, Username: {}", id, updatedUser.getUsername());
         
@@ -282,6 +286,7 @@ public class UserService {
         }
         
         userRepository.deleteById(id);
+        principalCache.evict(user.getUsername());
         
         log.info("User deleted - ID: {}, Username: {}", id, user.getUsername());
     }
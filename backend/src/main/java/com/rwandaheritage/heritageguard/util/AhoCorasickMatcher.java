@@ -0,0 +1,227 @@
+package com.rwandaheritage.heritageguard.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable Aho-Corasick automaton over a fixed set of terms.
+ *
+ * The caller feeds characters one at a time with {@link #next(int, char)} and, after each
+ * step, walks the terms ending at that position with {@link #firstMatch(int)} and
+ * {@link #nextMatch(int)}. Matching is exact on the characters fed in; callers normalize
+ * (case, whitespace) both the terms and the text. Any number of terms is matched in a
+ * single pass over the text.
+ *
+ * @param <T> payload attached to each term
+ */
+public final class AhoCorasickMatcher<T> {
+
+    public static final int ROOT = 0;
+
+    private static final int DENSE_ROOT_SIZE = 128;
+
+    // Per state: sorted outgoing labels and their target states
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    // Term ending exactly at the state, or -1
+    private final int[] output;
+    // Nearest state on the failure chain that has an output, or -1
+    private final int[] outputLink;
+    // Root transitions for ASCII, the common case
+    private final int[] denseRoot;
+
+    private final int[] termLengths;
+    private final List<T> payloads;
+    private final int maxTermLength;
+
+    private AhoCorasickMatcher(char[][] labels, int[][] targets, int[] fail, int[] output, int[] outputLink,
+                               int[] termLengths, List<T> payloads) {
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.output = output;
+        this.outputLink = outputLink;
+        this.termLengths = termLengths;
+        this.payloads = payloads;
+        this.denseRoot = new int[DENSE_ROOT_SIZE];
+        Arrays.fill(denseRoot, ROOT);
+        for (int i = 0; i < labels[ROOT].length; i++) {
+            if (labels[ROOT][i] < DENSE_ROOT_SIZE) {
+                denseRoot[labels[ROOT][i]] = targets[ROOT][i];
+            }
+        }
+        int longest = 0;
+        for (int length : termLengths) {
+            longest = Math.max(longest, length);
+        }
+        this.maxTermLength = longest;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * State after reading {@code c} in {@code state}.
+     */
+    public int next(int state, char c) {
+        while (true) {
+            if (state == ROOT) {
+                return c < DENSE_ROOT_SIZE ? denseRoot[c] : transition(ROOT, c);
+            }
+            int target = transition(state, c);
+            if (target >= 0) {
+                return target;
+            }
+            state = fail[state];
+        }
+    }
+
+    private int transition(int state, char c) {
+        int index = Arrays.binarySearch(labels[state], c);
+        if (index >= 0) {
+            return targets[state][index];
+        }
+        return state == ROOT ? ROOT : -1;
+    }
+
+    /**
+     * First match state for a term ending at the current position, or -1.
+     */
+    public int firstMatch(int state) {
+        return output[state] >= 0 ? state : outputLink[state];
+    }
+
+    /**
+     * Following match state (a shorter term ending at the same position), or -1.
+     */
+    public int nextMatch(int matchState) {
+        return outputLink[matchState];
+    }
+
+    /**
+     * Index of the term that ends in the given match state.
+     */
+    public int termOf(int matchState) {
+        return output[matchState];
+    }
+
+    public int termLength(int term) {
+        return termLengths[term];
+    }
+
+    public T payload(int term) {
+        return payloads.get(term);
+    }
+
+    public int size() {
+        return termLengths.length;
+    }
+
+    public int maxTermLength() {
+        return maxTermLength;
+    }
+
+    public static final class Builder<T> {
+        private final List<Map<Character, Integer>> children = new ArrayList<>();
+        private final List<Integer> outputs = new ArrayList<>();
+        private final List<Integer> lengths = new ArrayList<>();
+        private final List<T> payloads = new ArrayList<>();
+
+        private Builder() {
+            newState();
+        }
+
+        /**
+         * Add a term. Empty terms are ignored; for a term added twice the first payload wins.
+         */
+        public Builder<T> add(CharSequence term, T payload) {
+            if (term == null || term.length() == 0) {
+                return this;
+            }
+            int state = ROOT;
+            for (int i = 0; i < term.length(); i++) {
+                Integer target = children.get(state).get(term.charAt(i));
+                if (target == null) {
+                    target = newState();
+                    children.get(state).put(term.charAt(i), target);
+                }
+                state = target;
+            }
+            if (outputs.get(state) < 0) {
+                outputs.set(state, lengths.size());
+                lengths.add(term.length());
+                payloads.add(payload);
+            }
+            return this;
+        }
+
+        private int newState() {
+            children.add(new TreeMap<>());
+            outputs.add(-1);
+            return children.size() - 1;
+        }
+
+        public AhoCorasickMatcher<T> build() {
+            int states = children.size();
+            char[][] labels = new char[states][];
+            int[][] targets = new int[states][];
+            int[] output = new int[states];
+            for (int s = 0; s < states; s++) {
+                Map<Character, Integer> edges = children.get(s);
+                labels[s] = new char[edges.size()];
+                targets[s] = new int[edges.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    labels[s][i] = edge.getKey();
+                    targets[s][i] = edge.getValue();
+                    i++;
+                }
+                output[s] = outputs.get(s);
+            }
+
+            // Breadth-first, so every failure target is complete before it is used
+            int[] fail = new int[states];
+            int[] outputLink = new int[states];
+            Arrays.fill(outputLink, -1);
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int target : targets[ROOT]) {
+                fail[target] = ROOT;
+                queue.add(target);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (int i = 0; i < labels[state].length; i++) {
+                    char c = labels[state][i];
+                    int child = targets[state][i];
+                    int f = fail[state];
+                    int next;
+                    while (true) {
+                        int index = Arrays.binarySearch(labels[f], c);
+                        if (index >= 0) {
+                            next = targets[f][index];
+                            break;
+                        }
+                        if (f == ROOT) {
+                            next = ROOT;
+                            break;
+                        }
+                        f = fail[f];
+                    }
+                    fail[child] = next;
+                    outputLink[child] = output[next] >= 0 ? next : outputLink[next];
+                    queue.add(child);
+                }
+            }
+
+            int[] termLengths = lengths.stream().mapToInt(Integer::intValue).toArray();
+            return new AhoCorasickMatcher<>(labels, targets, fail, output, outputLink, termLengths, List.copyOf(payloads));
+        }
+    }
+}
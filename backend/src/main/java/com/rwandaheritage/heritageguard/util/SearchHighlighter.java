@@ -0,0 +1,65 @@
+package com.rwandaheritage.heritageguard.util;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Hit highlighting shared by the in-process search indexes.
+ * Snippets are HTML-escaped with every matched query term wrapped in &lt;mark&gt;.
+ */
+public final class SearchHighlighter {
+
+    private SearchHighlighter() {
+    }
+
+    /**
+     * Case-insensitive pattern matching any of the (already tokenized) terms as a whole word.
+     */
+    public static Pattern highlightPattern(List<String> terms) {
+        String alternatives = terms.stream().map(Pattern::quote).collect(Collectors.joining("|"));
+        return Pattern.compile("(?<![\\p{L}\\p{N}])(" + alternatives + ")(?![\\p{L}\\p{N}])",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    public static boolean matches(String content, Pattern highlight) {
+        return content != null && !content.isEmpty() && highlight.matcher(content).find();
+    }
+
+    /**
+     * Window of text around the first match, HTML-escaped, with every match wrapped in &lt;mark&gt;.
+     */
+    public static String snippet(String content, Pattern highlight, int radius) {
+        if (content == null || content.isEmpty()) {
+            return "";
+        }
+        Matcher first = highlight.matcher(content);
+        int center = first.find() ? first.start() : 0;
+        int start = Math.max(0, center - radius);
+        int end = Math.min(content.length(), center + radius);
+        String window = content.substring(start, end).replaceAll("\\s+", " ");
+
+        StringBuilder out = new StringBuilder();
+        if (start > 0) {
+            out.append("...");
+        }
+        Matcher m = highlight.matcher(window);
+        int last = 0;
+        while (m.find()) {
+            out.append(escapeHtml(window.substring(last, m.start())))
+               .append("<mark>").append(escapeHtml(m.group())).append("</mark>");
+            last = m.end();
+        }
+        out.append(escapeHtml(window.substring(last)));
+        if (end < content.length()) {
+            out.append("...");
+        }
+        return out.toString().trim();
+    }
+
+    public static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("'", "&#39;");
+    }
+}
@@ -0,0 +1,109 @@
+package com.rwandaheritage.heritageguard.util;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * 64-bit SimHash of a text, for near-duplicate detection.
+ *
+ * Features are overlapping word shingles of the lowercased text (words are runs of letters
+ * and digits), so lightly varied copies (a changed word, added punctuation, different case or
+ * spacing) land within a few bits of each other. Two texts are near-duplicates when the
+ * Hamming distance between their hashes is small.
+ *
+ * For lookup the hash is split into {@link #BANDS} bands of 16 bits: hashes within
+ * {@code BANDS - 1} bits of each other agree exactly on at least one band, so an index on each
+ * band finds every such candidate.
+ */
+public final class SimHash {
+
+    public static final int BANDS = 4;
+    private static final int BAND_BITS = 64 / BANDS;
+
+    private static final HashFunction SHINGLE_HASH = Hashing.murmur3_128();
+
+    private SimHash() {
+    }
+
+    public static final class Signature {
+        private final long hash;
+        private final int words;
+
+        Signature(long hash, int words) {
+            this.hash = hash;
+            this.words = words;
+        }
+
+        public long getHash() { return hash; }
+
+        // Number of words the hash was computed from; short texts give unreliable hashes
+        public int getWords() { return words; }
+    }
+
+    /**
+     * SimHash over shingles of {@code shingleSize} consecutive words (single words when the
+     * text is shorter than that).
+     */
+    public static Signature of(CharSequence text, int shingleSize) {
+        int[] weights = new int[64];
+        long[] window = new long[shingleSize];
+        int words = 0;
+        int features = 0;
+
+        long wordHash = 0;
+        boolean inWord = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                wordHash = (inWord ? wordHash : 0xcbf29ce484222325L) ^ Character.toLowerCase(c);
+                wordHash *= 0x100000001b3L;
+                inWord = true;
+            } else if (inWord) {
+                window[words % shingleSize] = wordHash;
+                words++;
+                inWord = false;
+                if (words >= shingleSize) {
+                    add(weights, shingle(window, words, shingleSize));
+                    features++;
+                }
+            }
+        }
+        // Too short for a single shingle: fall back to the words themselves
+        if (features == 0) {
+            for (int w = 0; w < words; w++) {
+                add(weights, SHINGLE_HASH.hashLong(window[w]).asLong());
+            }
+        }
+
+        long hash = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                hash |= 1L << bit;
+            }
+        }
+        return new Signature(hash, words);
+    }
+
+    private static long shingle(long[] window, int words, int shingleSize) {
+        Hasher hasher = SHINGLE_HASH.newHasher();
+        for (int w = words - shingleSize; w < words; w++) {
+            hasher.putLong(window[w % shingleSize]);
+        }
+        return hasher.hash().asLong();
+    }
+
+    private static void add(int[] weights, long feature) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((feature >>> bit) & 1) != 0 ? 1 : -1;
+        }
+    }
+
+    public static int band(long hash, int band) {
+        return (int) ((hash >>> (band * BAND_BITS)) & ((1L << BAND_BITS) - 1));
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
@@ -0,0 +1,201 @@
+package com.rwandaheritage.heritageguard.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Differential test: the single-pass InputSanitizer must give exactly the results of the
+ * regex replaceAll chain it replaced ({@link RegexSanitizer}, kept verbatim below) for a
+ * fixed corpus of tricky inputs and for seeded random inputs built from keyword fragments.
+ */
+class InputSanitizerTest {
+
+    private static final long SEED = 0x5A17L;
+    private static final int RANDOM_INPUTS = 50_000;
+
+    // Building blocks for random inputs: whole and split keywords, mixed case, traversal
+    // sequences, every command character, quotes, whitespace and control characters, and
+    // non-ASCII characters that only fold to ASCII letters under Unicode case rules
+    private static final String[] FRAGMENTS = {
+        "select", "SeLeCt", "sel", "ect", "insert", "UPDATE", "delete", "drop", "create", "alter",
+        "exec", "union", "script", "javascript", "JavaScript:", "vbscript:", "onload", "onerror",
+        "onclick", "onmouseover", "onfocus", "onblur", "on", "load", "<scr", "ipt", "<script",
+        "../", "..\\", ".\\", "\\", "/", ".", "..", "%2e%2e%2f", "%2E%2E%5C", "%2e", "%2f",
+        ";", "&", "|", "`", "$", "(", ")", "{", "}", "[", "]", "*", "?", "^", "+", "-", "=", "<", ">",
+        "\"", "'", "_", " ", "  ", "\t", "\n", "\r", "\u0000", "\u001f", "\u00a0", "\u2003",
+        "a", "Z", "0", "9", "heritage", "Nyanza", "user_name-1", "caf\u00e9", "\u0130", "\u0131",
+        "\u017f", "\u212a", "\u00df", "\uD83D\uDE00", "\u4e2d"
+    };
+
+    private static final String[] CORPUS = {
+        "", " ", "   ", "\t\n", "a", "  padded  ", "plain heritage text", "Kigali Genocide Memorial",
+        "user_name-42", "UPPER_lower_09", "O'Brien", "\"quoted\"", "Tom & Jerry", "a < b > c",
+        "SELECT * FROM users", "1; DROP TABLE users --", "' OR '1'='1", "UNION SELECT password",
+        "<script>alert(1)</script>", "<SCRIPT src=x>", "javascript:alert(1)", "vbscript:msgbox",
+        "<img src=x onerror=alert(1)>", "<body onload=run()>", "onmouseover onfocus onblur",
+        "selselectect", "javajavascriptscript:", "<scr<scriptipt>", "onloadonload", "ononloadload",
+        "scriptjavascript", "exec(xp_cmdshell)", "updates", "created_by", "alternative", "dropdown",
+        "../../etc/passwd", "..\\..\\windows\\system32", "%2e%2e%2f%2e%2e%2fetc", "%2E%2E%5Cboot.ini",
+        "folder/sub/file.txt", "C:\\Users\\file.txt", ".\\.\\x", "....//", "%2e%2e%2", "file name.pdf",
+        "$(rm -rf /)", "`id`", "a|b&c;d", "{[()]}", "x^y+z=w*v?", "caf\u00e9", "\u0130nsert",
+        "\u017felect", "\u212aing", "stra\u00dfe", "\u00a0select\u00a0", "\u0000null\u0000",
+        "\u4e2d\u6587 select", "emoji \uD83D\uDE00 <script>", "tab\tselect\tand\nnewline"
+    };
+
+    private final InputSanitizer sanitizer = new InputSanitizer();
+
+    @Test
+    void sanitizeTextMatchesRegexImplementation() {
+        assertSameResults("sanitizeText", RegexSanitizer::sanitizeText, sanitizer::sanitizeText);
+    }
+
+    @Test
+    void sanitizeFilePathMatchesRegexImplementation() {
+        assertSameResults("sanitizeFilePath", RegexSanitizer::sanitizeFilePath, sanitizer::sanitizeFilePath);
+    }
+
+    @Test
+    void sanitizeUsernameMatchesRegexImplementation() {
+        assertSameResults("sanitizeUsername", RegexSanitizer::sanitizeUsername, sanitizer::sanitizeUsername);
+    }
+
+    @Test
+    void containsDangerousContentMatchesRegexImplementation() {
+        for (String input : inputs()) {
+            assertEquals(RegexSanitizer.containsDangerousContent(input), sanitizer.containsDangerousContent(input),
+                    () -> "containsDangerousContent(" + escape(input) + ")");
+        }
+    }
+
+    @Test
+    void cleanInputIsReturnedAsIs() {
+        String text = "Kigali Genocide Memorial";
+        String username = "user_name42";
+        assertSame(text, sanitizer.sanitizeText(text));
+        assertSame(username, sanitizer.sanitizeUsername(username));
+        assertSame(text, sanitizer.sanitizeFilePath(text));
+    }
+
+    private static void assertSameResults(String method, UnaryOperator<String> expected, UnaryOperator<String> actual) {
+        for (String input : inputs()) {
+            assertEquals(expected.apply(input), actual.apply(input), () -> method + "(" + escape(input) + ")");
+        }
+        assertEquals(expected.apply(null), actual.apply(null), method + "(null)");
+    }
+
+    private static List<String> inputs() {
+        List<String> inputs = new ArrayList<>(List.of(CORPUS));
+        Random random = new Random(SEED);
+        for (int i = 0; i < RANDOM_INPUTS; i++) {
+            StringBuilder input = new StringBuilder();
+            int parts = random.nextInt(12);
+            for (int p = 0; p < parts; p++) {
+                if (random.nextInt(4) == 0) {
+                    // Any char, including lone surrogates
+                    input.append((char) random.nextInt(random.nextBoolean() ? 128 : Character.MAX_VALUE + 1));
+                } else {
+                    input.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                }
+            }
+            inputs.add(input.toString());
+        }
+        return inputs;
+    }
+
+    private static String escape(String input) {
+        StringBuilder out = new StringBuilder("\"");
+        for (char c : input.toCharArray()) {
+            if (c >= ' ' && c < 127) {
+                out.append(c);
+            } else {
+                out.append(String.format("\\u%04x", (int) c));
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    /**
+     * The replaceAll chain InputSanitizer used before the single-pass rewrite, unchanged.
+     */
+    private static final class RegexSanitizer {
+
+        private static final Pattern SQL_INJECTION_PATTERN = Pattern.compile(
+            "(?i)(SELECT|INSERT|UPDATE|DELETE|DROP|CREATE|ALTER|EXEC|UNION|SCRIPT|JAVASCRIPT|ONLOAD|ONERROR|ONCLICK)",
+            Pattern.CASE_INSENSITIVE
+        );
+
+        private static final Pattern XSS_PATTERN = Pattern.compile(
+            "(?i)(<script|javascript:|vbscript:|onload|onerror|onclick|onmouseover|onfocus|onblur)",
+            Pattern.CASE_INSENSITIVE
+        );
+
+        private static final Pattern PATH_TRAVERSAL_PATTERN = Pattern.compile(
+            "(\\.\\./|\\.\\\\|\\\\|/|%2e%2e%2f|%2e%2e%5c)",
+            Pattern.CASE_INSENSITIVE
+        );
+
+        private static final Pattern COMMAND_INJECTION_PATTERN = Pattern.compile(
+            "(?i)(;|&|\\||`|\\$|\\(|\\)|\\{|\\}|\\[|\\]|\\||\\\\|\\/|\\*|\\?|\\^|\\$|\\+|\\-|\\=|\\<|\\>)",
+            Pattern.CASE_INSENSITIVE
+        );
+
+        static String sanitizeText(String input) {
+            if (!StringUtils.hasText(input)) {
+                return input;
+            }
+            String sanitized = input.trim();
+            sanitized = SQL_INJECTION_PATTERN.matcher(sanitized).replaceAll("");
+            sanitized = XSS_PATTERN.matcher(sanitized).replaceAll("");
+            sanitized = COMMAND_INJECTION_PATTERN.matcher(sanitized).replaceAll("");
+            return htmlEncode(sanitized);
+        }
+
+        static String sanitizeFilePath(String input) {
+            if (!StringUtils.hasText(input)) {
+                return input;
+            }
+            String sanitized = input.trim();
+            sanitized = PATH_TRAVERSAL_PATTERN.matcher(sanitized).replaceAll("");
+            return COMMAND_INJECTION_PATTERN.matcher(sanitized).replaceAll("");
+        }
+
+        static String sanitizeUsername(String input) {
+            if (!StringUtils.hasText(input)) {
+                return input;
+            }
+            String sanitized = input.trim();
+            sanitized = SQL_INJECTION_PATTERN.matcher(sanitized).replaceAll("");
+            sanitized = XSS_PATTERN.matcher(sanitized).replaceAll("");
+            sanitized = COMMAND_INJECTION_PATTERN.matcher(sanitized).replaceAll("");
+            return sanitized.replaceAll("[^a-zA-Z0-9_-]", "");
+        }
+
+        static boolean containsDangerousContent(String input) {
+            if (!StringUtils.hasText(input)) {
+                return false;
+            }
+            return SQL_INJECTION_PATTERN.matcher(input).find() ||
+                   XSS_PATTERN.matcher(input).find() ||
+                   PATH_TRAVERSAL_PATTERN.matcher(input).find() ||
+                   COMMAND_INJECTION_PATTERN.matcher(input).find();
+        }
+
+        private static String htmlEncode(String input) {
+            return input
+                .replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;")
+                .replace("'", "&#x27;");
+        }
+    }
+}
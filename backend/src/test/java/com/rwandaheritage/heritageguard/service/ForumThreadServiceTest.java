@@ -0,0 +1,98 @@
+package com.rwandaheritage.heritageguard.service;
+
+import com.rwandaheritage.heritageguard.dto.ForumThreadNodeDTO;
+import com.rwandaheritage.heritageguard.dto.ForumThreadPageDTO;
+import com.rwandaheritage.heritageguard.model.ForumPost;
+import com.rwandaheritage.heritageguard.model.ForumTopic;
+import com.rwandaheritage.heritageguard.repository.ForumLikeRepository;
+import com.rwandaheritage.heritageguard.repository.ForumPostRepository;
+import com.rwandaheritage.heritageguard.repository.ForumTopicRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ForumThreadServiceTest {
+
+    private static final Long TOPIC_ID = 1L;
+
+    @Mock
+    private ForumPostRepository postRepository;
+
+    @Mock
+    private ForumTopicRepository topicRepository;
+
+    @Mock
+    private ForumLikeRepository likeRepository;
+
+    @InjectMocks
+    private ForumThreadService forumThreadService;
+
+    @Test
+    void repliesUnderHiddenPostsStayVisible() {
+        ForumTopic topic = ForumTopic.builder().id(TOPIC_ID).build();
+        when(topicRepository.findById(TOPIC_ID)).thenReturn(Optional.of(topic));
+        when(postRepository.findThreadRootIds(eq(TOPIC_ID), eq(0L), any(Pageable.class))).thenReturn(List.of(10L, 20L));
+
+        // Root 10 and reply 22 are hidden, so the query only returns the visible posts,
+        // ordered by thread, ancestor path and id
+        when(postRepository.findThreadsInPathOrder(List.of(10L, 20L))).thenReturn(List.of(
+                post(topic, 11L, 10L, 10L),
+                post(topic, 12L, 11L, 10L, 11L),
+                post(topic, 20L, null, null),
+                post(topic, 21L, 20L, 20L),
+                post(topic, 23L, 22L, 20L, 22L)));
+
+        ForumThreadPageDTO page = forumThreadService.getThreads(TOPIC_ID, null, null, false, null);
+
+        List<ForumThreadNodeDTO> threads = page.getThreads();
+        assertEquals(2, threads.size());
+        assertFalse(page.isHasMore());
+
+        // Thread 10 lost its root: its first visible reply heads it
+        ForumThreadNodeDTO orphaned = threads.get(0);
+        assertEquals(11L, orphaned.getPost().getId());
+        assertEquals(List.of(12L), replyIds(orphaned));
+
+        // Reply 23 moves up to its nearest visible ancestor, the root
+        ForumThreadNodeDTO thread = threads.get(1);
+        assertEquals(20L, thread.getPost().getId());
+        assertEquals(List.of(21L, 23L), replyIds(thread));
+        assertEquals(2, thread.getReplyCount());
+    }
+
+    private static List<Long> replyIds(ForumThreadNodeDTO node) {
+        return node.getReplies().stream().map(reply -> reply.getPost().getId()).toList();
+    }
+
+    private static ForumPost post(ForumTopic topic, Long id, Long parentId, Long rootId, Long... pathIds) {
+        StringBuilder path = new StringBuilder();
+        if (rootId != null) {
+            path.append(ForumPost.pathSegment(rootId));
+        }
+        for (Long pathId : pathIds) {
+            path.append(ForumPost.pathSegment(pathId));
+        }
+        return ForumPost.builder()
+                .id(id)
+                .topic(topic)
+                .content("Post " + id)
+                .parentPostId(parentId)
+                .rootPostId(rootId)
+                .ancestorPath(path.toString())
+                .depth(pathIds.length + (rootId != null ? 1 : 0))
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import { Card } from '../ui/Card';
 import { Button } from '../ui/Button';
 import { Input } from '../ui/Input';
 import { useGet, usePost } from '../../hooks/useSimpleApi';
+import httpClient from '../../services/api/httpClient';
 
 const ForumReports = () => {
     const [filters, setFilters] = useState({
@@ -12,12 +13,37 @@ const ForumReports = () => {
         search: ''
     });
     const [selectedReport, setSelectedReport] = useState(null);
+    // Pages fetched with "Load more", after the first page from useGet
+    const [olderPages, setOlderPages] = useState([]);
+    const [loadingMore, setLoadingMore] = useState(false);
 
-    const { data: reports, loading, refetch } = useGet('/api/forum/reports', {}, {
-        onSuccess: (data) => console.log('Forum reports loaded:', data),
+    const { data: firstPage, loading, refetch } = useGet('/api/forum/reports', {}, {
+        onSuccess: (data) => {
+            console.log('Forum reports loaded:', data);
+            setOlderPages([]);
+        },
         onError: (error) => console.error('Failed to load forum reports:', error)
     });
 
+    const lastPage = olderPages.length > 0 ? olderPages[olderPages.length - 1] : firstPage;
+    const reports = firstPage && {
+        content: [firstPage, ...olderPages].flatMap(page => page?.content || []),
+        hasMore: !!lastPage?.hasMore
+    };
+
+    const loadMore = async () => {
+        if (!lastPage?.nextCursor) return;
+        setLoadingMore(true);
+        try {
+            const page = await httpClient.get('/api/forum/reports', { before: lastPage.nextCursor });
+            setOlderPages(pages => [...pages, page]);
+        } catch (error) {
+            console.error('Failed to load more forum reports:', error);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const updateReportStatus = usePost('/api/forum/reports/update', {
         onSuccess: (data) => {
             console.log('Report status updated:', data);
@@ -84,7 +110,7 @@ const ForumReports = () => {
                     Content Reports
                 </h2>
                 <span className="text-sm text-gray-500 dark:text-gray-400">
-                    ({reports?.content?.length || 0} total)
+                    ({reports?.content?.length || 0}{reports?.hasMore ? '+' : ''} total)
                 </span>
             </div>
 
@@ -212,6 +238,14 @@ const ForumReports = () => {
                     </Card>
                 ))}
 
+                {reports?.hasMore && (
+                    <div className="text-center">
+                        <Button variant="outline" onClick={loadMore} disabled={loadingMore}>
+                            {loadingMore ? 'Loading...' : 'Load more reports'}
+                        </Button>
+                    </div>
+                )}
+
                 {filteredReports.length === 0 && (
                     <div className="text-center py-8">
                         <FileText className="w-16 h-16 text-gray-400 mx-auto mb-4" />